@@ -0,0 +1,103 @@
+package xyz.dowob.filemanagement.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import xyz.dowob.filemanagement.customenum.FileEnum;
+import xyz.dowob.filemanagement.dto.api.ApiResponseDTO;
+import xyz.dowob.filemanagement.dto.file.FileMetadataDTO;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 統一響應格式 ApiResponseDTO 的 JSON 序列化開銷測量程式(JMH)
+ * ObjectMapper 以 Jackson2ObjectMapperBuilder 建立，與 Spring Boot 預設的設定相同(日期以 ISO-8601 字串輸出)
+ * 1. loginResponse: 登入成功的響應，資料為只有一個 JWT 令牌的 Map
+ * 2. errorResponse: 錯誤響應，沒有資料
+ * 3. fileListResponse: 上傳成功的響應，資料為 100 個文件元數據
+ * 執行方式：mvn -Pbenchmark test-compile 後在專案根目錄執行 main 方法，結果與 src/benchmark/baseline 中的基準比較 {@link JmhBaseline}
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName ApiResponseSerializationBenchmark
+ * @description
+ * @create 2026-10-19 02:25
+ * @Version 1.0
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+    private ObjectMapper objectMapper;
+
+    private ApiResponseDTO<?> loginResponse;
+
+    private ApiResponseDTO<?> errorResponse;
+
+    private ApiResponseDTO<?> fileListResponse;
+
+    public static void main(String[] args) throws Exception {
+        JmhBaseline.run(ApiResponseSerializationBenchmark.class, args);
+    }
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime now = LocalDateTime.of(2026, 10, 19, 2, 25);
+
+        Map<String, Object> token = new HashMap<>();
+        token.put("JWT 驗證令牌", "eyJhbGciOiJIUzUxMiJ9." + "a".repeat(160) + "." + "b".repeat(86));
+        loginResponse = new ApiResponseDTO<>(now, 200, "/api/guest/login", "登入成功", token);
+        errorResponse = new ApiResponseDTO<>(now, 400, "/api/guest/login", "登入失敗: 用戶名稱或密碼錯誤", null);
+
+        List<FileMetadataDTO> files = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            FileMetadataDTO file = new FileMetadataDTO();
+            file.setId((long) i);
+            file.setFilename("document-" + i + ".pdf");
+            file.setFilePath("/projects/2026/");
+            file.setFileSize(1024L * 1024 * (i + 1));
+            file.setFileType(FileEnum.values()[i % FileEnum.values().length]);
+            file.setContentType("application/pdf");
+            file.setMd5("9e107d9d372bb6826bd81d3542a419d6");
+            file.setSha256("d7a8fbb307d7809469ca9abcb0082e4f8d5651e46d3cdb762d02d0bf37c9e592");
+            file.setUploadTime(now.minusDays(i));
+            file.setLastAccessTime(now);
+            files.add(file);
+        }
+        fileListResponse = new ApiResponseDTO<>(now, 200, "/api/file/upload", "上傳成功", files);
+    }
+
+    @Benchmark
+    public byte[] loginResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(loginResponse);
+    }
+
+    @Benchmark
+    public byte[] errorResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(errorResponse);
+    }
+
+    @Benchmark
+    public byte[] fileListResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(fileListResponse);
+    }
+}
@@ -0,0 +1,311 @@
+package xyz.dowob.filemanagement.benchmark;
+
+import xyz.dowob.filemanagement.utils.FastCdcChunker;
+
+import java.io.ByteArrayOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 內容定義切塊的效能與去重率測量程式
+ * 1. 吞吐量：單執行緒以及所有核心並行時，只切塊與切塊加 SHA-256 的 MB/s(每核心)
+ * 2. 去重率：在合成資料集上比較 FastCDC 與固定大小切塊(伺服器設定以及 64KB 平均大小)，去重率 = 邏輯大小 / 實際存放的不重複區塊大小
+ * 資料集：
+ * - edited-documents：一份文件連續編輯多個版本，每個版本在隨機位置插入、刪除或覆寫少量內容
+ * - repacked-archive：同一批文件重新打包，文件順序改變且每個文件前的標頭長度不同
+ * 不使用 JMH：主要結果是去重率與整個資料集的 MB/s，不是單次呼叫的耗時，JMH 的分數與 JmhBaseline 的誤差比較無法表示去重率，
+ * 每次呼叫處理上百 MB 的資料也讓預熱與多輪測量的時間過長，以 main 方法預熱一輪後取多輪的中位數即可
+ * 執行方式：mvn -Pbenchmark test-compile 後執行 main 方法，可以用系統屬性調整參數
+ * -Dchunk.min、-Dchunk.avg、-Dchunk.max 區塊大小(預設與伺服器相同)，-Ddata.mb 吞吐量測試的資料大小，-Drounds 測量次數
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName ChunkingBenchmark
+ * @description
+ * @create 2026-10-18 15:05
+ * @Version 1.0
+ **/
+public class ChunkingBenchmark {
+    /**
+     * 每 MB 的字節數
+     */
+    private static final double MB = 1024 * 1024;
+
+    /**
+     * 產生資料的固定種子，讓每次測量的資料相同
+     */
+    private static final long SEED = 20261018L;
+
+    public static void main(String[] args) throws Exception {
+        int minSize = Integer.getInteger("chunk.min", 256 * 1024);
+        int avgSize = Integer.getInteger("chunk.avg", 1024 * 1024);
+        int maxSize = Integer.getInteger("chunk.max", 4 * 1024 * 1024);
+        int dataMb = Integer.getInteger("data.mb", 128);
+        int rounds = Integer.getInteger("rounds", 5);
+        FastCdcChunker chunker = new FastCdcChunker(minSize, avgSize, maxSize);
+
+        System.out.printf("FastCDC min=%d avg=%d max=%d, cores=%d%n", minSize, avgSize, maxSize, Runtime.getRuntime().availableProcessors());
+
+        byte[] random = randomBytes(new Random(SEED), dataMb * 1024 * 1024);
+        measureThroughput(chunker, random, rounds);
+
+        System.out.println();
+        System.out.printf("%-20s %-16s %10s %10s %10s %8s%n", "dataset", "chunker", "logical", "stored", "chunks", "ratio");
+        FastCdcChunker smallChunker = new FastCdcChunker(16 * 1024, 64 * 1024, 256 * 1024);
+        List<byte[]> documents = editedDocuments(new Random(SEED), 16 * 1024 * 1024, 12, 5);
+        reportDedup("edited-documents", chunker, documents);
+        reportDedup("edited-documents", smallChunker, documents);
+        List<byte[]> archives = repackedArchives(new Random(SEED), 32, 2 * 1024 * 1024, 4);
+        reportDedup("repacked-archive", chunker, archives);
+        reportDedup("repacked-archive", smallChunker, archives);
+    }
+
+    /**
+     * 測量單執行緒與所有核心並行時的吞吐量，先預熱一輪再取多輪的中位數
+     *
+     * @param chunker 切塊器
+     * @param data    測試資料
+     * @param rounds  測量次數
+     */
+    private static void measureThroughput(FastCdcChunker chunker, byte[] data, int rounds) throws Exception {
+        MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+        chunkOnly(chunker, data);
+        chunkAndHash(chunker, data, sha256);
+
+        List<Double> chunkOnly = new ArrayList<>();
+        List<Double> chunkAndHash = new ArrayList<>();
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            chunkOnly(chunker, data);
+            chunkOnly.add(data.length / MB / ((System.nanoTime() - start) / 1e9));
+            start = System.nanoTime();
+            chunkAndHash(chunker, data, sha256);
+            chunkAndHash.add(data.length / MB / ((System.nanoTime() - start) / 1e9));
+        }
+        System.out.printf("single thread: chunk %.1f MB/s, chunk+sha256 %.1f MB/s%n", median(chunkOnly), median(chunkAndHash));
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Double> parallel = new ArrayList<>();
+            for (int i = 0; i < rounds; i++) {
+                List<Future<?>> futures = new ArrayList<>();
+                long start = System.nanoTime();
+                for (int t = 0; t < threads; t++) {
+                    futures.add(executor.submit(() -> chunkAndHash(chunker, data, newSha256())));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                parallel.add((double) data.length * threads / MB / ((System.nanoTime() - start) / 1e9));
+            }
+            double total = median(parallel);
+            System.out.printf("%d threads: chunk+sha256 %.1f MB/s total, %.1f MB/s per core%n", threads, total, total / threads);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 只尋找切點
+     *
+     * @param chunker 切塊器
+     * @param data    資料
+     *
+     * @return 區塊數量
+     */
+    private static int chunkOnly(FastCdcChunker chunker, byte[] data) {
+        return chunker.chunkLengths(data).size();
+    }
+
+    /**
+     * 尋找切點並計算每個區塊的 SHA-256，與伺服器存放區塊時的工作相同
+     *
+     * @param chunker 切塊器
+     * @param data    資料
+     * @param sha256  摘要工具
+     *
+     * @return 區塊數量
+     */
+    private static int chunkAndHash(FastCdcChunker chunker, byte[] data, MessageDigest sha256) {
+        int offset = 0;
+        List<Integer> lengths = chunker.chunkLengths(data);
+        for (int length : lengths) {
+            sha256.update(data, offset, length);
+            sha256.digest();
+            offset += length;
+        }
+        return lengths.size();
+    }
+
+    /**
+     * 比較 FastCDC 與相同平均大小的固定切塊在一組版本上的去重率
+     *
+     * @param name     資料集名稱
+     * @param chunker  切塊器
+     * @param versions 同一份內容的多個版本
+     */
+    private static void reportDedup(String name, FastCdcChunker chunker, List<byte[]> versions) {
+        List<List<Integer>> cdc = new ArrayList<>();
+        List<List<Integer>> fixed = new ArrayList<>();
+        for (byte[] version : versions) {
+            cdc.add(chunker.chunkLengths(version));
+            fixed.add(fixedLengths(version.length, chunker.getAvgSize()));
+        }
+        int avgKb = chunker.getAvgSize() / 1024;
+        printDedup(name, "fastcdc-" + avgKb + "k", versions, cdc);
+        printDedup(name, "fixed-" + avgKb + "k", versions, fixed);
+    }
+
+    /**
+     * 計算並輸出去重率
+     *
+     * @param name        資料集名稱
+     * @param chunkerName 切塊方式名稱
+     * @param versions    同一份內容的多個版本
+     * @param lengths     每個版本的區塊長度
+     */
+    private static void printDedup(String name, String chunkerName, List<byte[]> versions, List<List<Integer>> lengths) {
+        MessageDigest sha256 = newSha256();
+        HexFormat hex = HexFormat.of();
+        Set<String> seen = new HashSet<>();
+        long logical = 0;
+        long stored = 0;
+        long chunks = 0;
+        for (int v = 0; v < versions.size(); v++) {
+            byte[] data = versions.get(v);
+            int offset = 0;
+            for (int length : lengths.get(v)) {
+                sha256.update(data, offset, length);
+                if (seen.add(hex.formatHex(sha256.digest()))) {
+                    stored += length;
+                }
+                offset += length;
+                chunks++;
+            }
+            logical += data.length;
+        }
+        System.out.printf("%-20s %-16s %8.1fMB %8.1fMB %10d %7.2fx%n", name, chunkerName, logical / MB, stored / MB, chunks, (double) logical / stored);
+    }
+
+    /**
+     * 固定大小切塊的區塊長度
+     *
+     * @param total     資料長度
+     * @param chunkSize 區塊大小
+     *
+     * @return 區塊長度
+     */
+    private static List<Integer> fixedLengths(int total, int chunkSize) {
+        List<Integer> lengths = new ArrayList<>();
+        for (int offset = 0; offset < total; offset += chunkSize) {
+            lengths.add(Math.min(chunkSize, total - offset));
+        }
+        return lengths;
+    }
+
+    /**
+     * 產生連續編輯的文件版本，每個版本以前一個版本為基礎做少量修改
+     *
+     * @param random   隨機數產生器
+     * @param baseSize 初始文件大小
+     * @param versions 版本數量
+     * @param edits    每個版本的修改次數
+     *
+     * @return 所有版本
+     */
+    private static List<byte[]> editedDocuments(Random random, int baseSize, int versions, int edits) {
+        List<byte[]> result = new ArrayList<>();
+        byte[] current = randomBytes(random, baseSize);
+        result.add(current);
+        for (int v = 1; v < versions; v++) {
+            for (int e = 0; e < edits; e++) {
+                int position = random.nextInt(current.length);
+                int length = 1 + random.nextInt(100);
+                current = switch (random.nextInt(3)) {
+                    case 0 -> splice(current, position, 0, randomBytes(random, length));
+                    case 1 -> splice(current, position, Math.min(length, current.length - position), new byte[0]);
+                    default -> splice(current, position, Math.min(length, current.length - position), randomBytes(random, length));
+                };
+            }
+            result.add(current);
+        }
+        return result;
+    }
+
+    /**
+     * 產生重新打包的封存檔版本，每個版本包含相同的文件但順序不同，且每個文件前有長度不固定的標頭
+     *
+     * @param random    隨機數產生器
+     * @param fileCount 文件數量
+     * @param fileSize  每個文件的平均大小
+     * @param versions  版本數量
+     *
+     * @return 所有版本
+     */
+    private static List<byte[]> repackedArchives(Random random, int fileCount, int fileSize, int versions) {
+        List<byte[]> files = new ArrayList<>();
+        for (int i = 0; i < fileCount; i++) {
+            files.add(randomBytes(random, fileSize / 2 + random.nextInt(fileSize)));
+        }
+        List<byte[]> result = new ArrayList<>();
+        for (int v = 0; v < versions; v++) {
+            List<byte[]> order = new ArrayList<>(files);
+            Collections.shuffle(order, random);
+            ByteArrayOutputStream archive = new ByteArrayOutputStream(fileCount * fileSize * 2);
+            for (byte[] file : order) {
+                archive.writeBytes(randomBytes(random, 64 + random.nextInt(448)));
+                archive.writeBytes(file);
+            }
+            result.add(archive.toByteArray());
+        }
+        return result;
+    }
+
+    /**
+     * 以替換內容取代資料中的一段
+     *
+     * @param data        原始資料
+     * @param position    起始位置
+     * @param removeCount 移除的長度
+     * @param insert      插入的內容
+     *
+     * @return 新的資料
+     */
+    private static byte[] splice(byte[] data, int position, int removeCount, byte[] insert) {
+        byte[] result = new byte[data.length - removeCount + insert.length];
+        System.arraycopy(data, 0, result, 0, position);
+        System.arraycopy(insert, 0, result, position, insert.length);
+        System.arraycopy(data, position + removeCount, result, position + insert.length, data.length - position - removeCount);
+        return result;
+    }
+
+    private static byte[] randomBytes(Random random, int length) {
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private static double median(List<Double> values) {
+        List<Double> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package xyz.dowob.filemanagement.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import xyz.dowob.filemanagement.utils.FastCdcChunker;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 增量同步與完整重新上傳的比較程式
+ * 對正在執行的伺服器(搭配 compose.yaml 中的本機 MongoDB 與 MySQL)上傳一份文件，修改其中一行後分別以完整重新上傳與增量同步送出新版本，
+ * 比較兩者實際傳送的請求內容字節數以及耗時
+ * 執行方式：啟動伺服器並註冊測試帳號後，mvn -Pbenchmark test-compile 再執行 main 方法
+ * -Dbase.url 伺服器位址，-Dusername、-Dpassword 測試帳號，-Dfile.mb 文件大小，-Drounds 測量次數
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName DeltaSyncBenchmark
+ * @description
+ * @create 2026-10-18 16:20
+ * @Version 1.0
+ **/
+public class DeltaSyncBenchmark {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("base.url", "http://localhost:8080");
+        String username = System.getProperty("username", "benchmark");
+        String password = System.getProperty("password", "Benchmark123");
+        int fileMb = Integer.getInteger("file.mb", 100);
+        int rounds = Integer.getInteger("rounds", 3);
+
+        WebClient client = WebClient
+                .builder()
+                .baseUrl(baseUrl)
+                .exchangeStrategies(ExchangeStrategies.builder().codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024)).build())
+                .build();
+        String token = login(client, username, password);
+
+        byte[] version = textLikeContent(new Random(20261018L), fileMb * 1024 * 1024);
+        long fileId = fullUpload(client, token, version).path("data").get(0).path("id").asLong();
+
+        System.out.printf("file=%dMB rounds=%d%n", fileMb, rounds);
+        System.out.printf("%-8s %-12s %14s %12s %12s%n", "round", "mode", "request bytes", "total ms", "commit ms");
+        Random random = new Random(7);
+        for (int round = 1; round <= rounds; round++) {
+            version = insertLine(version, random);
+
+            long start = System.nanoTime();
+            fullUpload(client, token, version);
+            long fullMs = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("%-8d %-12s %14d %12d %12d%n", round, "full", version.length, fullMs, fullMs);
+
+            start = System.nanoTime();
+            long[] delta = deltaSync(client, token, fileId, version);
+            long deltaMs = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("%-8d %-12s %14d %12d %12d%n", round, "delta", delta[0], deltaMs, delta[1]);
+        }
+    }
+
+    /**
+     * 以增量同步送出新版本
+     *
+     * @param client  WebClient
+     * @param token   JWT 令牌
+     * @param fileId  用戶文件ID
+     * @param content 新版本內容
+     *
+     * @return 請求內容的總字節數以及提交請求的耗時(毫秒)
+     */
+    private static long[] deltaSync(WebClient client, String token, long fileId, byte[] content) throws Exception {
+        FastCdcChunker chunker = new FastCdcChunker(Integer.getInteger("chunk.min", 256 * 1024),
+                                                    Integer.getInteger("chunk.avg", 1024 * 1024),
+                                                    Integer.getInteger("chunk.max", 4 * 1024 * 1024));
+        MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+        Map<String, byte[]> chunkContent = new LinkedHashMap<>();
+        List<Map<String, Object>> chunks = new ArrayList<>();
+        int offset = 0;
+        for (int length : chunker.chunkLengths(content)) {
+            sha256.update(content, offset, length);
+            String hash = HexFormat.of().formatHex(sha256.digest());
+            byte[] chunk = new byte[length];
+            System.arraycopy(content, offset, chunk, 0, length);
+            chunkContent.putIfAbsent(hash, chunk);
+            chunks.add(Map.of("hash", hash, "size", length));
+            offset += length;
+        }
+        byte[] manifest = MAPPER.writeValueAsBytes(Map.of("chunks", chunks));
+        long requestBytes = 0;
+
+        JsonNode prepare = postJson(client, token, "/api/file/" + fileId + "/delta/prepare", manifest);
+        requestBytes += manifest.length;
+        for (JsonNode missing : prepare.path("data").path("missingChunks")) {
+            byte[] chunk = chunkContent.get(missing.asText());
+            client
+                    .put()
+                    .uri("/api/file/{fileId}/delta/chunk/{hash}", fileId, missing.asText())
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .bodyValue(chunk)
+                    .retrieve()
+                    .bodyToMono(JsonNode.class)
+                    .block();
+            requestBytes += chunk.length;
+        }
+
+        long start = System.nanoTime();
+        JsonNode commit = postJson(client, token, "/api/file/" + fileId + "/delta/commit", manifest);
+        long commitMs = (System.nanoTime() - start) / 1_000_000;
+        requestBytes += manifest.length;
+        if (commit.path("status").asInt() != 200) {
+            throw new IllegalStateException("同步失敗: " + commit);
+        }
+        return new long[]{requestBytes, commitMs};
+    }
+
+    private static JsonNode postJson(WebClient client, String token, String uri, byte[] body) {
+        return client
+                .post()
+                .uri(uri)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .block();
+    }
+
+    private static JsonNode fullUpload(WebClient client, String token, byte[] content) {
+        MultipartBodyBuilder builder = new MultipartBodyBuilder();
+        builder.part("file", new ByteArrayResource(content) {
+            @Override
+            public String getFilename() {
+                return "benchmark.txt";
+            }
+        }).contentType(MediaType.TEXT_PLAIN);
+        return client
+                .post()
+                .uri("/api/file/upload")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(BodyInserters.fromMultipartData(builder.build()))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .block();
+    }
+
+    private static String login(WebClient client, String username, String password) {
+        JsonNode response = client
+                .post()
+                .uri("/api/guest/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("username", username, "password", password))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .block();
+        return response.path("data").path("JWT 驗證令牌").asText();
+    }
+
+    /**
+     * 產生由多行文字組成的內容，模擬日誌或原始碼這類以行為單位編輯的文件
+     *
+     * @param random 隨機數產生器
+     * @param size   內容大小
+     *
+     * @return 內容
+     */
+    private static byte[] textLikeContent(Random random, int size) {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = random.nextInt(64) == 0 ? (byte) '\n' : (byte) ('a' + random.nextInt(26));
+        }
+        return content;
+    }
+
+    /**
+     * 在隨機位置插入一行文字
+     *
+     * @param content 原始內容
+     * @param random  隨機數產生器
+     *
+     * @return 新的內容
+     */
+    private static byte[] insertLine(byte[] content, Random random) {
+        byte[] line = ("edited line " + random.nextInt() + "\n").getBytes(StandardCharsets.UTF_8);
+        int position = random.nextInt(content.length);
+        byte[] result = new byte[content.length + line.length];
+        System.arraycopy(content, 0, result, 0, position);
+        System.arraycopy(line, 0, result, position, line.length);
+        System.arraycopy(content, position, result, position + line.length, content.length - position);
+        return result;
+    }
+}
@@ -0,0 +1,118 @@
+package xyz.dowob.filemanagement.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 執行 JMH 測量程式並與基準結果比較
+ * 1. 測量結果以 JSON 寫入 target/benchmark/類名稱.json
+ * 2. 基準結果保存在 src/benchmark/baseline/類名稱.json，存在時逐項輸出與基準的差異百分比
+ * 3. 以 -Dbaseline.update=true 執行時，將這次的結果複製為新的基準
+ * 基準結果只在同一台機器、同一個 JDK 上比較才有意義，更換環境後需要重新產生
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName JmhBaseline
+ * @description
+ * @create 2026-10-19 02:05
+ * @Version 1.0
+ **/
+public final class JmhBaseline {
+    /**
+     * 基準結果所在的目錄
+     */
+    private static final Path BASELINE_DIR = Path.of("src", "benchmark", "baseline");
+
+    /**
+     * 測量結果輸出的目錄
+     */
+    private static final Path RESULT_DIR = Path.of("target", "benchmark");
+
+    private JmhBaseline() {
+    }
+
+    /**
+     * 執行測量程式，寫出結果並與基準比較
+     *
+     * @param benchmark 測量程式的類
+     * @param args      傳給 JMH 的額外參數，例如 -wi 1 -i 3 縮短測量時間
+     */
+    public static void run(Class<?> benchmark, String[] args) throws Exception {
+        Files.createDirectories(RESULT_DIR);
+        Path result = RESULT_DIR.resolve(benchmark.getSimpleName() + ".json");
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(benchmark.getName())
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString());
+        new Runner(options.build()).run();
+
+        Path baseline = BASELINE_DIR.resolve(benchmark.getSimpleName() + ".json");
+        if (Files.exists(baseline)) {
+            compare(baseline.toFile(), result.toFile());
+        } else {
+            System.out.println("沒有基準結果: " + baseline);
+        }
+        if (Boolean.getBoolean("baseline.update")) {
+            Files.createDirectories(BASELINE_DIR);
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("已更新基準結果: " + baseline);
+        }
+    }
+
+    /**
+     * 逐項輸出這次結果與基準的差異
+     *
+     * @param baseline 基準結果
+     * @param current  這次的結果
+     */
+    private static void compare(File baseline, File current) throws Exception {
+        Map<String, double[]> before = scores(baseline);
+        Map<String, double[]> after = scores(current);
+        System.out.printf("%n%-70s %14s %14s %9s%n", "benchmark", "baseline", "current", "change");
+        after.forEach((name, score) -> {
+            double[] base = before.get(name);
+            if (base == null) {
+                System.out.printf("%-70s %14s %14.2f %9s%n", name, "-", score[0], "new");
+            } else {
+                System.out.printf("%-70s %14.2f %14.2f %+8.1f%%%n", name, base[0], score[0], (score[0] - base[0]) / base[0] * 100);
+            }
+        });
+    }
+
+    /**
+     * 讀取 JMH JSON 結果中每一項的分數與誤差
+     *
+     * @param file JMH JSON 結果
+     *
+     * @return 以 測量方法(參數) 為鍵的分數與誤差
+     */
+    private static Map<String, double[]> scores(File file) throws Exception {
+        Map<String, double[]> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            String method = run.path("benchmark").asText().replaceFirst("^.*\\.(\\w+\\.\\w+)$", "$1");
+            List<String> params = new ArrayList<>();
+            run.path("params").fields().forEachRemaining(param -> params.add(param.getKey() + "=" + param.getValue().asText()));
+            String name = (params.isEmpty() ? method : method + "(" + String.join(",", params) + ")") + " " + run
+                    .path("primaryMetric")
+                    .path("scoreUnit")
+                    .asText();
+            scores.put(name, new double[]{run.path("primaryMetric").path("score").asDouble(), run.path("primaryMetric").path("scoreError").asDouble()});
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,132 @@
+package xyz.dowob.filemanagement.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+import xyz.dowob.filemanagement.benchmark.fake.InMemoryTokenRepository;
+import xyz.dowob.filemanagement.component.manager.TokenVersionManager;
+import xyz.dowob.filemanagement.component.provider.providerImplement.JwtTokenProviderImpl;
+import xyz.dowob.filemanagement.component.provider.providerImplement.LocalInvalidationChannelProviderImpl;
+import xyz.dowob.filemanagement.customenum.RoleEnum;
+import xyz.dowob.filemanagement.entity.User;
+
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 憑證產生與驗證的單次開銷測量程式(JMH)
+ * 以記憶體中的 TokenRepository 取代數據庫，測量結果只包含簽名、解析、快取與版本比對的開銷
+ * 1. generateToken: 產生憑證並更新憑證版本
+ * 2. verifyToken: 驗證憑證，cacheTtlSeconds=0 時每次都驗證簽名與解析，60 時命中驗證結果快取
+ * 執行方式：mvn -Pbenchmark test-compile 後在專案根目錄執行 main 方法，結果與 src/benchmark/baseline 中的基準比較 {@link JmhBaseline}
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName JwtTokenBenchmark
+ * @description
+ * @create 2026-10-19 02:15
+ * @Version 1.0
+ **/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenBenchmark {
+    public static void main(String[] args) throws Exception {
+        JmhBaseline.run(JwtTokenBenchmark.class, args);
+    }
+
+    /**
+     * 建立使用記憶體數據庫的 JWT 憑證提供者
+     *
+     * @param cacheTtlSeconds 驗證結果快取的有效時間(秒)
+     *
+     * @return JWT 憑證提供者
+     */
+    static JwtTokenProviderImpl createProvider(long cacheTtlSeconds) {
+        InMemoryTokenRepository tokenRepository = new InMemoryTokenRepository();
+        TokenVersionManager tokenVersionManager = new TokenVersionManager(tokenRepository, new LocalInvalidationChannelProviderImpl());
+        JwtTokenProviderImpl provider = new JwtTokenProviderImpl(tokenRepository, tokenVersionManager);
+        byte[] secret = new byte[64];
+        new Random(20261019L).nextBytes(secret);
+        ReflectionTestUtils.setField(provider, "secret", Base64.getEncoder().encodeToString(secret));
+        ReflectionTestUtils.setField(provider, "expiration", 60L);
+        ReflectionTestUtils.setField(provider, "cacheTtlSeconds", cacheTtlSeconds);
+        ReflectionTestUtils.setField(provider, "cacheMaxSize", 10000);
+        provider.init();
+        return provider;
+    }
+
+    /**
+     * 測量用的用戶
+     *
+     * @return 用戶
+     */
+    static User createUser() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("benchmark");
+        user.setEmail("benchmark@example.com");
+        user.setRole(RoleEnum.USER);
+        return user;
+    }
+
+    @Benchmark
+    public String generateToken(GenerateState state) {
+        return state.provider.generateToken(state.user).block();
+    }
+
+    @Benchmark
+    public JwtTokenProviderImpl.VerifiedToken verifyToken(VerifyState state) {
+        return state.provider.verifyToken(state.token).block();
+    }
+
+    /**
+     * 產生憑證的狀態，每次產生都會使前一個憑證失效，因此與驗證的狀態分開
+     */
+    @State(Scope.Benchmark)
+    public static class GenerateState {
+        JwtTokenProviderImpl provider;
+
+        User user;
+
+        @Setup
+        public void setup() {
+            provider = createProvider(60);
+            user = createUser();
+        }
+    }
+
+    /**
+     * 驗證憑證的狀態
+     */
+    @State(Scope.Benchmark)
+    public static class VerifyState {
+        /**
+         * 驗證結果快取的有效時間(秒)，0 表示不快取
+         */
+        @Param({"0", "60"})
+        long cacheTtlSeconds;
+
+        JwtTokenProviderImpl provider;
+
+        String token;
+
+        @Setup
+        public void setup() {
+            provider = createProvider(cacheTtlSeconds);
+            token = provider.generateToken(createUser()).block();
+        }
+    }
+}
@@ -0,0 +1,587 @@
+package xyz.dowob.filemanagement.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import xyz.dowob.filemanagement.FileManagementApplication;
+import xyz.dowob.filemanagement.utils.LatencyHistogram;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 單一節點的端到端壓力測試程式，用於在發佈前找出節點的飽和點
+ * 1. 沒有指定 -Dtarget.url 時，在同一個 JVM 中啟動應用：MySQL 以 H2(MySQL 模式)取代並由 schema.sql 建立資料表，
+ * 文件存放於暫存目錄的本機儲存，不需要 MongoDB、Redis 與 Docker；指定時則對該位址的節點(需要關閉頻率限制)測試
+ * 2. 預先註冊並登入與最大並行數相同數量的用戶，每個用戶上傳一個文件作為下載的對象
+ * 3. 依序以每個並行數執行固定秒數的封閉式負載，每個並行的虛擬用戶固定使用一個帳號(登入會使同一帳號的舊令牌失效)，
+ * 每次依比例隨機選擇 註冊、登入、讀取用戶信息、下載、上傳 其中一項
+ * 4. 輸出每個並行數每項操作的每秒請求數、延遲的 p50/p90/p99 與錯誤數，並將完整結果寫入 JSON
+ * 5. 吞吐量比上一個並行數增加不到 10% 或錯誤率超過 1% 時，以上一個並行數作為飽和點
+ * 執行方式：mvn -Pbenchmark test-compile 後在專案根目錄執行 main 方法
+ * -Dtarget.url 測試的節點位址，-Dconcurrency 以逗號分隔的並行數，-Dseconds 每個並行數的秒數，-Dwarmup.seconds 預熱秒數，
+ * -Dmix 操作比例(例如 register:2,login:8,read:45,download:35,upload:10)，-Dfile.kb 上傳的文件大小，-Doutput 結果 JSON 的路徑
+ * 在同一個 JVM 中啟動時，應用的配置(例如 -Dfile.storage.chunking.enabled=true)同樣以 -D 覆蓋
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName LoadTestBenchmark
+ * @description
+ * @create 2026-10-19 03:10
+ * @Version 1.0
+ **/
+public class LoadTestBenchmark {
+    /**
+     * 測試帳號的密碼
+     */
+    private static final String PASSWORD = "LoadTest2026";
+
+    /**
+     * 判斷飽和時吞吐量的最小增幅
+     */
+    private static final double MIN_THROUGHPUT_GAIN = 0.10;
+
+    /**
+     * 判斷飽和時的最大錯誤率
+     */
+    private static final double MAX_ERROR_RATE = 0.01;
+
+    /**
+     * 單一請求的逾時時間
+     */
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    /**
+     * 每個用戶保留作為下載對象的文件數量
+     */
+    private static final int FILES_PER_USER = 16;
+
+    /**
+     * 用於產生不重複用戶名稱與文件名稱的前綴
+     */
+    private static final String RUN_ID = Long.toString(System.currentTimeMillis() % 1_000_000, 36);
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * 壓力測試中的操作
+     */
+    enum Operation {
+        REGISTER, LOGIN, READ, DOWNLOAD, UPLOAD
+    }
+
+    public static void main(String[] args) throws Exception {
+        String targetUrl = System.getProperty("target.url", "");
+        List<Integer> steps = new ArrayList<>();
+        for (String step : System.getProperty("concurrency", "8,16,32,64,128").split(",")) {
+            steps.add(Integer.parseInt(step.trim()));
+        }
+        int seconds = Integer.getInteger("seconds", 30);
+        int warmupSeconds = Integer.getInteger("warmup.seconds", 10);
+        int fileKb = Integer.getInteger("file.kb", 256);
+        Map<Operation, Integer> mix = parseMix(System.getProperty("mix", "register:2,login:8,read:45,download:35,upload:10"));
+        Path output = Path.of(System.getProperty("output", "target/loadtest/summary.json"));
+        int maxConcurrency = steps.stream().mapToInt(Integer::intValue).max().orElse(1);
+
+        ConfigurableApplicationContext context = null;
+        if (targetUrl.isEmpty()) {
+            context = startEmbedded();
+            targetUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+        try {
+            ConnectionProvider connectionProvider = ConnectionProvider
+                    .builder("load-test")
+                    .maxConnections(maxConcurrency * 2)
+                    .pendingAcquireMaxCount(-1)
+                    .build();
+            WebClient client = WebClient
+                    .builder()
+                    .baseUrl(targetUrl)
+                    .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                    .build();
+            LoadClient loadClient = new LoadClient(client, randomContent(fileKb));
+
+            System.out.printf("target=%s users=%d mix=%s file=%dKB seconds=%d%n", targetUrl, maxConcurrency, mix, fileKb, seconds);
+            List<VirtualUser> users = Flux
+                    .range(0, maxConcurrency)
+                    .flatMap(i -> loadClient.createUser(), 16)
+                    .collectList()
+                    .block();
+
+            if (warmupSeconds > 0) {
+                runStep(loadClient, users, mix, steps.getFirst(), warmupSeconds);
+            }
+            System.out.printf("%-11s %-9s %10s %10s %10s %10s %10s %8s%n", "concurrency", "operation", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms",
+                              "errors");
+            List<Map<String, Object>> results = new ArrayList<>();
+            for (int concurrency : steps) {
+                StepResult result = runStep(loadClient, users, mix, concurrency, seconds);
+                result.print();
+                results.add(result.toMap());
+            }
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("target", targetUrl);
+            summary.put("embedded", context != null);
+            summary.put("secondsPerStep", seconds);
+            summary.put("fileKb", fileKb);
+            summary.put("mix", mix);
+            summary.put("steps", results);
+            summary.put("saturation", findSaturation(results));
+            Files.createDirectories(output.toAbsolutePath().getParent());
+            OBJECT_MAPPER.writer(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), summary);
+            System.out.println("saturation: " + summary.get("saturation"));
+            System.out.println("summary written to " + output.toAbsolutePath());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    /**
+     * 在同一個 JVM 中啟動應用，以 H2(MySQL 模式)與暫存目錄的本機儲存取代外部服務
+     * 這裡的配置為預設值，仍然可以被 -D 系統屬性覆蓋
+     *
+     * @return 應用上下文
+     */
+    private static ConfigurableApplicationContext startEmbedded() throws Exception {
+        Path dataDir = Files.createTempDirectory("load-test");
+        byte[] secret = new byte[64];
+        new Random().nextBytes(secret);
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.docker.compose.enabled", false);
+        properties.put("spring.r2dbc.url", "r2dbc:h2:mem:///load-test;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        properties.put("spring.r2dbc.pool.max-size", 32);
+        properties.put("spring.mail.host", "localhost");
+        properties.put("spring.mail.username", "load-test@localhost");
+        properties.put("security.jwt.secret", Base64.getEncoder().encodeToString(secret));
+        properties.put("security.jwt.expiration", 60);
+        properties.put("security.verificationcode.expiration", 10);
+        properties.put("security.rate-limit.enabled", false);
+        properties.put("file.storage.type", "LOCAL");
+        properties.put("file.storage.local.path", dataDir.resolve("storage").toString());
+        properties.put("file.storage.pack.path", dataDir.resolve("volumes").toString());
+        SpringApplication application = new SpringApplication(FileManagementApplication.class);
+        application.setDefaultProperties(properties);
+        return application.run();
+    }
+
+    /**
+     * 以固定的並行數持續執行隨機的操作
+     *
+     * @param loadClient  測試用的客戶端
+     * @param users       虛擬用戶
+     * @param mix         操作比例
+     * @param concurrency 並行數
+     * @param seconds     測量秒數
+     *
+     * @return 測量結果
+     */
+    private static StepResult runStep(LoadClient loadClient, List<VirtualUser> users, Map<Operation, Integer> mix, int concurrency, int seconds) {
+        StepResult result = new StepResult(concurrency);
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        long start = System.nanoTime();
+        Flux.range(0, concurrency).flatMap(worker -> Mono.defer(() -> {
+            Operation operation = pick(mix, totalWeight);
+            VirtualUser user = users.get(worker % users.size());
+            long requestStart = System.nanoTime();
+            return loadClient
+                    .execute(operation, user)
+                    .timeout(REQUEST_TIMEOUT)
+                    .onErrorReturn(-1)
+                    .doOnNext(status -> result.record(operation, status, System.nanoTime() - requestStart));
+        }).repeat(() -> System.nanoTime() < deadline), concurrency).blockLast();
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    /**
+     * 從各並行數的結果找出飽和點
+     *
+     * @param results 各並行數的結果
+     *
+     * @return 飽和點的並行數、吞吐量與原因
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> findSaturation(List<Map<String, Object>> results) {
+        Map<String, Object> saturation = new LinkedHashMap<>();
+        Map<String, Object> previous = null;
+        for (Map<String, Object> current : results) {
+            Map<String, Object> total = (Map<String, Object>) current.get("total");
+            double errorRate = (double) total.get("errorRate");
+            if (errorRate > MAX_ERROR_RATE) {
+                saturation.put("reason", String.format("error rate %.1f%% at concurrency %s", errorRate * 100, current.get("concurrency")));
+                break;
+            }
+            if (previous != null) {
+                double before = (double) ((Map<String, Object>) previous.get("total")).get("throughput");
+                double after = (double) total.get("throughput");
+                if (after < before * (1 + MIN_THROUGHPUT_GAIN)) {
+                    saturation.put("reason", String.format("throughput gain %.1f%% at concurrency %s", (after - before) / before * 100,
+                                                           current.get("concurrency")));
+                    break;
+                }
+            }
+            previous = current;
+        }
+        if (!saturation.containsKey("reason")) {
+            saturation.put("reason", "not reached, increase -Dconcurrency");
+        }
+        saturation.put("concurrency", previous == null ? null : previous.get("concurrency"));
+        saturation.put("throughput", previous == null ? null : ((Map<String, Object>) previous.get("total")).get("throughput"));
+        return saturation;
+    }
+
+    private static Operation pick(Map<Operation, Integer> mix, int totalWeight) {
+        int value = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            value -= entry.getValue();
+            if (value < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("操作比例不正確");
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.split(":");
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.valueOf(pair[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("至少需要一項操作: " + mix);
+        }
+        return weights;
+    }
+
+    /**
+     * 上傳內容的來源，每次上傳從中取出不同位置的一段，避免內容完全相同而被秒傳或區塊去重
+     *
+     * @param fileKb 上傳的文件大小
+     *
+     * @return 隨機內容
+     */
+    private static byte[] randomContent(int fileKb) {
+        byte[] content = new byte[fileKb * 1024 * 4];
+        new Random(20261019L).nextBytes(content);
+        return content;
+    }
+
+    /**
+     * 發送各項操作請求的客戶端，返回響應的 HTTP 狀態碼
+     */
+    private static class LoadClient {
+        private final WebClient client;
+
+        private final byte[] content;
+
+        private final int fileSize;
+
+        LoadClient(WebClient client, byte[] content) {
+            this.client = client;
+            this.content = content;
+            this.fileSize = content.length / 4;
+        }
+
+        /**
+         * 註冊並登入一個新的虛擬用戶，並上傳一個文件作為下載的對象
+         *
+         * @return 虛擬用戶
+         */
+        Mono<VirtualUser> createUser() {
+            String username = nextName();
+            return register(username)
+                    .filter(status -> status == 200)
+                    .switchIfEmpty(Mono.error(new IllegalStateException("註冊測試帳號失敗: " + username)))
+                    .then(Mono.fromSupplier(() -> new VirtualUser(username)))
+                    .flatMap(user -> login(user)
+                            .filter(status -> status == 200)
+                            .switchIfEmpty(Mono.error(new IllegalStateException("登入測試帳號失敗: " + username)))
+                            .then(Mono.defer(() -> upload(user)))
+                            .thenReturn(user));
+        }
+
+        Mono<Integer> execute(Operation operation, VirtualUser user) {
+            return switch (operation) {
+                case REGISTER -> register(nextName());
+                case LOGIN -> login(user);
+                case READ -> read(user);
+                case DOWNLOAD -> download(user);
+                case UPLOAD -> upload(user);
+            };
+        }
+
+        private Mono<Integer> register(String username) {
+            return client
+                    .post()
+                    .uri("/api/guest/register")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(Map.of("username",
+                                      username,
+                                      "email",
+                                      username + "@load-test.local",
+                                      "password",
+                                      PASSWORD,
+                                      "confirmPassword",
+                                      PASSWORD))
+                    .exchangeToMono(response -> status(response, null));
+        }
+
+        /**
+         * 登入並更新虛擬用戶的令牌，用戶ID從令牌的 subject 取得
+         */
+        private Mono<Integer> login(VirtualUser user) {
+            return client
+                    .post()
+                    .uri("/api/guest/login")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(Map.of("username", user.username, "password", PASSWORD))
+                    .exchangeToMono(response -> status(response, body -> {
+                        String token = body.path("data").path("JWT 驗證令牌").asText();
+                        user.token.set(token);
+                        user.id = subjectOf(token);
+                    }));
+        }
+
+        private Mono<Integer> read(VirtualUser user) {
+            return client
+                    .get()
+                    .uri("/api/user/getUserInfo?userid={id}", user.id)
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + user.token.get())
+                    .exchangeToMono(response -> status(response, null));
+        }
+
+        private Mono<Integer> download(VirtualUser user) {
+            Long fileId = user.randomFile();
+            if (fileId == null) {
+                return upload(user);
+            }
+            return client
+                    .get()
+                    .uri("/api/file/{fileId}/download", fileId)
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + user.token.get())
+                    .exchangeToMono(response -> MediaType.APPLICATION_JSON.isCompatibleWith(response.headers().contentType().orElse(null)) ?
+                            status(response, null) :
+                            response.bodyToFlux(DataBuffer.class).doOnNext(DataBufferUtils::release).then(Mono.just(response.statusCode().value())));
+        }
+
+        private Mono<Integer> upload(VirtualUser user) {
+            int offset = ThreadLocalRandom.current().nextInt(content.length - fileSize);
+            MultipartBodyBuilder builder = new MultipartBodyBuilder();
+            String filename = nextName() + ".bin";
+            builder.part("file", new ByteArrayResource(Arrays.copyOfRange(content, offset, offset + fileSize)) {
+                @Override
+                public String getFilename() {
+                    return filename;
+                }
+            }).contentType(MediaType.APPLICATION_OCTET_STREAM);
+            return client
+                    .post()
+                    .uri("/api/file/upload")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + user.token.get())
+                    .contentType(MediaType.MULTIPART_FORM_DATA)
+                    .body(BodyInserters.fromMultipartData(builder.build()))
+                    .exchangeToMono(response -> status(response, body -> user.addFile(body.path("data").path(0).path("id").asLong())));
+        }
+
+        /**
+         * 讀取響應的狀態碼，HTTP 狀態碼為 2xx 時以 ApiResponseDTO 中的狀態碼為準(例如未登入時 HTTP 狀態碼仍為 200)
+         *
+         * @param response  響應
+         * @param onSuccess 成功時對響應內容的處理，可以為 null
+         *
+         * @return 狀態碼
+         */
+        private static Mono<Integer> status(ClientResponse response, Consumer<JsonNode> onSuccess) {
+            int httpStatus = response.statusCode().value();
+            return response.bodyToMono(String.class).defaultIfEmpty("").map(body -> {
+                if (!response.statusCode().is2xxSuccessful() || body.isEmpty()) {
+                    return httpStatus;
+                }
+                JsonNode json;
+                try {
+                    json = OBJECT_MAPPER.readTree(body);
+                } catch (Exception e) {
+                    return httpStatus;
+                }
+                int status = json.path("status").asInt(httpStatus);
+                if (status == 200 && onSuccess != null) {
+                    onSuccess.accept(json);
+                }
+                return status;
+            });
+        }
+
+        private static long subjectOf(String token) {
+            String payload = new String(Base64.getUrlDecoder().decode(token.split("\\.")[1]), StandardCharsets.UTF_8);
+            try {
+                return Long.parseLong(OBJECT_MAPPER.readTree(payload).path("sub").asText());
+            } catch (Exception e) {
+                throw new IllegalStateException("無法解析令牌: " + token, e);
+            }
+        }
+
+        private static String nextName() {
+            return "lt" + RUN_ID + "n" + SEQUENCE.incrementAndGet();
+        }
+    }
+
+    /**
+     * 虛擬用戶，同一時間只會被一個並行使用
+     */
+    private static class VirtualUser {
+        private final String username;
+
+        private final AtomicReference<String> token = new AtomicReference<>();
+
+        private final long[] files = new long[FILES_PER_USER];
+
+        private volatile long id;
+
+        private int fileCount;
+
+        VirtualUser(String username) {
+            this.username = username;
+        }
+
+        synchronized void addFile(long fileId) {
+            files[fileCount++ % FILES_PER_USER] = fileId;
+        }
+
+        synchronized Long randomFile() {
+            return fileCount == 0 ? null : files[ThreadLocalRandom.current().nextInt(Math.min(fileCount, FILES_PER_USER))];
+        }
+    }
+
+    /**
+     * 一個並行數的測量結果
+     */
+    private static class StepResult {
+        private final int concurrency;
+
+        private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+
+        private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+        private final Map<Operation, Map<Integer, LongAdder>> statuses = new EnumMap<>(Operation.class);
+
+        private final LatencyHistogram total = new LatencyHistogram();
+
+        private final LongAdder totalErrors = new LongAdder();
+
+        private long elapsedNanos;
+
+        StepResult(int concurrency) {
+            this.concurrency = concurrency;
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new LatencyHistogram());
+                errors.put(operation, new LongAdder());
+                statuses.put(operation, new ConcurrentHashMap<>());
+            }
+        }
+
+        /**
+         * 記錄一次請求，非 2xx 的狀態碼與連線錯誤(狀態碼 -1)計為錯誤
+         */
+        void record(Operation operation, int status, long nanos) {
+            latencies.get(operation).record(nanos);
+            total.record(nanos);
+            statuses.get(operation).computeIfAbsent(status, key -> new LongAdder()).increment();
+            if (status < 200 || status >= 300) {
+                errors.get(operation).increment();
+                totalErrors.increment();
+            }
+        }
+
+        void print() {
+            latencies.forEach((operation, histogram) -> {
+                if (histogram.getCount() > 0) {
+                    printRow(operation.name().toLowerCase(), histogram, errors.get(operation).sum());
+                }
+            });
+            printRow("total", total, totalErrors.sum());
+        }
+
+        private void printRow(String name, LatencyHistogram histogram, long errorCount) {
+            System.out.printf("%-11d %-9s %10.1f %10.2f %10.2f %10.2f %10.2f %8d%n",
+                              concurrency,
+                              name,
+                              histogram.getCount() / (elapsedNanos / 1e9),
+                              histogram.percentile(50) / 1000.0,
+                              histogram.percentile(90) / 1000.0,
+                              histogram.percentile(99) / 1000.0,
+                              histogram.percentile(100) / 1000.0,
+                              errorCount);
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("concurrency", concurrency);
+            map.put("elapsedSeconds", elapsedNanos / 1e9);
+            map.put("total", describe(total, totalErrors.sum(), null));
+            Map<String, Object> operations = new LinkedHashMap<>();
+            latencies.forEach((operation, histogram) -> {
+                if (histogram.getCount() > 0) {
+                    operations.put(operation.name().toLowerCase(), describe(histogram, errors.get(operation).sum(), statuses.get(operation)));
+                }
+            });
+            map.put("operations", operations);
+            return map;
+        }
+
+        private Map<String, Object> describe(LatencyHistogram histogram, long errorCount, Map<Integer, LongAdder> statusCounts) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("throughput", histogram.getCount() / (elapsedNanos / 1e9));
+            map.put("errors", errorCount);
+            map.put("errorRate", histogram.getCount() == 0 ? 0.0 : (double) errorCount / histogram.getCount());
+            map.put("latency", histogram.snapshot());
+            if (statusCounts != null) {
+                Map<String, Long> counts = new LinkedHashMap<>();
+                statusCounts.forEach((status, count) -> counts.put(status < 0 ? "connection-error" : String.valueOf(status), count.sum()));
+                map.put("statuses", counts);
+            }
+            return map;
+        }
+    }
+}
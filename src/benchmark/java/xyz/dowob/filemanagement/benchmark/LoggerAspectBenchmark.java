@@ -0,0 +1,121 @@
+package xyz.dowob.filemanagement.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.web.context.request.RequestContextHolder;
+import reactor.util.context.Context;
+import xyz.dowob.filemanagement.component.aspect.LoggerAspect;
+import xyz.dowob.filemanagement.component.aspect.TraceManager;
+import xyz.dowob.filemanagement.component.filter.RequestContext;
+import xyz.dowob.filemanagement.component.provider.providerImplement.LocalRateLimitProviderImpl;
+import xyz.dowob.filemanagement.component.provider.providerInterface.RateLimitProvider;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 日誌切面的單次呼叫開銷測量程式(JMH)
+ * 以 component 層中沒有外部依賴的 LocalRateLimitProviderImpl 作為被攔截的對象，比較三種情況：
+ * 1. direct: 不經過切面直接呼叫
+ * 2. proxied: 經過切面呼叫，請求識別資訊從 Reactor Context 讀取，請求未被取樣
+ * 3. proxiedSampled: 經過切面呼叫，請求被取樣，記錄耗時與返回值到環形緩衝區
+ * 4. legacyProxied: 經過切面呼叫，並加上改版前每次呼叫都會執行的 RequestContextHolder 查詢(在 WebFlux 中必定拋出 IllegalStateException)
+ * 輸出每次呼叫的平均耗時(奈秒)，-p level=info 為正式環境未開啟 debug 時的開銷，level=debug 則包含實際寫出日誌的成本
+ * 執行方式：mvn -Pbenchmark test-compile 後在專案根目錄執行 main 方法，結果與 src/benchmark/baseline 中的基準比較 {@link JmhBaseline}
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName LoggerAspectBenchmark
+ * @description
+ * @create 2026-10-19 00:10
+ * @Version 1.0
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggerAspectBenchmark {
+    /**
+     * 每次呼叫都允許的速率，避免被限制而走到不同的分支
+     */
+    private static final long RATE_PER_MINUTE = Long.MAX_VALUE / 2;
+
+    /**
+     * 應用程式套件的日誌等級
+     */
+    @Param({"info", "debug"})
+    private String level;
+
+    /**
+     * 未經過切面的對象
+     */
+    private RateLimitProvider direct;
+
+    /**
+     * 經過切面的對象
+     */
+    private RateLimitProvider proxied;
+
+    /**
+     * 模擬未被取樣的請求中的 Reactor Context
+     */
+    private Context context;
+
+    /**
+     * 模擬被取樣的請求中的 Reactor Context
+     */
+    private Context sampledContext;
+
+    public static void main(String[] args) throws Exception {
+        JmhBaseline.run(LoggerAspectBenchmark.class, args);
+    }
+
+    @Setup
+    public void setup() {
+        Configurator.setLevel("xyz.dowob.filemanagement", Level.toLevel(level));
+        direct = new LocalRateLimitProviderImpl(1000);
+        AspectJProxyFactory factory = new AspectJProxyFactory(new LocalRateLimitProviderImpl(1000));
+        factory.addAspect(new LoggerAspect(new TraceManager(0, 0, "", 1024)));
+        proxied = factory.getProxy();
+        context = Context.of(RequestContext.KEY, new RequestContext("0123456789abcdef", "1", false));
+        sampledContext = Context.of(RequestContext.KEY, new RequestContext("0123456789abcdef", "1", true));
+    }
+
+    @Benchmark
+    public Long direct() {
+        return direct.tryAcquire("benchmark", RATE_PER_MINUTE, Integer.MAX_VALUE).contextWrite(context).block();
+    }
+
+    @Benchmark
+    public Long proxied() {
+        return proxied.tryAcquire("benchmark", RATE_PER_MINUTE, Integer.MAX_VALUE).contextWrite(context).block();
+    }
+
+    @Benchmark
+    public Long proxiedSampled() {
+        return proxied.tryAcquire("benchmark", RATE_PER_MINUTE, Integer.MAX_VALUE).contextWrite(sampledContext).block();
+    }
+
+    @Benchmark
+    public Long legacyProxied() {
+        try {
+            RequestContextHolder.currentRequestAttributes();
+        } catch (IllegalStateException ignored) {
+            // 改版前的切面在 WebFlux 中每次呼叫都會走到這裡
+        }
+        return proxied.tryAcquire("benchmark", RATE_PER_MINUTE, Integer.MAX_VALUE).contextWrite(context).block();
+    }
+}
@@ -0,0 +1,164 @@
+package xyz.dowob.filemanagement.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * GridFS 與本機檔案系統儲存後端的下載吞吐量比較程式
+ * 分別對兩個正在執行的伺服器(一個 file.storage.type=GRID_FS，一個 file.storage.type=LOCAL)上傳相同的文件，
+ * 再以固定的並行數持續下載完整文件與隨機範圍，輸出每秒傳送的 MB、每秒請求數以及延遲的中位數與 p99
+ * 本機儲存只有單一檔案的內容可以零複製傳送，因此兩個伺服器都不能開啟 file.storage.chunking.enabled
+ * 執行方式：啟動伺服器並註冊測試帳號後，mvn -Pbenchmark test-compile 再執行 main 方法
+ * -Dgridfs.url、-Dlocal.url 伺服器位址，-Dusername、-Dpassword 測試帳號，-Dfile.mb 文件大小，-Dconcurrency 並行數，-Dseconds 每項測量的秒數
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName StorageBackendBenchmark
+ * @description
+ * @create 2026-10-18 17:40
+ * @Version 1.0
+ **/
+public class StorageBackendBenchmark {
+    /**
+     * 每 MB 的字節數
+     */
+    private static final double MB = 1024 * 1024;
+
+    /**
+     * 範圍下載時每個範圍的大小
+     */
+    private static final int RANGE_SIZE = 1024 * 1024;
+
+    public static void main(String[] args) {
+        String username = System.getProperty("username", "benchmark");
+        String password = System.getProperty("password", "Benchmark123");
+        int fileMb = Integer.getInteger("file.mb", 256);
+        int concurrency = Integer.getInteger("concurrency", 32);
+        int seconds = Integer.getInteger("seconds", 20);
+
+        byte[] content = new byte[fileMb * 1024 * 1024];
+        new Random(20261018L).nextBytes(content);
+
+        System.out.printf("file=%dMB concurrency=%d seconds=%d%n", fileMb, concurrency, seconds);
+        System.out.printf("%-8s %-8s %12s %10s %10s %10s%n", "backend", "mode", "MB/s", "req/s", "p50 ms", "p99 ms");
+        Map<String, String> backends = Map.of("gridfs", System.getProperty("gridfs.url", "http://localhost:8080"),
+                                              "local", System.getProperty("local.url", "http://localhost:8081"));
+        for (String backend : List.of("gridfs", "local")) {
+            WebClient client = WebClient.builder().baseUrl(backends.get(backend)).build();
+            String token = login(client, username, password);
+            long fileId = upload(client, token, content).path("data").get(0).path("id").asLong();
+
+            download(client, token, fileId, content.length, concurrency, 3, false);
+            report(backend, "full", download(client, token, fileId, content.length, concurrency, seconds, false));
+            report(backend, "range", download(client, token, fileId, content.length, concurrency, seconds, true));
+        }
+    }
+
+    /**
+     * 以固定並行數持續下載指定的秒數
+     *
+     * @param client      WebClient
+     * @param token       JWT 令牌
+     * @param fileId      用戶文件ID
+     * @param fileSize    文件大小
+     * @param concurrency 並行數
+     * @param seconds     測量秒數
+     * @param range       是否下載隨機範圍，否則下載完整文件
+     *
+     * @return 測量結果
+     */
+    private static Result download(WebClient client, String token, long fileId, long fileSize, int concurrency, int seconds, boolean range) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong bytes = new AtomicLong();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        Random random = new Random(7);
+        long start = System.nanoTime();
+        Flux.range(0, concurrency).flatMap(worker -> Mono.defer(() -> {
+            long requestStart = System.nanoTime();
+            WebClient.RequestHeadersSpec<?> request = client
+                    .get()
+                    .uri("/api/file/{fileId}/download", fileId)
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+            if (range) {
+                long offset = (long) (random.nextDouble() * (fileSize - RANGE_SIZE));
+                request = request.header(HttpHeaders.RANGE, String.format("bytes=%d-%d", offset, offset + RANGE_SIZE - 1));
+            }
+            return request.retrieve().bodyToFlux(DataBuffer.class).doOnNext(dataBuffer -> {
+                bytes.addAndGet(dataBuffer.readableByteCount());
+                DataBufferUtils.release(dataBuffer);
+            }).then(Mono.fromRunnable(() -> latencies.add(System.nanoTime() - requestStart)));
+        }).repeat(() -> System.nanoTime() < deadline), concurrency).blockLast();
+        return new Result(bytes.get(), new ArrayList<>(latencies), System.nanoTime() - start);
+    }
+
+    private static void report(String backend, String mode, Result result) {
+        List<Long> sorted = new ArrayList<>(result.latencies());
+        Collections.sort(sorted);
+        double elapsedSeconds = result.elapsedNanos() / 1e9;
+        System.out.printf("%-8s %-8s %12.1f %10.1f %10.1f %10.1f%n",
+                          backend,
+                          mode,
+                          result.bytes() / MB / elapsedSeconds,
+                          sorted.size() / elapsedSeconds,
+                          sorted.get(sorted.size() / 2) / 1e6,
+                          sorted.get((int) (sorted.size() * 0.99)) / 1e6);
+    }
+
+    private static JsonNode upload(WebClient client, String token, byte[] content) {
+        MultipartBodyBuilder builder = new MultipartBodyBuilder();
+        builder.part("file", new ByteArrayResource(content) {
+            @Override
+            public String getFilename() {
+                return "benchmark.bin";
+            }
+        }).contentType(MediaType.APPLICATION_OCTET_STREAM);
+        return client
+                .post()
+                .uri("/api/file/upload")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(BodyInserters.fromMultipartData(builder.build()))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .block();
+    }
+
+    private static String login(WebClient client, String username, String password) {
+        JsonNode response = client
+                .post()
+                .uri("/api/guest/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("username", username, "password", password))
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .block();
+        return response.path("data").path("JWT 驗證令牌").asText();
+    }
+
+    /**
+     * 一項測量的結果
+     *
+     * @param bytes        下載的總字節數
+     * @param latencies    每個請求的延遲(奈秒)
+     * @param elapsedNanos 測量的總時間(奈秒)
+     */
+    private record Result(long bytes, List<Long> latencies, long elapsedNanos) {
+    }
+}
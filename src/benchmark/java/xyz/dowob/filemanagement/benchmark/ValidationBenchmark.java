@@ -0,0 +1,115 @@
+package xyz.dowob.filemanagement.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.benchmark.fake.InMemoryUserRepository;
+import xyz.dowob.filemanagement.customenum.RoleEnum;
+import xyz.dowob.filemanagement.dto.user.RegisterDTO;
+import xyz.dowob.filemanagement.dto.user.ResetPasswordDTO;
+import xyz.dowob.filemanagement.entity.User;
+import xyz.dowob.filemanagement.service.ServiceImpl.ValidationServiceImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 註冊與重置密碼時的數據驗證開銷測量程式(JMH)
+ * 以記憶體中的 UserRepository(預先放入 1000 個用戶)取代數據庫，測量結果只包含驗證邏輯本身
+ * 1. validRegister: 用戶名稱與信箱未被使用、密碼足夠強的註冊資料
+ * 2. weakPasswordRegister: 密碼強度不足，包含建立 ValidationException 的開銷
+ * 3. invalidUsernameRegister: 用戶名稱包含非字母數字的字元
+ * 4. resetPassword: 重置密碼時的密碼一致與強度檢查
+ * 5. filename: 上傳文件名稱的檢查
+ * 執行方式：mvn -Pbenchmark test-compile 後在專案根目錄執行 main 方法，結果與 src/benchmark/baseline 中的基準比較 {@link JmhBaseline}
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName ValidationBenchmark
+ * @description
+ * @create 2026-10-19 02:20
+ * @Version 1.0
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+    private ValidationServiceImpl validationService;
+
+    private RegisterDTO validRegister;
+
+    private RegisterDTO weakPasswordRegister;
+
+    private RegisterDTO invalidUsernameRegister;
+
+    private ResetPasswordDTO resetPassword;
+
+    public static void main(String[] args) throws Exception {
+        JmhBaseline.run(ValidationBenchmark.class, args);
+    }
+
+    @Setup
+    public void setup() {
+        InMemoryUserRepository userRepository = new InMemoryUserRepository();
+        for (int i = 0; i < 1000; i++) {
+            User user = new User();
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setRole(RoleEnum.USER);
+            userRepository.save(user).block();
+        }
+        validationService = new ValidationServiceImpl(userRepository);
+        validRegister = register("newUser42", "Str0ngPassword");
+        weakPasswordRegister = register("newUser42", "weakpassword");
+        invalidUsernameRegister = register("new_user-42", "Str0ngPassword");
+        resetPassword = new ResetPasswordDTO();
+        resetPassword.setEmail("user1@example.com");
+        resetPassword.setVerificationCode("000000");
+        resetPassword.setNewPassword("Str0ngPassword");
+        resetPassword.setConfirmPassword("Str0ngPassword");
+    }
+
+    private static RegisterDTO register(String username, String password) {
+        RegisterDTO registerDTO = new RegisterDTO();
+        registerDTO.setUsername(username);
+        registerDTO.setEmail(username + "@example.com");
+        registerDTO.setPassword(password);
+        registerDTO.setConfirmPassword(password);
+        return registerDTO;
+    }
+
+    @Benchmark
+    public Object validRegister() {
+        return validationService.validateRegisterDTO(validRegister).block();
+    }
+
+    @Benchmark
+    public Object weakPasswordRegister() {
+        return validationService.validateRegisterDTO(weakPasswordRegister).onErrorResume(e -> Mono.empty()).block();
+    }
+
+    @Benchmark
+    public Object invalidUsernameRegister() {
+        return validationService.validateRegisterDTO(invalidUsernameRegister).onErrorResume(e -> Mono.empty()).block();
+    }
+
+    @Benchmark
+    public Object resetPassword() {
+        return validationService.validateResetPasswordDTO(resetPassword).block();
+    }
+
+    @Benchmark
+    public Object filename() {
+        return validationService.validateFilename("年度報告 2026 final (2).pdf").block();
+    }
+}
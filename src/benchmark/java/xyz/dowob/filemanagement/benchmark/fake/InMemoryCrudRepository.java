@@ -0,0 +1,150 @@
+package xyz.dowob.filemanagement.benchmark.fake;
+
+import org.reactivestreams.Publisher;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 以 ConcurrentHashMap 實現的 ReactiveCrudRepository，用於效能測量程式中取代數據庫
+ * 所有操作都同步完成，測量結果只包含被測程式本身的開銷
+ *
+ * @param <T> 實體類型
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName InMemoryCrudRepository
+ * @description
+ * @create 2026-10-19 01:50
+ * @Version 1.0
+ **/
+public abstract class InMemoryCrudRepository<T> implements ReactiveCrudRepository<T, Long> {
+    /**
+     * 保存的實體
+     */
+    protected final Map<Long, T> entities = new ConcurrentHashMap<>();
+
+    /**
+     * 下一個自動產生的ID
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * 讀取實體ID的方法，尚未保存的實體返回 null 或 0
+     */
+    private final Function<T, Long> idGetter;
+
+    /**
+     * 設定實體ID的方法
+     */
+    private final BiConsumer<T, Long> idSetter;
+
+    protected InMemoryCrudRepository(Function<T, Long> idGetter, BiConsumer<T, Long> idSetter) {
+        this.idGetter = idGetter;
+        this.idSetter = idSetter;
+    }
+
+    @Override
+    public <S extends T> Mono<S> save(S entity) {
+        return Mono.fromSupplier(() -> {
+            Long id = idGetter.apply(entity);
+            if (id == null || id == 0) {
+                id = sequence.incrementAndGet();
+                idSetter.accept(entity, id);
+            }
+            entities.put(id, entity);
+            return entity;
+        });
+    }
+
+    @Override
+    public <S extends T> Flux<S> saveAll(Iterable<S> entities) {
+        return Flux.fromIterable(entities).concatMap(this::save);
+    }
+
+    @Override
+    public <S extends T> Flux<S> saveAll(Publisher<S> entityStream) {
+        return Flux.from(entityStream).concatMap(this::save);
+    }
+
+    @Override
+    public Mono<T> findById(Long id) {
+        return Mono.justOrEmpty(entities.get(id));
+    }
+
+    @Override
+    public Mono<T> findById(Publisher<Long> id) {
+        return Mono.from(id).flatMap(this::findById);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Long id) {
+        return Mono.just(entities.containsKey(id));
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Publisher<Long> id) {
+        return Mono.from(id).flatMap(this::existsById);
+    }
+
+    @Override
+    public Flux<T> findAll() {
+        return Flux.fromIterable(entities.values());
+    }
+
+    @Override
+    public Flux<T> findAllById(Iterable<Long> ids) {
+        return Flux.fromIterable(ids).concatMap(this::findById);
+    }
+
+    @Override
+    public Flux<T> findAllById(Publisher<Long> idStream) {
+        return Flux.from(idStream).concatMap(this::findById);
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return Mono.just((long) entities.size());
+    }
+
+    @Override
+    public Mono<Void> deleteById(Long id) {
+        return Mono.fromRunnable(() -> entities.remove(id));
+    }
+
+    @Override
+    public Mono<Void> deleteById(Publisher<Long> id) {
+        return Mono.from(id).flatMap(this::deleteById);
+    }
+
+    @Override
+    public Mono<Void> delete(T entity) {
+        return deleteById(idGetter.apply(entity));
+    }
+
+    @Override
+    public Mono<Void> deleteAllById(Iterable<? extends Long> ids) {
+        return Mono.fromRunnable(() -> ids.forEach(entities::remove));
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Iterable<? extends T> entities) {
+        return Flux.fromIterable(entities).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Publisher<? extends T> entityStream) {
+        return Flux.from(entityStream).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return Mono.fromRunnable(entities::clear);
+    }
+}
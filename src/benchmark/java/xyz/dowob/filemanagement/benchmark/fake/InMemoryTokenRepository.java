@@ -0,0 +1,34 @@
+package xyz.dowob.filemanagement.benchmark.fake;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.entity.Token;
+import xyz.dowob.filemanagement.repostiory.TokenRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 記憶體中的憑證數據庫，用於效能測量程式
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName InMemoryTokenRepository
+ * @description
+ * @create 2026-10-19 01:55
+ * @Version 1.0
+ **/
+public class InMemoryTokenRepository extends InMemoryCrudRepository<Token> implements TokenRepository {
+    public InMemoryTokenRepository() {
+        super(Token::getId, Token::setId);
+    }
+
+    @Override
+    public Mono<Token> findByUserId(long userId) {
+        return Mono.justOrEmpty(entities.values().stream().filter(token -> token.getUserId() == userId).findFirst());
+    }
+
+    @Override
+    public Flux<Token> findAllByJwtTokenExpireTimeIsBefore(LocalDateTime expireTime) {
+        return Flux.fromIterable(entities.values()).filter(token -> token.getJwtTokenExpireTime() != null && token.getJwtTokenExpireTime().isBefore(expireTime));
+    }
+}
@@ -0,0 +1,36 @@
+package xyz.dowob.filemanagement.benchmark.fake;
+
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.entity.User;
+import xyz.dowob.filemanagement.repostiory.UserRepository;
+
+/**
+ * 記憶體中的用戶數據庫，用於效能測量程式
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName InMemoryUserRepository
+ * @description
+ * @create 2026-10-19 01:55
+ * @Version 1.0
+ **/
+public class InMemoryUserRepository extends InMemoryCrudRepository<User> implements UserRepository {
+    public InMemoryUserRepository() {
+        super(User::getId, User::setId);
+    }
+
+    @Override
+    public Mono<User> findByUsername(String username) {
+        return Mono.justOrEmpty(entities.values().stream().filter(user -> username.equals(user.getUsername())).findFirst());
+    }
+
+    @Override
+    public Mono<User> findByEmail(String email) {
+        return Mono.justOrEmpty(entities.values().stream().filter(user -> email.equals(user.getEmail())).findFirst());
+    }
+
+    @Override
+    public Mono<Long> lockById(Long userId) {
+        return Mono.justOrEmpty(entities.containsKey(userId) ? userId : null);
+    }
+}
@@ -1,25 +1,26 @@
 package xyz.dowob.filemanagement.component.aspect;
 
-import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.apache.logging.log4j.util.Unbox;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.stereotype.Component;
-import org.springframework.web.server.ServerWebExchange;
-import org.springframework.web.server.WebSession;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import xyz.dowob.filemanagement.annotation.HideSensitive;
+import xyz.dowob.filemanagement.component.filter.RequestContext;
 import xyz.dowob.filemanagement.controller.exception.WebExceptionController;
 
-import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 用於記錄 Component 和 ServiceInterFace 層的日誌切面
- * 當業務方法執行或發生異常時，記錄請求者、所屬類、使用方法、返回值等信息到日誌中
+ * 當業務方法發生異常時，記錄請求ID、請求者、所屬類、使用方法、錯誤訊息等信息到日誌中
+ * 業務方法的返回值與耗時只在被取樣時記錄，取樣的比例與記錄的保存由 TraceManager 管理 {@link TraceManager}
+ * 請求ID與請求者由 RequestContextFilter 放入 Reactor Context {@link xyz.dowob.filemanagement.component.filter.RequestContextFilter}
  *
  * @author yuan
  * @program File-Management
@@ -31,8 +32,12 @@ import java.lang.reflect.Method;
 @Aspect
 @Component
 @Log4j2
-@NoArgsConstructor
+@RequiredArgsConstructor
 public class LoggerAspect {
+    /**
+     * 方法追蹤的取樣與記錄管理
+     */
+    private final TraceManager traceManager;
 
     /**
      * 定義 ServiceInterFace 層切入點
@@ -52,105 +57,150 @@ public class LoggerAspect {
     @Pointcut("within(xyz.dowob.filemanagement.controller..*)")
     public void controllerLayerPointcut() {}
 
+    /**
+     * 定義切面本身與效能指標所在的包，切面使用的 TraceManager 不能被攔截，否則會遞迴；效能指標的記錄也不需要出現在方法追蹤中
+     */
+    @Pointcut("within(xyz.dowob.filemanagement.component.aspect..*) || within(xyz.dowob.filemanagement.component.metrics..*)")
+    public void instrumentationPointcut() {}
+
     /**
      * 環繞通知，用於記錄 Component 和 ServiceInterFace 層的日誌
-     * 當業務方法執行或發生異常時，記錄請求者、所屬類、使用方法、返回值等信息到日誌中
      * 區分2種情況：
      * 1. 方法返回值為 Mono 或 Flux，因為這兩種類型是非阻塞的，所以需要特別處理
+     * 請求ID、請求者與請求是否被取樣在訂閱時從 Reactor Context 讀取 {@link RequestContext}，不會阻塞事件循環線程
      * 需要轉換Mono中的錯誤信息並提取出來，最後交由錯誤控制器處理 {@link WebExceptionController}
-     * 2. 方法返回值為普通對象，可以直接紀錄並返回
+     * 2. 方法返回值為普通對象，沒有 Reactor Context 可以讀取，只依方法的取樣比例記錄
+     * 未被取樣的呼叫只掛上錯誤記錄，不會呼叫返回值的 toString，也不會建立記錄對象
      *
      * @param joinPoint 切入點
      *
      * @return Object 方法的返回值
      */
-    @Around("serviceLayerPointcut() || componentLayerPointcut()")
+    @Around("(serviceLayerPointcut() || componentLayerPointcut()) && !instrumentationPointcut()")
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
-        ServerWebExchange exchange = getCurrentServerWebExchange();
-        String requestUsername;
-
-        if (exchange != null) {
-            WebSession session = exchange.getSession().block();
-            if (session != null) {
-                requestUsername = session.getAttribute("username");
-            } else {
-                requestUsername = "No Session";
-            }
-        } else {
-            requestUsername = "Unknown";
-        }
-
-        String className = joinPoint.getTarget().getClass().getSimpleName();
-        String methodName = joinPoint.getSignature().getName();
-        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
+        TraceManager.MethodTrace methodTrace = traceManager.resolve(((MethodSignature) joinPoint.getSignature()).getMethod(),
+                                                                    joinPoint.getTarget().getClass());
+        long startNanos = System.nanoTime();
+        Object result;
         try {
-            Object result = joinPoint.proceed();
-
-            if (result instanceof Mono<?>) {
-                return ((Mono<?>) result).doOnSuccess(resp -> {
-                    String value = processMethodSignature(method, resp);
-                    log.debug("請求者: {} | 所屬類: {} | 使用方法: {} | 返回值: {}", requestUsername, className, methodName, value);
-                }).doOnError(e -> {
-                    log.error("請求者: {} | 所屬類: {} | 使用方法: {} | 錯誤訊息: {}",
-                              requestUsername,
-                              className,
-                              methodName,
-                              e.getMessage());
-                });
-            } else if (result instanceof Flux<?>) {
-                return ((Flux<?>) result).doOnNext(resp -> {
-                    String value = processMethodSignature(method, resp);
-                    log.debug("請求者: {} | 所屬類: {} | 使用方法: {} | 返回值: {}", requestUsername, className, methodName, value);
-                }).doOnError(e -> {
-                    log.error("請求者: {} | 所屬類: {} | 使用方法: {} | 錯誤訊息: {}",
-                              requestUsername,
-                              className,
-                              methodName,
-                              e.getMessage());
-                });
-            } else {
-                String value = processMethodSignature(method, result);
-                log.debug("請求者: {} | 所屬類: {} | 使用方法: {} | 返回值: {}", requestUsername, className, methodName, value);
-                return result;
-            }
+            result = joinPoint.proceed();
         } catch (Throwable e) {
-            log.error("請求者: {} | 所屬類: {} | 使用方法: {} | 錯誤訊息: {}", requestUsername, className, methodName, e.getMessage());
+            logError(RequestContext.NONE, methodTrace, e);
             throw e;
         }
+
+        if (result instanceof Mono<?> mono) {
+            return traceMono(mono, methodTrace);
+        } else if (result instanceof Flux<?> flux) {
+            return traceFlux(flux, methodTrace);
+        } else {
+            if (traceManager.shouldTrace(methodTrace, false)) {
+                long startMs = System.currentTimeMillis() - (System.nanoTime() - startNanos) / 1_000_000;
+                finish(RequestContext.NONE, methodTrace, startNanos, startMs, "SUCCESS", traceManager.detail(methodTrace, result));
+            }
+            return result;
+        }
     }
 
     /**
-     * 獲取當前的 ServerWebExchange
+     * 在 Mono 訂閱時讀取請求的識別資訊，被取樣時記錄耗時與返回值，否則只掛上錯誤記錄
      *
-     * @return ServerWebExchange 當前的 ServerWebExchange
+     * @param mono        方法返回的 Mono
+     * @param methodTrace 方法的追蹤設定
+     *
+     * @return 掛上記錄後的 Mono
      */
-    private ServerWebExchange getCurrentServerWebExchange() {
-        try {
-            return (ServerWebExchange) org.springframework.web.context.request.RequestContextHolder.currentRequestAttributes();
-        } catch (IllegalStateException e) {
-            return null;
-        }
+    private <T> Mono<T> traceMono(Mono<T> mono, TraceManager.MethodTrace methodTrace) {
+        return mono.transformDeferredContextual((source, contextView) -> {
+            RequestContext requestContext = contextView.getOrDefault(RequestContext.KEY, RequestContext.NONE);
+            if (!traceManager.shouldTrace(methodTrace, requestContext.sampled())) {
+                return source.doOnError(e -> logError(requestContext, methodTrace, e));
+            }
+            long startNanos = System.nanoTime();
+            long startMs = System.currentTimeMillis();
+            return source
+                    .doOnSuccess(resp -> finish(requestContext, methodTrace, startNanos, startMs, "SUCCESS", traceManager.detail(methodTrace, resp)))
+                    .doOnError(e -> {
+                        logError(requestContext, methodTrace, e);
+                        finish(requestContext, methodTrace, startNanos, startMs, "ERROR", traceManager.detail(methodTrace, e.getMessage()));
+                    })
+                    .doOnCancel(() -> finish(requestContext, methodTrace, startNanos, startMs, "CANCEL", null));
+        });
     }
 
     /**
-     * 根據方法的是否有額外的標記注釋，來判斷是否在日誌中的返回值是否進行處理
+     * 在 Flux 訂閱時讀取請求的識別資訊，被取樣時記錄耗時與元素數量，否則只掛上錯誤記錄
      *
-     * @param method 方法
-     * @param result 方法的返回值
+     * @param flux        方法返回的 Flux
+     * @param methodTrace 方法的追蹤設定
      *
-     * @return String 處理後的日誌顯示的返回值
+     * @return 掛上記錄後的 Flux
      */
-    private String processMethodSignature(Method method, Object result) {
-
-        boolean isSensitive = method.isAnnotationPresent(HideSensitive.class);
+    private <T> Flux<T> traceFlux(Flux<T> flux, TraceManager.MethodTrace methodTrace) {
+        return flux.transformDeferredContextual((source, contextView) -> {
+            RequestContext requestContext = contextView.getOrDefault(RequestContext.KEY, RequestContext.NONE);
+            if (!traceManager.shouldTrace(methodTrace, requestContext.sampled())) {
+                return source.doOnError(e -> logError(requestContext, methodTrace, e));
+            }
+            long startNanos = System.nanoTime();
+            long startMs = System.currentTimeMillis();
+            AtomicLong count = new AtomicLong();
+            return source
+                    .doOnNext(resp -> count.incrementAndGet())
+                    .doOnComplete(() -> finish(requestContext, methodTrace, startNanos, startMs, "SUCCESS", count.get() + " 個元素"))
+                    .doOnError(e -> {
+                        logError(requestContext, methodTrace, e);
+                        finish(requestContext, methodTrace, startNanos, startMs, "ERROR", traceManager.detail(methodTrace, e.getMessage()));
+                    })
+                    .doOnCancel(() -> finish(requestContext, methodTrace, startNanos, startMs, "CANCEL", count.get() + " 個元素"));
+        });
+    }
 
-        if (isSensitive) {
-            return "[HIDDEN]";
-        }
-        if (result == null) {
-            return "無返回值";
+    /**
+     * 寫入被取樣的呼叫記錄，啟用 debug 日誌時同時輸出到日誌
+     *
+     * @param requestContext 請求的識別資訊
+     * @param methodTrace    方法的追蹤設定
+     * @param startNanos     開始的 nanoTime
+     * @param startMs        開始時間(epoch 毫秒)
+     * @param outcome        結果
+     * @param detail         返回值或錯誤訊息
+     */
+    private void finish(
+            RequestContext requestContext, TraceManager.MethodTrace methodTrace, long startNanos, long startMs, String outcome, String detail) {
+        long durationMicros = (System.nanoTime() - startNanos) / 1000;
+        traceManager.record(new TraceSpan(requestContext.requestId(),
+                                          requestContext.userId(),
+                                          methodTrace.name(),
+                                          startMs,
+                                          durationMicros,
+                                          outcome,
+                                          detail));
+        if (log.isDebugEnabled()) {
+            log.debug("請求ID: {} | 請求者: {} | 所屬類: {} | 使用方法: {} | 耗時: {} μs | 結果: {} | 返回值: {}",
+                      requestContext.requestId(),
+                      requestContext.userId(),
+                      methodTrace.className(),
+                      methodTrace.methodName(),
+                      Unbox.box(durationMicros),
+                      outcome,
+                      detail);
         }
-        return result.toString();
+    }
+
+    /**
+     * 記錄方法的錯誤訊息
+     *
+     * @param requestContext 請求的識別資訊
+     * @param methodTrace    方法的追蹤設定
+     * @param e              錯誤
+     */
+    private void logError(RequestContext requestContext, TraceManager.MethodTrace methodTrace, Throwable e) {
+        log.error("請求ID: {} | 請求者: {} | 所屬類: {} | 使用方法: {} | 錯誤訊息: {}",
+                  requestContext.requestId(),
+                  requestContext.userId(),
+                  methodTrace.className(),
+                  methodTrace.methodName(),
+                  e.getMessage());
     }
 }
@@ -0,0 +1,256 @@
+package xyz.dowob.filemanagement.component.aspect;
+
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import xyz.dowob.filemanagement.annotation.HideSensitive;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 方法追蹤的取樣與記錄管理
+ * 1. 請求在進入時依 trace.request-sample-rate 決定是否取樣，被取樣的請求中所有經過日誌切面的方法都會被記錄
+ * 2. 未被取樣的請求中，方法依 trace.sample-rates 設定的比例各自取樣，未設定的方法使用 trace.method-sample-rate
+ * 3. 記錄保存在固定大小的環形緩衝區中，寫滿後覆蓋最舊的記錄，可由管理員端點讀取最近的記錄
+ * 未被取樣的呼叫只需要一次查表與一次亂數比較，不會格式化返回值也不會建立任何對象
+ * 本類位於日誌切面的同一個包中，不會被日誌切面攔截
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName TraceManager
+ * @description
+ * @create 2026-10-19 00:35
+ * @Version 1.0
+ **/
+@Component
+public class TraceManager {
+    /**
+     * 記錄中返回值或錯誤訊息的最大長度
+     */
+    private static final int MAX_DETAIL_LENGTH = 256;
+
+    /**
+     * 格式化返回值的緩衝區，每個線程重用一個，超過此長度時縮回，避免保留過大的緩衝區
+     */
+    private static final int MAX_BUFFER_LENGTH = MAX_DETAIL_LENGTH * 4;
+
+    /**
+     * 格式化返回值的緩衝區
+     */
+    private static final ThreadLocal<StringBuilder> DETAIL_BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(MAX_BUFFER_LENGTH));
+
+    /**
+     * 方法的追蹤設定快取
+     */
+    private final Map<Method, MethodTrace> methodTraces = new ConcurrentHashMap<>();
+
+    /**
+     * 各方法的取樣比例，鍵為 類名稱.方法名稱 或 類名稱.*
+     */
+    private final Map<String, Double> sampleRates;
+
+    /**
+     * 未設定取樣比例的方法使用的比例
+     */
+    private final double methodSampleRate;
+
+    /**
+     * 請求的取樣比例
+     */
+    private final double requestSampleRate;
+
+    /**
+     * 記錄的環形緩衝區
+     */
+    private final AtomicReferenceArray<TraceSpan> spans;
+
+    /**
+     * 環形緩衝區的索引遮罩
+     */
+    private final int mask;
+
+    /**
+     * 已寫入的記錄總數，也是下一筆記錄的位置
+     */
+    private final AtomicLong cursor = new AtomicLong();
+
+    /**
+     * 建立方法追蹤管理
+     *
+     * @param requestSampleRate 請求的取樣比例，0 到 1
+     * @param methodSampleRate  未設定取樣比例的方法使用的比例，0 到 1
+     * @param sampleRates       各方法的取樣比例，例如 UserServiceImpl.login=1,FileServiceImpl.*=0.1
+     * @param bufferSize        環形緩衝區保存的記錄數量，會調整為2的次方
+     */
+    public TraceManager(
+            @Value("${trace.request-sample-rate: 0.01}") double requestSampleRate,
+            @Value("${trace.method-sample-rate: 0}") double methodSampleRate,
+            @Value("${trace.sample-rates: }") String sampleRates,
+            @Value("${trace.buffer-size: 1024}") int bufferSize) {
+        this.requestSampleRate = requestSampleRate;
+        this.methodSampleRate = methodSampleRate;
+        this.sampleRates = parseSampleRates(sampleRates);
+        int capacity = Integer.highestOneBit(Math.max(16, bufferSize - 1)) << 1;
+        this.spans = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * 決定請求是否被取樣
+     *
+     * @return 是否取樣
+     */
+    public boolean sampleRequest() {
+        return sample(requestSampleRate);
+    }
+
+    /**
+     * 獲取方法的追蹤設定，第一次呼叫時解析取樣比例與 HideSensitive 注釋並快取
+     *
+     * @param method      方法
+     * @param targetClass 被攔截的類
+     *
+     * @return 方法的追蹤設定
+     */
+    public MethodTrace resolve(Method method, Class<?> targetClass) {
+        MethodTrace methodTrace = methodTraces.get(method);
+        if (methodTrace == null) {
+            methodTrace = methodTraces.computeIfAbsent(method, key -> {
+                String className = targetClass.getSimpleName();
+                String name = className + "." + method.getName();
+                double rate = sampleRates.getOrDefault(name, sampleRates.getOrDefault(className + ".*", methodSampleRate));
+                return new MethodTrace(className, method.getName(), name, rate, method.isAnnotationPresent(HideSensitive.class));
+            });
+        }
+        return methodTrace;
+    }
+
+    /**
+     * 決定這次呼叫是否被記錄
+     *
+     * @param methodTrace    方法的追蹤設定
+     * @param requestSampled 請求是否已被取樣
+     *
+     * @return 是否記錄
+     */
+    public boolean shouldTrace(MethodTrace methodTrace, boolean requestSampled) {
+        return requestSampled || sample(methodTrace.sampleRate());
+    }
+
+    /**
+     * 寫入一筆記錄，緩衝區已滿時覆蓋最舊的記錄
+     *
+     * @param span 記錄
+     */
+    public void record(TraceSpan span) {
+        spans.set((int) (cursor.getAndIncrement() & mask), span);
+    }
+
+    /**
+     * 將返回值轉為記錄中的內容，過長時截斷
+     * 實現 StringBuilderFormattable 的返回值直接寫入線程重用的緩衝區，不會先建立完整的字串
+     *
+     * @param methodTrace 方法的追蹤設定
+     * @param value       返回值或錯誤訊息
+     *
+     * @return 記錄中的內容
+     */
+    public String detail(MethodTrace methodTrace, Object value) {
+        if (methodTrace.sensitive()) {
+            return "[HIDDEN]";
+        }
+        if (value == null) {
+            return "無返回值";
+        }
+        if (value instanceof StringBuilderFormattable formattable) {
+            StringBuilder buffer = DETAIL_BUFFER.get();
+            buffer.setLength(0);
+            formattable.formatTo(buffer);
+            String detail = buffer.length() > MAX_DETAIL_LENGTH ? buffer.substring(0, MAX_DETAIL_LENGTH) + "..." : buffer.toString();
+            if (buffer.capacity() > MAX_BUFFER_LENGTH) {
+                DETAIL_BUFFER.set(new StringBuilder(MAX_BUFFER_LENGTH));
+            }
+            return detail;
+        }
+        String detail = value.toString();
+        return detail.length() > MAX_DETAIL_LENGTH ? detail.substring(0, MAX_DETAIL_LENGTH) + "..." : detail;
+    }
+
+    /**
+     * 讀取最近的記錄，新的在前
+     * 讀取時不加鎖，讀取途中被覆蓋的位置會讀到較新的記錄
+     *
+     * @param limit 最多讀取的筆數
+     *
+     * @return 最近的記錄
+     */
+    public List<TraceSpan> recentSpans(int limit) {
+        long end = cursor.get();
+        long start = Math.max(0, end - Math.min(limit, spans.length()));
+        List<TraceSpan> result = new ArrayList<>((int) (end - start));
+        for (long i = end - 1; i >= start; i--) {
+            TraceSpan span = spans.get((int) (i & mask));
+            if (span != null) {
+                result.add(span);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 依比例取樣
+     *
+     * @param rate 取樣比例
+     *
+     * @return 是否取樣
+     */
+    private boolean sample(double rate) {
+        return rate > 0 && (rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    /**
+     * 解析各方法的取樣比例設定，格式錯誤的項目會被忽略
+     *
+     * @param sampleRates 以逗號分隔的 方法=比例
+     *
+     * @return 方法與比例的對照
+     */
+    private Map<String, Double> parseSampleRates(String sampleRates) {
+        Map<String, Double> rates = new HashMap<>();
+        if (sampleRates == null) {
+            return rates;
+        }
+        for (String entry : sampleRates.split(",")) {
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                continue;
+            }
+            try {
+                rates.put(entry.substring(0, separator).trim(), Double.parseDouble(entry.substring(separator + 1).trim()));
+            } catch (NumberFormatException ignored) {
+                // 忽略格式錯誤的比例
+            }
+        }
+        return rates;
+    }
+
+    /**
+     * 方法的追蹤設定
+     *
+     * @param className  被攔截的類名稱
+     * @param methodName 方法名稱
+     * @param name       記錄中使用的名稱，類名稱.方法名稱
+     * @param sampleRate 取樣比例
+     * @param sensitive  返回值是否需要隱藏
+     */
+    public record MethodTrace(String className, String methodName, String name, double sampleRate, boolean sensitive) {
+    }
+}
@@ -0,0 +1,22 @@
+package xyz.dowob.filemanagement.component.aspect;
+
+/**
+ * 一次被取樣的方法呼叫記錄，保存在 TraceManager 的環形緩衝區中 {@link TraceManager}
+ *
+ * @param requestId      請求ID
+ * @param userId         請求者
+ * @param method         類名稱與方法名稱
+ * @param startTimeMs    開始時間(epoch 毫秒)
+ * @param durationMicros 耗時(微秒)，從訂閱開始計算
+ * @param outcome        結果，SUCCESS、ERROR 或 CANCEL
+ * @param detail         返回值或錯誤訊息，過長時截斷，標記 HideSensitive 的方法為 [HIDDEN]
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName TraceSpan
+ * @description
+ * @create 2026-10-19 00:30
+ * @Version 1.0
+ **/
+public record TraceSpan(String requestId, String userId, String method, long startTimeMs, long durationMicros, String outcome, String detail) {
+}
@@ -1,5 +1,7 @@
 /**
  * AOP 切面的相關實現
  * 1.日誌切面處理: 會自動攔截方法並記錄日誌 {@link xyz.dowob.filemanagement.component.aspect.LoggerAspect}
+ * 2.方法追蹤管理: 決定方法呼叫是否被取樣，並將記錄保存在環形緩衝區中 {@link xyz.dowob.filemanagement.component.aspect.TraceManager}
+ * 3.方法追蹤記錄: 一次被取樣的方法呼叫 {@link xyz.dowob.filemanagement.component.aspect.TraceSpan}
  */
 package xyz.dowob.filemanagement.component.aspect;
\ No newline at end of file
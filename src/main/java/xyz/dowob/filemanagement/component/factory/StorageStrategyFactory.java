@@ -0,0 +1,117 @@
+package xyz.dowob.filemanagement.component.factory;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import xyz.dowob.filemanagement.component.provider.providerImplement.GridFsStorageProviderImpl;
+import xyz.dowob.filemanagement.component.provider.providerImplement.LocalStorageProviderImpl;
+import xyz.dowob.filemanagement.component.provider.providerImplement.PackedStorageProviderImpl;
+import xyz.dowob.filemanagement.component.provider.providerInterface.StorageProvider;
+import xyz.dowob.filemanagement.customenum.StorageEnum;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Storage 策略工廠，用於管理 StorageProvider 調用的部分
+ * 寫入新內容時使用配置的儲存後端，讀取與刪除時根據儲存鍵值的前綴找到內容所在的儲存後端，因此切換配置後舊的內容仍然可以讀取
+ * 1. GridFsStorageProviderImpl: 將文件內容存放於 MongoDB GridFS {@link GridFsStorageProviderImpl}
+ * 2. LocalStorageProviderImpl: 將文件內容存放於本機檔案系統 {@link LocalStorageProviderImpl}
+ * 3. PackedStorageProviderImpl: 將小型內容打包存放於本機的卷檔案 {@link PackedStorageProviderImpl}
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName StorageStrategyFactory
+ * @description
+ * @create 2026-10-18 17:25
+ * @Version 1.0
+ **/
+@Component
+public class StorageStrategyFactory {
+    /**
+     * 工廠管理的儲存策略
+     */
+    private final Map<StorageEnum, StorageProvider> storageStrategies;
+
+    /**
+     * 寫入新內容時使用的儲存後端
+     */
+    @Getter
+    private final StorageEnum defaultStorage;
+
+    /**
+     * 打包卷儲存提供者，用於判斷內容是否可以打包
+     */
+    private final PackedStorageProviderImpl packedStorageProviderImpl;
+
+    /**
+     * StorageStrategyFactory 的構造方法，用於初始化 StorageProvider
+     * 後續如果需要新增其他 StorageProvider，可以在這裡添加
+     *
+     * @param gridFsStorageProviderImpl GridFsStorageProviderImpl 實現類
+     * @param localStorageProviderImpl  LocalStorageProviderImpl 實現類
+     * @param packedStorageProviderImpl PackedStorageProviderImpl 實現類
+     * @param defaultStorage            寫入新內容時使用的儲存後端，從配置文件中獲取
+     */
+    public StorageStrategyFactory(
+            GridFsStorageProviderImpl gridFsStorageProviderImpl, LocalStorageProviderImpl localStorageProviderImpl,
+            PackedStorageProviderImpl packedStorageProviderImpl, @Value("${file.storage.type: GRID_FS}") StorageEnum defaultStorage) {
+        storageStrategies = new EnumMap<>(StorageEnum.class);
+        storageStrategies.put(StorageEnum.GRID_FS, gridFsStorageProviderImpl);
+        storageStrategies.put(StorageEnum.LOCAL, localStorageProviderImpl);
+        storageStrategies.put(StorageEnum.PACKED, packedStorageProviderImpl);
+        this.packedStorageProviderImpl = packedStorageProviderImpl;
+        this.defaultStorage = defaultStorage;
+    }
+
+    /**
+     * 返回寫入新內容時使用的 StorageProvider
+     *
+     * @return StorageProvider
+     */
+    public StorageProvider getStorageProvider() {
+        return getStorageProvider(defaultStorage);
+    }
+
+    /**
+     * 根據寫入前已知的內容大小返回寫入時使用的 StorageProvider
+     * 啟用打包儲存且內容不超過打包大小上限時使用打包卷，否則使用配置的儲存後端
+     * 用於單一文件上傳(以請求的 Content-Length 為上限)、分段上傳的分段以及區塊儲存的區塊
+     *
+     * @param contentSize 內容大小或其上限，未知時為負數
+     *
+     * @return StorageProvider
+     */
+    public StorageProvider getStorageProviderBySize(long contentSize) {
+        if (packedStorageProviderImpl.isEnabled() && contentSize >= 0 && contentSize <= packedStorageProviderImpl.getMaxBlobSize()) {
+            return packedStorageProviderImpl;
+        }
+        return getStorageProvider();
+    }
+
+    /**
+     * 根據儲存鍵值返回內容所在的 StorageProvider
+     *
+     * @param storageKey 儲存鍵值
+     *
+     * @return StorageProvider
+     */
+    public StorageProvider getStorageProvider(String storageKey) {
+        return getStorageProvider(StorageEnum.fromStorageKey(storageKey));
+    }
+
+    /**
+     * 根據 StorageEnum 返回對應的 StorageProvider
+     *
+     * @param storageEnum StorageEnum
+     *
+     * @return StorageProvider
+     */
+    public StorageProvider getStorageProvider(StorageEnum storageEnum) {
+        StorageProvider storageProvider = storageStrategies.get(storageEnum);
+        if (storageProvider == null) {
+            throw new IllegalArgumentException("無法找到對應的儲存後端");
+        }
+        return storageProvider;
+    }
+}
@@ -2,5 +2,6 @@
  * 組件工廠，用於管理分配調用組件的部分
  * 當一個接口有多個實現時，可以使用工廠模式來管理，根據不同的條件返回不同的實現
  * 1. TokenStrategyFactory: 管理 TokenProvider 的工廠 {@link xyz.dowob.filemanagement.component.factory.TokenStrategyFactory}
+ * 2. StorageStrategyFactory: 管理 StorageProvider 的工廠 {@link xyz.dowob.filemanagement.component.factory.StorageStrategyFactory}
  */
 package xyz.dowob.filemanagement.component.factory;
\ No newline at end of file
@@ -0,0 +1,94 @@
+package xyz.dowob.filemanagement.component.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.component.manager.RateLimitManager;
+import xyz.dowob.filemanagement.dto.api.ApiResponseDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 訪客端點的來源 IP 速率限制過濾器
+ * 在 Spring Security 之前執行，超過速率的請求直接返回 429 與 Retry-After，不會進入驗證、業務邏輯與數據庫
+ * 只限制不需要登入的訪客端點，已登入的請求由 JWT 驗證保護
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName RateLimitFilter
+ * @description
+ * @create 2026-10-18 22:50
+ * @Version 1.0
+ **/
+@Component
+@Order(-200)
+@RequiredArgsConstructor
+public class RateLimitFilter implements WebFilter {
+    /**
+     * 需要限制的路徑前綴
+     */
+    private static final List<String> LIMITED_PATHS = List.of("/api/guest/", "/web/guest/");
+
+    /**
+     * 速率限制管理
+     */
+    private final RateLimitManager rateLimitManager;
+
+    /**
+     * ObjectMapper 用於對象與 JSON 之間的轉換
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 檢查訪客端點的請求速率，超過時返回 429
+     *
+     * @param exchange 請求對象
+     * @param chain    過濾器鏈
+     *
+     * @return 處理完成的信號
+     */
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String path = exchange.getRequest().getPath().value();
+        if (LIMITED_PATHS.stream().noneMatch(path::startsWith)) {
+            return chain.filter(exchange);
+        }
+        return rateLimitManager.acquireForClient(exchange).flatMap(wait -> wait > 0 ? reject(exchange, wait) : chain.filter(exchange));
+    }
+
+    /**
+     * 返回 429 與 Retry-After
+     *
+     * @param exchange 請求對象
+     * @param waitMs   需要等待的毫秒數
+     *
+     * @return 寫入完成的信號
+     */
+    private Mono<Void> reject(ServerWebExchange exchange, long waitMs) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (waitMs + 999) / 1000)));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        ApiResponseDTO<Void> apiResponseDTO = new ApiResponseDTO<>(LocalDateTime.now(),
+                                                                   HttpStatus.TOO_MANY_REQUESTS.value(),
+                                                                   exchange.getRequest().getPath().value(),
+                                                                   "請求過於頻繁，請稍後再試",
+                                                                   null);
+        try {
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(objectMapper.writeValueAsBytes(apiResponseDTO))));
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+    }
+}
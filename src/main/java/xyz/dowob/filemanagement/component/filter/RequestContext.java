@@ -0,0 +1,33 @@
+package xyz.dowob.filemanagement.component.filter;
+
+/**
+ * 請求的識別資訊，由 RequestContextFilter 放入 Reactor Context {@link RequestContextFilter}
+ * 在響應式流程中以 {@code Mono.deferContextual} 或 {@code Signal.getContextView} 讀取，不需要阻塞等待 WebSession
+ *
+ * @param requestId 請求ID，同一個請求的所有日誌使用同一個ID
+ * @param userId    用戶ID，未登入時為 {@link #ANONYMOUS}
+ * @param sampled   請求是否被方法追蹤取樣，被取樣的請求會記錄所有方法的耗時與返回值
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName RequestContext
+ * @description
+ * @create 2026-10-18 23:50
+ * @Version 1.0
+ **/
+public record RequestContext(String requestId, String userId, boolean sampled) {
+    /**
+     * Reactor Context 中的鍵
+     */
+    public static final Class<RequestContext> KEY = RequestContext.class;
+
+    /**
+     * 未登入時的用戶ID
+     */
+    public static final String ANONYMOUS = "anonymous";
+
+    /**
+     * 不在請求中執行時(例如排程任務)使用的識別資訊
+     */
+    public static final RequestContext NONE = new RequestContext("-", "system", false);
+}
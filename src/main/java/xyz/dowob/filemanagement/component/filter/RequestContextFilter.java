@@ -0,0 +1,86 @@
+package xyz.dowob.filemanagement.component.filter;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.component.aspect.TraceManager;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * 將請求ID與用戶ID放入 Reactor Context 的過濾器
+ * 在 Spring Security 過濾器鏈(Order -100)之後執行，此時安全上下文已可讀取，用戶ID只解析一次
+ * 請求帶有合法的 X-Request-Id 時沿用該ID，否則產生新的ID，並在響應頭中返回
+ * 同時依 TraceManager 的設定決定請求是否被方法追蹤取樣 {@link TraceManager}
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName RequestContextFilter
+ * @description
+ * @create 2026-10-18 23:55
+ * @Version 1.0
+ **/
+@Component
+@Order(-99)
+@RequiredArgsConstructor
+public class RequestContextFilter implements WebFilter {
+    /**
+     * 請求ID的請求頭與響應頭
+     */
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    /**
+     * 允許沿用的請求ID格式，避免日誌被注入任意內容
+     */
+    private static final Pattern REQUEST_ID_PATTERN = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    /**
+     * 方法追蹤的取樣與記錄管理
+     */
+    private final TraceManager traceManager;
+
+    /**
+     * 解析請求ID與用戶ID，放入 Reactor Context 後繼續處理請求
+     *
+     * @param exchange 請求對象
+     * @param chain    過濾器鏈
+     *
+     * @return 處理完成的信號
+     */
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String requestId = resolveRequestId(exchange.getRequest().getHeaders().getFirst(REQUEST_ID_HEADER));
+        exchange.getResponse().getHeaders().set(REQUEST_ID_HEADER, requestId);
+        boolean sampled = traceManager.sampleRequest();
+        return ReactiveSecurityContextHolder
+                .getContext()
+                .mapNotNull(securityContext -> securityContext.getAuthentication())
+                .mapNotNull(authentication -> authentication.getPrincipal())
+                .map(Object::toString)
+                .defaultIfEmpty(RequestContext.ANONYMOUS)
+                .onErrorReturn(RequestContext.ANONYMOUS)
+                .flatMap(userId -> chain.filter(exchange).contextWrite(context -> context.put(RequestContext.KEY, new RequestContext(requestId, userId, sampled))));
+    }
+
+    /**
+     * 沿用合法的請求ID，否則產生 16 位的十六進位ID
+     * 以 ThreadLocalRandom 產生，不會像 UUID.randomUUID 一樣在 SecureRandom 上競爭
+     *
+     * @param requestId 請求頭中的請求ID
+     *
+     * @return 請求ID
+     */
+    private String resolveRequestId(String requestId) {
+        if (requestId != null && REQUEST_ID_PATTERN.matcher(requestId).matches()) {
+            return requestId;
+        }
+        String generated = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        return "0".repeat(16 - generated.length()) + generated;
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * WebFlux 過濾器，在請求進入控制器之前執行的處理
+ * 1. RateLimitFilter: 訪客端點的來源 IP 速率限制 {@link xyz.dowob.filemanagement.component.filter.RateLimitFilter}
+ * 2. RequestContextFilter: 將請求ID與用戶ID放入 Reactor Context {@link xyz.dowob.filemanagement.component.filter.RequestContextFilter}
+ * 3. RequestContext: 請求的識別資訊 {@link xyz.dowob.filemanagement.component.filter.RequestContext}
+ */
+package xyz.dowob.filemanagement.component.filter;
@@ -12,6 +12,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.server.*;
 import reactor.core.publisher.Mono;
 import xyz.dowob.filemanagement.dto.api.ApiResponseDTO;
+import xyz.dowob.filemanagement.exception.FileException;
 import xyz.dowob.filemanagement.exception.ValidationException;
 
 import java.time.LocalDateTime;
@@ -60,7 +61,18 @@ public class CustomExceptionHandler extends AbstractErrorWebExceptionHandler {
                                                   request.exchange().getRequest().getPath().value(),
                                                   String.format("驗證時發生錯誤：%s", validationException.getMessage()),
                                                   null);
-            status = HttpStatus.BAD_REQUEST;
+            status = switch (validationException.getErrorCode()) {
+                case PASSWORD_HASH_BUSY -> HttpStatus.SERVICE_UNAVAILABLE;
+                case TOO_MANY_REQUESTS -> HttpStatus.TOO_MANY_REQUESTS;
+                default -> HttpStatus.BAD_REQUEST;
+            };
+        } else if (error instanceof FileException fileException) {
+            apiResponseDTO = new ApiResponseDTO<>(LocalDateTime.now(),
+                                                  fileException.getErrorCode().getCode(),
+                                                  request.exchange().getRequest().getPath().value(),
+                                                  String.format("文件處理時發生錯誤：%s", fileException.getMessage()),
+                                                  null);
+            status = fileException.getErrorCode() == FileException.ErrorCode.FILE_NOT_FOUND ? HttpStatus.NOT_FOUND : HttpStatus.BAD_REQUEST;
         }
         return ServerResponse.status(status).contentType(MediaType.APPLICATION_JSON).body(Mono.just(apiResponseDTO), ApiResponseDTO.class);
     }
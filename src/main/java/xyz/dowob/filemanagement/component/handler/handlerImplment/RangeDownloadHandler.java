@@ -0,0 +1,200 @@
+package xyz.dowob.filemanagement.component.handler.handlerImplment;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.entity.ServerFileMetadata;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 文件下載處理器，支援 Range 與 If-Range 的部分內容下載
+ * 1. 伺服器文件的內容不會被修改(新版本會建立新的伺服器文件)，因此以伺服器文件ID作為強 ETag
+ * 2. 支援 If-None-Match 與 If-Modified-Since，內容未變動時返回 304
+ * 3. 單一範圍時返回 206 與 Content-Range，範圍無法滿足時返回 416
+ * 4. If-Range 與目前的 ETag 或最後修改時間不符、Range 格式錯誤或包含多個範圍時，忽略 Range 並返回完整內容
+ * 內容以 DataBuffer 串流直接寫入響應，不會在記憶體中組合整個範圍
+ * 內容是單一本機檔案且伺服器支援零複製時，改由 sendfile 直接從檔案傳送到連線，資料不會進入 JVM 的記憶體
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName RangeDownloadHandler
+ * @description
+ * @create 2026-10-18 16:50
+ * @Version 1.0
+ **/
+@Component
+public class RangeDownloadHandler {
+    /**
+     * 讀取伺服器文件內容中一段的方法
+     */
+    @FunctionalInterface
+    public interface ContentReader {
+        /**
+         * 讀取文件內容中的一段
+         *
+         * @param offset 起始位置
+         * @param length 讀取長度
+         *
+         * @return 文件內容的資料流
+         */
+        Flux<DataBuffer> read(long offset, long length);
+    }
+
+    /**
+     * 處理下載請求並將內容寫入響應
+     *
+     * @param exchange   請求對象
+     * @param filename   下載時的文件名稱
+     * @param serverFile 伺服器文件元數據
+     * @param inline     是否以 inline 方式顯示(例如在瀏覽器中播放影片)，否則以附件下載
+     * @param localFile  文件內容的本機檔案路徑，內容不是單一本機檔案時為空
+     * @param reader     讀取文件內容的方法
+     *
+     * @return 寫入完成的信號
+     */
+    public Mono<Void> handle(
+            ServerWebExchange exchange, String filename, ServerFileMetadata serverFile, boolean inline, Optional<Path> localFile, ContentReader reader) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        long fileSize = serverFile.getFileSize();
+        String etag = "\"sf-" + serverFile.getId() + "\"";
+        Instant lastModified = serverFile.getUploadTime().atZone(ZoneId.systemDefault()).toInstant().truncatedTo(ChronoUnit.SECONDS);
+
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setContentType(resolveMediaType(serverFile.getContentType()));
+        headers.setContentDisposition((inline ? ContentDisposition.inline() : ContentDisposition.attachment())
+                                              .filename(filename, StandardCharsets.UTF_8)
+                                              .build());
+        if (exchange.checkNotModified(etag, lastModified)) {
+            return response.setComplete();
+        }
+
+        HttpRange range = resolveRange(exchange.getRequest().getHeaders(), etag, lastModified);
+        if (range == null) {
+            headers.setContentLength(fileSize);
+            response.setStatusCode(HttpStatus.OK);
+            return writeContent(response, localFile, reader, 0, fileSize);
+        }
+
+        long start;
+        long end;
+        try {
+            start = range.getRangeStart(fileSize);
+            end = range.getRangeEnd(fileSize);
+        } catch (IllegalArgumentException e) {
+            start = fileSize;
+            end = fileSize - 1;
+        }
+        if (fileSize == 0 || start >= fileSize || start > end) {
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + fileSize);
+            response.setStatusCode(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+            return response.setComplete();
+        }
+        long length = end - start + 1;
+        headers.set(HttpHeaders.CONTENT_RANGE, String.format("bytes %d-%d/%d", start, end, fileSize));
+        headers.setContentLength(length);
+        response.setStatusCode(HttpStatus.PARTIAL_CONTENT);
+        return writeContent(response, localFile, reader, start, length);
+    }
+
+    /**
+     * 將內容寫入響應，能夠零複製時直接傳送本機檔案中的範圍，否則以資料流寫入
+     *
+     * @param response  響應對象
+     * @param localFile 文件內容的本機檔案路徑
+     * @param reader    讀取文件內容的方法
+     * @param offset    起始位置
+     * @param length    長度
+     *
+     * @return 寫入完成的信號
+     */
+    private Mono<Void> writeContent(ServerHttpResponse response, Optional<Path> localFile, ContentReader reader, long offset, long length) {
+        if (localFile.isPresent() && response instanceof ZeroCopyHttpOutputMessage zeroCopyResponse) {
+            return zeroCopyResponse.writeWith(localFile.get(), offset, length);
+        }
+        return response.writeWith(reader.read(offset, length));
+    }
+
+    /**
+     * 解析請求的範圍，需要返回完整內容時返回 null
+     *
+     * @param requestHeaders 請求頭
+     * @param etag           目前的 ETag
+     * @param lastModified   目前的最後修改時間
+     *
+     * @return 單一範圍或 null
+     */
+    private HttpRange resolveRange(HttpHeaders requestHeaders, String etag, Instant lastModified) {
+        String rangeHeader = requestHeaders.getFirst(HttpHeaders.RANGE);
+        if (rangeHeader == null || !isIfRangeSatisfied(requestHeaders, etag, lastModified)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges.getFirst() : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 判斷 If-Range 條件是否成立，沒有 If-Range 時視為成立
+     * If-Range 為 ETag 時需要強比對相同，為日期時需要與最後修改時間完全相同
+     *
+     * @param requestHeaders 請求頭
+     * @param etag           目前的 ETag
+     * @param lastModified   目前的最後修改時間
+     *
+     * @return 是否成立
+     */
+    private boolean isIfRangeSatisfied(HttpHeaders requestHeaders, String etag, Instant lastModified) {
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        if (ifRange == null || ifRange.isBlank()) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return Instant.from(DateTimeFormatter.RFC_1123_DATE_TIME.parse(ifRange)).equals(lastModified);
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 解析內容類型，無法解析時使用 application/octet-stream
+     *
+     * @param contentType 內容類型
+     *
+     * @return 媒體類型
+     */
+    private MediaType resolveMediaType(String contentType) {
+        if (contentType == null) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+        try {
+            return MediaType.parseMediaType(contentType);
+        } catch (IllegalArgumentException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 /**
  * 此package存放Handler處理器的實現類
  * 1. CustomHandlerImpl: 自定義處理器實現類 {@link xyz.dowob.filemanagement.component.handler.handlerImplment.CustomExceptionHandler}
+ * 2. RangeDownloadHandler: 支援 Range 的文件下載處理器 {@link xyz.dowob.filemanagement.component.handler.handlerImplment.RangeDownloadHandler}
  */
 package xyz.dowob.filemanagement.component.handler.handlerImplment;
\ No newline at end of file
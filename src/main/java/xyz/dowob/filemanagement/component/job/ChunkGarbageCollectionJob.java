@@ -0,0 +1,41 @@
+package xyz.dowob.filemanagement.component.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+import xyz.dowob.filemanagement.service.ServiceInterFace.ChunkStoreService;
+
+/**
+ * 定時回收未被引用的資料區塊的排程任務
+ * 引用計數為0的區塊會被刪除記錄以及儲存內容
+ * 排程的觸發時間設定於 QuartzConfig {@link xyz.dowob.filemanagement.config.QuartzConfig}
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName ChunkGarbageCollectionJob
+ * @description
+ * @create 2026-10-18 14:50
+ * @Version 1.0
+ **/
+@Log4j2
+@RequiredArgsConstructor
+@DisallowConcurrentExecution
+public class ChunkGarbageCollectionJob extends QuartzJobBean {
+    /**
+     * 區塊儲存服務
+     */
+    private final ChunkStoreService chunkStoreService;
+
+    /**
+     * 執行回收，Quartz 的工作線程不是事件循環線程，因此可以在此等待回收完成
+     *
+     * @param context 任務執行上下文
+     */
+    @Override
+    protected void executeInternal(JobExecutionContext context) {
+        Long collected = chunkStoreService.collectGarbage().block();
+        log.info("已回收的資料區塊數量: {}", collected);
+    }
+}
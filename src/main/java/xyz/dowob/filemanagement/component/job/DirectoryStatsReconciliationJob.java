@@ -0,0 +1,49 @@
+package xyz.dowob.filemanagement.component.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+import xyz.dowob.filemanagement.component.manager.DirectoryStatsManager;
+import xyz.dowob.filemanagement.component.manager.QuotaManager;
+
+/**
+ * 定時以用戶文件重新計算目錄統計的排程任務
+ * 修正增量更新因應用異常終止或並發更新累積的偏差，之後以重新計算的根目錄統計校正用戶已使用空間的計數器
+ * 排程的觸發時間設定於 QuartzConfig {@link xyz.dowob.filemanagement.config.QuartzConfig}
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName DirectoryStatsReconciliationJob
+ * @description
+ * @create 2026-10-19 06:05
+ * @Version 1.0
+ **/
+@Log4j2
+@RequiredArgsConstructor
+@DisallowConcurrentExecution
+public class DirectoryStatsReconciliationJob extends QuartzJobBean {
+    /**
+     * 目錄統計的增量緩衝
+     */
+    private final DirectoryStatsManager directoryStatsManager;
+
+    /**
+     * 儲存空間配額的計數器
+     */
+    private final QuotaManager quotaManager;
+
+    /**
+     * 執行重新計算，Quartz 的工作線程不是事件循環線程，因此可以在此等待重新計算完成
+     *
+     * @param context 任務執行上下文
+     */
+    @Override
+    protected void executeInternal(JobExecutionContext context) {
+        Integer users = directoryStatsManager.reconcile().block();
+        log.info("重新計算目錄統計的用戶數量: {}", users);
+        Integer resynced = quotaManager.resync().block();
+        log.info("校正已使用空間的用戶數量: {}", resynced);
+    }
+}
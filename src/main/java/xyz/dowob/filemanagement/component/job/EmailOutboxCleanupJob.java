@@ -0,0 +1,40 @@
+package xyz.dowob.filemanagement.component.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+import xyz.dowob.filemanagement.service.ServiceInterFace.EmailOutboxService;
+
+/**
+ * 定時刪除郵件發件匣中超過保留期限的已發送郵件的排程任務
+ * 排程的觸發時間設定於 QuartzConfig {@link xyz.dowob.filemanagement.config.QuartzConfig}
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName EmailOutboxCleanupJob
+ * @description
+ * @create 2026-10-18 23:35
+ * @Version 1.0
+ **/
+@Log4j2
+@RequiredArgsConstructor
+@DisallowConcurrentExecution
+public class EmailOutboxCleanupJob extends QuartzJobBean {
+    /**
+     * 郵件發件匣服務
+     */
+    private final EmailOutboxService emailOutboxService;
+
+    /**
+     * 執行清理，Quartz 的工作線程不是事件循環線程，因此可以在此等待清理完成
+     *
+     * @param context 任務執行上下文
+     */
+    @Override
+    protected void executeInternal(JobExecutionContext context) {
+        Integer purged = emailOutboxService.purgeSent().block();
+        log.info("已刪除的已發送郵件數量: {}", purged);
+    }
+}
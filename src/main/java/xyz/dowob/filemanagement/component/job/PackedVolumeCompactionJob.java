@@ -0,0 +1,41 @@
+package xyz.dowob.filemanagement.component.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+import xyz.dowob.filemanagement.component.provider.providerImplement.PackedStorageProviderImpl;
+
+/**
+ * 定時壓縮打包卷的排程任務
+ * 已刪除空間比例達到門檻的卷會將仍有效的內容搬移到目前的卷，然後刪除舊卷
+ * 排程的觸發時間設定於 QuartzConfig {@link xyz.dowob.filemanagement.config.QuartzConfig}
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName PackedVolumeCompactionJob
+ * @description
+ * @create 2026-10-18 18:45
+ * @Version 1.0
+ **/
+@Log4j2
+@RequiredArgsConstructor
+@DisallowConcurrentExecution
+public class PackedVolumeCompactionJob extends QuartzJobBean {
+    /**
+     * 打包卷儲存提供者
+     */
+    private final PackedStorageProviderImpl packedStorageProviderImpl;
+
+    /**
+     * 執行壓縮，Quartz 的工作線程不是事件循環線程，因此可以在此等待壓縮完成
+     *
+     * @param context 任務執行上下文
+     */
+    @Override
+    protected void executeInternal(JobExecutionContext context) {
+        Long reclaimed = packedStorageProviderImpl.compact().block();
+        log.info("打包卷壓縮回收的空間: {} bytes", reclaimed);
+    }
+}
@@ -0,0 +1,44 @@
+package xyz.dowob.filemanagement.component.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+import xyz.dowob.filemanagement.service.ServiceInterFace.TieringService;
+
+/**
+ * 定時將冷資料移到冷儲存層的排程任務
+ * 單次執行搬移的資料量受 I/O 預算限制，未搬移完的冷資料留到下一次執行
+ * 搬移前先刪除移回本機儲存層後超過保留時間的冷儲存層舊內容
+ * 排程的觸發時間設定於 QuartzConfig {@link xyz.dowob.filemanagement.config.QuartzConfig}
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName StorageTieringJob
+ * @description
+ * @create 2026-10-18 19:30
+ * @Version 1.0
+ **/
+@Log4j2
+@RequiredArgsConstructor
+@DisallowConcurrentExecution
+public class StorageTieringJob extends QuartzJobBean {
+    /**
+     * 分層儲存服務
+     */
+    private final TieringService tieringService;
+
+    /**
+     * 刪除舊內容並執行搬移，Quartz 的工作線程不是事件循環線程，因此可以在此等待完成
+     *
+     * @param context 任務執行上下文
+     */
+    @Override
+    protected void executeInternal(JobExecutionContext context) {
+        Long purged = tieringService.purgeRetiredContent().block();
+        log.info("刪除被取代的冷儲存層內容: {} 個", purged);
+        Long moved = tieringService.demoteColdContent().block();
+        log.info("移到冷儲存層的資料: {} bytes", moved);
+    }
+}
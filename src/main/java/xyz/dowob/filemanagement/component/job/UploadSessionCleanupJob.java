@@ -0,0 +1,41 @@
+package xyz.dowob.filemanagement.component.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+import xyz.dowob.filemanagement.service.ServiceInterFace.UploadSessionService;
+
+/**
+ * 定時清理過期分段上傳會話的排程任務
+ * 過期但仍在上傳中的會話會被標記為取消，並刪除已上傳的分段內容
+ * 排程的觸發時間設定於 QuartzConfig {@link xyz.dowob.filemanagement.config.QuartzConfig}
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName UploadSessionCleanupJob
+ * @description
+ * @create 2026-10-18 12:40
+ * @Version 1.0
+ **/
+@Log4j2
+@RequiredArgsConstructor
+@DisallowConcurrentExecution
+public class UploadSessionCleanupJob extends QuartzJobBean {
+    /**
+     * 分段上傳會話服務
+     */
+    private final UploadSessionService uploadSessionService;
+
+    /**
+     * 執行清理，Quartz 的工作線程不是事件循環線程，因此可以在此等待清理完成
+     *
+     * @param context 任務執行上下文
+     */
+    @Override
+    protected void executeInternal(JobExecutionContext context) {
+        Long cleaned = uploadSessionService.cleanExpiredSessions().block();
+        log.info("已清理過期的上傳會話數量: {}", cleaned);
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * 排程任務，使用 Quartz 定時執行的背景工作
+ * 任務的觸發時間統一設定於 {@link xyz.dowob.filemanagement.config.QuartzConfig}
+ * 1. UploadSessionCleanupJob: 清理過期的分段上傳會話 {@link xyz.dowob.filemanagement.component.job.UploadSessionCleanupJob}
+ * 2. ChunkGarbageCollectionJob: 回收未被引用的資料區塊 {@link xyz.dowob.filemanagement.component.job.ChunkGarbageCollectionJob}
+ * 3. PackedVolumeCompactionJob: 壓縮打包卷以回收已刪除內容的空間 {@link xyz.dowob.filemanagement.component.job.PackedVolumeCompactionJob}
+ * 4. StorageTieringJob: 將冷資料移到冷儲存層 {@link xyz.dowob.filemanagement.component.job.StorageTieringJob}
+ * 5. EmailOutboxCleanupJob: 刪除超過保留期限的已發送郵件 {@link xyz.dowob.filemanagement.component.job.EmailOutboxCleanupJob}
+ * 6. DirectoryStatsReconciliationJob: 以用戶文件重新計算目錄統計 {@link xyz.dowob.filemanagement.component.job.DirectoryStatsReconciliationJob}
+ */
+package xyz.dowob.filemanagement.component.job;
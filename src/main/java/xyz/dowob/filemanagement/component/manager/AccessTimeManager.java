@@ -0,0 +1,321 @@
+package xyz.dowob.filemanagement.component.manager;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 最後訪問時間的寫回緩衝
+ * 下載時不直接更新數據庫，而是先把用戶文件與伺服器文件的最後訪問時間記錄在記憶體中，同一個ID重複被存取時只保留最新的時間，
+ * 定時或緩衝的ID數量達到門檻時，以多行 UPDATE 批次寫入數據庫，熱門文件被大量下載時每個刷新週期只會產生一次更新
+ * 1. 緩衝依ID分成多個分段，每個分段有各自的鎖，不同文件的記錄不會互相競爭
+ * 2. 刷新時逐一將分段的內容換成新的空表，再在鎖外執行數據庫更新
+ * 3. 寫入失敗時將記錄放回緩衝，下次刷新時重試，放回時保留較新的時間
+ * 4. 應用關閉時會執行最後一次刷新
+ * 最後訪問時間只用於顯示與分層儲存判斷冷資料，應用異常終止時最多遺失一個刷新週期的記錄
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName AccessTimeManager
+ * @description
+ * @create 2026-10-18 19:50
+ * @Version 1.0
+ **/
+@Log4j2
+@Component
+public class AccessTimeManager {
+    /**
+     * 用戶文件元數據表
+     */
+    private static final String USER_FILE_TABLE = "user_file_metadata";
+
+    /**
+     * 伺服器文件元數據表
+     */
+    private static final String SERVER_FILE_TABLE = "server_file_metadata";
+
+    /**
+     * 數據庫操作客戶端
+     */
+    private final DatabaseClient databaseClient;
+
+    /**
+     * 緩衝的分段
+     */
+    private final Stripe[] stripes;
+
+    /**
+     * 刷新的間隔
+     */
+    private final Duration flushInterval;
+
+    /**
+     * 緩衝的ID數量達到此門檻時提前刷新
+     */
+    private final int flushThreshold;
+
+    /**
+     * 單一 UPDATE 語句最多更新的行數
+     */
+    private final int batchSize;
+
+    /**
+     * 目前緩衝中的ID數量(用戶文件與伺服器文件合計)
+     */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /**
+     * 是否正在刷新，同時只會有一個刷新在執行
+     */
+    private final AtomicBoolean flushing = new AtomicBoolean();
+
+    /**
+     * 記錄的存取次數
+     */
+    private final AtomicLong touchCount = new AtomicLong();
+
+    /**
+     * 執行的 UPDATE 語句數量
+     */
+    private final AtomicLong statementCount = new AtomicLong();
+
+    /**
+     * 定時刷新的訂閱
+     */
+    private Disposable flushTask;
+
+    /**
+     * 建立最後訪問時間的寫回緩衝
+     *
+     * @param databaseClient  數據庫操作客戶端
+     * @param stripeCount     緩衝的分段數量
+     * @param flushIntervalMs 刷新的間隔(毫秒)
+     * @param flushThreshold  緩衝的ID數量達到此門檻時提前刷新
+     * @param batchSize       單一 UPDATE 語句最多更新的行數
+     */
+    public AccessTimeManager(
+            DatabaseClient databaseClient,
+            @Value("${file.access-time.stripes: 16}") int stripeCount,
+            @Value("${file.access-time.flush-interval-ms: 5000}") long flushIntervalMs,
+            @Value("${file.access-time.flush-threshold: 10000}") int flushThreshold,
+            @Value("${file.access-time.batch-size: 500}") int batchSize) {
+        this.databaseClient = databaseClient;
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.flushInterval = Duration.ofMillis(flushIntervalMs);
+        this.flushThreshold = flushThreshold;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 啟動定時刷新
+     */
+    @PostConstruct
+    public void start() {
+        flushTask = Flux.interval(flushInterval, flushInterval, Schedulers.boundedElastic()).onBackpressureDrop().concatMap(tick -> flush()).subscribe();
+    }
+
+    /**
+     * 停止定時刷新，等待正在執行的刷新結束後將緩衝中剩餘的記錄寫入數據庫
+     *
+     * @throws InterruptedException 等待時被中斷
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (flushTask != null) {
+            flushTask.dispose();
+        }
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (flushing.get() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Integer flushed = flush().block(Duration.ofSeconds(30));
+        log.info("關閉前寫入最後訪問時間 {} 筆", flushed);
+    }
+
+    /**
+     * 記錄文件被存取，不會等待數據庫更新
+     *
+     * @param userFileId   用戶文件ID
+     * @param serverFileId 伺服器文件ID
+     * @param accessTime   存取時間
+     */
+    public void touch(Long userFileId, Long serverFileId, LocalDateTime accessTime) {
+        touchCount.incrementAndGet();
+        int added = stripeOf(userFileId).put(userFileId, accessTime, true) + stripeOf(serverFileId).put(serverFileId, accessTime, false);
+        if (added > 0 && pending.addAndGet(added) >= flushThreshold) {
+            flush().subscribeOn(Schedulers.boundedElastic()).subscribe();
+        }
+    }
+
+    /**
+     * 將緩衝中的記錄寫入數據庫，已經有刷新在執行時直接返回
+     *
+     * @return 寫入的ID數量
+     */
+    public Mono<Integer> flush() {
+        return Mono.defer(() -> {
+            if (!flushing.compareAndSet(false, true)) {
+                return Mono.just(0);
+            }
+            Map<Long, LocalDateTime> userFiles = new HashMap<>();
+            Map<Long, LocalDateTime> serverFiles = new HashMap<>();
+            for (Stripe stripe : stripes) {
+                stripe.drainTo(userFiles, serverFiles);
+            }
+            pending.addAndGet(-(userFiles.size() + serverFiles.size()));
+            return update(USER_FILE_TABLE, userFiles, true)
+                    .then(update(SERVER_FILE_TABLE, serverFiles, false))
+                    .thenReturn(userFiles.size() + serverFiles.size())
+                    .doFinally(signal -> flushing.set(false));
+        });
+    }
+
+    /**
+     * 記錄的存取次數
+     *
+     * @return 存取次數
+     */
+    public long getTouchCount() {
+        return touchCount.get();
+    }
+
+    /**
+     * 執行的 UPDATE 語句數量
+     *
+     * @return UPDATE 語句數量
+     */
+    public long getStatementCount() {
+        return statementCount.get();
+    }
+
+    /**
+     * 以多行 UPDATE 分批寫入一個表的最後訪問時間，失敗的批次放回緩衝
+     *
+     * @param table    表名稱
+     * @param times    ID與最後訪問時間
+     * @param userFile 是否為用戶文件表
+     *
+     * @return 寫入完成的信號
+     */
+    private Mono<Void> update(String table, Map<Long, LocalDateTime> times, boolean userFile) {
+        List<Map.Entry<Long, LocalDateTime>> entries = new ArrayList<>(times.entrySet());
+        return Flux
+                .range(0, (entries.size() + batchSize - 1) / batchSize)
+                .map(batch -> entries.subList(batch * batchSize, Math.min(entries.size(), (batch + 1) * batchSize)))
+                .concatMap(batch -> execute(table, batch).onErrorResume(e -> {
+                    log.warn("寫入 {} 的最後訪問時間失敗，{} 筆記錄留待下次刷新: {}", table, batch.size(), e.getMessage());
+                    batch.forEach(entry -> pending.addAndGet(stripeOf(entry.getKey()).put(entry.getKey(), entry.getValue(), userFile)));
+                    return Mono.empty();
+                }))
+                .then();
+    }
+
+    /**
+     * 執行一個多行 UPDATE 語句
+     * UPDATE table SET last_access_time = CASE id WHEN ? THEN ? ... END WHERE id IN (...)，
+     * 並且只在新的時間較晚時更新，避免寫入順序不同時覆蓋成較舊的時間
+     *
+     * @param table   表名稱
+     * @param entries ID與最後訪問時間
+     *
+     * @return 更新的行數
+     */
+    private Mono<Long> execute(String table, List<Map.Entry<Long, LocalDateTime>> entries) {
+        StringBuilder caseClause = new StringBuilder("CASE id");
+        StringBuilder idList = new StringBuilder();
+        for (int i = 0; i < entries.size(); i++) {
+            caseClause.append(" WHEN :id").append(i).append(" THEN :time").append(i);
+            idList.append(i == 0 ? "" : ", ").append(":id").append(i);
+        }
+        caseClause.append(" END");
+        String sql = "UPDATE " + table + " SET last_access_time = " + caseClause + " WHERE id IN (" + idList + ")" +
+                " AND (last_access_time IS NULL OR last_access_time < " + caseClause + ")";
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql);
+        for (int i = 0; i < entries.size(); i++) {
+            spec = spec.bind("id" + i, entries.get(i).getKey()).bind("time" + i, entries.get(i).getValue());
+        }
+        statementCount.incrementAndGet();
+        return spec.fetch().rowsUpdated();
+    }
+
+    private Stripe stripeOf(Long id) {
+        return stripes[(Long.hashCode(id) & 0x7fffffff) % stripes.length];
+    }
+
+    /**
+     * 緩衝的一個分段，以自己的鎖保護用戶文件與伺服器文件的記錄
+     */
+    private static class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private Map<Long, LocalDateTime> userFiles = new HashMap<>();
+
+        private Map<Long, LocalDateTime> serverFiles = new HashMap<>();
+
+        /**
+         * 記錄最後訪問時間，已經有較新的時間時保留較新的
+         *
+         * @param id         ID
+         * @param accessTime 存取時間
+         * @param userFile   是否為用戶文件
+         *
+         * @return 新增的ID數量
+         */
+        int put(Long id, LocalDateTime accessTime, boolean userFile) {
+            lock.lock();
+            try {
+                Map<Long, LocalDateTime> times = userFile ? userFiles : serverFiles;
+                LocalDateTime previous = times.get(id);
+                if (previous == null || accessTime.isAfter(previous)) {
+                    times.put(id, accessTime);
+                }
+                return previous == null ? 1 : 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 將分段的記錄移到刷新用的表中，並將分段換成新的空表
+         *
+         * @param userFileTarget   用戶文件記錄的目標表
+         * @param serverFileTarget 伺服器文件記錄的目標表
+         */
+        void drainTo(Map<Long, LocalDateTime> userFileTarget, Map<Long, LocalDateTime> serverFileTarget) {
+            Map<Long, LocalDateTime> drainedUserFiles;
+            Map<Long, LocalDateTime> drainedServerFiles;
+            lock.lock();
+            try {
+                drainedUserFiles = userFiles;
+                drainedServerFiles = serverFiles;
+                userFiles = new HashMap<>();
+                serverFiles = new HashMap<>();
+            } finally {
+                lock.unlock();
+            }
+            userFileTarget.putAll(drainedUserFiles);
+            serverFileTarget.putAll(drainedServerFiles);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package xyz.dowob.filemanagement.component.manager;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 增量同步會話的管理
+ * 預備增量同步時為用戶文件建立會話，記錄伺服器要求上傳的區塊與其宣告的大小，上傳區塊與提交都必須在會話中進行
+ * 1. 只有會話中宣告缺少的區塊可以上傳，每個區塊只接受一次，用戶不能任意在伺服器上存放不屬於任何文件的區塊
+ * 2. 建立會話時以缺少區塊的總大小預留儲存空間，空間不足時無法建立會話；會話結束(提交或過期)時釋放預留，提交後的文件大小再由文件服務計入
+ * 3. 同一個文件重新預備時取代舊的會話，舊會話中已上傳的區塊由呼叫者帶入新會話，中斷後可以繼續上傳
+ * 4. 會話的有效時間預設與區塊回收的保留時間相同，會話中上傳的區塊在會話過期前不會被回收，過期後預留的空間與區塊一起釋放
+ * 會話與配額的預留一樣只存在於單一節點的記憶體中，多節點部署時需要將同一用戶的請求導向同一節點
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName DeltaSessionManager
+ * @description
+ * @create 2026-10-19 08:10
+ * @Version 1.0
+ **/
+@Log4j2
+@Component
+public class DeltaSessionManager {
+    /**
+     * 儲存空間配額的計數器
+     */
+    private final QuotaManager quotaManager;
+
+    /**
+     * 會話的有效時間
+     */
+    private final Duration sessionTtl;
+
+    /**
+     * 清理過期會話的間隔
+     */
+    private final Duration sweepInterval;
+
+    /**
+     * 以用戶與文件為鍵的會話
+     */
+    private final Map<Key, Session> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * 定時清理的訂閱
+     */
+    private Disposable sweepTask;
+
+    /**
+     * 建立增量同步會話的管理
+     *
+     * @param quotaManager    儲存空間配額的計數器
+     * @param sessionTtlMin   會話的有效時間(分鐘)，預設與區塊回收的保留時間相同
+     * @param sweepIntervalMs 清理過期會話的間隔(毫秒)
+     */
+    public DeltaSessionManager(
+            QuotaManager quotaManager,
+            @Value("${file.delta.session-ttl-minutes: ${file.storage.chunking.gc-grace-minutes: 1440}}") long sessionTtlMin,
+            @Value("${file.delta.sweep-interval-ms: 60000}") long sweepIntervalMs) {
+        this.quotaManager = quotaManager;
+        this.sessionTtl = Duration.ofMinutes(sessionTtlMin);
+        this.sweepInterval = Duration.ofMillis(sweepIntervalMs);
+    }
+
+    /**
+     * 啟動定時清理
+     */
+    @PostConstruct
+    public void start() {
+        sweepTask = Flux.interval(sweepInterval, sweepInterval, Schedulers.boundedElastic()).onBackpressureDrop().subscribe(tick -> sweep());
+    }
+
+    /**
+     * 停止定時清理
+     */
+    @PreDestroy
+    public void stop() {
+        if (sweepTask != null) {
+            sweepTask.dispose();
+        }
+    }
+
+    /**
+     * 建立用戶文件的增量同步會話，取代同一文件的舊會話
+     * 缺少的區塊大小合計大於0時先預留儲存空間，空間不足時返回 QUOTA_EXCEEDED 錯誤且不會取代舊會話
+     *
+     * @param userId         用戶ID
+     * @param fileId         用戶文件ID
+     * @param missingChunks  需要上傳的區塊雜湊值與宣告的大小
+     * @param uploadedChunks 之前的會話中已經上傳的區塊
+     *
+     * @return 新的會話
+     */
+    public Mono<Session> open(Long userId, Long fileId, Map<String, Integer> missingChunks, Set<String> uploadedChunks) {
+        return Mono.defer(() -> {
+            String reservationKey = "delta:" + userId + ":" + fileId + ":" + UUID.randomUUID();
+            long missingBytes = missingChunks.values().stream().mapToLong(Integer::longValue).sum();
+            Mono<Void> reserve = missingBytes > 0 ? quotaManager.reserve(userId, reservationKey, missingBytes) : Mono.empty();
+            return reserve.then(Mono.fromSupplier(() -> {
+                Session session = new Session(userId,
+                                              fileId,
+                                              reservationKey,
+                                              missingChunks,
+                                              uploadedChunks,
+                                              System.nanoTime() + sessionTtl.toNanos());
+                Session previous = sessions.put(new Key(userId, fileId), session);
+                if (previous != null) {
+                    quotaManager.release(previous.getReservationKey());
+                }
+                return session;
+            }));
+        });
+    }
+
+    /**
+     * 取得用戶文件進行中的會話，已過期的會話會被移除並釋放預留的空間
+     *
+     * @param userId 用戶ID
+     * @param fileId 用戶文件ID
+     *
+     * @return 會話，不存在或已過期時為空
+     */
+    public Session get(Long userId, Long fileId) {
+        Key key = new Key(userId, fileId);
+        Session session = sessions.get(key);
+        if (session != null && session.isExpired(System.nanoTime())) {
+            close(session);
+            return null;
+        }
+        return session;
+    }
+
+    /**
+     * 結束會話並釋放預留的空間，會話已經被取代或結束時不做任何事
+     *
+     * @param session 會話
+     *
+     * @return 是否由這次呼叫結束會話，同一個會話只有一個呼叫者會得到 true
+     */
+    public boolean close(Session session) {
+        if (sessions.remove(new Key(session.getUserId(), session.getFileId()), session)) {
+            quotaManager.release(session.getReservationKey());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 進行中的會話數量
+     *
+     * @return 會話數量
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * 移除所有過期的會話
+     *
+     * @return 移除的會話數量
+     */
+    public int sweep() {
+        long now = System.nanoTime();
+        int removed = 0;
+        for (Session session : sessions.values()) {
+            if (session.isExpired(now) && close(session)) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            log.info("移除過期的增量同步會話 {} 個", removed);
+        }
+        return removed;
+    }
+
+    /**
+     * 會話的鍵值
+     *
+     * @param userId 用戶ID
+     * @param fileId 用戶文件ID
+     */
+    private record Key(Long userId, Long fileId) {}
+
+    /**
+     * 單一用戶文件的增量同步會話
+     * 每個宣告缺少的區塊依序經過 待上傳、上傳中、已上傳 三種狀態，同一個區塊同時只會有一個上傳請求
+     */
+    public static final class Session {
+        /**
+         * 用戶ID
+         */
+        @Getter
+        private final Long userId;
+
+        /**
+         * 用戶文件ID
+         */
+        @Getter
+        private final Long fileId;
+
+        /**
+         * 儲存空間預留的鍵值
+         */
+        @Getter
+        private final String reservationKey;
+
+        /**
+         * 需要上傳的區塊雜湊值與宣告的大小
+         */
+        private final Map<String, Integer> missingChunks;
+
+        /**
+         * 正在上傳的區塊
+         */
+        private final Set<String> uploadingChunks = new HashSet<>();
+
+        /**
+         * 已經上傳的區塊
+         */
+        private final Set<String> uploadedChunks;
+
+        /**
+         * 過期時間(System.nanoTime)
+         */
+        private final long expireNanos;
+
+        private Session(Long userId, Long fileId, String reservationKey, Map<String, Integer> missingChunks, Set<String> uploadedChunks, long expireNanos) {
+            this.userId = userId;
+            this.fileId = fileId;
+            this.reservationKey = reservationKey;
+            this.missingChunks = new HashMap<>(missingChunks);
+            this.uploadedChunks = new HashSet<>(uploadedChunks);
+            this.expireNanos = expireNanos;
+        }
+
+        /**
+         * 開始上傳區塊，只有宣告缺少且尚未上傳的區塊可以開始
+         *
+         * @param hash 區塊的SHA-256值(小寫)
+         *
+         * @return 區塊宣告的大小，區塊不在會話中、正在上傳或已經上傳時為空
+         */
+        public synchronized Integer claim(String hash) {
+            Integer size = missingChunks.get(hash);
+            if (size == null || uploadedChunks.contains(hash) || !uploadingChunks.add(hash)) {
+                return null;
+            }
+            return size;
+        }
+
+        /**
+         * 區塊上傳完成
+         *
+         * @param hash 區塊的SHA-256值(小寫)
+         */
+        public synchronized void complete(String hash) {
+            uploadingChunks.remove(hash);
+            uploadedChunks.add(hash);
+        }
+
+        /**
+         * 區塊上傳失敗，之後可以重新上傳
+         *
+         * @param hash 區塊的SHA-256值(小寫)
+         */
+        public synchronized void abandon(String hash) {
+            uploadingChunks.remove(hash);
+        }
+
+        /**
+         * 區塊是否已經在會話中上傳
+         *
+         * @param hash 區塊的SHA-256值(小寫)
+         *
+         * @return 是否已經上傳
+         */
+        public synchronized boolean isUploaded(String hash) {
+            return uploadedChunks.contains(hash);
+        }
+
+        /**
+         * 會話中已經上傳的區塊
+         *
+         * @return 已上傳區塊的複本
+         */
+        public synchronized Set<String> getUploadedChunks() {
+            return Set.copyOf(uploadedChunks);
+        }
+
+        /**
+         * 會話是否已經過期
+         *
+         * @param now 目前時間(System.nanoTime)
+         *
+         * @return 是否過期
+         */
+        private boolean isExpired(long now) {
+            return now - expireNanos > 0;
+        }
+    }
+}
@@ -0,0 +1,473 @@
+package xyz.dowob.filemanagement.component.manager;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import xyz.dowob.filemanagement.customenum.FileEnum;
+import xyz.dowob.filemanagement.entity.Directory;
+import xyz.dowob.filemanagement.entity.DirectoryStats;
+import xyz.dowob.filemanagement.exception.FileException;
+import xyz.dowob.filemanagement.repostiory.DirectoryRepository;
+import xyz.dowob.filemanagement.repostiory.DirectoryStatsRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 目錄統計的增量緩衝
+ * 上傳、刪除、更新內容與移動目錄時只記錄發生在哪個目錄的增量，不直接更新數據庫；定時刷新時再把增量展開到目錄本身與所有祖先目錄
+ * 1. 同一刷新週期內落在同一個目錄(或同一個祖先)上的增量會先合併，每個受影響的目錄只執行一次 UPDATE
+ * 2. 祖先目錄在刷新時沿父目錄ID查詢，同一次刷新中查詢過的目錄不會重複查詢
+ * 3. 已展開但寫入失敗的增量放回重試緩衝，下次刷新時直接寫入，不會重複展開
+ * 4. 向上查詢時遇到重複的目錄或超過最大層數，表示目錄樹損壞，捨棄該目錄的增量並記錄錯誤，不影響其他目錄
+ * 5. 應用關閉時會執行最後一次刷新
+ * 統計最多落後一個刷新週期；應用異常終止遺失的增量以及與重新計算同時發生的更新造成的偏差，由定時的重新計算修正 {@link #reconcile()}
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName DirectoryStatsManager
+ * @description
+ * @create 2026-10-19 05:50
+ * @Version 1.0
+ **/
+@Log4j2
+@Component
+public class DirectoryStatsManager {
+    /**
+     * 目錄統計數據庫操作對象
+     */
+    private final DirectoryStatsRepository directoryStatsRepository;
+
+    /**
+     * 目錄數據庫操作對象，用於查詢祖先目錄
+     */
+    private final DirectoryRepository directoryRepository;
+
+    /**
+     * 刷新的間隔
+     */
+    private final Duration flushInterval;
+
+    /**
+     * 沿父目錄向上查詢的最大層數
+     */
+    private final int maxDepth;
+
+    /**
+     * 發生在目錄上的增量，刷新時展開到祖先目錄
+     */
+    private final Map<Key, Delta> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 已經展開但寫入失敗的增量，下次刷新時直接寫入
+     */
+    private final Map<Key, Delta> retry = new ConcurrentHashMap<>();
+
+    /**
+     * 是否正在刷新或重新計算，同時只會有一個在執行
+     */
+    private final AtomicBoolean flushing = new AtomicBoolean();
+
+    /**
+     * 定時刷新的訂閱
+     */
+    private Disposable flushTask;
+
+    /**
+     * 建立目錄統計的增量緩衝
+     *
+     * @param directoryStatsRepository 目錄統計數據庫操作對象
+     * @param directoryRepository      目錄數據庫操作對象
+     * @param flushIntervalMs          刷新的間隔(毫秒)
+     * @param maxDepth                 沿父目錄向上查詢的最大層數
+     */
+    public DirectoryStatsManager(
+            DirectoryStatsRepository directoryStatsRepository,
+            DirectoryRepository directoryRepository,
+            @Value("${file.directory-stats.flush-interval-ms: 2000}") long flushIntervalMs,
+            @Value("${file.directory.max-depth: 1000}") int maxDepth) {
+        this.directoryStatsRepository = directoryStatsRepository;
+        this.directoryRepository = directoryRepository;
+        this.flushInterval = Duration.ofMillis(flushIntervalMs);
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * 啟動定時刷新
+     */
+    @PostConstruct
+    public void start() {
+        flushTask = Flux.interval(flushInterval, flushInterval, Schedulers.boundedElastic()).onBackpressureDrop().concatMap(tick -> flush()).subscribe();
+    }
+
+    /**
+     * 停止定時刷新，等待正在執行的刷新結束後將緩衝中剩餘的增量寫入數據庫
+     *
+     * @throws InterruptedException 等待時被中斷
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (flushTask != null) {
+            flushTask.dispose();
+        }
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (flushing.get() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Integer flushed = flush().block(Duration.ofSeconds(30));
+        log.info("關閉前寫入目錄統計 {} 筆", flushed);
+    }
+
+    /**
+     * 記錄目錄中新增或移除一個文件，不會等待數據庫更新
+     *
+     * @param userId      用戶ID
+     * @param directoryId 文件所在的目錄ID
+     * @param fileSize    文件大小
+     * @param fileType    文件類型
+     * @param sign        新增為 1，移除為 -1
+     */
+    public void recordFile(Long userId, Long directoryId, long fileSize, FileEnum fileType, int sign) {
+        long[] values = new long[Delta.SIZE];
+        values[Delta.BYTES] = sign * fileSize;
+        values[Delta.FILES] = sign;
+        values[Delta.TYPES + (fileType != null ? fileType : FileEnum.OTHER).ordinal()] = sign;
+        pending.merge(new Key(userId, directoryId), new Delta(values), Delta::plus);
+    }
+
+    /**
+     * 記錄一整棵子樹移入或移出目錄，用於移動目錄
+     * 子樹本身與其中的目錄統計不變，只有新舊父目錄以及它們的祖先需要更新
+     *
+     * @param userId      用戶ID
+     * @param directoryId 子樹移入或移出的父目錄ID
+     * @param stats       子樹根目錄的統計
+     * @param sign        移入為 1，移出為 -1
+     */
+    public void recordSubtree(Long userId, Long directoryId, DirectoryStats stats, int sign) {
+        Delta delta = Delta.of(stats);
+        if (!delta.isZero()) {
+            pending.merge(new Key(userId, directoryId), sign > 0 ? delta : delta.negate(), Delta::plus);
+        }
+    }
+
+    /**
+     * 將緩衝中的增量展開到祖先目錄後寫入數據庫，已經有刷新或重新計算在執行時直接返回
+     *
+     * @return 更新的目錄統計數量
+     */
+    public Mono<Integer> flush() {
+        return Mono.defer(() -> {
+            if (!flushing.compareAndSet(false, true)) {
+                return Mono.just(0);
+            }
+            return flushDrained().doFinally(signal -> flushing.set(false));
+        });
+    }
+
+    /**
+     * 以用戶文件重新計算所有目錄統計，修正增量更新累積的偏差
+     * 1. 先寫入緩衝中的增量
+     * 2. 逐一用戶依目錄合計直接放在目錄中的文件，再沿目錄樹向上累加，寫入與現有統計不同的行
+     * 重新計算期間暫停定時刷新；同一用戶在重新計算的查詢與寫入之間記錄的增量可能被計算兩次，由下一次重新計算修正
+     *
+     * @return 重新計算的用戶數量
+     */
+    public Mono<Integer> reconcile() {
+        return Mono.defer(() -> {
+            if (!flushing.compareAndSet(false, true)) {
+                return Mono.just(0);
+            }
+            return flushDrained()
+                    .thenMany(directoryStatsRepository.findAllUserIds())
+                    .concatMap(userId -> reconcileUser(userId).onErrorResume(e -> {
+                        log.warn("重新計算用戶 {} 的目錄統計失敗: {}", userId, e.getMessage());
+                        return Mono.empty();
+                    }))
+                    .count()
+                    .map(Long::intValue)
+                    .doFinally(signal -> flushing.set(false));
+        });
+    }
+
+    /**
+     * 取出緩衝中的增量並寫入，呼叫前需要已經取得刷新的執行權
+     *
+     * @return 更新的目錄統計數量
+     */
+    private Mono<Integer> flushDrained() {
+        Map<Key, Delta> direct = drain(pending);
+        Map<Key, Delta> resolved = drain(retry);
+        if (direct.isEmpty() && resolved.isEmpty()) {
+            return Mono.just(0);
+        }
+        Map<Long, Long> parents = new HashMap<>();
+        return Flux
+                .fromIterable(direct.entrySet())
+                .concatMap(entry -> ancestors(entry.getKey().directoryId(), parents)
+                        .collectList()
+                        .doOnNext(directoryIds -> directoryIds.forEach(directoryId -> {
+                            Key ancestorKey = new Key(entry.getKey().userId(), directoryId);
+                            resolved.merge(ancestorKey, entry.getValue(), Delta::plus);
+                        }))
+                        .onErrorResume(FileException.class, e -> {
+                            log.error("捨棄目錄 {} 的統計增量，等待重新計算修正: {}", entry.getKey().directoryId(), e.getMessage());
+                            return Mono.empty();
+                        }))
+                .then(Mono.defer(() -> Flux
+                        .fromIterable(resolved.entrySet())
+                        .filter(entry -> !entry.getValue().isZero())
+                        .concatMap(entry -> apply(entry.getKey(), entry.getValue()).onErrorResume(e -> {
+                            log.warn("寫入目錄 {} 的統計失敗，留待下次刷新: {}", entry.getKey().directoryId(), e.getMessage());
+                            retry.merge(entry.getKey(), entry.getValue(), Delta::plus);
+                            return Mono.empty();
+                        }))
+                        .count()
+                        .map(Long::intValue)))
+                .onErrorResume(e -> {
+                    log.warn("展開目錄統計的增量失敗，留待下次刷新: {}", e.getMessage());
+                    direct.forEach((key, delta) -> pending.merge(key, delta, Delta::plus));
+                    return Mono.just(0);
+                });
+    }
+
+    /**
+     * 由目錄開始向上列出目錄本身、所有祖先目錄以及根目錄
+     * 查詢過的父目錄ID記錄在 parents 中，同一次刷新中不會重複查詢
+     * 同一個目錄出現兩次或超過最大層數時傳出 DIRECTORY_TREE_INVALID 錯誤
+     *
+     * @param directoryId 起始目錄ID
+     * @param parents     目錄ID對父目錄ID的記錄
+     *
+     * @return 目錄ID，由下往上，最後一個為根目錄
+     */
+    private Flux<Long> ancestors(Long directoryId, Map<Long, Long> parents) {
+        return Flux.defer(() -> {
+            Set<Long> visited = new HashSet<>();
+            return Mono.just(directoryId).expand(id -> {
+                if (id == Directory.ROOT_ID) {
+                    return Mono.empty();
+                }
+                Long parentId = parents.get(id);
+                if (parentId != null) {
+                    return Mono.just(parentId);
+                }
+                return directoryRepository
+                        .findById(id)
+                        .map(Directory::getParentId)
+                        .defaultIfEmpty(Directory.ROOT_ID)
+                        .doOnNext(parent -> parents.put(id, parent));
+            }).<Long>handle((id, sink) -> {
+                if (!visited.add(id) || visited.size() > maxDepth + 1) {
+                    sink.error(new FileException(FileException.ErrorCode.DIRECTORY_TREE_INVALID, directoryId));
+                    return;
+                }
+                sink.next(id);
+            });
+        });
+    }
+
+    /**
+     * 將增量寫入一個目錄的統計，統計不存在時建立
+     * 並發建立同一個目錄的統計時，唯一索引衝突的一方改為更新
+     *
+     * @param key   用戶ID與目錄ID
+     * @param delta 增量
+     *
+     * @return 寫入完成的信號
+     */
+    private Mono<Integer> apply(Key key, Delta delta) {
+        return addDelta(key, delta).flatMap(updated -> {
+            if (updated > 0) {
+                return Mono.just(updated);
+            }
+            DirectoryStats stats = delta.toStats(key.userId(), key.directoryId());
+            return directoryStatsRepository
+                    .save(stats)
+                    .thenReturn(1)
+                    .onErrorResume(DataIntegrityViolationException.class, e -> addDelta(key, delta));
+        });
+    }
+
+    private Mono<Integer> addDelta(Key key, Delta delta) {
+        long[] values = delta.values();
+        return directoryStatsRepository.addDelta(key.userId(),
+                                                 key.directoryId(),
+                                                 values[Delta.BYTES],
+                                                 values[Delta.FILES],
+                                                 values[Delta.TYPES + FileEnum.IMAGE.ordinal()],
+                                                 values[Delta.TYPES + FileEnum.VIDEO.ordinal()],
+                                                 values[Delta.TYPES + FileEnum.MUSIC.ordinal()],
+                                                 values[Delta.TYPES + FileEnum.DOCUMENT.ordinal()],
+                                                 values[Delta.TYPES + FileEnum.ZIP.ordinal()],
+                                                 values[Delta.TYPES + FileEnum.OTHER.ordinal()],
+                                                 LocalDateTime.now());
+    }
+
+    /**
+     * 重新計算一個用戶的所有目錄統計
+     *
+     * @param userId 用戶ID
+     *
+     * @return 重新計算完成的信號
+     */
+    private Mono<Long> reconcileUser(Long userId) {
+        return Mono
+                .zip(directoryRepository.findAllByUserId(userId).collectMap(Directory::getId, Directory::getParentId),
+                     directoryStatsRepository.sumFilesByDirectory(userId).collectList(),
+                     directoryStatsRepository.findAllByUserId(userId).collectMap(DirectoryStats::getDirectoryId))
+                .flatMapMany(tuple -> {
+                    Map<Long, Long> parents = tuple.getT1();
+                    Map<Long, Delta> totals = new HashMap<>();
+                    totals.put(Directory.ROOT_ID, Delta.ZERO);
+                    parents.keySet().forEach(directoryId -> totals.put(directoryId, Delta.ZERO));
+                    for (DirectoryStats direct : tuple.getT2()) {
+                        Delta delta = Delta.of(direct);
+                        Long directoryId = direct.getDirectoryId();
+                        for (int depth = 0; directoryId != null && depth <= parents.size(); depth++) {
+                            totals.merge(directoryId, delta, Delta::plus);
+                            directoryId = directoryId == Directory.ROOT_ID ? null : parents.getOrDefault(directoryId, Directory.ROOT_ID);
+                        }
+                    }
+                    Map<Long, DirectoryStats> existing = tuple.getT3();
+                    return Flux.fromIterable(totals.entrySet()).filter(entry -> {
+                        DirectoryStats current = existing.get(entry.getKey());
+                        return current == null || !Delta.of(current).equals(entry.getValue());
+                    }).concatMap(entry -> {
+                        DirectoryStats stats = entry.getValue().toStats(userId, entry.getKey());
+                        DirectoryStats current = existing.get(entry.getKey());
+                        if (current != null) {
+                            stats.setId(current.getId());
+                        }
+                        log.info("修正用戶 {} 目錄 {} 的統計: {} -> {}", userId, entry.getKey(), current, stats);
+                        return directoryStatsRepository.save(stats);
+                    });
+                })
+                .count();
+    }
+
+    /**
+     * 取出緩衝中的所有增量
+     *
+     * @param buffer 緩衝
+     *
+     * @return 取出的增量
+     */
+    private static Map<Key, Delta> drain(Map<Key, Delta> buffer) {
+        Map<Key, Delta> drained = new HashMap<>();
+        for (Key key : buffer.keySet()) {
+            Delta delta = buffer.remove(key);
+            if (delta != null) {
+                drained.merge(key, delta, Delta::plus);
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * 增量緩衝的鍵
+     *
+     * @param userId      用戶ID
+     * @param directoryId 目錄ID
+     */
+    private record Key(long userId, long directoryId) {}
+
+    /**
+     * 目錄統計的增量，依序為總大小、文件數量以及各文件類型(依 FileEnum 的順序)的數量
+     *
+     * @param values 增量的值
+     */
+    private record Delta(long[] values) {
+        private static final int BYTES = 0;
+
+        private static final int FILES = 1;
+
+        private static final int TYPES = 2;
+
+        private static final int SIZE = TYPES + FileEnum.values().length;
+
+        private static final Delta ZERO = new Delta(new long[SIZE]);
+
+        static Delta of(DirectoryStats stats) {
+            long[] values = new long[SIZE];
+            values[BYTES] = valueOf(stats.getTotalBytes());
+            values[FILES] = valueOf(stats.getFileCount());
+            values[TYPES + FileEnum.IMAGE.ordinal()] = valueOf(stats.getImageCount());
+            values[TYPES + FileEnum.VIDEO.ordinal()] = valueOf(stats.getVideoCount());
+            values[TYPES + FileEnum.MUSIC.ordinal()] = valueOf(stats.getMusicCount());
+            values[TYPES + FileEnum.DOCUMENT.ordinal()] = valueOf(stats.getDocumentCount());
+            values[TYPES + FileEnum.ZIP.ordinal()] = valueOf(stats.getZipCount());
+            values[TYPES + FileEnum.OTHER.ordinal()] = valueOf(stats.getOtherCount());
+            return new Delta(values);
+        }
+
+        private static long valueOf(Long value) {
+            return value != null ? value : 0;
+        }
+
+        Delta plus(Delta other) {
+            long[] sum = new long[SIZE];
+            for (int i = 0; i < SIZE; i++) {
+                sum[i] = values[i] + other.values[i];
+            }
+            return new Delta(sum);
+        }
+
+        Delta negate() {
+            long[] negated = new long[SIZE];
+            for (int i = 0; i < SIZE; i++) {
+                negated[i] = -values[i];
+            }
+            return new Delta(negated);
+        }
+
+        boolean isZero() {
+            for (long value : values) {
+                if (value != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        DirectoryStats toStats(Long userId, Long directoryId) {
+            DirectoryStats stats = new DirectoryStats();
+            stats.setUserId(userId);
+            stats.setDirectoryId(directoryId);
+            stats.setTotalBytes(values[BYTES]);
+            stats.setFileCount(values[FILES]);
+            stats.setImageCount(values[TYPES + FileEnum.IMAGE.ordinal()]);
+            stats.setVideoCount(values[TYPES + FileEnum.VIDEO.ordinal()]);
+            stats.setMusicCount(values[TYPES + FileEnum.MUSIC.ordinal()]);
+            stats.setDocumentCount(values[TYPES + FileEnum.DOCUMENT.ordinal()]);
+            stats.setZipCount(values[TYPES + FileEnum.ZIP.ordinal()]);
+            stats.setOtherCount(values[TYPES + FileEnum.OTHER.ordinal()]);
+            stats.setUpdateTime(LocalDateTime.now());
+            return stats;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Delta delta && Arrays.equals(values, delta.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(values);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package xyz.dowob.filemanagement.component.manager;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.entity.FileShare;
+import xyz.dowob.filemanagement.entity.ServerFileMetadata;
+import xyz.dowob.filemanagement.entity.User;
+import xyz.dowob.filemanagement.entity.UserFileMetadata;
+import xyz.dowob.filemanagement.repostiory.FileShareRepository;
+import xyz.dowob.filemanagement.repostiory.ServerFileMetadataRepository;
+import xyz.dowob.filemanagement.repostiory.UserFileMetadataRepository;
+import xyz.dowob.filemanagement.repostiory.UserRepository;
+import xyz.dowob.filemanagement.utils.BatchLoader;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 文件關聯資料的批次載入管理
+ * 用戶文件的擁有者、伺服器文件與分享對象，以及伺服器文件的擁有者都是 @Transient 欄位，逐筆查詢時列出 N 個文件會產生 N 次查詢，
+ * 這裡以 {@link BatchLoader} 把同一頁的ID合併為每種實體一次 IN 查詢，列出一頁文件的查詢次數是固定的，與頁大小無關
+ * 每次請求(或每一頁)以 newContext 建立新的載入上下文，上下文內的結果會被快取，同一個用戶在同一頁中出現多次時只查詢一次；
+ * 上下文之間不共用快取，不會讀到其他請求之前的舊資料
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName FileRelationManager
+ * @description
+ * @create 2026-10-19 07:30
+ * @Version 1.0
+ **/
+@Component
+public class FileRelationManager {
+    /**
+     * 用戶數據庫操作對象
+     */
+    private final UserRepository userRepository;
+
+    /**
+     * 伺服器文件元數據數據庫操作對象
+     */
+    private final ServerFileMetadataRepository serverFileMetadataRepository;
+
+    /**
+     * 用戶文件元數據數據庫操作對象
+     */
+    private final UserFileMetadataRepository userFileMetadataRepository;
+
+    /**
+     * 文件分享數據庫操作對象
+     */
+    private final FileShareRepository fileShareRepository;
+
+    /**
+     * 逐筆要求時合併批次的時間窗口
+     */
+    private final Duration window;
+
+    /**
+     * 單次 IN 查詢最多的ID數量
+     */
+    private final int maxBatchSize;
+
+    /**
+     * 建立文件關聯資料的批次載入管理
+     *
+     * @param userRepository               用戶數據庫操作對象
+     * @param serverFileMetadataRepository 伺服器文件元數據數據庫操作對象
+     * @param userFileMetadataRepository   用戶文件元數據數據庫操作對象
+     * @param fileShareRepository          文件分享數據庫操作對象
+     * @param windowMs                     逐筆要求時合併批次的時間窗口(毫秒)
+     * @param maxBatchSize                 單次 IN 查詢最多的ID數量
+     */
+    public FileRelationManager(
+            UserRepository userRepository,
+            ServerFileMetadataRepository serverFileMetadataRepository,
+            UserFileMetadataRepository userFileMetadataRepository,
+            FileShareRepository fileShareRepository,
+            @Value("${file.loader.window-ms: 2}") long windowMs,
+            @Value("${file.loader.max-batch-size: 1000}") int maxBatchSize) {
+        this.userRepository = userRepository;
+        this.serverFileMetadataRepository = serverFileMetadataRepository;
+        this.userFileMetadataRepository = userFileMetadataRepository;
+        this.fileShareRepository = fileShareRepository;
+        this.window = Duration.ofMillis(windowMs);
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * 建立新的載入上下文
+     *
+     * @return 載入上下文
+     */
+    public Context newContext() {
+        return new Context();
+    }
+
+    /**
+     * 載入上下文，持有各實體的載入器以及已查詢的結果
+     */
+    public final class Context {
+        /**
+         * 以用戶ID載入用戶
+         */
+        private final BatchLoader<Long, User> users = new BatchLoader<>(ids -> userRepository.findAllById(ids).collectMap(User::getId),
+                                                                        window,
+                                                                        maxBatchSize);
+
+        /**
+         * 以伺服器文件ID載入伺服器文件
+         */
+        private final BatchLoader<Long, ServerFileMetadata> serverFiles = new BatchLoader<>(ids -> serverFileMetadataRepository
+                .findAllById(ids)
+                .collectMap(ServerFileMetadata::getId), window, maxBatchSize);
+
+        /**
+         * 以伺服器文件ID載入擁有者，先以 IN 查詢取得指向伺服器文件的用戶文件，再批次載入用戶
+         */
+        private final BatchLoader<Long, Set<User>> owners = new BatchLoader<>(ids -> userFileMetadataRepository
+                .findAllByServerFileIdIn(ids)
+                .collectMultimap(UserFileMetadata::getServerFileId, UserFileMetadata::getUserId)
+                .flatMap(this::resolveUsers), window, maxBatchSize);
+
+        /**
+         * 以用戶文件ID載入分享對象，先以 IN 查詢取得分享記錄，再批次載入用戶
+         */
+        private final BatchLoader<Long, Set<User>> shares = new BatchLoader<>(ids -> fileShareRepository
+                .findAllByUserFileIdIn(ids)
+                .collectMultimap(FileShare::getUserFileId, FileShare::getUserId)
+                .flatMap(this::resolveUsers), window, maxBatchSize);
+
+        private Context() {
+        }
+
+        /**
+         * 以用戶ID載入單一用戶，同一個時間窗口內的要求會合併為一次查詢
+         *
+         * @param userId 用戶ID
+         *
+         * @return 用戶，不存在時為空
+         */
+        public Mono<User> loadUser(Long userId) {
+            return users.load(userId);
+        }
+
+        /**
+         * 填入用戶文件的擁有者
+         *
+         * @param userFiles 用戶文件
+         *
+         * @return 填入後的用戶文件
+         */
+        public Mono<List<UserFileMetadata>> loadUsers(List<UserFileMetadata> userFiles) {
+            return fill(userFiles, users, UserFileMetadata::getUserId, UserFileMetadata::setUser);
+        }
+
+        /**
+         * 填入用戶文件對應的伺服器文件
+         *
+         * @param userFiles 用戶文件
+         *
+         * @return 填入後的用戶文件，伺服器文件不存在時欄位為空
+         */
+        public Mono<List<UserFileMetadata>> loadServerFiles(List<UserFileMetadata> userFiles) {
+            return fill(userFiles, serverFiles, UserFileMetadata::getServerFileId, UserFileMetadata::setServerFile);
+        }
+
+        /**
+         * 填入用戶文件的分享對象，沒有分享時為空集合
+         *
+         * @param userFiles 用戶文件
+         *
+         * @return 填入後的用戶文件
+         */
+        public Mono<List<UserFileMetadata>> loadSharedWithUsers(List<UserFileMetadata> userFiles) {
+            return fill(userFiles, shares, UserFileMetadata::getId, (userFile, sharedWith) -> userFile.setSharedWithUsers(
+                    sharedWith == null ? Set.of() : sharedWith));
+        }
+
+        /**
+         * 填入伺服器文件的擁有者
+         *
+         * @param serverFileList 伺服器文件
+         *
+         * @return 填入後的伺服器文件
+         */
+        public Mono<List<ServerFileMetadata>> loadOwners(List<ServerFileMetadata> serverFileList) {
+            return fill(serverFileList, owners, ServerFileMetadata::getId, (serverFile, serverFileOwners) -> serverFile.setOwners(
+                    serverFileOwners == null ? Set.of() : serverFileOwners));
+        }
+
+        /**
+         * 已執行的 IN 查詢次數
+         *
+         * @return 查詢次數
+         */
+        public int getBatchCount() {
+            return users.getBatchCount() + serverFiles.getBatchCount() + owners.getBatchCount() + shares.getBatchCount();
+        }
+
+        /**
+         * 以一次批次查詢取得所有元素的關聯資料並填入
+         *
+         * @param items  元素
+         * @param loader 載入器
+         * @param key    取得元素的關聯ID
+         * @param setter 填入關聯資料，查詢不到時傳入空值
+         * @param <T>    元素類型
+         * @param <V>    關聯資料類型
+         *
+         * @return 填入後的元素
+         */
+        private <T, V> Mono<List<T>> fill(List<T> items, BatchLoader<Long, V> loader, Function<T, Long> key, BiConsumer<T, V> setter) {
+            if (items.isEmpty()) {
+                return Mono.just(items);
+            }
+            return loader.loadMany(items.stream().map(key).toList()).map(values -> {
+                items.forEach(item -> setter.accept(item, values.get(key.apply(item))));
+                return items;
+            });
+        }
+
+        /**
+         * 將 ID 到用戶ID集合的對應轉換為 ID 到用戶集合，所有用戶以一次批次查詢取得
+         *
+         * @param userIds ID 與對應的用戶ID
+         *
+         * @return ID 與對應的用戶
+         */
+        private Mono<Map<Long, Set<User>>> resolveUsers(Map<Long, Collection<Long>> userIds) {
+            return users.loadMany(userIds.values().stream().flatMap(Collection::stream).distinct().toList()).map(usersById -> {
+                Map<Long, Set<User>> result = new HashMap<>(userIds.size() * 2);
+                userIds.forEach((id, ids) -> {
+                    Set<User> resolved = new LinkedHashSet<>();
+                    ids.forEach(userId -> {
+                        User user = usersById.get(userId);
+                        if (user != null) {
+                            resolved.add(user);
+                        }
+                    });
+                    result.put(id, resolved);
+                });
+                return result;
+            });
+        }
+    }
+}
@@ -36,10 +36,12 @@ public class JwtAuthenticationManager implements ReactiveAuthenticationManager {
     private final TokenStrategyFactory tokenStrategyFactory;
 
     /**
+     * 驗證 JWT 憑證，憑證只會被解析與驗證簽名一次，近期驗證過的憑證直接使用快取的結果
+     *
      * @param authentication 用戶請求頭中的 JWT 憑證
      *
      * @return 當 JWT 憑證驗證成功時，返回一個 UsernamePasswordAuthenticationToken 對象
-     * 用戶的 id 作為 principal，用戶的角色作為 authorities
+     * 用戶的 id 作為 principal，用戶的角色加上 ROLE_ 前綴作為 authorities(與 User.getAuthorities 相同，hasRole 才能比對)
      * 當 JWT 憑證驗證失敗時，返回 Mono.empty()
      */
     @Override
@@ -47,14 +49,9 @@ public class JwtAuthenticationManager implements ReactiveAuthenticationManager {
         String token = authentication.getCredentials().toString();
         JwtTokenProviderImpl jwtTokenProvider =
                 (JwtTokenProviderImpl) tokenStrategyFactory.getTokenProvider(TokenEnum.JWT_AUTHORIZATION_TOKEN);
-        try {
-            Mono<Long> userId = jwtTokenProvider.validateToken(token, null);
-            return userId.flatMap(id -> jwtTokenProvider.getClaimsFromToken(token).map(claims -> claims.get("role")).map(roles -> {
-                List<GrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority((String) roles));
-                return new UsernamePasswordAuthenticationToken(id, null, authorities);
-            }));
-        } catch (Exception e) {
-            return Mono.empty();
-        }
+        return jwtTokenProvider.verifyToken(token).<Authentication>map(verifiedToken -> {
+            List<GrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + verifiedToken.role()));
+            return new UsernamePasswordAuthenticationToken(verifiedToken.userId(), null, authorities);
+        }).onErrorResume(e -> Mono.empty());
     }
 }
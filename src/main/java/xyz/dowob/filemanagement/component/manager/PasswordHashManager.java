@@ -0,0 +1,169 @@
+package xyz.dowob.filemanagement.component.manager;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import xyz.dowob.filemanagement.exception.ValidationException;
+import xyz.dowob.filemanagement.utils.LatencyHistogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 密碼雜湊的執行管理
+ * BCrypt 的計算刻意設計得很慢，直接在 Netty 的事件循環上執行時，大量登入會卡住同一個事件循環上的其他請求，
+ * 因此密碼的雜湊與比對都交給固定大小的專用線程池執行
+ * 1. 線程數預設為 CPU 核心數，BCrypt 為純計算，更多的線程不會提高吞吐量
+ * 2. 等待佇列有上限，佇列已滿時立即以 PASSWORD_HASH_BUSY 拒絕，由控制器返回 503，不讓請求排隊到逾時
+ * 3. 分別記錄排隊時間與計算時間的延遲分佈，用於依登入的 p99 目標調整 BCrypt 的強度
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName PasswordHashManager
+ * @description
+ * @create 2026-10-18 21:55
+ * @Version 1.0
+ **/
+@Log4j2
+@Component
+public class PasswordHashManager {
+    /**
+     * 密碼加密器(採用BCrypt加密)
+     */
+    private final PasswordEncoder passwordEncoder;
+
+    /**
+     * 執行密碼雜湊的線程池
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * 包裝線程池的調度器
+     */
+    private final Scheduler scheduler;
+
+    /**
+     * 計算時間(不含排隊)的延遲分佈
+     */
+    private final LatencyHistogram hashLatency = new LatencyHistogram();
+
+    /**
+     * 排隊時間的延遲分佈
+     */
+    private final LatencyHistogram queueLatency = new LatencyHistogram();
+
+    /**
+     * 因佇列已滿被拒絕的次數
+     */
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    /**
+     * 建立密碼雜湊的執行管理
+     *
+     * @param passwordEncoder 密碼加密器
+     * @param threads         線程數，小於等於0時使用 CPU 核心數
+     * @param queueCapacity   等待佇列的上限
+     */
+    public PasswordHashManager(
+            PasswordEncoder passwordEncoder,
+            @Value("${security.password.hash-threads: 0}") int threads,
+            @Value("${security.password.queue-capacity: 64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        this.scheduler = Schedulers.fromExecutorService(executor, "password-hash");
+    }
+
+    /**
+     * 關閉線程池
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
+        executor.shutdown();
+    }
+
+    /**
+     * 在專用線程池中比對密碼
+     *
+     * @param rawPassword     明文密碼
+     * @param encodedPassword 已雜湊的密碼
+     *
+     * @return 是否相符，線程池已滿時傳出 PASSWORD_HASH_BUSY 錯誤
+     */
+    public Mono<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * 在專用線程池中雜湊密碼
+     *
+     * @param rawPassword 明文密碼
+     *
+     * @return 雜湊後的密碼，線程池已滿時傳出 PASSWORD_HASH_BUSY 錯誤
+     */
+    public Mono<String> encode(CharSequence rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * 線程池與延遲分佈的統計
+     *
+     * @return 統計數據
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("threads", executor.getMaximumPoolSize());
+        statistics.put("active", executor.getActiveCount());
+        statistics.put("queued", executor.getQueue().size());
+        statistics.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        statistics.put("rejected", rejectedCount.get());
+        statistics.put("hash", hashLatency.snapshot());
+        statistics.put("queue", queueLatency.snapshot());
+        return statistics;
+    }
+
+    /**
+     * 將計算交給線程池，並記錄排隊與計算時間
+     *
+     * @param task 計算
+     * @param <T>  結果類型
+     *
+     * @return 計算結果
+     */
+    private <T> Mono<T> submit(Callable<T> task) {
+        return Mono.defer(() -> {
+            long submittedAt = System.nanoTime();
+            return Mono.fromCallable(() -> {
+                long startedAt = System.nanoTime();
+                queueLatency.record(startedAt - submittedAt);
+                try {
+                    return task.call();
+                } finally {
+                    hashLatency.record(System.nanoTime() - startedAt);
+                }
+            }).subscribeOn(scheduler);
+        }).onErrorMap(RejectedExecutionException.class, e -> {
+            rejectedCount.incrementAndGet();
+            log.warn("密碼雜湊線程池已滿，拒絕請求");
+            return new ValidationException(ValidationException.ErrorCode.PASSWORD_HASH_BUSY);
+        });
+    }
+}
@@ -0,0 +1,443 @@
+package xyz.dowob.filemanagement.component.manager;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import xyz.dowob.filemanagement.customenum.RoleEnum;
+import xyz.dowob.filemanagement.dto.file.StorageQuotaDTO;
+import xyz.dowob.filemanagement.entity.Directory;
+import xyz.dowob.filemanagement.entity.DirectoryStats;
+import xyz.dowob.filemanagement.entity.User;
+import xyz.dowob.filemanagement.entity.UserStorage;
+import xyz.dowob.filemanagement.exception.FileException;
+import xyz.dowob.filemanagement.repostiory.DirectoryStatsRepository;
+import xyz.dowob.filemanagement.repostiory.UserRepository;
+import xyz.dowob.filemanagement.repostiory.UserStorageRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 用戶儲存空間配額的計數器
+ * 上傳前只需要比對記憶體中的計數器，不需要每次都以 SUM(file_size) 查詢已使用的空間
+ * 1. 用戶的計數器在第一次被使用時從 user_storage 載入，沒有記錄時以根目錄的統計作為初始值並建立記錄
+ * 2. 上傳開始前以宣告的大小(請求的 Content-Length、分段上傳會話的文件大小)預留空間，預留以 CAS 確認已使用與已預留的合計不超過配額，
+ * 同一帳號並發上傳時不會一起超過配額；沒有宣告大小的上傳在內容流入時逐段增加預留；文件建立後計入已使用的空間，上傳結束時釋放預留
+ * 3. 已使用的空間以 LongAdder 累加，定時將有變更的用戶寫入 user_storage 作為檢查點，應用關閉時會執行最後一次寫入
+ * 4. 重新計算目錄統計後以根目錄的統計校正計數器 {@link #resync()}，修正應用異常終止時遺失的檢查點
+ * 計數器只存在於單一節點的記憶體中，多節點部署時需要將同一用戶的上傳導向同一節點
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName QuotaManager
+ * @description
+ * @create 2026-10-19 06:50
+ * @Version 1.0
+ **/
+@Log4j2
+@Component
+public class QuotaManager {
+    /**
+     * 用戶儲存空間數據庫操作對象
+     */
+    private final UserStorageRepository userStorageRepository;
+
+    /**
+     * 用戶數據庫操作對象，用於取得角色的預設配額
+     */
+    private final UserRepository userRepository;
+
+    /**
+     * 目錄統計數據庫操作對象，用於初始化與校正已使用的空間
+     */
+    private final DirectoryStatsRepository directoryStatsRepository;
+
+    /**
+     * 各角色的預設配額，負數表示不限制
+     */
+    private final Map<RoleEnum, Long> roleQuotas;
+
+    /**
+     * 寫入檢查點的間隔
+     */
+    private final Duration checkpointInterval;
+
+    /**
+     * 已載入的用戶計數器
+     */
+    private final Map<Long, Usage> usages = new ConcurrentHashMap<>();
+
+    /**
+     * 進行中的預留，鍵值由呼叫端指定
+     */
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+
+    /**
+     * 已使用的空間有變更、尚未寫入檢查點的用戶
+     */
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 是否正在寫入檢查點
+     */
+    private final AtomicBoolean checkpointing = new AtomicBoolean();
+
+    /**
+     * 定時寫入檢查點的訂閱
+     */
+    private Disposable checkpointTask;
+
+    /**
+     * 建立用戶儲存空間配額的計數器
+     *
+     * @param userStorageRepository    用戶儲存空間數據庫操作對象
+     * @param userRepository           用戶數據庫操作對象
+     * @param directoryStatsRepository 目錄統計數據庫操作對象
+     * @param adminQuota               管理員的預設配額
+     * @param advancedUserQuota        高級用戶的預設配額
+     * @param userQuota                用戶的預設配額
+     * @param visitorQuota             訪客的預設配額
+     * @param checkpointIntervalMs     寫入檢查點的間隔(毫秒)
+     */
+    public QuotaManager(
+            UserStorageRepository userStorageRepository,
+            UserRepository userRepository,
+            DirectoryStatsRepository directoryStatsRepository,
+            @Value("${file.quota.admin: -1}") long adminQuota,
+            @Value("${file.quota.advanced-user: 107374182400}") long advancedUserQuota,
+            @Value("${file.quota.user: 10737418240}") long userQuota,
+            @Value("${file.quota.visitor: 0}") long visitorQuota,
+            @Value("${file.quota.checkpoint-interval-ms: 5000}") long checkpointIntervalMs) {
+        this.userStorageRepository = userStorageRepository;
+        this.userRepository = userRepository;
+        this.directoryStatsRepository = directoryStatsRepository;
+        this.roleQuotas = Map.of(RoleEnum.ADMIN,
+                                 adminQuota,
+                                 RoleEnum.ADVANCED_USER,
+                                 advancedUserQuota,
+                                 RoleEnum.USER,
+                                 userQuota,
+                                 RoleEnum.VISITOR,
+                                 visitorQuota);
+        this.checkpointInterval = Duration.ofMillis(checkpointIntervalMs);
+    }
+
+    /**
+     * 啟動定時寫入檢查點
+     */
+    @PostConstruct
+    public void start() {
+        checkpointTask = Flux
+                .interval(checkpointInterval, checkpointInterval, Schedulers.boundedElastic())
+                .onBackpressureDrop()
+                .concatMap(tick -> checkpoint())
+                .subscribe();
+    }
+
+    /**
+     * 停止定時寫入，等待正在執行的寫入結束後寫入最後一次檢查點
+     *
+     * @throws InterruptedException 等待時被中斷
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (checkpointTask != null) {
+            checkpointTask.dispose();
+        }
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (checkpointing.get() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Integer written = checkpoint().block(Duration.ofSeconds(30));
+        log.info("關閉前寫入用戶已使用空間 {} 筆", written);
+    }
+
+    /**
+     * 預留空間，已使用與已預留的合計加上本次預留超過配額時傳出 QUOTA_EXCEEDED 錯誤
+     * 同一個鍵值已經有預留時不會重複預留，分段上傳會話在合併時可以再次呼叫，以補回應用重啟後遺失的預留
+     * 大小未知時以 0 預留，只確認還有剩餘空間，之後以 {@link #extend(String, long)} 隨收到的內容增加預留
+     *
+     * @param userId 用戶ID
+     * @param key    預留的鍵值，釋放時使用
+     * @param bytes  預留的大小
+     *
+     * @return 預留完成的信號
+     */
+    public Mono<Void> reserve(Long userId, String key, long bytes) {
+        return usage(userId).flatMap(usage -> {
+            if (reservations.containsKey(key)) {
+                return Mono.empty();
+            }
+            long size = Math.max(bytes, 0);
+            if (!usage.tryReserve(size)) {
+                return Mono.error(new FileException(FileException.ErrorCode.QUOTA_EXCEEDED, usage.remaining()));
+            }
+            if (reservations.putIfAbsent(key, new Reservation(userId, size)) != null) {
+                usage.charged.addAndGet(-size);
+            }
+            return Mono.empty();
+        });
+    }
+
+    /**
+     * 增加已存在預留的大小，用於開始前不知道大小的上傳(請求沒有 Content-Length)，在內容流入時逐段預留
+     * 增加後超過配額時不會增加並拋出 QUOTA_EXCEEDED 錯誤，呼叫端應中斷上傳
+     *
+     * @param key   預留的鍵值，必須已經以 {@link #reserve(Long, String, long)} 預留
+     * @param bytes 增加的大小
+     *
+     * @throws FileException 空間不足
+     */
+    public void extend(String key, long bytes) throws FileException {
+        if (bytes <= 0) {
+            return;
+        }
+        Reservation reservation = reservations.get(key);
+        Usage usage = reservation != null ? usages.get(reservation.userId()) : null;
+        if (usage == null) {
+            throw new IllegalStateException("預留不存在或已經釋放: " + key);
+        }
+        if (!usage.tryReserve(bytes)) {
+            throw new FileException(FileException.ErrorCode.QUOTA_EXCEEDED, usage.remaining());
+        }
+        if (reservations.computeIfPresent(key, (k, current) -> new Reservation(current.userId(), current.bytes() + bytes)) == null) {
+            usage.charged.addAndGet(-bytes);
+            throw new IllegalStateException("預留不存在或已經釋放: " + key);
+        }
+    }
+
+    /**
+     * 釋放預留的空間，鍵值不存在時不做任何事
+     *
+     * @param key 預留的鍵值
+     */
+    public void release(String key) {
+        Reservation reservation = reservations.remove(key);
+        if (reservation != null) {
+            Usage usage = usages.get(reservation.userId());
+            if (usage != null) {
+                usage.charged.addAndGet(-reservation.bytes());
+            }
+        }
+    }
+
+    /**
+     * 增減已使用的空間，文件建立、刪除或更換內容後呼叫，不會檢查配額
+     *
+     * @param userId 用戶ID
+     * @param bytes  增加的大小，減少時為負數
+     *
+     * @return 更新完成的信號
+     */
+    public Mono<Void> charge(Long userId, long bytes) {
+        if (bytes == 0) {
+            return Mono.empty();
+        }
+        return usage(userId).doOnNext(usage -> {
+            usage.used.add(bytes);
+            usage.charged.addAndGet(bytes);
+            dirty.add(userId);
+        }).then();
+    }
+
+    /**
+     * 查詢用戶的配額與使用狀況
+     *
+     * @param userId 用戶ID
+     *
+     * @return 配額與使用狀況
+     */
+    public Mono<StorageQuotaDTO> getQuota(Long userId) {
+        return usage(userId).map(usage -> {
+            long used = usage.used.sum();
+            StorageQuotaDTO storageQuotaDTO = new StorageQuotaDTO();
+            storageQuotaDTO.setQuotaBytes(usage.limit < 0 ? null : usage.limit);
+            storageQuotaDTO.setUsedBytes(used);
+            storageQuotaDTO.setReservedBytes(usage.charged.get() - used);
+            storageQuotaDTO.setRemainingBytes(usage.limit < 0 ? null : usage.remaining());
+            return storageQuotaDTO;
+        });
+    }
+
+    /**
+     * 將有變更的用戶已使用空間寫入 user_storage，寫入失敗的用戶留待下次寫入
+     *
+     * @return 寫入的用戶數量
+     */
+    public Mono<Integer> checkpoint() {
+        return Mono.defer(() -> {
+            if (dirty.isEmpty() || !checkpointing.compareAndSet(false, true)) {
+                return Mono.just(0);
+            }
+            List<Long> userIds = new ArrayList<>(dirty);
+            userIds.forEach(dirty::remove);
+            LocalDateTime now = LocalDateTime.now();
+            return Flux.fromIterable(userIds).concatMap(userId -> {
+                Usage usage = usages.get(userId);
+                if (usage == null) {
+                    return Mono.empty();
+                }
+                return userStorageRepository.updateUsedBytes(userId, usage.used.sum(), now).onErrorResume(e -> {
+                    log.warn("寫入用戶 {} 的已使用空間失敗，留待下次寫入: {}", userId, e.getMessage());
+                    dirty.add(userId);
+                    return Mono.empty();
+                });
+            }).count().map(Long::intValue).doFinally(signal -> checkpointing.set(false));
+        });
+    }
+
+    /**
+     * 以根目錄的統計校正所有用戶的已使用空間，在重新計算目錄統計之後執行
+     * 已載入的用戶調整計數器，保留進行中的預留；未載入的用戶直接更新檢查點
+     *
+     * @return 校正的用戶數量
+     */
+    public Mono<Integer> resync() {
+        return directoryStatsRepository.findAllByDirectoryId(Directory.ROOT_ID).concatMap(stats -> {
+            long actual = stats.getTotalBytes() != null ? stats.getTotalBytes() : 0;
+            Usage usage = usages.get(stats.getUserId());
+            if (usage == null) {
+                return userStorageRepository.updateUsedBytes(stats.getUserId(), actual, LocalDateTime.now());
+            }
+            long drift = actual - usage.used.sum();
+            if (drift != 0) {
+                log.info("校正用戶 {} 的已使用空間: {} bytes", stats.getUserId(), drift);
+                usage.used.add(drift);
+                usage.charged.addAndGet(drift);
+                dirty.add(stats.getUserId());
+            }
+            return Mono.just(1);
+        }).count().map(Long::intValue);
+    }
+
+    /**
+     * 取得用戶的計數器，尚未載入時從數據庫載入
+     * 並發載入同一用戶時只保留第一個放入的計數器
+     *
+     * @param userId 用戶ID
+     *
+     * @return 計數器
+     */
+    private Mono<Usage> usage(Long userId) {
+        return Mono.defer(() -> {
+            Usage usage = usages.get(userId);
+            if (usage != null) {
+                return Mono.just(usage);
+            }
+            return load(userId).map(loaded -> {
+                Usage existing = usages.putIfAbsent(userId, loaded);
+                return existing != null ? existing : loaded;
+            });
+        });
+    }
+
+    /**
+     * 從 user_storage 載入用戶的配額與已使用空間，沒有記錄時以根目錄的統計建立記錄
+     *
+     * @param userId 用戶ID
+     *
+     * @return 計數器
+     */
+    private Mono<Usage> load(Long userId) {
+        Mono<Long> roleQuota = userRepository.findById(userId).map(User::getRole).map(role -> roleQuotas.getOrDefault(role, -1L)).defaultIfEmpty(-1L);
+        return userStorageRepository
+                .findByUserId(userId)
+                .switchIfEmpty(Mono.defer(() -> createStorage(userId)))
+                .zipWith(roleQuota, (storage, defaultQuota) -> new Usage(storage.getQuotaBytes() != null ? storage.getQuotaBytes() : defaultQuota,
+                                                                         storage.getUsedBytes() != null ? storage.getUsedBytes() : 0));
+    }
+
+    /**
+     * 建立用戶的儲存空間記錄，已使用的空間以根目錄的統計為初始值
+     * 並發建立時唯一索引衝突的一方改為讀取另一方建立的記錄
+     *
+     * @param userId 用戶ID
+     *
+     * @return 用戶儲存空間
+     */
+    private Mono<UserStorage> createStorage(Long userId) {
+        return directoryStatsRepository
+                .findByUserIdAndDirectoryId(userId, Directory.ROOT_ID)
+                .map(DirectoryStats::getTotalBytes)
+                .defaultIfEmpty(0L)
+                .flatMap(usedBytes -> {
+                    UserStorage storage = new UserStorage();
+                    storage.setUserId(userId);
+                    storage.setUsedBytes(usedBytes);
+                    storage.setUpdateTime(LocalDateTime.now());
+                    return userStorageRepository
+                            .save(storage)
+                            .onErrorResume(DataIntegrityViolationException.class, e -> userStorageRepository.findByUserId(userId));
+                });
+    }
+
+    /**
+     * 進行中的預留
+     *
+     * @param userId 用戶ID
+     * @param bytes  預留的大小
+     */
+    private record Reservation(Long userId, long bytes) {}
+
+    /**
+     * 單一用戶的計數器
+     * 已使用的空間只會累加，以 LongAdder 分散競爭；預留需要比對後再增加，因此已使用與已預留的合計以 AtomicLong 的 CAS 更新
+     */
+    private static final class Usage {
+        /**
+         * 配額，負數表示不限制
+         */
+        private final long limit;
+
+        /**
+         * 已使用的空間
+         */
+        private final LongAdder used = new LongAdder();
+
+        /**
+         * 已使用與已預留的合計
+         */
+        private final AtomicLong charged;
+
+        private Usage(long limit, long usedBytes) {
+            this.limit = limit;
+            this.used.add(usedBytes);
+            this.charged = new AtomicLong(usedBytes);
+        }
+
+        private boolean tryReserve(long bytes) {
+            if (limit < 0) {
+                charged.addAndGet(bytes);
+                return true;
+            }
+            while (true) {
+                long current = charged.get();
+                if (bytes == 0 ? current >= limit : current + bytes > limit) {
+                    return false;
+                }
+                if (charged.compareAndSet(current, current + bytes)) {
+                    return true;
+                }
+            }
+        }
+
+        private long remaining() {
+            return Math.max(0, limit - charged.get());
+        }
+    }
+}
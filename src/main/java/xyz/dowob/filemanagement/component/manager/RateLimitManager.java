@@ -0,0 +1,165 @@
+package xyz.dowob.filemanagement.component.manager;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.component.provider.providerInterface.RateLimitProvider;
+import xyz.dowob.filemanagement.exception.ValidationException;
+
+import java.net.InetSocketAddress;
+import java.util.Locale;
+
+/**
+ * 訪客端點的速率限制管理
+ * 登入、註冊與重置密碼郵件不需要登入即可呼叫，卻會觸發 BCrypt、數據庫查詢與郵件發送，因此以兩層令牌桶限制：
+ * 1. 每個來源 IP 一個桶，由 RateLimitFilter 在請求進入控制器前檢查，擋下單一來源的大量請求
+ * 2. 每個帳號(登入的用戶名、重置密碼的信箱)一個桶，由業務層在取得帳號後檢查，擋下分散來源對同一個帳號的撞庫
+ * 速率限制的後端無法使用時放行請求並記錄日誌，不讓速率限制本身造成服務中斷
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName RateLimitManager
+ * @description
+ * @create 2026-10-18 22:45
+ * @Version 1.0
+ **/
+@Log4j2
+@Component
+public class RateLimitManager {
+    /**
+     * 速率限制提供者
+     */
+    private final RateLimitProvider rateLimitProvider;
+
+    /**
+     * 是否啟用速率限制
+     */
+    private final boolean enabled;
+
+    /**
+     * 每個 IP 每分鐘允許的請求數
+     */
+    private final long ipRatePerMinute;
+
+    /**
+     * 每個 IP 允許的瞬間請求數
+     */
+    private final int ipBurst;
+
+    /**
+     * 每個帳號每分鐘允許的請求數
+     */
+    private final long accountRatePerMinute;
+
+    /**
+     * 每個帳號允許的瞬間請求數
+     */
+    private final int accountBurst;
+
+    /**
+     * 是否以 X-Forwarded-For 的第一個位址作為來源 IP，只有在可信任的反向代理之後才能開啟
+     */
+    private final boolean trustForwardedFor;
+
+    /**
+     * 建立速率限制管理
+     *
+     * @param rateLimitProvider    速率限制提供者
+     * @param enabled              是否啟用速率限制
+     * @param ipRatePerMinute      每個 IP 每分鐘允許的請求數
+     * @param ipBurst              每個 IP 允許的瞬間請求數
+     * @param accountRatePerMinute 每個帳號每分鐘允許的請求數
+     * @param accountBurst         每個帳號允許的瞬間請求數
+     * @param trustForwardedFor    是否以 X-Forwarded-For 作為來源 IP
+     */
+    public RateLimitManager(
+            RateLimitProvider rateLimitProvider,
+            @Value("${security.rate-limit.enabled: true}") boolean enabled,
+            @Value("${security.rate-limit.ip.rate-per-minute: 60}") long ipRatePerMinute,
+            @Value("${security.rate-limit.ip.burst: 20}") int ipBurst,
+            @Value("${security.rate-limit.account.rate-per-minute: 10}") long accountRatePerMinute,
+            @Value("${security.rate-limit.account.burst: 5}") int accountBurst,
+            @Value("${security.rate-limit.trust-forwarded-for: false}") boolean trustForwardedFor) {
+        this.rateLimitProvider = rateLimitProvider;
+        this.enabled = enabled;
+        this.ipRatePerMinute = ipRatePerMinute;
+        this.ipBurst = ipBurst;
+        this.accountRatePerMinute = accountRatePerMinute;
+        this.accountBurst = accountBurst;
+        this.trustForwardedFor = trustForwardedFor;
+    }
+
+    /**
+     * 從請求來源 IP 的桶取出一個令牌
+     *
+     * @param exchange 請求對象
+     *
+     * @return 0 表示允許，否則為需要等待的毫秒數
+     */
+    public Mono<Long> acquireForClient(ServerWebExchange exchange) {
+        if (!enabled) {
+            return Mono.just(0L);
+        }
+        return acquire("ip:" + resolveClientIp(exchange), ipRatePerMinute, ipBurst);
+    }
+
+    /**
+     * 從帳號的桶取出一個令牌，超過速率時傳出 TOO_MANY_REQUESTS 錯誤
+     *
+     * @param action  操作名稱，不同操作使用不同的桶
+     * @param account 帳號(用戶名或信箱)
+     *
+     * @return 允許時完成的信號
+     */
+    public Mono<Void> checkAccount(String action, String account) {
+        if (!enabled || account == null) {
+            return Mono.empty();
+        }
+        return acquire("account:" + action + ":" + account.trim().toLowerCase(Locale.ROOT), accountRatePerMinute, accountBurst).flatMap(wait -> {
+            if (wait > 0) {
+                log.debug("帳號 {} 的 {} 請求超過速率限制", account, action);
+                return Mono.error(new ValidationException(ValidationException.ErrorCode.TOO_MANY_REQUESTS));
+            }
+            return Mono.empty();
+        });
+    }
+
+    /**
+     * 取出令牌，後端無法使用時放行
+     *
+     * @param key           鍵值
+     * @param ratePerMinute 每分鐘允許的請求數
+     * @param burst         允許的瞬間請求數
+     *
+     * @return 0 表示允許，否則為需要等待的毫秒數
+     */
+    private Mono<Long> acquire(String key, long ratePerMinute, int burst) {
+        return rateLimitProvider.tryAcquire(key, ratePerMinute, burst).onErrorResume(e -> {
+            log.warn("速率限制後端無法使用，放行請求: {}", e.getMessage());
+            return Mono.just(0L);
+        });
+    }
+
+    /**
+     * 解析請求的來源 IP
+     *
+     * @param exchange 請求對象
+     *
+     * @return 來源 IP
+     */
+    private String resolveClientIp(ServerWebExchange exchange) {
+        if (trustForwardedFor) {
+            String forwardedFor = exchange.getRequest().getHeaders().getFirst("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                return forwardedFor.split(",")[0].trim();
+            }
+        }
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress == null) {
+            return "unknown";
+        }
+        return remoteAddress.getAddress() != null ? remoteAddress.getAddress().getHostAddress() : remoteAddress.getHostString();
+    }
+}
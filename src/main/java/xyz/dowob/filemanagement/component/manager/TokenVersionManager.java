@@ -0,0 +1,191 @@
+package xyz.dowob.filemanagement.component.manager;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import xyz.dowob.filemanagement.component.provider.providerInterface.InvalidationChannelProvider;
+import xyz.dowob.filemanagement.repostiory.TokenRepository;
+import xyz.dowob.filemanagement.utils.LongIntHashMap;
+
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 用戶目前的 JWT 憑證版本登記表
+ * 驗證 JWT 憑證時以記憶體中的版本比對，不需要每個請求都查詢 tokens 表
+ * 1. 用戶的版本在第一次被查詢時從數據庫載入
+ * 2. 登入產生新憑證與登出時，寫入數據庫後同步更新登記表，並透過失效通知頻道將新的版本廣播給其他節點
+ * 3. 收到其他節點的廣播時直接寫入新的版本，之後才完成的載入不會覆蓋廣播的版本
+ * 4. 與頻道的連線中斷並重新訂閱時清空登記表，避免使用中斷期間遺失的廣播之前的舊版本
+ * 以基本型別的雜湊表保存，每個用戶只佔用十多個字節
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName TokenVersionManager
+ * @description
+ * @create 2026-10-18 21:20
+ * @Version 1.0
+ **/
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class TokenVersionManager {
+    /**
+     * JWT 憑證版本變更的廣播頻道
+     */
+    private static final String CHANNEL = "file-management:token-version";
+
+    /**
+     * 登記表中不存在的版本
+     */
+    private static final int MISSING = Integer.MIN_VALUE;
+
+    /**
+     * TokenRepository 用於操作 Token 實體的數據庫操作類
+     */
+    private final TokenRepository tokenRepository;
+
+    /**
+     * 快取失效通知頻道
+     */
+    private final InvalidationChannelProvider invalidationChannelProvider;
+
+    /**
+     * 用戶 ID 對應目前的 JWT 憑證版本
+     */
+    private final LongIntHashMap versions = new LongIntHashMap(1024);
+
+    /**
+     * 保護登記表的讀寫鎖
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 頻道的訂閱
+     */
+    private Disposable subscription;
+
+    /**
+     * 訂閱其他節點的版本變更廣播，訂閱失敗時以退避的間隔重試
+     */
+    @PostConstruct
+    public void subscribe() {
+        subscription = invalidationChannelProvider
+                .subscribe(CHANNEL)
+                .doOnSubscribe(s -> clear())
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofMinutes(1)).doBeforeRetry(signal -> log.warn(
+                        "JWT 憑證版本廣播的訂閱中斷，重新訂閱: {}",
+                        signal.failure().getMessage())))
+                .subscribe(this::applyMessage);
+    }
+
+    /**
+     * 取消訂閱
+     */
+    @PreDestroy
+    public void unsubscribe() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * 查詢用戶目前的 JWT 憑證版本，登記表中沒有時從數據庫載入
+     *
+     * @param userId 用戶 ID
+     *
+     * @return JWT 憑證版本，用戶沒有 Token 記錄時為空
+     */
+    public Mono<Integer> getVersion(long userId) {
+        return Mono.defer(() -> {
+            int version = read(userId);
+            if (version != MISSING) {
+                return Mono.just(version);
+            }
+            return tokenRepository.findByUserId(userId).map(token -> loaded(userId, token.getJwtTokenVersion()));
+        });
+    }
+
+    /**
+     * 用戶的 JWT 憑證版本已經寫入數據庫後呼叫，更新登記表並廣播給其他節點
+     * 廣播失敗時只記錄日誌，其他節點的登記表會在重新訂閱時清空
+     *
+     * @param userId  用戶 ID
+     * @param version 新的 JWT 憑證版本
+     *
+     * @return 廣播完成的信號
+     */
+    public Mono<Void> update(long userId, int version) {
+        return Mono
+                .fromRunnable(() -> write(userId, version))
+                .then(invalidationChannelProvider.publish(CHANNEL, userId + ":" + version))
+                .onErrorResume(e -> {
+                    log.warn("廣播用戶 {} 的 JWT 憑證版本失敗: {}", userId, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * 套用收到的版本變更廣播，格式為 "用戶ID:版本"
+     *
+     * @param message 廣播訊息
+     */
+    private void applyMessage(String message) {
+        int separator = message.indexOf(':');
+        try {
+            write(Long.parseLong(message.substring(0, separator)), Integer.parseInt(message.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            log.warn("無法解析 JWT 憑證版本廣播: {}", message);
+        }
+    }
+
+    private int read(long userId) {
+        lock.readLock().lock();
+        try {
+            return versions.get(userId, MISSING);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(long userId, int version) {
+        lock.writeLock().lock();
+        try {
+            versions.put(userId, version);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 放入從數據庫載入的版本，載入期間已經有更新或廣播寫入時保留已寫入的版本
+     *
+     * @param userId  用戶 ID
+     * @param version 載入的版本
+     *
+     * @return 登記表中的版本
+     */
+    private int loaded(long userId, int version) {
+        lock.writeLock().lock();
+        try {
+            versions.putIfAbsent(userId, version);
+            return versions.get(userId, version);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void clear() {
+        lock.writeLock().lock();
+        try {
+            versions.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
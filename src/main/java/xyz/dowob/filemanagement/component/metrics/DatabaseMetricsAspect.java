@@ -0,0 +1,139 @@
+package xyz.dowob.filemanagement.component.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 記錄數據庫操作耗時的切面
+ * 1. R2DBC: 應用程式中所有 Spring Data Repository 的方法，操作名稱為 Repository 接口名稱與方法名稱
+ * 2. Mongo: GridFS 儲存提供者的方法，操作名稱為提供者名稱與方法名稱
+ * 耗時從訂閱開始計算，到完成、錯誤或取消為止；返回 Flux 的讀取操作包含下游消費資料的時間
+ * 直接使用 DatabaseClient 的批次更新(例如最後訪問時間的寫回)不經過 Repository，不在此記錄
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName DatabaseMetricsAspect
+ * @description
+ * @create 2026-10-19 01:30
+ * @Version 1.0
+ **/
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class DatabaseMetricsAspect {
+    /**
+     * 效能指標登記
+     */
+    private final MetricsManager metricsManager;
+
+    /**
+     * 每個被攔截的類與方法對應的指標，避免每次呼叫都組合操作名稱
+     */
+    private final Map<Class<?>, Map<Method, MetricsManager.OperationMetrics>> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * 定義 R2DBC Repository 切入點，包含繼承自 Spring Data 的方法(例如 save、findById)
+     */
+    @Pointcut("target(org.springframework.data.repository.Repository)")
+    public void repositoryPointcut() {}
+
+    /**
+     * 定義 GridFS 儲存提供者切入點
+     */
+    @Pointcut("within(xyz.dowob.filemanagement.component.provider.providerImplement.GridFsStorageProviderImpl)")
+    public void gridFsPointcut() {}
+
+    /**
+     * 記錄 R2DBC Repository 方法的耗時
+     *
+     * @param joinPoint 切入點
+     *
+     * @return 包裝後的返回值
+     */
+    @Around("repositoryPointcut()")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "r2dbc");
+    }
+
+    /**
+     * 記錄 GridFS 操作的耗時
+     *
+     * @param joinPoint 切入點
+     *
+     * @return 包裝後的返回值
+     */
+    @Around("gridFsPointcut()")
+    public Object timeGridFs(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "mongo");
+    }
+
+    /**
+     * 在返回的 Mono 或 Flux 上掛上計時，其他返回值不記錄
+     *
+     * @param joinPoint 切入點
+     * @param system    數據庫系統
+     *
+     * @return 包裝後的返回值
+     */
+    private Object time(ProceedingJoinPoint joinPoint, String system) throws Throwable {
+        Object result = joinPoint.proceed();
+        if (result instanceof Mono<?> mono) {
+            MetricsManager.OperationMetrics operation = resolve(joinPoint, system);
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                return mono.doFinally(signal -> operation.record(System.nanoTime() - start, signal == SignalType.ON_ERROR));
+            });
+        } else if (result instanceof Flux<?> flux) {
+            MetricsManager.OperationMetrics operation = resolve(joinPoint, system);
+            return Flux.defer(() -> {
+                long start = System.nanoTime();
+                return flux.doFinally(signal -> operation.record(System.nanoTime() - start, signal == SignalType.ON_ERROR));
+            });
+        }
+        return result;
+    }
+
+    /**
+     * 獲取方法對應的指標，操作名稱為應用程式中的接口或類名稱加上方法名稱
+     *
+     * @param joinPoint 切入點
+     * @param system    數據庫系統
+     *
+     * @return 方法對應的指標
+     */
+    private MetricsManager.OperationMetrics resolve(ProceedingJoinPoint joinPoint, String system) {
+        Class<?> targetClass = joinPoint.getTarget().getClass();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return metrics
+                .computeIfAbsent(targetClass, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(method, key -> metricsManager.operation(system, ownerName(targetClass) + "." + method.getName()));
+    }
+
+    /**
+     * 獲取應用程式中的接口或類名稱，Repository 的實際類別是 Spring Data 產生的代理，需要從接口中找出
+     *
+     * @param targetClass 被攔截的類
+     *
+     * @return 名稱
+     */
+    private String ownerName(Class<?> targetClass) {
+        for (Class<?> type : targetClass.getInterfaces()) {
+            if (type.getName().startsWith("xyz.dowob.filemanagement.repostiory.")) {
+                return type.getSimpleName();
+            }
+        }
+        return targetClass.getSimpleName();
+    }
+}
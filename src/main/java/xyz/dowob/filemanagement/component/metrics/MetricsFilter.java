@@ -0,0 +1,163 @@
+package xyz.dowob.filemanagement.component.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.reactivestreams.Publisher;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * 記錄每個請求的延遲、狀態碼與傳輸字節數的過濾器
+ * 在所有過濾器之前執行，被速率限制或 Spring Security 拒絕的請求也會被記錄
+ * 1. 以控制器的路由樣式(例如 /api/file/{fileId}/download)作為標籤，不會因為路徑中的ID產生無限多的指標；
+ * 沒有對應控制器的請求(包含未通過驗證的請求)記為 UNMATCHED
+ * 2. 延遲從過濾器開始計算，到響應完成、錯誤或客戶端中斷為止
+ * 3. 請求與響應的內容在經過時計算字節數；零複製傳送本機檔案時以傳送的範圍長度計算，不會因為包裝響應而失去零複製
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName MetricsFilter
+ * @description
+ * @create 2026-10-19 01:15
+ * @Version 1.0
+ **/
+@Component
+@Order(-300)
+@RequiredArgsConstructor
+public class MetricsFilter implements WebFilter {
+    /**
+     * 沒有對應控制器時的路由標籤
+     */
+    private static final String UNMATCHED = "UNMATCHED";
+
+    /**
+     * 作為標籤的 HTTP 方法，其他方法記為 OTHER，避免任意方法名稱產生大量指標
+     */
+    private static final Set<String> KNOWN_METHODS = Set.of("GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS");
+
+    /**
+     * 效能指標登記
+     */
+    private final MetricsManager metricsManager;
+
+    /**
+     * 包裝請求與響應以計算字節數，並在請求結束時記錄延遲與狀態碼
+     *
+     * @param exchange 請求對象
+     * @param chain    過濾器鏈
+     *
+     * @return 處理完成的信號
+     */
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        long start = System.nanoTime();
+        metricsManager.requestStarted();
+        ServerHttpResponse response = exchange.getResponse();
+        ServerWebExchange measured = exchange
+                .mutate()
+                .request(new CountingRequest(exchange.getRequest()))
+                .response(response instanceof ZeroCopyHttpOutputMessage ? new ZeroCopyCountingResponse(response) : new CountingResponse(response))
+                .build();
+        return chain.filter(measured).doFinally(signal -> {
+            String method = exchange.getRequest().getMethod().name();
+            Object pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String route = pattern instanceof PathPattern pathPattern ? pathPattern.getPatternString() : UNMATCHED;
+            metricsManager.requestFinished(KNOWN_METHODS.contains(method) ? method : "OTHER", route, statusCode(response, signal), System.nanoTime() - start);
+        });
+    }
+
+    /**
+     * 請求結束時的狀態碼，未設定時為 200，錯誤未被處理時為 500，客戶端中斷時為 0
+     *
+     * @param response 響應對象
+     * @param signal   結束的信號
+     *
+     * @return 狀態碼
+     */
+    private int statusCode(ServerHttpResponse response, SignalType signal) {
+        if (signal == SignalType.CANCEL) {
+            return 0;
+        }
+        if (signal == SignalType.ON_ERROR) {
+            return 500;
+        }
+        HttpStatusCode status = response.getStatusCode();
+        return status == null ? 200 : status.value();
+    }
+
+    /**
+     * 計算請求內容字節數的請求包裝
+     */
+    private class CountingRequest extends ServerHttpRequestDecorator {
+        CountingRequest(ServerHttpRequest delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            return super.getBody().doOnNext(dataBuffer -> metricsManager.addBytesIn(dataBuffer.readableByteCount()));
+        }
+    }
+
+    /**
+     * 計算響應內容字節數的響應包裝
+     */
+    private class CountingResponse extends ServerHttpResponseDecorator {
+        CountingResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            return super.writeWith(Flux.from(body).doOnNext(dataBuffer -> metricsManager.addBytesOut(dataBuffer.readableByteCount())));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return super.writeAndFlushWith(Flux
+                                                   .from(body)
+                                                   .map(publisher -> Flux
+                                                           .from(publisher)
+                                                           .doOnNext(dataBuffer -> metricsManager.addBytesOut(dataBuffer.readableByteCount()))));
+        }
+    }
+
+    /**
+     * 支援零複製的響應包裝，零複製傳送的內容不經過 JVM，以傳送的範圍長度計算字節數
+     */
+    private class ZeroCopyCountingResponse extends CountingResponse implements ZeroCopyHttpOutputMessage {
+        ZeroCopyCountingResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Path file, long position, long count) {
+            metricsManager.addBytesOut(count);
+            return ((ZeroCopyHttpOutputMessage) getDelegate()).writeWith(file, position, count);
+        }
+
+        @Override
+        public Mono<Void> writeWith(File file, long position, long count) {
+            metricsManager.addBytesOut(count);
+            return ((ZeroCopyHttpOutputMessage) getDelegate()).writeWith(file, position, count);
+        }
+    }
+}
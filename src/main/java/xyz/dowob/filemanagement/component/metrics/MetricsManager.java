@@ -0,0 +1,382 @@
+package xyz.dowob.filemanagement.component.metrics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import xyz.dowob.filemanagement.utils.LatencyHistogram;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 應用程式的效能指標登記
+ * 1. 每個路由(HTTP 方法與路由樣式)的延遲分佈、請求數與各狀態碼類別的數量
+ * 2. 每個數據庫操作(R2DBC 的 Repository 方法、GridFS 的儲存操作)的延遲分佈與錯誤數
+ * 3. 正在處理的請求數、請求與響應的總字節數
+ * 延遲分佈以 LatencyHistogram 記錄 {@link LatencyHistogram}，百分位數取自上一個完整的統計窗口(預設 60 秒)，
+ * 避免長時間累積的分佈掩蓋最近的效能退化；次數與總耗時則從啟動時開始累計，可以在 Prometheus 中以 rate 計算
+ * 記錄時只有查表與原子遞增，不會建立物件(第一次出現的路由與操作除外)
+ * 本類不會被日誌切面攔截，指標的記錄不會出現在方法追蹤中
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName MetricsManager
+ * @description
+ * @create 2026-10-19 01:00
+ * @Version 1.0
+ **/
+@Component
+public class MetricsManager {
+    /**
+     * 輸出的百分位數
+     */
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    /**
+     * 狀態碼類別的標籤，索引 0 為客戶端在響應完成前中斷
+     */
+    private static final String[] STATUS_CLASSES = {"cancelled", "1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    /**
+     * 每個路由的指標，第一層的鍵為路由樣式，第二層為 HTTP 方法，查詢時不需要組合鍵
+     */
+    private final Map<String, Map<String, RouteMetrics>> routes = new ConcurrentHashMap<>();
+
+    /**
+     * 每個數據庫操作的指標，鍵為數據庫系統與操作名稱
+     */
+    private final Map<OperationKey, OperationMetrics> operations = new ConcurrentHashMap<>();
+
+    /**
+     * 正在處理的請求數
+     */
+    private final AtomicLong inFlight = new AtomicLong();
+
+    /**
+     * 請求內容的總字節數
+     */
+    private final LongAdder bytesIn = new LongAdder();
+
+    /**
+     * 響應內容的總字節數
+     */
+    private final LongAdder bytesOut = new LongAdder();
+
+    /**
+     * 統計窗口的長度
+     */
+    private final Duration window;
+
+    /**
+     * 輪替統計窗口的任務
+     */
+    private Disposable rotateTask;
+
+    /**
+     * 建立效能指標登記
+     *
+     * @param windowSeconds 百分位數統計窗口的秒數
+     */
+    public MetricsManager(@Value("${metrics.window-seconds: 60}") long windowSeconds) {
+        this.window = Duration.ofSeconds(windowSeconds);
+    }
+
+    /**
+     * 開始定時輪替統計窗口
+     */
+    @PostConstruct
+    public void start() {
+        rotateTask = Flux.interval(window, window).subscribe(tick -> rotate());
+    }
+
+    /**
+     * 停止輪替統計窗口
+     */
+    @PreDestroy
+    public void stop() {
+        if (rotateTask != null) {
+            rotateTask.dispose();
+        }
+    }
+
+    /**
+     * 請求開始處理
+     */
+    public void requestStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * 記錄一個處理完成的請求
+     *
+     * @param method     HTTP 方法
+     * @param route      路由樣式，沒有對應的控制器時為 UNMATCHED
+     * @param statusCode 狀態碼，客戶端中斷時為 0
+     * @param nanos      處理時間(奈秒)
+     */
+    public void requestFinished(String method, String route, int statusCode, long nanos) {
+        inFlight.decrementAndGet();
+        RouteMetrics metrics = routes.computeIfAbsent(route, key -> new ConcurrentHashMap<>()).computeIfAbsent(method, key -> new RouteMetrics());
+        metrics.timer.record(nanos);
+        metrics.statuses.incrementAndGet(statusCode <= 0 ? 0 : Math.min(STATUS_CLASSES.length - 1, Math.max(1, statusCode / 100)));
+    }
+
+    /**
+     * 記錄請求內容的字節數
+     *
+     * @param bytes 字節數
+     */
+    public void addBytesIn(long bytes) {
+        bytesIn.add(bytes);
+    }
+
+    /**
+     * 記錄響應內容的字節數
+     *
+     * @param bytes 字節數
+     */
+    public void addBytesOut(long bytes) {
+        bytesOut.add(bytes);
+    }
+
+    /**
+     * 獲取數據庫操作的指標，由呼叫者快取以避免每次呼叫都查表
+     *
+     * @param system    數據庫系統，例如 r2dbc、mongo
+     * @param operation 操作名稱，例如 UserRepository.findByUsername
+     *
+     * @return 數據庫操作的指標
+     */
+    public OperationMetrics operation(String system, String operation) {
+        return operations.computeIfAbsent(new OperationKey(system, operation), key -> new OperationMetrics());
+    }
+
+    /**
+     * 以 Prometheus 文字格式(0.0.4)輸出所有指標
+     *
+     * @return Prometheus 文字格式的指標
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        out.append("# HELP http_server_requests_in_flight Requests currently being processed.\n");
+        out.append("# TYPE http_server_requests_in_flight gauge\n");
+        out.append("http_server_requests_in_flight ").append(inFlight.get()).append('\n');
+        out.append("# HELP http_server_request_bytes_total Request body bytes received.\n");
+        out.append("# TYPE http_server_request_bytes_total counter\n");
+        out.append("http_server_request_bytes_total ").append(bytesIn.sum()).append('\n');
+        out.append("# HELP http_server_response_bytes_total Response body bytes sent.\n");
+        out.append("# TYPE http_server_response_bytes_total counter\n");
+        out.append("http_server_response_bytes_total ").append(bytesOut.sum()).append('\n');
+
+        Map<RouteKey, RouteMetrics> sortedRoutes = new TreeMap<>();
+        routes.forEach((route, methods) -> methods.forEach((method, metrics) -> sortedRoutes.put(new RouteKey(method, route), metrics)));
+        out.append("# HELP http_server_requests_seconds Request latency by route; quantiles cover the last complete window.\n");
+        out.append("# TYPE http_server_requests_seconds summary\n");
+        sortedRoutes.forEach((key, metrics) -> metrics.timer.writeTo(out,
+                                                                     "http_server_requests_seconds",
+                                                                     "method=\"" + escape(key.method()) + "\",route=\"" + escape(key.route()) + "\""));
+        out.append("# HELP http_server_requests_total Completed requests by route and status class.\n");
+        out.append("# TYPE http_server_requests_total counter\n");
+        sortedRoutes.forEach((key, metrics) -> {
+            for (int i = 0; i < STATUS_CLASSES.length; i++) {
+                long count = metrics.statuses.get(i);
+                if (count > 0) {
+                    out
+                            .append("http_server_requests_total{method=\"")
+                            .append(escape(key.method()))
+                            .append("\",route=\"")
+                            .append(escape(key.route()))
+                            .append("\",status=\"")
+                            .append(STATUS_CLASSES[i])
+                            .append("\"} ")
+                            .append(count)
+                            .append('\n');
+                }
+            }
+        });
+
+        Map<OperationKey, OperationMetrics> sortedOperations = new TreeMap<>(operations);
+        out.append("# HELP db_client_operation_seconds Database call latency from subscription to termination; quantiles cover the last complete window.\n");
+        out.append("# TYPE db_client_operation_seconds summary\n");
+        sortedOperations.forEach((key, metrics) -> metrics.timer.writeTo(out,
+                                                                         "db_client_operation_seconds",
+                                                                         "system=\"" + escape(key.system()) + "\",operation=\"" + escape(key.operation()) + "\""));
+        out.append("# HELP db_client_operation_errors_total Database calls that terminated with an error.\n");
+        out.append("# TYPE db_client_operation_errors_total counter\n");
+        sortedOperations.forEach((key, metrics) -> out
+                .append("db_client_operation_errors_total{system=\"")
+                .append(escape(key.system()))
+                .append("\",operation=\"")
+                .append(escape(key.operation()))
+                .append("\"} ")
+                .append(metrics.errors.sum())
+                .append('\n'));
+        return out.toString();
+    }
+
+    /**
+     * 輪替所有指標的統計窗口
+     */
+    private void rotate() {
+        routes.values().forEach(methods -> methods.values().forEach(metrics -> metrics.timer.rotate()));
+        operations.values().forEach(metrics -> metrics.timer.rotate());
+    }
+
+    /**
+     * 跳脫 Prometheus 標籤值中的反斜線、雙引號與換行
+     *
+     * @param value 標籤值
+     *
+     * @return 跳脫後的標籤值
+     */
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    /**
+     * 延遲的計時器，百分位數取自上一個完整的統計窗口，次數與總耗時從啟動時開始累計
+     */
+    public static class Timer {
+        /**
+         * 目前統計窗口的分佈
+         */
+        private volatile LatencyHistogram current = new LatencyHistogram();
+
+        /**
+         * 上一個完整統計窗口的分佈
+         */
+        private volatile LatencyHistogram previous = new LatencyHistogram();
+
+        /**
+         * 累計的次數
+         */
+        private final LongAdder count = new LongAdder();
+
+        /**
+         * 累計的總耗時(奈秒)
+         */
+        private final LongAdder sumNanos = new LongAdder();
+
+        /**
+         * 記錄一次耗時
+         *
+         * @param nanos 耗時(奈秒)
+         */
+        public void record(long nanos) {
+            current.record(nanos);
+            count.increment();
+            sumNanos.add(nanos);
+        }
+
+        /**
+         * 結束目前的統計窗口，輪替時正在寫入的少量記錄可能會落在已結束的窗口中
+         */
+        private void rotate() {
+            previous = current;
+            current = new LatencyHistogram();
+        }
+
+        /**
+         * 以 Prometheus summary 格式輸出
+         *
+         * @param out    輸出
+         * @param name   指標名稱
+         * @param labels 標籤
+         */
+        private void writeTo(StringBuilder out, String name, String labels) {
+            LatencyHistogram histogram = previous;
+            for (double quantile : QUANTILES) {
+                out
+                        .append(name)
+                        .append('{')
+                        .append(labels)
+                        .append(",quantile=\"")
+                        .append(quantile)
+                        .append("\"} ")
+                        .append(histogram.percentile(quantile * 100) / 1e6)
+                        .append('\n');
+            }
+            out.append(name).append("_sum{").append(labels).append("} ").append(sumNanos.sum() / 1e9).append('\n');
+            out.append(name).append("_count{").append(labels).append("} ").append(count.sum()).append('\n');
+        }
+    }
+
+    /**
+     * 路由的指標
+     */
+    private static class RouteMetrics {
+        /**
+         * 延遲
+         */
+        private final Timer timer = new Timer();
+
+        /**
+         * 各狀態碼類別的請求數
+         */
+        private final AtomicLongArray statuses = new AtomicLongArray(STATUS_CLASSES.length);
+    }
+
+    /**
+     * 數據庫操作的指標
+     */
+    public static class OperationMetrics {
+        /**
+         * 延遲
+         */
+        private final Timer timer = new Timer();
+
+        /**
+         * 錯誤數
+         */
+        private final LongAdder errors = new LongAdder();
+
+        /**
+         * 記錄一次操作
+         *
+         * @param nanos 耗時(奈秒)
+         * @param error 是否以錯誤結束
+         */
+        public void record(long nanos, boolean error) {
+            timer.record(nanos);
+            if (error) {
+                errors.increment();
+            }
+        }
+    }
+
+    /**
+     * 路由指標的鍵
+     *
+     * @param method HTTP 方法
+     * @param route  路由樣式
+     */
+    private record RouteKey(String method, String route) implements Comparable<RouteKey> {
+        @Override
+        public int compareTo(RouteKey other) {
+            int result = route.compareTo(other.route);
+            return result != 0 ? result : method.compareTo(other.method);
+        }
+    }
+
+    /**
+     * 數據庫操作指標的鍵
+     *
+     * @param system    數據庫系統
+     * @param operation 操作名稱
+     */
+    private record OperationKey(String system, String operation) implements Comparable<OperationKey> {
+        @Override
+        public int compareTo(OperationKey other) {
+            int result = system.compareTo(other.system);
+            return result != 0 ? result : operation.compareTo(other.operation);
+        }
+    }
+}
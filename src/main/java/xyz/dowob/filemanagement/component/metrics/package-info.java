@@ -0,0 +1,7 @@
+/**
+ * 效能指標的收集與輸出，本包中的類不會被日誌切面攔截
+ * 1. MetricsManager: 效能指標登記，以 Prometheus 文字格式輸出 {@link xyz.dowob.filemanagement.component.metrics.MetricsManager}
+ * 2. MetricsFilter: 記錄每個請求的延遲、狀態碼與傳輸字節數 {@link xyz.dowob.filemanagement.component.metrics.MetricsFilter}
+ * 3. DatabaseMetricsAspect: 記錄 R2DBC 與 GridFS 操作的耗時 {@link xyz.dowob.filemanagement.component.metrics.DatabaseMetricsAspect}
+ */
+package xyz.dowob.filemanagement.component.metrics;
@@ -1,16 +1,28 @@
 package xyz.dowob.filemanagement.component.provider.providerImplement;
 
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import xyz.dowob.filemanagement.entity.EmailOutbox;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 電子郵件提供者實現類，可以發送電子郵件
  * 實現了 EmailProvider 接口
  * 這裡使用了 Spring Boot 提供的 JavaMailSender 來發送郵件
+ * JavaMailSender 的發送為阻塞操作，因此在專用的線程池中執行，不會佔用事件循環
+ * 批次發送時所有郵件共用同一個 SMTP 連線，不需要為每封郵件重新連線與驗證
  *
  * @author yuan
  * @program File-Management
@@ -20,19 +32,42 @@ import reactor.core.publisher.Mono;
  * @Version 1.0
  **/
 @Component
-@RequiredArgsConstructor
 public class EmailProviderImpl implements xyz.dowob.filemanagement.component.provider.providerInterface.EmailProvider {
     /**
      * JavaMailSender Java 郵件發送器
      */
     private final JavaMailSender javaMailSender;
 
+    /**
+     * 執行 SMTP 發送的調度器
+     */
+    private final Scheduler smtpScheduler;
+
     /**
      * 服務器發送郵件的郵箱
      */
     @Value("${spring.mail.username}")
     private String serverSenderEmail;
 
+    /**
+     * 建立電子郵件提供者
+     *
+     * @param javaMailSender Java 郵件發送器
+     * @param smtpThreads    執行 SMTP 發送的線程數
+     */
+    public EmailProviderImpl(JavaMailSender javaMailSender, @Value("${email.smtp.threads: 2}") int smtpThreads) {
+        this.javaMailSender = javaMailSender;
+        this.smtpScheduler = Schedulers.newBoundedElastic(smtpThreads, 10000, "smtp");
+    }
+
+    /**
+     * 關閉調度器
+     */
+    @PreDestroy
+    public void shutdown() {
+        smtpScheduler.dispose();
+    }
+
     /**
      * 發送郵件
      *
@@ -42,12 +77,50 @@ public class EmailProviderImpl implements xyz.dowob.filemanagement.component.pro
      */
     @Override
     public Mono<Void> sendEmail(String sendToEmail, String subject, String content) {
+        return Mono.fromRunnable(() -> javaMailSender.send(createMessage(sendToEmail, subject, content))).subscribeOn(smtpScheduler).then();
+    }
+
+    /**
+     * 以同一個 SMTP 連線發送多封郵件
+     * 個別郵件失敗時其他郵件仍會發送，連線或驗證失敗時所有郵件都視為失敗
+     *
+     * @param emails 發件匣中的郵件
+     *
+     * @return 發送失敗的郵件ID與失敗原因，全部成功時為空
+     */
+    @Override
+    public Mono<Map<Long, String>> sendEmails(List<EmailOutbox> emails) {
+        return Mono.fromCallable(() -> {
+            Map<SimpleMailMessage, Long> messageIds = new IdentityHashMap<>();
+            for (EmailOutbox email : emails) {
+                messageIds.put(createMessage(email.getRecipient(), email.getSubject(), email.getContent()), email.getId());
+            }
+            Map<Long, String> failures = new HashMap<>();
+            try {
+                javaMailSender.send(messageIds.keySet().toArray(new SimpleMailMessage[0]));
+            } catch (MailSendException e) {
+                e.getFailedMessages().forEach((message, cause) -> {
+                    Long id = messageIds.get(message);
+                    if (id != null) {
+                        failures.put(id, String.valueOf(cause.getMessage()));
+                    }
+                });
+                if (failures.isEmpty()) {
+                    messageIds.values().forEach(id -> failures.put(id, String.valueOf(e.getMessage())));
+                }
+            } catch (MailException e) {
+                messageIds.values().forEach(id -> failures.put(id, String.valueOf(e.getMessage())));
+            }
+            return failures;
+        }).subscribeOn(smtpScheduler);
+    }
+
+    private SimpleMailMessage createMessage(String sendToEmail, String subject, String content) {
         SimpleMailMessage message = new SimpleMailMessage();
         message.setFrom(serverSenderEmail);
         message.setTo(sendToEmail);
         message.setSubject(subject);
         message.setText(content);
-        javaMailSender.send(message);
-        return Mono.empty();
+        return message;
     }
 }
@@ -0,0 +1,144 @@
+package xyz.dowob.filemanagement.component.provider.providerImplement;
+
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.ReactiveGridFsResource;
+import org.springframework.data.mongodb.gridfs.ReactiveGridFsTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.component.provider.providerInterface.StorageProvider;
+import xyz.dowob.filemanagement.exception.FileException;
+
+import java.nio.ByteBuffer;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * GridFS 儲存提供者實現類，將文件內容存放於 MongoDB GridFS
+ * 實現了 StorageProvider 接口
+ * 寫入時由 GridFS 驅動將資料流切分為 chunk 後逐一寫入，不會在記憶體中保留整個文件
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName GridFsStorageProviderImpl
+ * @description
+ * @create 2026-10-18 10:30
+ * @Version 1.0
+ **/
+@Component
+@RequiredArgsConstructor
+public class GridFsStorageProviderImpl implements StorageProvider {
+    /**
+     * 響應式 GridFS 操作模板
+     */
+    private final ReactiveGridFsTemplate gridFsTemplate;
+
+    /**
+     * 響應式 MongoDB 操作模板，用於直接查詢 GridFS 的 chunk 集合
+     */
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    /**
+     * 範圍讀取時每批從 MongoDB 取回的 chunk 數量
+     */
+    private static final int CHUNK_BATCH_SIZE = 8;
+
+    /**
+     * GridFS 的 bucket 名稱，從配置文件中獲取，預設為 fs
+     */
+    @Value("${spring.data.mongodb.gridfs.bucket: fs}")
+    private String bucket;
+
+    /**
+     * 將資料流寫入 GridFS
+     *
+     * @param content     文件內容的資料流
+     * @param filename    文件名稱
+     * @param contentType 內容類型
+     *
+     * @return GridFS 文件的 ObjectId 十六進位字串
+     */
+    @Override
+    public Mono<String> store(Flux<DataBuffer> content, String filename, String contentType) {
+        return gridFsTemplate.store(content, filename, contentType).map(ObjectId::toHexString);
+    }
+
+    /**
+     * 從 GridFS 讀取完整的文件內容
+     * 當文件不存在時，傳出 FILE_NOT_FOUND 錯誤
+     *
+     * @param storageKey GridFS 文件的 ObjectId 十六進位字串
+     *
+     * @return 文件內容的資料流
+     */
+    @Override
+    public Flux<DataBuffer> read(String storageKey) {
+        return gridFsTemplate
+                .findOne(query(where("_id").is(new ObjectId(storageKey))))
+                .switchIfEmpty(Mono.error(new FileException(FileException.ErrorCode.FILE_NOT_FOUND, storageKey)))
+                .flatMap(gridFsTemplate::getResource)
+                .flatMapMany(ReactiveGridFsResource::getDownloadStream);
+    }
+
+    /**
+     * 從 GridFS 讀取文件內容中的一段
+     * GridFS 文件由固定大小的 chunk 組成，因此可以直接算出起始與結束位置所在的 chunk 編號，只查詢範圍內的 chunk
+     * 每個 chunk 的內容直接包裝為 DataBuffer，首尾 chunk 以切片的方式去掉範圍外的部分，不會複製資料
+     * 查詢時限制每批取回的 chunk 數量，讓記憶體用量與下游的消費速度相符
+     *
+     * @param storageKey GridFS 文件的 ObjectId 十六進位字串
+     * @param offset     起始位置
+     * @param length     讀取長度
+     *
+     * @return 文件內容的資料流
+     */
+    @Override
+    public Flux<DataBuffer> read(String storageKey, long offset, long length) {
+        if (length <= 0) {
+            return Flux.empty();
+        }
+        ObjectId fileId = new ObjectId(storageKey);
+        return gridFsTemplate
+                .findOne(query(where("_id").is(fileId)))
+                .switchIfEmpty(Mono.error(new FileException(FileException.ErrorCode.FILE_NOT_FOUND, storageKey)))
+                .flatMapMany(gridFsFile -> {
+                    int chunkSize = gridFsFile.getChunkSize();
+                    long end = Math.min(gridFsFile.getLength(), offset + length);
+                    if (offset >= end) {
+                        return Flux.empty();
+                    }
+                    Query chunkQuery = query(where("files_id").is(fileId).and("n").gte(offset / chunkSize).lte((end - 1) / chunkSize))
+                            .with(Sort.by("n"))
+                            .cursorBatchSize(CHUNK_BATCH_SIZE);
+                    chunkQuery.fields().include("n").include("data");
+                    return mongoTemplate.find(chunkQuery, Document.class, bucket + ".chunks").map(chunk -> {
+                        Object data = chunk.get("data");
+                        byte[] bytes = data instanceof Binary binary ? binary.getData() : (byte[]) data;
+                        long chunkStart = (long) chunk.getInteger("n") * chunkSize;
+                        int from = (int) Math.max(0, offset - chunkStart);
+                        int to = (int) Math.min(bytes.length, end - chunkStart);
+                        return DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(bytes, from, to - from).slice());
+                    });
+                });
+    }
+
+    /**
+     * 從 GridFS 刪除文件以及其所有 chunk
+     *
+     * @param storageKey GridFS 文件的 ObjectId 十六進位字串
+     */
+    @Override
+    public Mono<Void> delete(String storageKey) {
+        return gridFsTemplate.delete(query(where("_id").is(new ObjectId(storageKey))));
+    }
+}
@@ -1,6 +1,7 @@
 package xyz.dowob.filemanagement.component.provider.providerImplement;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
@@ -9,22 +10,30 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 import xyz.dowob.filemanagement.annotation.HideSensitive;
+import xyz.dowob.filemanagement.component.manager.TokenVersionManager;
 import xyz.dowob.filemanagement.component.provider.providerInterface.TokenProvider;
 import xyz.dowob.filemanagement.customenum.RoleEnum;
 import xyz.dowob.filemanagement.entity.Token;
 import xyz.dowob.filemanagement.entity.User;
 import xyz.dowob.filemanagement.exception.ValidationException;
 import xyz.dowob.filemanagement.repostiory.TokenRepository;
+import xyz.dowob.filemanagement.utils.ExpiringCache;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 此類用於 JWT相關的基礎操作。
  * 繼承 TokenProvider 接口實現包括生成、驗證、刪除 JWT 憑證等功能，
+ * 驗證通過的 JWT 憑證會以憑證的 SHA-256 摘要為鍵值快取用戶 ID、角色與版本，快取有效期間內再次驗證同一個憑證時
+ * 不需要重新驗證簽名，憑證版本則與 TokenVersionManager 中用戶目前的版本比對，用戶重新登入或登出後舊憑證立即失效
  *
  * @author yuan
  * @program FileManagement
@@ -42,6 +51,11 @@ public class JwtTokenProviderImpl implements TokenProvider {
      */
     private final TokenRepository tokenRepository;
 
+    /**
+     * 用戶目前的 JWT 憑證版本登記表
+     */
+    private final TokenVersionManager tokenVersionManager;
+
     /**
      * secret 用於生成 JWT 憑證的密鑰，從配置文件中獲取
      */
@@ -55,18 +69,54 @@ public class JwtTokenProviderImpl implements TokenProvider {
     @Value("${security.jwt.expiration}")
     private long expiration;
 
+    /**
+     * 驗證結果快取的有效時間，從配置文件中獲取
+     * 單位：秒，預設為 60 秒，不會超過憑證本身的過期時間
+     */
+    @Value("${security.jwt.cache.ttl-seconds: 60}")
+    private long cacheTtlSeconds;
+
+    /**
+     * 驗證結果快取最多保存的憑證數量，從配置文件中獲取
+     */
+    @Value("${security.jwt.cache.max-size: 10000}")
+    private int cacheMaxSize;
+
     /**
      * key 用於生成 JWT 憑證的密鑰
      */
     private SecretKey key;
 
     /**
-     * 初始化方法，用於將 secret 解碼後生成 key
+     * 驗證 JWT 憑證的解析器，解析器為執行緒安全，只需建立一次
+     */
+    private JwtParser parser;
+
+    /**
+     * 驗證通過的 JWT 憑證快取，鍵值為憑證的 SHA-256 摘要
+     */
+    private ExpiringCache<String, VerifiedToken> verifiedTokens;
+
+    /**
+     * 驗證通過的 JWT 憑證內容
+     *
+     * @param userId          用戶 ID
+     * @param role            用戶角色
+     * @param version         JWT 憑證版本
+     * @param expiresAtMillis 憑證的過期時間(毫秒)
+     */
+    public record VerifiedToken(long userId, String role, int version, long expiresAtMillis) {
+    }
+
+    /**
+     * 初始化方法，用於將 secret 解碼後生成 key，並建立解析器與驗證結果快取
      */
     @PostConstruct
     public void init() {
         byte[] encodedSecret = Base64.getDecoder().decode(secret);
         this.key = Keys.hmacShaKeyFor(encodedSecret);
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.verifiedTokens = new ExpiringCache<>(cacheMaxSize, 16);
     }
 
     /**
@@ -105,7 +155,10 @@ public class JwtTokenProviderImpl implements TokenProvider {
                     .compact();
 
             tokenEntity.setJwtTokenExpireTime(LocalDateTime.ofInstant(expirationDate.toInstant(), ZoneId.systemDefault()));
-            return tokenRepository.save(tokenEntity).then(Mono.just(jwtToken));
+            return tokenRepository
+                    .save(tokenEntity)
+                    .then(tokenVersionManager.update(user.getId(), tokenVersion))
+                    .then(Mono.just(jwtToken));
         });
     }
 
@@ -121,20 +174,58 @@ public class JwtTokenProviderImpl implements TokenProvider {
      */
     @Override
     public Mono<Long> validateToken(String token, Long userId) {
+        return verifyToken(token).map(VerifiedToken::userId);
+    }
+
+    /**
+     * 驗證 JWT 憑證並返回憑證內容，每個請求只解析與驗證簽名一次
+     * 1. 先以憑證的 SHA-256 摘要查詢快取，命中且未過期時不需要驗證簽名
+     * 2. 否則驗證簽名並解析，通過後放入快取
+     * 3. 憑證版本與 TokenVersionManager 中用戶目前的版本比對，用戶登出或重新登入後舊憑證即使在快取中也會失效
+     * 驗證失敗時傳出 JWT_TOKEN_INVALID 錯誤
+     *
+     * @param token JWT 憑證
+     *
+     * @return 驗證通過的憑證內容
+     */
+    public Mono<VerifiedToken> verifyToken(String token) {
         return Mono.defer(() -> {
+            String digest = digest(token);
+            VerifiedToken cached = verifiedTokens.get(digest);
+            if (cached != null) {
+                return checkVersion(cached);
+            }
+            VerifiedToken parsed;
             try {
-                Claims claims = Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
-                long subject = Long.parseLong(claims.getSubject());
-                return tokenRepository.findByUserId(subject).flatMap(tokenMono -> {
-                    if (tokenMono.getJwtTokenVersion() != (int) claims.get("version")) {
-                        return Mono.error(new ValidationException(ValidationException.ErrorCode.JWT_TOKEN_INVALID));
-                    } else {
-                        return Mono.just(subject);
-                    }
-                });
+                Claims claims = parser.parseSignedClaims(token).getPayload();
+                parsed = new VerifiedToken(Long.parseLong(claims.getSubject()),
+                                           String.valueOf(claims.get("role")),
+                                           claims.get("version", Integer.class),
+                                           claims.getExpiration().getTime());
             } catch (Exception e) {
                 return Mono.error(new ValidationException(ValidationException.ErrorCode.JWT_TOKEN_INVALID));
             }
+            return checkVersion(parsed).doOnNext(verifiedToken -> {
+                long ttlNanos = Math.min(TimeUnit.SECONDS.toNanos(cacheTtlSeconds),
+                                         TimeUnit.MILLISECONDS.toNanos(verifiedToken.expiresAtMillis() - System.currentTimeMillis()));
+                verifiedTokens.put(digest, verifiedToken, ttlNanos);
+            });
+        });
+    }
+
+    /**
+     * 比對憑證版本與用戶目前的版本，不相符時傳出 JWT_TOKEN_INVALID 錯誤
+     *
+     * @param verifiedToken 憑證內容
+     *
+     * @return 版本相符的憑證內容，用戶沒有 Token 記錄時為空
+     */
+    private Mono<VerifiedToken> checkVersion(VerifiedToken verifiedToken) {
+        return tokenVersionManager.getVersion(verifiedToken.userId()).flatMap(version -> {
+            if (version != verifiedToken.version()) {
+                return Mono.error(new ValidationException(ValidationException.ErrorCode.JWT_TOKEN_INVALID));
+            }
+            return Mono.just(verifiedToken);
         });
     }
 
@@ -150,25 +241,23 @@ public class JwtTokenProviderImpl implements TokenProvider {
         return tokenRepository.findByUserId(userId).flatMap(tokenMono -> {
             tokenMono.setJwtTokenVersion(0);
             tokenMono.setJwtTokenExpireTime(LocalDateTime.now());
-            return tokenRepository.save(tokenMono);
+            return tokenRepository.save(tokenMono).then(tokenVersionManager.update(userId, 0));
         }).then();
     }
 
     /**
-     * 根據 JWT 憑證獲取 JWT 憑證中的 Claims
-     * 當 JWT 憑證無效時，傳出 JWT_TOKEN_INVALID 錯誤
+     * 計算 JWT 憑證的 SHA-256 摘要，作為快取的鍵值，避免在記憶體中保存完整的憑證
      *
      * @param token JWT 憑證
      *
-     * @return JWT 憑證中的 Claims
+     * @return Base64 編碼的摘要
      */
-    public Mono<Claims> getClaimsFromToken(String token) {
-        return Mono.defer(() -> {
-            try {
-                return Mono.just(Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload());
-            } catch (Exception e) {
-                return Mono.error(new ValidationException(ValidationException.ErrorCode.JWT_TOKEN_INVALID));
-            }
-        });
+    private String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
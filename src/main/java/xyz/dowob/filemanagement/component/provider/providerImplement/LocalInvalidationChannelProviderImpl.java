@@ -0,0 +1,61 @@
+package xyz.dowob.filemanagement.component.provider.providerImplement;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import xyz.dowob.filemanagement.component.provider.providerInterface.InvalidationChannelProvider;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 進程內的快取失效通知頻道，訊息只會傳給同一個進程中的訂閱者
+ * 用於單節點部署以及不需要 Redis 的開發與測試環境，cache.invalidation.channel 未設定或為 local 時啟用
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName LocalInvalidationChannelProviderImpl
+ * @description
+ * @create 2026-10-18 21:12
+ * @Version 1.0
+ **/
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.channel", havingValue = "local", matchIfMissing = true)
+public class LocalInvalidationChannelProviderImpl implements InvalidationChannelProvider {
+    /**
+     * 每個頻道的訊息發送端
+     */
+    private final Map<String, Sinks.Many<String>> sinks = new ConcurrentHashMap<>();
+
+    /**
+     * 發布訊息給同一個進程中的訂閱者
+     *
+     * @param channel 頻道名稱
+     * @param message 訊息內容
+     *
+     * @return 發布完成的信號
+     */
+    @Override
+    public Mono<Void> publish(String channel, String message) {
+        return Mono.fromRunnable(() -> sinkOf(channel).emitNext(message, Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1))));
+    }
+
+    /**
+     * 訂閱頻道
+     *
+     * @param channel 頻道名稱
+     *
+     * @return 收到的訊息
+     */
+    @Override
+    public Flux<String> subscribe(String channel) {
+        return sinkOf(channel).asFlux();
+    }
+
+    private Sinks.Many<String> sinkOf(String channel) {
+        return sinks.computeIfAbsent(channel, name -> Sinks.many().multicast().directBestEffort());
+    }
+}
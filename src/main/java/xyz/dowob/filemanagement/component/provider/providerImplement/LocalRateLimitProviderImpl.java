@@ -0,0 +1,139 @@
+package xyz.dowob.filemanagement.component.provider.providerImplement;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.component.provider.providerInterface.RateLimitProvider;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 記憶體中的令牌桶速率限制，security.rate-limit.backend 未設定或為 local 時啟用
+ * 1. 令牌桶以 GCRA(generic cell rate algorithm)實現，每個桶只保存一個 long：下一個令牌的理論到達時間(TAT)，
+ * 取令牌時以一次 CAS 更新，不需要加鎖也不會建立物件
+ * 2. TAT 已經早於現在的桶等同於全滿的新桶，刪除後不會改變限制結果，因此清除這些桶不會遺失狀態
+ * 3. 桶的數量超過上限時先清除全滿的桶，仍然超過時新的鍵值共用一個溢出桶，避免大量偽造的 IP 耗盡記憶體
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName LocalRateLimitProviderImpl
+ * @description
+ * @create 2026-10-18 22:35
+ * @Version 1.0
+ **/
+@Log4j2
+@Component
+@ConditionalOnProperty(name = "security.rate-limit.backend", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimitProviderImpl implements RateLimitProvider {
+    /**
+     * 鍵值對應的桶，值為下一個令牌的理論到達時間(System.nanoTime)
+     */
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * 桶的數量超過上限時共用的溢出桶
+     */
+    private final AtomicLong overflowBucket = new AtomicLong(System.nanoTime());
+
+    /**
+     * 是否正在清除全滿的桶
+     */
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    /**
+     * 最多保存的桶數量
+     */
+    private final int maxKeys;
+
+    /**
+     * 建立記憶體中的速率限制
+     *
+     * @param maxKeys 最多保存的桶數量
+     */
+    public LocalRateLimitProviderImpl(@Value("${security.rate-limit.max-keys: 100000}") int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * 嘗試從鍵值的令牌桶取出一個令牌
+     *
+     * @param key           鍵值
+     * @param ratePerMinute 每分鐘補充的令牌數
+     * @param burst         桶的容量，即允許的瞬間請求數
+     *
+     * @return 0 表示允許，否則為需要等待的毫秒數
+     */
+    @Override
+    public Mono<Long> tryAcquire(String key, long ratePerMinute, int burst) {
+        return Mono.fromSupplier(() -> acquire(bucketOf(key), TimeUnit.MINUTES.toNanos(1) / ratePerMinute, burst));
+    }
+
+    /**
+     * 以 GCRA 取出一個令牌
+     * 每個令牌間隔 interval，TAT 最多可以比現在晚 (burst - 1) * interval，超過時拒絕
+     *
+     * @param bucket   桶
+     * @param interval 每個令牌的間隔(奈秒)
+     * @param burst    桶的容量
+     *
+     * @return 0 表示允許，否則為需要等待的毫秒數
+     */
+    private long acquire(AtomicLong bucket, long interval, int burst) {
+        long tolerance = (burst - 1) * interval;
+        while (true) {
+            long now = System.nanoTime();
+            long tat = bucket.get();
+            long start = tat - now < 0 ? now : tat;
+            long wait = start - tolerance - now;
+            if (wait > 0) {
+                return Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait));
+            }
+            if (bucket.compareAndSet(tat, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 取得鍵值的桶，桶的數量超過上限時先清除全滿的桶，仍然超過時使用溢出桶
+     *
+     * @param key 鍵值
+     *
+     * @return 桶
+     */
+    private AtomicLong bucketOf(String key) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxKeys) {
+            sweep();
+            if (buckets.size() >= maxKeys) {
+                return overflowBucket;
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(System.nanoTime()));
+    }
+
+    /**
+     * 清除全滿的桶，同時只會有一個線程執行
+     */
+    private void sweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            int before = buckets.size();
+            buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+            log.debug("清除全滿的速率限制桶 {} 個", before - buckets.size());
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
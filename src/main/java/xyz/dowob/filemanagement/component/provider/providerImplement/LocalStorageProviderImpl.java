@@ -0,0 +1,191 @@
+package xyz.dowob.filemanagement.component.provider.providerImplement;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import xyz.dowob.filemanagement.component.provider.providerInterface.StorageProvider;
+import xyz.dowob.filemanagement.customenum.StorageEnum;
+import xyz.dowob.filemanagement.exception.FileException;
+
+import java.io.IOException;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * 本機檔案系統儲存提供者實現類，將文件內容存放於本機磁碟
+ * 實現了 StorageProvider 接口
+ * 1. 檔案以隨機ID命名，並依ID的前四個字元分為兩層目錄(例如 ab/cd/abcd...)，避免單一目錄中的檔案過多
+ * 2. 寫入時先寫到暫存目錄，完成後再移動到正式位置，讀取時不會看到寫到一半的檔案
+ * 3. 讀寫使用 AsynchronousFileChannel，目錄建立、移動與刪除等阻塞操作在 boundedElastic 執行緒上執行
+ * 4. 提供檔案路徑給下載處理器，讓下載時以 sendfile 直接從檔案傳送到連線，資料不會經過 JVM 的記憶體
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName LocalStorageProviderImpl
+ * @description
+ * @create 2026-10-18 17:15
+ * @Version 1.0
+ **/
+@Component
+public class LocalStorageProviderImpl implements StorageProvider {
+    /**
+     * 儲存鍵值的格式，限制只能指向儲存目錄下的檔案
+     */
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{32}");
+
+    /**
+     * 讀取檔案時每個 DataBuffer 的大小
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 儲存目錄
+     */
+    private final Path root;
+
+    /**
+     * 暫存目錄，與儲存目錄位於同一個檔案系統，讓移動檔案可以是原子操作
+     */
+    private final Path tempDirectory;
+
+    /**
+     * 建立本機檔案系統儲存提供者
+     *
+     * @param root 儲存目錄，從配置文件中獲取
+     */
+    public LocalStorageProviderImpl(@Value("${file.storage.local.path: ./data/storage}") String root) {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.tempDirectory = this.root.resolve("tmp");
+    }
+
+    /**
+     * 將資料流寫入暫存檔案，完成後移動到依ID分層的目錄中
+     * 寫入失敗時刪除暫存檔案
+     *
+     * @param content     文件內容的資料流
+     * @param filename    文件名稱
+     * @param contentType 內容類型
+     *
+     * @return 以 local: 開頭的儲存鍵值
+     */
+    @Override
+    public Mono<String> store(Flux<DataBuffer> content, String filename, String contentType) {
+        String id = UUID.randomUUID().toString().replace("-", "");
+        String relativePath = id.substring(0, 2) + "/" + id.substring(2, 4) + "/" + id;
+        Path tempFile = tempDirectory.resolve(id);
+        Path target = root.resolve(relativePath);
+        return Mono
+                .fromCallable(() -> Files.createDirectories(tempDirectory))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(DataBufferUtils.write(content, tempFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))
+                .then(Mono.fromCallable(() -> {
+                    Files.createDirectories(target.getParent());
+                    return Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+                }).subscribeOn(Schedulers.boundedElastic()))
+                .thenReturn(StorageEnum.LOCAL.getKeyPrefix() + relativePath)
+                .onErrorResume(e -> Mono
+                        .fromCallable(() -> Files.deleteIfExists(tempFile))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .onErrorResume(IOException.class, deleteError -> Mono.empty())
+                        .then(Mono.error(e)));
+    }
+
+    /**
+     * 讀取完整的文件內容
+     * 當檔案不存在時，傳出 FILE_NOT_FOUND 錯誤
+     *
+     * @param storageKey 儲存鍵值
+     *
+     * @return 文件內容的資料流
+     */
+    @Override
+    public Flux<DataBuffer> read(String storageKey) {
+        return read(storageKey, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * 從起始位置開始讀取文件內容中的一段
+     * 當檔案不存在時，傳出 FILE_NOT_FOUND 錯誤
+     *
+     * @param storageKey 儲存鍵值
+     * @param offset     起始位置
+     * @param length     讀取長度
+     *
+     * @return 文件內容的資料流
+     */
+    @Override
+    public Flux<DataBuffer> read(String storageKey, long offset, long length) {
+        if (length <= 0) {
+            return Flux.empty();
+        }
+        return resolve(storageKey).flatMapMany(path -> DataBufferUtils
+                .takeUntilByteCount(DataBufferUtils.readAsynchronousFileChannel(() -> AsynchronousFileChannel.open(path, StandardOpenOption.READ),
+                                                                                offset,
+                                                                                DefaultDataBufferFactory.sharedInstance,
+                                                                                BUFFER_SIZE), length)
+                .onErrorMap(NoSuchFileException.class, e -> new FileException(FileException.ErrorCode.FILE_NOT_FOUND, storageKey)));
+    }
+
+    /**
+     * 刪除文件內容，檔案不存在時視為已刪除
+     *
+     * @param storageKey 儲存鍵值
+     */
+    @Override
+    public Mono<Void> delete(String storageKey) {
+        return resolve(storageKey)
+                .flatMap(path -> Mono.fromCallable(() -> Files.deleteIfExists(path)).subscribeOn(Schedulers.boundedElastic()))
+                .then();
+    }
+
+    /**
+     * 取得文件內容的本機檔案路徑
+     *
+     * @param storageKey 儲存鍵值
+     *
+     * @return 本機檔案路徑
+     */
+    @Override
+    public Optional<Path> localPath(String storageKey) {
+        return Optional.ofNullable(toPath(storageKey));
+    }
+
+    /**
+     * 將儲存鍵值轉換為檔案路徑，鍵值格式不正確時傳出 FILE_NOT_FOUND 錯誤
+     *
+     * @param storageKey 儲存鍵值
+     *
+     * @return 檔案路徑
+     */
+    private Mono<Path> resolve(String storageKey) {
+        Path path = toPath(storageKey);
+        return path == null ? Mono.error(new FileException(FileException.ErrorCode.FILE_NOT_FOUND, storageKey)) : Mono.just(path);
+    }
+
+    /**
+     * 將儲存鍵值轉換為檔案路徑
+     *
+     * @param storageKey 儲存鍵值
+     *
+     * @return 檔案路徑，鍵值格式不正確時返回 null
+     */
+    private Path toPath(String storageKey) {
+        String prefix = StorageEnum.LOCAL.getKeyPrefix();
+        if (!storageKey.startsWith(prefix) || !KEY_PATTERN.matcher(storageKey.substring(prefix.length())).matches()) {
+            return null;
+        }
+        return root.resolve(storageKey.substring(prefix.length()));
+    }
+}
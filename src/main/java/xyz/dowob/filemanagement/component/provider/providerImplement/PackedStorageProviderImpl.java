@@ -0,0 +1,696 @@
+package xyz.dowob.filemanagement.component.provider.providerImplement;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import xyz.dowob.filemanagement.component.provider.providerInterface.StorageProvider;
+import xyz.dowob.filemanagement.customenum.StorageEnum;
+import xyz.dowob.filemanagement.exception.FileException;
+import xyz.dowob.filemanagement.utils.PackedBlobIndex;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 打包卷儲存提供者實現類，將小型內容依序附加到大型的卷檔案中(Haystack 的做法)
+ * 實現了 StorageProvider 接口
+ * 每個內容在 GridFS 中需要一個文件記錄與一個 chunk 記錄，大量的縮圖、圖示與短文字會讓 MongoDB 的記錄數與 IOPS 遠大於實際資料量，
+ * 打包後每個內容只是卷檔案中的一段，沒有額外的元數據記錄
+ * 1. 每筆記錄由 32 bytes 的標頭(魔數、狀態、內容ID、長度、CRC32)與內容組成，並對齊到 8 bytes
+ * 2. 只有一個卷在寫入，寫入依序附加到卷的結尾，超過卷大小上限時開始新的卷
+ * 3. 內容ID對應卷、位置與長度的索引只存放於記憶體({@link PackedBlobIndex})，啟動時掃描所有卷的標頭重建，不需要額外的索引檔
+ * 4. 刪除時將記錄標記為已刪除並從索引移除，空間由壓縮任務將仍有效的內容搬移到目前的卷後刪除舊卷來回收
+ * 5. 壓縮只會把記錄搬到編號更大的卷，掃描時同一內容ID以編號較大的卷中的記錄為準，較新的已刪除記錄同時是舊副本的刪除標記；
+ *    壓縮開始前建立標記檔，啟動時發現標記檔表示上次壓縮中斷，在接受請求前先完成該卷的壓縮，舊卷不會比新卷中的刪除標記留得更久
+ * 讀寫使用 FileChannel 的位置讀寫，在 boundedElastic 執行緒上執行
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName PackedStorageProviderImpl
+ * @description
+ * @create 2026-10-18 18:20
+ * @Version 1.0
+ **/
+@Log4j2
+@Component
+public class PackedStorageProviderImpl implements StorageProvider {
+    /**
+     * 記錄標頭的魔數，用於辨識記錄的開頭以及寫到一半的記錄
+     */
+    private static final int MAGIC = 0x50414B31;
+
+    /**
+     * 記錄標頭的大小
+     */
+    private static final int HEADER_SIZE = 32;
+
+    /**
+     * 記錄狀態：有效
+     */
+    private static final int LIVE = 0;
+
+    /**
+     * 記錄狀態：已刪除
+     */
+    private static final int DELETED = 1;
+
+    /**
+     * 卷檔案的副檔名
+     */
+    private static final String VOLUME_SUFFIX = ".vol";
+
+    /**
+     * 壓縮中的標記檔的副檔名
+     */
+    private static final String COMPACTING_SUFFIX = ".compacting";
+
+    /**
+     * 是否啟用打包儲存
+     */
+    @Getter
+    private final boolean enabled;
+
+    /**
+     * 可以打包的內容大小上限
+     */
+    @Getter
+    private final int maxBlobSize;
+
+    /**
+     * 卷的大小上限
+     */
+    private final long volumeSize;
+
+    /**
+     * 已刪除空間佔卷大小的比例達到此值時壓縮該卷
+     */
+    private final double compactThreshold;
+
+    /**
+     * 是否在每次寫入後將資料同步到磁碟
+     */
+    private final boolean syncWrites;
+
+    /**
+     * 卷檔案的目錄
+     */
+    private final Path root;
+
+    /**
+     * 所有的卷，以卷編號為鍵值
+     */
+    private final Map<Integer, Volume> volumes = new ConcurrentHashMap<>();
+
+    /**
+     * 內容ID對應位置的索引
+     */
+    private final PackedBlobIndex index = new PackedBlobIndex(1 << 16);
+
+    /**
+     * 保護索引的讀寫鎖，讀取內容時只需要讀鎖
+     */
+    private final ReentrantReadWriteLock indexLock = new ReentrantReadWriteLock();
+
+    /**
+     * 串行化所有修改卷檔案的操作(寫入、刪除與壓縮搬移)
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * 下一個內容ID
+     */
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    /**
+     * 已經被壓縮刪除的卷，延遲到下一次壓縮時才關閉，讓正在讀取的請求可以完成
+     */
+    private final List<Volume> retiredVolumes = new ArrayList<>();
+
+    /**
+     * 目前寫入中的卷
+     */
+    private volatile Volume activeVolume;
+
+    /**
+     * 建立打包卷儲存提供者
+     *
+     * @param enabled          是否啟用打包儲存
+     * @param root             卷檔案的目錄
+     * @param maxBlobSize      可以打包的內容大小上限
+     * @param volumeSize       卷的大小上限
+     * @param compactThreshold 已刪除空間佔卷大小的比例達到此值時壓縮該卷
+     * @param syncWrites       是否在每次寫入後將資料同步到磁碟
+     */
+    public PackedStorageProviderImpl(
+            @Value("${file.storage.pack.enabled: false}") boolean enabled,
+            @Value("${file.storage.pack.path: ./data/volumes}") String root,
+            @Value("${file.storage.pack.max-size: 262144}") int maxBlobSize,
+            @Value("${file.storage.pack.volume-size: 1073741824}") long volumeSize,
+            @Value("${file.storage.pack.compact-threshold: 0.3}") double compactThreshold,
+            @Value("${file.storage.pack.sync-writes: true}") boolean syncWrites) {
+        this.enabled = enabled;
+        this.root = Path.of(root).toAbsolutePath().normalize();
+        this.maxBlobSize = maxBlobSize;
+        this.volumeSize = volumeSize;
+        this.compactThreshold = compactThreshold;
+        this.syncWrites = syncWrites;
+    }
+
+    /**
+     * 啟動時依卷編號順序開啟所有卷並掃描記錄標頭重建索引
+     * 卷結尾不完整的記錄(寫入時程式中斷)會被截斷，上次中斷的壓縮會在這裡完成
+     *
+     * @throws IOException 讀取卷檔案失敗時
+     */
+    @PostConstruct
+    public void openVolumes() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(root);
+        List<Path> volumeFiles;
+        try (Stream<Path> files = Files.list(root)) {
+            volumeFiles = files.filter(path -> path.getFileName().toString().endsWith(VOLUME_SUFFIX)).sorted().toList();
+        }
+        for (Path path : volumeFiles) {
+            Volume volume = openVolume(volumeId(path));
+            scanVolume(volume);
+            volumes.put(volume.id, volume);
+            activeVolume = volume;
+        }
+        if (activeVolume == null) {
+            activeVolume = openVolume(1);
+            volumes.put(activeVolume.id, activeVolume);
+        }
+        for (Path path : volumeFiles) {
+            Volume volume = volumes.get(volumeId(path));
+            if (volume != activeVolume && Files.exists(compactionMarker(volume))) {
+                log.warn("打包卷 {} 的壓縮在上次執行時中斷，繼續壓縮", volume.id);
+                compactVolume(volume);
+            }
+        }
+        log.info("已載入 {} 個打包卷，{} 筆內容", volumes.size(), index.size());
+    }
+
+    /**
+     * 關閉所有卷
+     */
+    @PreDestroy
+    public void closeVolumes() {
+        volumes.values().forEach(Volume::close);
+        retiredVolumes.forEach(Volume::close);
+    }
+
+    /**
+     * 將內容附加到目前的卷
+     * 內容超過打包大小上限時傳出 FILE_STORAGE_ERROR 錯誤，呼叫者應該先以大小選擇儲存後端
+     *
+     * @param content     文件內容的資料流
+     * @param filename    文件名稱
+     * @param contentType 內容類型
+     *
+     * @return 以 pack: 開頭的儲存鍵值
+     */
+    @Override
+    public Mono<String> store(Flux<DataBuffer> content, String filename, String contentType) {
+        return DataBufferUtils.join(content, maxBlobSize).map(dataBuffer -> {
+            byte[] bytes = new byte[dataBuffer.readableByteCount()];
+            dataBuffer.read(bytes);
+            DataBufferUtils.release(dataBuffer);
+            return bytes;
+        }).defaultIfEmpty(new byte[0]).flatMap(bytes -> Mono.fromCallable(() -> {
+            long id = nextId.getAndIncrement();
+            synchronized (writeLock) {
+                append(id, bytes);
+            }
+            return StorageEnum.PACKED.getKeyPrefix() + id;
+        }).subscribeOn(Schedulers.boundedElastic())).onErrorMap(DataBufferLimitException.class, e -> new FileException(
+                FileException.ErrorCode.FILE_STORAGE_ERROR,
+                "內容超過打包大小上限"));
+    }
+
+    /**
+     * 讀取完整的內容
+     *
+     * @param storageKey 儲存鍵值
+     *
+     * @return 文件內容的資料流
+     */
+    @Override
+    public Flux<DataBuffer> read(String storageKey) {
+        return read(storageKey, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * 讀取內容中的一段
+     * 內容不大，因此總是讀取整個內容並驗證 CRC32 後再切出範圍
+     * 內容在讀取時被壓縮任務搬移(舊卷已關閉)時，重新查詢索引後再讀一次
+     * 當內容不存在時，傳出 FILE_NOT_FOUND 錯誤
+     *
+     * @param storageKey 儲存鍵值
+     * @param offset     起始位置
+     * @param length     讀取長度
+     *
+     * @return 文件內容的資料流
+     */
+    @Override
+    public Flux<DataBuffer> read(String storageKey, long offset, long length) {
+        if (length <= 0) {
+            return Flux.empty();
+        }
+        return Mono.<DataBuffer>fromCallable(() -> {
+            long id = parseId(storageKey);
+            byte[] data;
+            try {
+                data = readBlob(storageKey, id);
+            } catch (ClosedChannelException e) {
+                data = readBlob(storageKey, id);
+            } catch (FileException e) {
+                if (e.getErrorCode() != FileException.ErrorCode.FILE_NOT_FOUND) {
+                    throw e;
+                }
+                data = readBlob(storageKey, id);
+            }
+            int from = (int) Math.min(offset, data.length);
+            int to = (int) Math.min(data.length, from + Math.min(length, Integer.MAX_VALUE));
+            return DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(data, from, to - from).slice());
+        }).subscribeOn(Schedulers.boundedElastic()).flux();
+    }
+
+    /**
+     * 將記錄標記為已刪除並從索引移除，內容不存在時視為已刪除
+     *
+     * @param storageKey 儲存鍵值
+     */
+    @Override
+    public Mono<Void> delete(String storageKey) {
+        return Mono.fromCallable(() -> {
+            long id = parseId(storageKey);
+            synchronized (writeLock) {
+                long location = lookupLocation(id);
+                if (location == PackedBlobIndex.NOT_FOUND) {
+                    return false;
+                }
+                Volume volume = volumes.get(PackedBlobIndex.volumeId(location));
+                long position = PackedBlobIndex.offset(location);
+                int length = lookupLength(id);
+                volume.channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, DELETED), position + Integer.BYTES);
+                if (syncWrites) {
+                    volume.channel.force(false);
+                }
+                volume.liveBytes -= recordSize(length);
+                indexLock.writeLock().lock();
+                try {
+                    index.remove(id);
+                } finally {
+                    indexLock.writeLock().unlock();
+                }
+                return true;
+            }
+        }).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+
+    /**
+     * 壓縮已刪除空間比例達到門檻的卷
+     * 1. 關閉上一次壓縮時刪除的卷
+     * 2. 依卷編號由小到大壓縮候選卷 {@link #compactVolume(Volume)}
+     * 每筆記錄個別取得寫入鎖，壓縮期間仍然可以寫入與刪除
+     *
+     * @return 回收的字節數
+     */
+    public Mono<Long> compact() {
+        if (!enabled) {
+            return Mono.just(0L);
+        }
+        return Mono.fromCallable(() -> {
+            synchronized (writeLock) {
+                retiredVolumes.forEach(Volume::close);
+                retiredVolumes.clear();
+            }
+            long reclaimed = 0;
+            List<Volume> candidates = volumes.values().stream().sorted(Comparator.comparingInt(volume -> volume.id)).toList();
+            for (Volume volume : candidates) {
+                if (volume == activeVolume || volume.size == 0 || volume.liveBytes > volume.size * (1 - compactThreshold)) {
+                    continue;
+                }
+                reclaimed += volume.size - compactVolume(volume);
+            }
+            return reclaimed;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * 壓縮一個卷
+     * 1. 建立標記檔，搬移途中程式中斷時，下次啟動會繼續壓縮這個卷
+     * 2. 依序掃描卷的記錄，仍然在索引中指向該位置的記錄搬移到目前的卷並更新索引
+     * 3. 所有記錄搬移完成後刪除卷檔案，最後才刪除標記檔，卷的檔案通道延遲到下一次壓縮時才關閉
+     *
+     * @param volume 要壓縮的卷
+     *
+     * @return 搬移的字節數
+     *
+     * @throws IOException 讀寫卷檔案失敗時
+     */
+    private long compactVolume(Volume volume) throws IOException {
+        Path marker = compactionMarker(volume);
+        if (!Files.exists(marker)) {
+            Files.createFile(marker);
+        }
+        long moved = moveLiveRecords(volume);
+        synchronized (writeLock) {
+            volumes.remove(volume.id);
+            retiredVolumes.add(volume);
+            Files.deleteIfExists(volume.path);
+        }
+        Files.deleteIfExists(marker);
+        log.info("已壓縮打包卷 {}，搬移 {} bytes", volume.id, moved);
+        return moved;
+    }
+
+    /**
+     * 將卷中仍然有效的記錄搬移到目前的卷
+     *
+     * @param volume 要壓縮的卷
+     *
+     * @return 搬移的字節數
+     *
+     * @throws IOException 讀寫卷檔案失敗時
+     */
+    private long moveLiveRecords(Volume volume) throws IOException {
+        long moved = 0;
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (position + HEADER_SIZE <= volume.size) {
+            readFully(volume.channel, header.clear(), position);
+            long id = header.getLong(8);
+            int length = header.getInt(16);
+            synchronized (writeLock) {
+                if (header.getInt(4) == LIVE && lookupLocation(id) == PackedBlobIndex.location(volume.id, position)) {
+                    ByteBuffer data = ByteBuffer.allocate(length);
+                    readFully(volume.channel, data, position + HEADER_SIZE);
+                    append(id, data.array());
+                    moved += recordSize(length);
+                }
+            }
+            position += recordSize(length);
+        }
+        return moved;
+    }
+
+    /**
+     * 將一筆記錄附加到目前的卷並更新索引，呼叫者需要持有寫入鎖
+     *
+     * @param id   內容ID
+     * @param data 內容
+     *
+     * @throws IOException 寫入卷檔案失敗時
+     */
+    private void append(long id, byte[] data) throws IOException {
+        int recordSize = recordSize(data.length);
+        if (activeVolume.size > 0 && activeVolume.size + recordSize > volumeSize) {
+            if (syncWrites) {
+                activeVolume.channel.force(false);
+            }
+            Volume volume = openVolume(activeVolume.id + 1);
+            volumes.put(volume.id, volume);
+            activeVolume = volume;
+        }
+        CRC32 crc32 = new CRC32();
+        crc32.update(data);
+        ByteBuffer record = ByteBuffer.allocate(recordSize);
+        record.putInt(MAGIC).putInt(LIVE).putLong(id).putInt(data.length).putInt((int) crc32.getValue());
+        record.position(HEADER_SIZE);
+        record.put(data).clear();
+        long position = activeVolume.size;
+        while (record.hasRemaining()) {
+            activeVolume.channel.write(record, position + record.position());
+        }
+        if (syncWrites) {
+            activeVolume.channel.force(false);
+        }
+        activeVolume.size += recordSize;
+        activeVolume.liveBytes += recordSize;
+        indexLock.writeLock().lock();
+        try {
+            index.put(id, PackedBlobIndex.location(activeVolume.id, position), data.length);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 依照索引讀取完整的內容並驗證 CRC32
+     *
+     * @param storageKey 儲存鍵值
+     * @param id         內容ID
+     *
+     * @return 內容
+     *
+     * @throws IOException   讀取卷檔案失敗時
+     * @throws FileException 內容不存在或損毀時
+     */
+    private byte[] readBlob(String storageKey, long id) throws IOException, FileException {
+        long location;
+        int length;
+        indexLock.readLock().lock();
+        try {
+            location = index.getLocation(id);
+            length = index.getLength(id);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+        Volume volume = location == PackedBlobIndex.NOT_FOUND ? null : volumes.get(PackedBlobIndex.volumeId(location));
+        if (volume == null) {
+            throw new FileException(FileException.ErrorCode.FILE_NOT_FOUND, storageKey);
+        }
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + length);
+        readFully(volume.channel, record, PackedBlobIndex.offset(location));
+        CRC32 crc32 = new CRC32();
+        crc32.update(record.array(), HEADER_SIZE, length);
+        if (record.getInt(0) != MAGIC || record.getLong(8) != id || record.getInt(20) != (int) crc32.getValue()) {
+            throw new FileException(FileException.ErrorCode.FILE_STORAGE_ERROR, "打包內容已損毀 " + storageKey);
+        }
+        byte[] data = new byte[length];
+        System.arraycopy(record.array(), HEADER_SIZE, data, 0, length);
+        return data;
+    }
+
+    /**
+     * 掃描卷中所有記錄的標頭，將有效的記錄加入索引
+     * 卷依編號由小到大掃描，索引中已有同一內容ID時表示較早的卷留有壓縮搬移前的舊副本，以這一筆為準；
+     * 這一筆已刪除時同時移除舊副本，刪除不會因為舊卷沒有刪除而復原
+     * 遇到魔數不符或長度超過檔案結尾的記錄時，視為寫入中斷並截斷卷
+     *
+     * @param volume 卷
+     *
+     * @throws IOException 讀取卷檔案失敗時
+     */
+    private void scanVolume(Volume volume) throws IOException {
+        long fileSize = volume.channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (position + HEADER_SIZE <= fileSize) {
+            readFully(volume.channel, header.clear(), position);
+            int length = header.getInt(16);
+            if (header.getInt(0) != MAGIC || length < 0 || position + recordSize(length) > fileSize) {
+                break;
+            }
+            long id = header.getLong(8);
+            long previous = index.getLocation(id);
+            if (previous != PackedBlobIndex.NOT_FOUND) {
+                int previousVolumeId = PackedBlobIndex.volumeId(previous);
+                Volume older = previousVolumeId == volume.id ? volume : volumes.get(previousVolumeId);
+                if (older != null) {
+                    older.liveBytes -= recordSize(index.getLength(id));
+                }
+                index.remove(id);
+            }
+            if (header.getInt(4) == LIVE) {
+                index.put(id, PackedBlobIndex.location(volume.id, position), length);
+                volume.liveBytes += recordSize(length);
+            }
+            nextId.accumulateAndGet(id + 1, Math::max);
+            position += recordSize(length);
+        }
+        if (position < fileSize) {
+            log.warn("打包卷 {} 結尾有不完整的記錄，截斷於 {}", volume.id, position);
+            volume.channel.truncate(position);
+        }
+        volume.size = position;
+    }
+
+    /**
+     * 開啟卷檔案，檔案不存在時建立
+     *
+     * @param id 卷編號
+     *
+     * @return 卷，大小與有效字節數為 0，需要另外掃描
+     *
+     * @throws IOException 開啟檔案失敗時
+     */
+    private Volume openVolume(int id) throws IOException {
+        Path path = root.resolve(String.format("%08d%s", id, VOLUME_SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new Volume(id, path, channel);
+    }
+
+    /**
+     * 在讀鎖下查詢內容的位置
+     *
+     * @param id 內容ID
+     *
+     * @return 卷編號與位置組合的值，不存在時為 {@link PackedBlobIndex#NOT_FOUND}
+     */
+    private long lookupLocation(long id) {
+        indexLock.readLock().lock();
+        try {
+            return index.getLocation(id);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 在讀鎖下查詢內容的長度
+     *
+     * @param id 內容ID
+     *
+     * @return 內容長度，不含標頭與對齊
+     */
+    private int lookupLength(long id) {
+        indexLock.readLock().lock();
+        try {
+            return index.getLength(id);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 卷的壓縮標記檔
+     *
+     * @param volume 卷
+     *
+     * @return 標記檔路徑
+     */
+    private Path compactionMarker(Volume volume) {
+        return root.resolve(String.format("%08d%s", volume.id, COMPACTING_SUFFIX));
+    }
+
+    /**
+     * 從卷檔案名稱取出卷編號
+     *
+     * @param path 卷檔案路徑
+     *
+     * @return 卷編號
+     */
+    private static int volumeId(Path path) {
+        String name = path.getFileName().toString();
+        return Integer.parseInt(name.substring(0, name.length() - VOLUME_SUFFIX.length()));
+    }
+
+    /**
+     * 從指定位置讀滿緩衝區
+     *
+     * @param channel  檔案通道
+     * @param buffer   緩衝區
+     * @param position 起始位置
+     *
+     * @throws IOException 讀取失敗或檔案提前結束時
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long start = position - buffer.position();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) {
+                throw new IOException("打包卷提前結束");
+            }
+        }
+    }
+
+    /**
+     * 記錄佔用的大小，包含標頭並對齊到 8 bytes
+     *
+     * @param length 內容長度
+     *
+     * @return 記錄大小
+     */
+    private static int recordSize(int length) {
+        return (HEADER_SIZE + length + 7) & ~7;
+    }
+
+    /**
+     * 從儲存鍵值取出內容ID
+     *
+     * @param storageKey 儲存鍵值
+     *
+     * @return 內容ID
+     *
+     * @throws FileException 鍵值格式不正確時
+     */
+    private static long parseId(String storageKey) throws FileException {
+        try {
+            return Long.parseLong(storageKey.substring(StorageEnum.PACKED.getKeyPrefix().length()));
+        } catch (RuntimeException e) {
+            throw new FileException(FileException.ErrorCode.FILE_NOT_FOUND, storageKey);
+        }
+    }
+
+    /**
+     * 一個卷檔案以及其使用狀況，大小與有效字節數只在持有寫入鎖時修改
+     */
+    private static class Volume {
+        private final int id;
+
+        private final Path path;
+
+        private final FileChannel channel;
+
+        /**
+         * 已寫入的大小
+         */
+        private volatile long size;
+
+        /**
+         * 有效記錄佔用的大小
+         */
+        private volatile long liveBytes;
+
+        private Volume(int id, Path path, FileChannel channel) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("關閉打包卷 {} 失敗: {}", id, e.getMessage());
+            }
+        }
+    }
+}
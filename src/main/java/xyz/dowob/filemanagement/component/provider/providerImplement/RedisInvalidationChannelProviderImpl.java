@@ -0,0 +1,57 @@
+package xyz.dowob.filemanagement.component.provider.providerImplement;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.component.provider.providerInterface.InvalidationChannelProvider;
+
+/**
+ * 以 Redis pub/sub 實現的快取失效通知頻道，訊息會傳給所有連線到同一個 Redis 的節點
+ * 用於多節點部署，cache.invalidation.channel 為 redis 時啟用，Redis 連線設定於 spring.data.redis
+ * pub/sub 不保存訊息，節點斷線期間的訊息會遺失，因此使用者需要在重新訂閱時自行清除快取
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName RedisInvalidationChannelProviderImpl
+ * @description
+ * @create 2026-10-18 21:15
+ * @Version 1.0
+ **/
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "cache.invalidation.channel", havingValue = "redis")
+public class RedisInvalidationChannelProviderImpl implements InvalidationChannelProvider {
+    /**
+     * Redis 操作模板
+     */
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    /**
+     * 發布訊息到 Redis 頻道
+     *
+     * @param channel 頻道名稱
+     * @param message 訊息內容
+     *
+     * @return 發布完成的信號
+     */
+    @Override
+    public Mono<Void> publish(String channel, String message) {
+        return redisTemplate.convertAndSend(channel, message).then();
+    }
+
+    /**
+     * 訂閱 Redis 頻道
+     *
+     * @param channel 頻道名稱
+     *
+     * @return 收到的訊息
+     */
+    @Override
+    public Flux<String> subscribe(String channel) {
+        return redisTemplate.listenToChannel(channel).map(ReactiveSubscription.Message::getMessage);
+    }
+}
@@ -0,0 +1,76 @@
+package xyz.dowob.filemanagement.component.provider.providerImplement;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.component.provider.providerInterface.RateLimitProvider;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 以 Redis 共用令牌桶的速率限制，security.rate-limit.backend 為 redis 時啟用
+ * 與記憶體中的實現相同以 GCRA 計算，由 Lua 腳本在 Redis 中以原子方式讀取並更新桶的 TAT，時間取自 Redis 伺服器，
+ * 不受各節點時鐘差異影響，桶在全滿後自動過期
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName RedisRateLimitProviderImpl
+ * @description
+ * @create 2026-10-18 22:40
+ * @Version 1.0
+ **/
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "security.rate-limit.backend", havingValue = "redis")
+public class RedisRateLimitProviderImpl implements RateLimitProvider {
+    /**
+     * 鍵值的前綴
+     */
+    private static final String KEY_PREFIX = "file-management:rate-limit:";
+
+    /**
+     * GCRA 腳本，參數為每個令牌的間隔(微秒)與桶的容量，返回 0 表示允許，否則為需要等待的毫秒數
+     */
+    private static final RedisScript<Long> GCRA_SCRIPT = RedisScript.of("""
+            local interval = tonumber(ARGV[1])
+            local burst = tonumber(ARGV[2])
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000000 + tonumber(time[2])
+            local tat = tonumber(redis.call('GET', KEYS[1]) or now)
+            local start = math.max(tat, now)
+            local wait = start - (burst - 1) * interval - now
+            if wait > 0 then
+                return math.max(1, math.floor(wait / 1000))
+            end
+            local newTat = start + interval
+            redis.call('SET', KEYS[1], string.format('%.0f', newTat), 'PX', string.format('%.0f', math.ceil((newTat - now) / 1000) + 1))
+            return 0
+            """, Long.class);
+
+    /**
+     * Redis 操作模板
+     */
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    /**
+     * 嘗試從 Redis 中鍵值的令牌桶取出一個令牌
+     *
+     * @param key           鍵值
+     * @param ratePerMinute 每分鐘補充的令牌數
+     * @param burst         桶的容量，即允許的瞬間請求數
+     *
+     * @return 0 表示允許，否則為需要等待的毫秒數
+     */
+    @Override
+    public Mono<Long> tryAcquire(String key, long ratePerMinute, int burst) {
+        long intervalMicros = TimeUnit.MINUTES.toMicros(1) / ratePerMinute;
+        return redisTemplate
+                .execute(GCRA_SCRIPT, List.of(KEY_PREFIX + key), List.of(String.valueOf(intervalMicros), String.valueOf(burst)))
+                .next()
+                .defaultIfEmpty(0L);
+    }
+}
@@ -3,5 +3,12 @@
  * 1. EmailProviderImpl: 郵件提供者實現
  * 2. JwtTokenProviderImpl: JWT憑證提供者實現
  * 3. PasswordResetTokenProviderImpl: 密碼重置憑證提供者實現
+ * 4. GridFsStorageProviderImpl: GridFS 文件儲存提供者實現
+ * 5. LocalStorageProviderImpl: 本機檔案系統文件儲存提供者實現
+ * 6. PackedStorageProviderImpl: 小型內容打包卷儲存提供者實現
+ * 7. LocalInvalidationChannelProviderImpl: 進程內的快取失效通知頻道實現
+ * 8. RedisInvalidationChannelProviderImpl: Redis pub/sub 快取失效通知頻道實現
+ * 9. LocalRateLimitProviderImpl: 記憶體中的令牌桶速率限制實現
+ * 10. RedisRateLimitProviderImpl: Redis 共用令牌桶速率限制實現
  */
 package xyz.dowob.filemanagement.component.provider.providerImplement;
\ No newline at end of file
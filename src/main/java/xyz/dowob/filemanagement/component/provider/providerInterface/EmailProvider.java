@@ -1,6 +1,10 @@
 package xyz.dowob.filemanagement.component.provider.providerInterface;
 
 import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.entity.EmailOutbox;
+
+import java.util.List;
+import java.util.Map;
 
 /**
  * 郵件提供者接口，用於定義郵件提供者的方法
@@ -22,4 +26,12 @@ public interface EmailProvider {
      */
     Mono<Void> sendEmail(String sendToEmail, String subject, String content);
 
+    /**
+     * 以同一個連線發送多封郵件
+     *
+     * @param emails 發件匣中的郵件
+     *
+     * @return 發送失敗的郵件ID與失敗原因，全部成功時為空
+     */
+    Mono<Map<Long, String>> sendEmails(List<EmailOutbox> emails);
 }
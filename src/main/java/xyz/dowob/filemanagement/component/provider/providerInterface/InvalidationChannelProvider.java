@@ -0,0 +1,36 @@
+package xyz.dowob.filemanagement.component.provider.providerInterface;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 快取失效通知頻道提供者接口，用於在多個節點之間廣播記憶體快取的變更
+ * 單節點部署時使用進程內的實現，多節點部署時使用 Redis pub/sub 等跨節點的實現
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName InvalidationChannelProvider
+ * @description
+ * @create 2026-10-18 21:10
+ * @Version 1.0
+ **/
+public interface InvalidationChannelProvider {
+    /**
+     * 發布訊息到頻道，所有訂閱該頻道的節點(包含自己)都會收到
+     *
+     * @param channel 頻道名稱
+     * @param message 訊息內容
+     *
+     * @return 發布完成的信號
+     */
+    Mono<Void> publish(String channel, String message);
+
+    /**
+     * 訂閱頻道
+     *
+     * @param channel 頻道名稱
+     *
+     * @return 收到的訊息
+     */
+    Flux<String> subscribe(String channel);
+}
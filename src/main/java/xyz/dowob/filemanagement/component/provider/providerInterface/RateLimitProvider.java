@@ -0,0 +1,27 @@
+package xyz.dowob.filemanagement.component.provider.providerInterface;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * 速率限制提供者接口，以令牌桶限制每個鍵值(例如 IP 或帳號)的請求速率
+ * 單節點部署時使用記憶體中的實現，多節點部署時使用 Redis 等共用的實現，讓所有節點共享同一個桶
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName RateLimitProvider
+ * @description
+ * @create 2026-10-18 22:30
+ * @Version 1.0
+ **/
+public interface RateLimitProvider {
+    /**
+     * 嘗試從鍵值的令牌桶取出一個令牌
+     *
+     * @param key           鍵值
+     * @param ratePerMinute 每分鐘補充的令牌數
+     * @param burst         桶的容量，即允許的瞬間請求數
+     *
+     * @return 0 表示允許，否則為需要等待的毫秒數
+     */
+    Mono<Long> tryAcquire(String key, long ratePerMinute, int burst);
+}
@@ -0,0 +1,72 @@
+package xyz.dowob.filemanagement.component.provider.providerInterface;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * 文件儲存提供者接口，用於定義文件內容(二進位資料)的儲存方法
+ * 所有方法都以串流的方式處理 DataBuffer，實現類不應將整個文件讀入記憶體
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName StorageProvider
+ * @description
+ * @create 2026-10-18 10:24
+ * @Version 1.0
+ **/
+public interface StorageProvider {
+    /**
+     * 將資料流寫入儲存空間
+     *
+     * @param content     文件內容的資料流
+     * @param filename    文件名稱
+     * @param contentType 內容類型
+     *
+     * @return 返回儲存後的鍵值，用於之後讀取或刪除
+     */
+    Mono<String> store(Flux<DataBuffer> content, String filename, String contentType);
+
+    /**
+     * 讀取完整的文件內容
+     *
+     * @param storageKey 儲存鍵值
+     *
+     * @return 文件內容的資料流
+     */
+    Flux<DataBuffer> read(String storageKey);
+
+    /**
+     * 讀取文件內容中的一段，實現類應直接從起始位置所在的區段開始讀取，而不是從頭讀取後丟棄
+     * 範圍超過文件結尾時只返回到結尾為止的內容
+     *
+     * @param storageKey 儲存鍵值
+     * @param offset     起始位置
+     * @param length     讀取長度
+     *
+     * @return 文件內容的資料流
+     */
+    Flux<DataBuffer> read(String storageKey, long offset, long length);
+
+    /**
+     * 刪除文件內容
+     *
+     * @param storageKey 儲存鍵值
+     */
+    Mono<Void> delete(String storageKey);
+
+    /**
+     * 取得文件內容在本機檔案系統上的路徑，讓下載時可以由作業系統直接將檔案傳送到連線(零複製)
+     * 內容不是以單一本機檔案存放的實現類不需要覆寫，預設返回空
+     *
+     * @param storageKey 儲存鍵值
+     *
+     * @return 本機檔案路徑
+     */
+    default Optional<Path> localPath(String storageKey) {
+        return Optional.empty();
+    }
+}
@@ -3,5 +3,8 @@
  * 當需要擴展新的提供者時，只需要實現這個接口即可
  * 1. EmailProvider: 郵件提供者接口
  * 2. TokenProvider: 憑證提供者接口
+ * 3. StorageProvider: 文件儲存提供者接口
+ * 4. InvalidationChannelProvider: 快取失效通知頻道提供者接口
+ * 5. RateLimitProvider: 速率限制提供者接口
  */
 package xyz.dowob.filemanagement.component.provider.providerInterface;
\ No newline at end of file
@@ -0,0 +1,228 @@
+package xyz.dowob.filemanagement.config;
+
+import org.quartz.CronScheduleBuilder;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import xyz.dowob.filemanagement.component.job.ChunkGarbageCollectionJob;
+import xyz.dowob.filemanagement.component.job.DirectoryStatsReconciliationJob;
+import xyz.dowob.filemanagement.component.job.EmailOutboxCleanupJob;
+import xyz.dowob.filemanagement.component.job.PackedVolumeCompactionJob;
+import xyz.dowob.filemanagement.component.job.StorageTieringJob;
+import xyz.dowob.filemanagement.component.job.UploadSessionCleanupJob;
+
+/**
+ * Quartz 排程設定類，用於註冊排程任務以及觸發器
+ * Spring Boot 會自動將這裡宣告的 JobDetail 與 Trigger 註冊到排程器中
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName QuartzConfig
+ * @description
+ * @create 2026-10-18 12:44
+ * @Version 1.0
+ **/
+@Configuration
+public class QuartzConfig {
+    /**
+     * 清理過期上傳會話的 cron 表達式，從配置文件中獲取，預設為每小時一次
+     */
+    @Value("${file.upload.session.cleanup-cron: 0 0 * * * ?}")
+    private String uploadSessionCleanupCron;
+
+    /**
+     * 回收未被引用資料區塊的 cron 表達式，從配置文件中獲取，預設為每天凌晨3點
+     */
+    @Value("${file.storage.chunking.gc-cron: 0 0 3 * * ?}")
+    private String chunkGarbageCollectionCron;
+
+    /**
+     * 壓縮打包卷的 cron 表達式，從配置文件中獲取，預設為每天凌晨3點30分，在回收資料區塊之後執行
+     */
+    @Value("${file.storage.pack.compact-cron: 0 30 3 * * ?}")
+    private String packedVolumeCompactionCron;
+
+    /**
+     * 將冷資料移到冷儲存層的 cron 表達式，從配置文件中獲取，預設為每天凌晨4點
+     */
+    @Value("${file.storage.tiering.cron: 0 0 4 * * ?}")
+    private String storageTieringCron;
+
+    /**
+     * 刪除已發送郵件的 cron 表達式，從配置文件中獲取，預設為每天凌晨3點15分
+     */
+    @Value("${email.outbox.cleanup-cron: 0 15 3 * * ?}")
+    private String emailOutboxCleanupCron;
+
+    /**
+     * 重新計算目錄統計的 cron 表達式，從配置文件中獲取，預設為每天凌晨4點45分
+     */
+    @Value("${file.directory-stats.reconcile-cron: 0 45 4 * * ?}")
+    private String directoryStatsReconciliationCron;
+
+    /**
+     * 清理過期上傳會話的任務
+     *
+     * @return JobDetail
+     */
+    @Bean
+    public JobDetail uploadSessionCleanupJobDetail() {
+        return JobBuilder.newJob(UploadSessionCleanupJob.class).withIdentity("uploadSessionCleanupJob").storeDurably().build();
+    }
+
+    /**
+     * 清理過期上傳會話的觸發器
+     *
+     * @param uploadSessionCleanupJobDetail 清理過期上傳會話的任務
+     *
+     * @return Trigger
+     */
+    @Bean
+    public Trigger uploadSessionCleanupTrigger(JobDetail uploadSessionCleanupJobDetail) {
+        return TriggerBuilder
+                .newTrigger()
+                .forJob(uploadSessionCleanupJobDetail)
+                .withIdentity("uploadSessionCleanupTrigger")
+                .withSchedule(CronScheduleBuilder.cronSchedule(uploadSessionCleanupCron))
+                .build();
+    }
+
+    /**
+     * 回收未被引用資料區塊的任務
+     *
+     * @return JobDetail
+     */
+    @Bean
+    public JobDetail chunkGarbageCollectionJobDetail() {
+        return JobBuilder.newJob(ChunkGarbageCollectionJob.class).withIdentity("chunkGarbageCollectionJob").storeDurably().build();
+    }
+
+    /**
+     * 回收未被引用資料區塊的觸發器
+     *
+     * @param chunkGarbageCollectionJobDetail 回收未被引用資料區塊的任務
+     *
+     * @return Trigger
+     */
+    @Bean
+    public Trigger chunkGarbageCollectionTrigger(JobDetail chunkGarbageCollectionJobDetail) {
+        return TriggerBuilder
+                .newTrigger()
+                .forJob(chunkGarbageCollectionJobDetail)
+                .withIdentity("chunkGarbageCollectionTrigger")
+                .withSchedule(CronScheduleBuilder.cronSchedule(chunkGarbageCollectionCron))
+                .build();
+    }
+
+    /**
+     * 壓縮打包卷的任務
+     *
+     * @return JobDetail
+     */
+    @Bean
+    public JobDetail packedVolumeCompactionJobDetail() {
+        return JobBuilder.newJob(PackedVolumeCompactionJob.class).withIdentity("packedVolumeCompactionJob").storeDurably().build();
+    }
+
+    /**
+     * 壓縮打包卷的觸發器
+     *
+     * @param packedVolumeCompactionJobDetail 壓縮打包卷的任務
+     *
+     * @return Trigger
+     */
+    @Bean
+    public Trigger packedVolumeCompactionTrigger(JobDetail packedVolumeCompactionJobDetail) {
+        return TriggerBuilder
+                .newTrigger()
+                .forJob(packedVolumeCompactionJobDetail)
+                .withIdentity("packedVolumeCompactionTrigger")
+                .withSchedule(CronScheduleBuilder.cronSchedule(packedVolumeCompactionCron))
+                .build();
+    }
+
+    /**
+     * 將冷資料移到冷儲存層的任務
+     *
+     * @return JobDetail
+     */
+    @Bean
+    public JobDetail storageTieringJobDetail() {
+        return JobBuilder.newJob(StorageTieringJob.class).withIdentity("storageTieringJob").storeDurably().build();
+    }
+
+    /**
+     * 將冷資料移到冷儲存層的觸發器
+     *
+     * @param storageTieringJobDetail 將冷資料移到冷儲存層的任務
+     *
+     * @return Trigger
+     */
+    @Bean
+    public Trigger storageTieringTrigger(JobDetail storageTieringJobDetail) {
+        return TriggerBuilder
+                .newTrigger()
+                .forJob(storageTieringJobDetail)
+                .withIdentity("storageTieringTrigger")
+                .withSchedule(CronScheduleBuilder.cronSchedule(storageTieringCron))
+                .build();
+    }
+
+    /**
+     * 刪除已發送郵件的任務
+     *
+     * @return JobDetail
+     */
+    @Bean
+    public JobDetail emailOutboxCleanupJobDetail() {
+        return JobBuilder.newJob(EmailOutboxCleanupJob.class).withIdentity("emailOutboxCleanupJob").storeDurably().build();
+    }
+
+    /**
+     * 刪除已發送郵件的觸發器
+     *
+     * @param emailOutboxCleanupJobDetail 刪除已發送郵件的任務
+     *
+     * @return Trigger
+     */
+    @Bean
+    public Trigger emailOutboxCleanupTrigger(JobDetail emailOutboxCleanupJobDetail) {
+        return TriggerBuilder
+                .newTrigger()
+                .forJob(emailOutboxCleanupJobDetail)
+                .withIdentity("emailOutboxCleanupTrigger")
+                .withSchedule(CronScheduleBuilder.cronSchedule(emailOutboxCleanupCron))
+                .build();
+    }
+
+    /**
+     * 重新計算目錄統計的任務
+     *
+     * @return JobDetail
+     */
+    @Bean
+    public JobDetail directoryStatsReconciliationJobDetail() {
+        return JobBuilder.newJob(DirectoryStatsReconciliationJob.class).withIdentity("directoryStatsReconciliationJob").storeDurably().build();
+    }
+
+    /**
+     * 重新計算目錄統計的觸發器
+     *
+     * @param directoryStatsReconciliationJobDetail 重新計算目錄統計的任務
+     *
+     * @return Trigger
+     */
+    @Bean
+    public Trigger directoryStatsReconciliationTrigger(JobDetail directoryStatsReconciliationJobDetail) {
+        return TriggerBuilder
+                .newTrigger()
+                .forJob(directoryStatsReconciliationJobDetail)
+                .withIdentity("directoryStatsReconciliationTrigger")
+                .withSchedule(CronScheduleBuilder.cronSchedule(directoryStatsReconciliationCron))
+                .build();
+    }
+}
@@ -82,7 +82,7 @@ public class SecurityConfig {
                 .authorizeExchange(exchange -> exchange
                         .pathMatchers("/web/guest/**", "/api/guest/**", "/docs/**")
                         .permitAll()
-                        .pathMatchers("/api/user/getAllUserInfo")
+                        .pathMatchers("/api/user/getAllUserInfo", "/api/admin/**")
                         .hasRole("ADMIN")
                         .anyExchange()
                         .authenticated())
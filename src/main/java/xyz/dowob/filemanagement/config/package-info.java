@@ -2,5 +2,6 @@
  * 設定類別，用於一些自訂義的設定
  * 1. OpenApiConfig: Swagger的設定類 {@link xyz.dowob.filemanagement.config.OpenApiConfig}
  * 2. SecurityConfig: Spring Security的設定類 {@link xyz.dowob.filemanagement.config.SecurityConfig}
+ * 3. QuartzConfig: Quartz排程任務的設定類 {@link xyz.dowob.filemanagement.config.QuartzConfig}
  */
 package xyz.dowob.filemanagement.config;
\ No newline at end of file
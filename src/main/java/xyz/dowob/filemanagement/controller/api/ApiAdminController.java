@@ -0,0 +1,64 @@
+package xyz.dowob.filemanagement.controller.api;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.controller.base.BaseAdminController;
+
+/**
+ * 用於處理管理員相關的API請求的控制器
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName ApiAdminController
+ * @description
+ * @create 2026-10-18 22:12
+ * @Version 1.0
+ **/
+@RestController
+@RequestMapping("/api/admin")
+public class ApiAdminController extends BaseAdminController {
+    /**
+     * 獲取密碼雜湊線程池的狀態與延遲分佈的API請求
+     *
+     * @param exchange 請求對象
+     *
+     * @return Mono<ResponseEntity> 返回統計數據
+     */
+    @Override
+    @GetMapping("/metrics/password-hash")
+    public Mono<ResponseEntity<?>> getPasswordHashMetrics(ServerWebExchange exchange) {
+        return super.getPasswordHashMetrics(exchange);
+    }
+
+    /**
+     * 獲取最近被取樣的方法呼叫記錄的API請求
+     *
+     * @param exchange 請求對象
+     * @param limit    最多返回的筆數
+     *
+     * @return Mono<ResponseEntity> 返回最近的記錄
+     */
+    @Override
+    @GetMapping("/traces")
+    public Mono<ResponseEntity<?>> getRecentTraces(ServerWebExchange exchange, @RequestParam(defaultValue = "100") int limit) {
+        return super.getRecentTraces(exchange, limit);
+    }
+
+    /**
+     * 以 Prometheus 文字格式獲取所有效能指標的API請求
+     *
+     * @param exchange 請求對象
+     *
+     * @return Mono<ResponseEntity> 返回 Prometheus 文字格式的指標
+     */
+    @Override
+    @GetMapping("/metrics/prometheus")
+    public Mono<ResponseEntity<String>> getPrometheusMetrics(ServerWebExchange exchange) {
+        return super.getPrometheusMetrics(exchange);
+    }
+}
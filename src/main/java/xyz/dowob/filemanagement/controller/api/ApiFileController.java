@@ -0,0 +1,302 @@
+package xyz.dowob.filemanagement.controller.api;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.codec.multipart.PartEvent;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.controller.base.BaseFileController;
+import xyz.dowob.filemanagement.customenum.FileSortEnum;
+import xyz.dowob.filemanagement.dto.file.DeltaSyncDTO;
+import xyz.dowob.filemanagement.dto.file.DirectoryDTO;
+import xyz.dowob.filemanagement.dto.file.FileMetadataDTO;
+import xyz.dowob.filemanagement.dto.file.FilePreCheckDTO;
+import xyz.dowob.filemanagement.dto.file.UploadSessionDTO;
+
+/**
+ * 用於處理文件相關的API請求的控制器
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName ApiFileController
+ * @description
+ * @create 2026-10-18 11:10
+ * @Version 1.0
+ **/
+@RestController
+@RequestMapping("/api/file")
+public class ApiFileController extends BaseFileController {
+    /**
+     * 以 multipart 串流上傳文件的API請求
+     *
+     * @param partEvents multipart 請求的事件流
+     * @param exchange   請求對象
+     *
+     * @return Mono<ResponseEntity> 返回上傳結果
+     */
+    @Override
+    @PostMapping(value = "/upload",
+                 consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Mono<ResponseEntity<?>> upload(Flux<PartEvent> partEvents, ServerWebExchange exchange) {
+        return super.upload(partEvents, exchange);
+    }
+
+    /**
+     * 上傳前預檢(秒傳)的API請求
+     *
+     * @param filePreCheckDTO 預檢的數據傳輸對象
+     * @param exchange        請求對象
+     *
+     * @return Mono<ResponseEntity> 返回預檢結果
+     */
+    @Override
+    @PostMapping("/preCheck")
+    public Mono<ResponseEntity<?>> preCheck(FilePreCheckDTO filePreCheckDTO, ServerWebExchange exchange) {
+        return super.preCheck(filePreCheckDTO, exchange);
+    }
+
+    /**
+     * 建立分段上傳會話的API請求
+     *
+     * @param uploadSessionDTO 建立會話的數據傳輸對象
+     * @param exchange         請求對象
+     *
+     * @return Mono<ResponseEntity> 返回會話狀態
+     */
+    @Override
+    @PostMapping("/session")
+    public Mono<ResponseEntity<?>> createUploadSession(UploadSessionDTO uploadSessionDTO, ServerWebExchange exchange) {
+        return super.createUploadSession(uploadSessionDTO, exchange);
+    }
+
+    /**
+     * 上傳分段的API請求
+     *
+     * @param sessionId  會話ID
+     * @param partNumber 分段編號(從1開始)
+     * @param content    分段內容的資料流
+     * @param exchange   請求對象
+     *
+     * @return Mono<ResponseEntity> 返回分段資訊
+     */
+    @Override
+    @PutMapping(value = "/session/{sessionId}/part/{partNumber}",
+                consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public Mono<ResponseEntity<?>> uploadPart(Long sessionId, Integer partNumber, Flux<DataBuffer> content, ServerWebExchange exchange) {
+        return super.uploadPart(sessionId, partNumber, content, exchange);
+    }
+
+    /**
+     * 查詢分段上傳會話狀態的API請求
+     *
+     * @param sessionId 會話ID
+     * @param exchange  請求對象
+     *
+     * @return Mono<ResponseEntity> 返回會話狀態
+     */
+    @Override
+    @GetMapping("/session/{sessionId}")
+    public Mono<ResponseEntity<?>> getUploadSession(Long sessionId, ServerWebExchange exchange) {
+        return super.getUploadSession(sessionId, exchange);
+    }
+
+    /**
+     * 合併分段上傳會話的API請求
+     *
+     * @param sessionId 會話ID
+     * @param exchange  請求對象
+     *
+     * @return Mono<ResponseEntity> 返回文件資訊
+     */
+    @Override
+    @PostMapping("/session/{sessionId}/commit")
+    public Mono<ResponseEntity<?>> commitUploadSession(Long sessionId, ServerWebExchange exchange) {
+        return super.commitUploadSession(sessionId, exchange);
+    }
+
+    /**
+     * 取消分段上傳會話的API請求
+     *
+     * @param sessionId 會話ID
+     * @param exchange  請求對象
+     *
+     * @return Mono<ResponseEntity> 返回取消結果
+     */
+    @Override
+    @DeleteMapping("/session/{sessionId}")
+    public Mono<ResponseEntity<?>> abortUploadSession(Long sessionId, ServerWebExchange exchange) {
+        return super.abortUploadSession(sessionId, exchange);
+    }
+
+    /**
+     * 增量同步預備的API請求
+     *
+     * @param fileId       用戶文件ID
+     * @param deltaSyncDTO 新版本的區塊清單
+     * @param exchange     請求對象
+     *
+     * @return Mono<ResponseEntity> 返回缺少的區塊
+     */
+    @Override
+    @PostMapping("/{fileId}/delta/prepare")
+    public Mono<ResponseEntity<?>> prepareDelta(Long fileId, DeltaSyncDTO deltaSyncDTO, ServerWebExchange exchange) {
+        return super.prepareDelta(fileId, deltaSyncDTO, exchange);
+    }
+
+    /**
+     * 在增量同步會話中上傳單一區塊的API請求
+     *
+     * @param fileId   用戶文件ID
+     * @param hash     區塊的SHA-256值
+     * @param content  區塊內容的資料流
+     * @param exchange 請求對象
+     *
+     * @return Mono<ResponseEntity> 返回上傳結果
+     */
+    @Override
+    @PutMapping(value = "/{fileId}/delta/chunk/{hash}",
+                consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public Mono<ResponseEntity<?>> uploadChunk(Long fileId, String hash, Flux<DataBuffer> content, ServerWebExchange exchange) {
+        return super.uploadChunk(fileId, hash, content, exchange);
+    }
+
+    /**
+     * 增量同步提交的API請求
+     *
+     * @param fileId       用戶文件ID
+     * @param deltaSyncDTO 新版本的區塊清單
+     * @param exchange     請求對象
+     *
+     * @return Mono<ResponseEntity> 返回文件資訊
+     */
+    @Override
+    @PostMapping("/{fileId}/delta/commit")
+    public Mono<ResponseEntity<?>> commitDelta(Long fileId, DeltaSyncDTO deltaSyncDTO, ServerWebExchange exchange) {
+        return super.commitDelta(fileId, deltaSyncDTO, exchange);
+    }
+
+    /**
+     * 下載文件的API請求，支援 Range 與 If-Range
+     *
+     * @param fileId   用戶文件ID
+     * @param inline   是否以 inline 方式顯示
+     * @param exchange 請求對象
+     *
+     * @return Mono<Void> 寫入完成的信號
+     */
+    @Override
+    @GetMapping("/{fileId}/download")
+    public Mono<Void> download(Long fileId, boolean inline, ServerWebExchange exchange) {
+        return super.download(fileId, inline, exchange);
+    }
+
+    /**
+     * 查詢儲存空間配額與使用狀況的API請求
+     *
+     * @param exchange 請求對象
+     *
+     * @return Mono<ResponseEntity> 返回配額與使用狀況
+     */
+    @Override
+    @GetMapping("/quota")
+    public Mono<ResponseEntity<?>> getQuota(ServerWebExchange exchange) {
+        return super.getQuota(exchange);
+    }
+
+    /**
+     * 列出目錄內容的API請求
+     *
+     * @param directoryId 目錄ID，根目錄為 0
+     * @param exchange    請求對象
+     *
+     * @return Mono<ResponseEntity> 返回目錄內容
+     */
+    @Override
+    @GetMapping("/directory/{directoryId}")
+    public Mono<ResponseEntity<?>> listDirectory(Long directoryId, ServerWebExchange exchange) {
+        return super.listDirectory(directoryId, exchange);
+    }
+
+    /**
+     * 以鍵值分頁列出目錄中文件的API請求
+     *
+     * @param directoryId 目錄ID，根目錄為 0
+     * @param sort        排序欄位
+     * @param desc        是否由大到小排序
+     * @param cursor      上一頁返回的游標
+     * @param limit       每頁筆數
+     * @param exchange    請求對象
+     *
+     * @return Mono<ResponseEntity> 返回一頁文件以及下一頁的游標
+     */
+    @Override
+    @GetMapping("/directory/{directoryId}/files")
+    public Mono<ResponseEntity<?>> listFiles(
+            Long directoryId, FileSortEnum sort, boolean desc, String cursor, Integer limit, ServerWebExchange exchange) {
+        return super.listFiles(directoryId, sort, desc, cursor, limit, exchange);
+    }
+
+    /**
+     * 以 NDJSON 資料流列出目錄中所有文件的API請求
+     *
+     * @param directoryId 目錄ID，根目錄為 0
+     * @param sort        排序欄位
+     * @param desc        是否由大到小排序
+     * @param exchange    請求對象
+     *
+     * @return Flux<FileMetadataDTO> 文件資訊的資料流
+     */
+    @Override
+    @GetMapping(value = "/directory/{directoryId}/files/stream",
+                produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<FileMetadataDTO> streamFiles(Long directoryId, FileSortEnum sort, boolean desc, ServerWebExchange exchange) {
+        return super.streamFiles(directoryId, sort, desc, exchange);
+    }
+
+    /**
+     * 建立目錄的API請求
+     *
+     * @param directoryDTO 目錄的數據傳輸對象
+     * @param exchange     請求對象
+     *
+     * @return Mono<ResponseEntity> 返回目錄資訊
+     */
+    @Override
+    @PostMapping("/directory")
+    public Mono<ResponseEntity<?>> createDirectory(DirectoryDTO directoryDTO, ServerWebExchange exchange) {
+        return super.createDirectory(directoryDTO, exchange);
+    }
+
+    /**
+     * 重新命名目錄的API請求
+     *
+     * @param directoryId  目錄ID
+     * @param directoryDTO 目錄的數據傳輸對象
+     * @param exchange     請求對象
+     *
+     * @return Mono<ResponseEntity> 返回目錄資訊
+     */
+    @Override
+    @PutMapping("/directory/{directoryId}/rename")
+    public Mono<ResponseEntity<?>> renameDirectory(Long directoryId, DirectoryDTO directoryDTO, ServerWebExchange exchange) {
+        return super.renameDirectory(directoryId, directoryDTO, exchange);
+    }
+
+    /**
+     * 移動目錄的API請求
+     *
+     * @param directoryId  目錄ID
+     * @param directoryDTO 目錄的數據傳輸對象
+     * @param exchange     請求對象
+     *
+     * @return Mono<ResponseEntity> 返回目錄資訊
+     */
+    @Override
+    @PutMapping("/directory/{directoryId}/move")
+    public Mono<ResponseEntity<?>> moveDirectory(Long directoryId, DirectoryDTO directoryDTO, ServerWebExchange exchange) {
+        return super.moveDirectory(directoryId, directoryDTO, exchange);
+    }
+}
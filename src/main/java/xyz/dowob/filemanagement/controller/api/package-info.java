@@ -2,5 +2,7 @@
  * 用於處理API的Controller
  * 1.ApiGustController: 用於處理訪客相關的API請求 {@link xyz.dowob.filemanagement.controller.api.ApiGuestController}
  * 2.ApiUserController: 用於處理用戶相關的API請求 {@link xyz.dowob.filemanagement.controller.api.ApiUserController}
+ * 3.ApiFileController: 用於處理文件相關的API請求 {@link xyz.dowob.filemanagement.controller.api.ApiFileController}
+ * 4.ApiAdminController: 用於處理管理員相關的API請求 {@link xyz.dowob.filemanagement.controller.api.ApiAdminController}
  */
 package xyz.dowob.filemanagement.controller.api;
\ No newline at end of file
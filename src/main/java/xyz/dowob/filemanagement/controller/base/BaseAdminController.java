@@ -0,0 +1,80 @@
+package xyz.dowob.filemanagement.controller.base;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.component.aspect.TraceManager;
+import xyz.dowob.filemanagement.component.manager.PasswordHashManager;
+import xyz.dowob.filemanagement.component.metrics.MetricsManager;
+
+/**
+ * 管理員控制器的基礎類，用於定義管理員相關的請求處理
+ * 此類別的路徑只有 ADMIN 角色可以存取，設定於 SecurityConfig {@link xyz.dowob.filemanagement.config.SecurityConfig}
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName BaseAdminController
+ * @description
+ * @create 2026-10-18 22:10
+ * @Version 1.0
+ **/
+public abstract class BaseAdminController implements BaseController {
+    /**
+     * 密碼雜湊的執行管理
+     */
+    @Autowired
+    protected PasswordHashManager passwordHashManager;
+
+    /**
+     * 方法追蹤的取樣與記錄管理
+     */
+    @Autowired
+    protected TraceManager traceManager;
+
+    /**
+     * 效能指標登記
+     */
+    @Autowired
+    protected MetricsManager metricsManager;
+
+    /**
+     * 獲取密碼雜湊線程池的狀態與延遲分佈，用於依登入的 p99 目標調整 BCrypt 的強度與線程數
+     *
+     * @param exchange 請求對象
+     *
+     * @return Mono<ResponseEntity> 返回統計數據
+     */
+    public Mono<ResponseEntity<?>> getPasswordHashMetrics(ServerWebExchange exchange) {
+        return createResponseEntity(createResponse(exchange, "獲取成功", passwordHashManager.getStatistics()));
+    }
+
+    /**
+     * 獲取最近被取樣的方法呼叫記錄，新的在前，用於在不開啟 debug 日誌的情況下查看請求經過的方法、耗時與返回值
+     *
+     * @param exchange 請求對象
+     * @param limit    最多返回的筆數
+     *
+     * @return Mono<ResponseEntity> 返回最近的記錄
+     */
+    public Mono<ResponseEntity<?>> getRecentTraces(ServerWebExchange exchange, @RequestParam(defaultValue = "100") int limit) {
+        return createResponseEntity(createResponse(exchange, "獲取成功", traceManager.recentSpans(Math.max(0, limit))));
+    }
+
+    /**
+     * 以 Prometheus 文字格式獲取所有效能指標，包含每個路由與數據庫操作的延遲百分位數、請求數、正在處理的請求數與傳輸字節數
+     * 返回 Prometheus 可以直接抓取的純文字，而不是統一的 JSON 響應格式
+     *
+     * @param exchange 請求對象
+     *
+     * @return Mono<ResponseEntity> 返回 Prometheus 文字格式的指標
+     */
+    public Mono<ResponseEntity<String>> getPrometheusMetrics(ServerWebExchange exchange) {
+        return Mono.fromSupplier(() -> ResponseEntity
+                .ok()
+                .header(HttpHeaders.CONTENT_TYPE, "text/plain; version=0.0.4; charset=utf-8")
+                .body(metricsManager.scrape()));
+    }
+}
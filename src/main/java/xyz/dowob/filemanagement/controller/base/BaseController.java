@@ -10,6 +10,8 @@ package xyz.dowob.filemanagement.controller.base;
  **/
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 import xyz.dowob.filemanagement.dto.api.ApiResponseDTO;
@@ -82,4 +84,18 @@ public interface BaseController {
         return new ApiResponseDTO<>(LocalDateTime.now(), 200, request.getRequest().getURI().getPath(), message, data);
     }
 
+    /**
+     * 從安全上下文中取得當前已認證用戶的ID
+     * 當用戶未認證時返回 Mono.empty()
+     *
+     * @return Mono<Long> 用戶ID
+     */
+    default Mono<Long> getAuthenticatedUserId() {
+        return ReactiveSecurityContextHolder
+                .getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(authentication -> authentication.isAuthenticated() && authentication.getPrincipal() != null)
+                .map(authentication -> Long.valueOf(authentication.getPrincipal().toString()));
+    }
+
 }
\ No newline at end of file
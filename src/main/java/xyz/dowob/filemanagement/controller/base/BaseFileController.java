@@ -0,0 +1,546 @@
+package xyz.dowob.filemanagement.controller.base;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.multipart.FilePartEvent;
+import org.springframework.http.codec.multipart.FormPartEvent;
+import org.springframework.http.codec.multipart.PartEvent;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.component.handler.handlerImplment.RangeDownloadHandler;
+import xyz.dowob.filemanagement.component.manager.QuotaManager;
+import xyz.dowob.filemanagement.customenum.FileSortEnum;
+import xyz.dowob.filemanagement.dto.api.ApiResponseDTO;
+import xyz.dowob.filemanagement.dto.file.DeltaSyncDTO;
+import xyz.dowob.filemanagement.dto.file.DirectoryDTO;
+import xyz.dowob.filemanagement.dto.file.DirectoryListingDTO;
+import xyz.dowob.filemanagement.dto.file.FileMetadataDTO;
+import xyz.dowob.filemanagement.dto.file.FilePreCheckDTO;
+import xyz.dowob.filemanagement.dto.file.UploadSessionDTO;
+import xyz.dowob.filemanagement.exception.FileException;
+import xyz.dowob.filemanagement.exception.ValidationException;
+import xyz.dowob.filemanagement.service.ServiceInterFace.DeltaSyncService;
+import xyz.dowob.filemanagement.service.ServiceInterFace.DirectoryService;
+import xyz.dowob.filemanagement.service.ServiceInterFace.FileService;
+import xyz.dowob.filemanagement.service.ServiceInterFace.TieringService;
+import xyz.dowob.filemanagement.service.ServiceInterFace.UploadSessionService;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 文件控制器的基礎類
+ * 主要提供文件控制器的基本方法，並交由子類繼承方法，減少代碼重複
+ * 實現BaseController{@link BaseController}
+ * 此類會處理請求中發生的ValidationException以及FileException異常，並回傳對應的錯誤信息
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName BaseFileController
+ * @description
+ * @create 2026-10-18 11:02
+ * @Version 1.0
+ **/
+public abstract class BaseFileController implements BaseController {
+    /**
+     * 表單中用於指定文件路徑的欄位名稱
+     */
+    protected static final String PATH_FIELD = "path";
+
+    /**
+     * 文件業務層對象
+     */
+    @Autowired
+    protected FileService fileService;
+
+    /**
+     * 分段上傳會話業務層對象
+     */
+    @Autowired
+    protected UploadSessionService uploadSessionService;
+
+    /**
+     * 增量同步業務層對象
+     */
+    @Autowired
+    protected DeltaSyncService deltaSyncService;
+
+    /**
+     * 支援 Range 的文件下載處理器
+     */
+    @Autowired
+    protected RangeDownloadHandler rangeDownloadHandler;
+
+    /**
+     * 分層儲存服務
+     */
+    @Autowired
+    protected TieringService tieringService;
+
+    /**
+     * 目錄業務層對象
+     */
+    @Autowired
+    protected DirectoryService directoryService;
+
+    /**
+     * 儲存空間配額的計數器
+     */
+    @Autowired
+    protected QuotaManager quotaManager;
+
+    /**
+     * 以 multipart 串流的方式上傳文件
+     * 請求中的每一個部分會依序處理，表單欄位需要放在文件之前(例如 path)
+     * 文件部分的 DataBuffer 會直接交給業務層寫入儲存空間，不會先緩存整個文件
+     * 讀取請求內容之前先以 Content-Length 預留儲存空間，空間不足時直接拒絕，請求結束時釋放預留
+     * 請求沒有 Content-Length(例如 chunked 傳輸)時改為在文件內容流入時逐段預留，超過剩餘空間時中斷上傳
+     * Content-Length 同時作為文件大小的上限交給業務層，小型文件可以直接寫入打包卷
+     *
+     * @param partEvents multipart 請求的事件流
+     * @param exchange   請求對象
+     *
+     * @return Mono<ResponseEntity> 返回上傳結果
+     */
+    public Mono<ResponseEntity<?>> upload(@RequestBody Flux<PartEvent> partEvents, ServerWebExchange exchange) {
+        return getAuthenticatedUserId().flatMap(userId -> {
+            Map<String, String> formFields = new ConcurrentHashMap<>();
+            String reservationKey = "upload:" + UUID.randomUUID();
+            long contentLength = exchange.getRequest().getHeaders().getContentLength();
+            return quotaManager.reserve(userId, reservationKey, contentLength).thenMany(partEvents)
+                    .windowUntil(PartEvent::isLast)
+                    .concatMap(partFlux -> partFlux.switchOnFirst((signal, part) -> {
+                        PartEvent firstEvent = signal.get();
+                        if (firstEvent instanceof FilePartEvent filePartEvent) {
+                            String contentType = filePartEvent.headers().getContentType() != null ? filePartEvent
+                                    .headers()
+                                    .getContentType()
+                                    .toString() : null;
+                            Flux<DataBuffer> content = part.map(PartEvent::content);
+                            return fileService
+                                    .upload(userId,
+                                            filePartEvent.filename(),
+                                            formFields.get(PATH_FIELD),
+                                            contentType,
+                                            contentLength < 0 ? reserveAsReceived(content, reservationKey) : content,
+                                            contentLength)
+                                    .flux();
+                        }
+                        if (firstEvent instanceof FormPartEvent formPartEvent) {
+                            formFields.put(formPartEvent.name(), formPartEvent.value());
+                        }
+                        return part.doOnNext(event -> DataBufferUtils.release(event.content())).thenMany(Flux.<FileMetadataDTO>empty());
+                    }))
+                    .collectList()
+                    .flatMap(files -> {
+                        if (files.isEmpty()) {
+                            return Mono.error(new FileException(FileException.ErrorCode.FILE_IS_EMPTY));
+                        }
+                        ApiResponseDTO<?> apiResponse = createResponse(exchange, "上傳成功", files);
+                        return createResponseEntity(apiResponse);
+                    })
+                    .doFinally(signal -> quotaManager.release(reservationKey));
+        }).switchIfEmpty(unauthenticatedResponse(exchange)).onErrorResume(e -> handleFileError(e, exchange, "上傳失敗"));
+    }
+
+    /**
+     * 上傳前預檢(秒傳)的請求
+     * 伺服器已有相同內容時直接建立文件，否則客戶端需要繼續上傳文件內容
+     *
+     * @param filePreCheckDTO 預檢的數據傳輸對象
+     * @param exchange        請求對象
+     *
+     * @return Mono<ResponseEntity> 返回預檢結果
+     */
+    public Mono<ResponseEntity<?>> preCheck(@Validated @RequestBody FilePreCheckDTO filePreCheckDTO, ServerWebExchange exchange) {
+        return getAuthenticatedUserId()
+                .flatMap(userId -> fileService.preCheck(userId, filePreCheckDTO))
+                .flatMap(result -> createResponseEntity(createResponse(exchange, result.isHit() ? "秒傳成功" : "需要上傳文件內容", result)))
+                .switchIfEmpty(unauthenticatedResponse(exchange))
+                .onErrorResume(e -> handleFileError(e, exchange, "預檢失敗"));
+    }
+
+    /**
+     * 建立分段上傳會話的請求
+     *
+     * @param uploadSessionDTO 建立會話的數據傳輸對象
+     * @param exchange         請求對象
+     *
+     * @return Mono<ResponseEntity> 返回會話狀態
+     */
+    public Mono<ResponseEntity<?>> createUploadSession(@Validated @RequestBody UploadSessionDTO uploadSessionDTO, ServerWebExchange exchange) {
+        return getAuthenticatedUserId()
+                .flatMap(userId -> uploadSessionService.createSession(userId, uploadSessionDTO))
+                .flatMap(status -> createResponseEntity(createResponse(exchange, "建立上傳會話成功", status)))
+                .switchIfEmpty(unauthenticatedResponse(exchange))
+                .onErrorResume(e -> handleFileError(e, exchange, "建立上傳會話失敗"));
+    }
+
+    /**
+     * 上傳分段的請求，請求體為分段的原始內容
+     * 不同編號的分段可以並行且以任意順序上傳
+     *
+     * @param sessionId  會話ID
+     * @param partNumber 分段編號(從1開始)
+     * @param content    分段內容的資料流
+     * @param exchange   請求對象
+     *
+     * @return Mono<ResponseEntity> 返回分段資訊
+     */
+    public Mono<ResponseEntity<?>> uploadPart(
+            @PathVariable Long sessionId, @PathVariable Integer partNumber, @RequestBody Flux<DataBuffer> content,
+            ServerWebExchange exchange) {
+        return getAuthenticatedUserId()
+                .flatMap(userId -> uploadSessionService.uploadPart(userId, sessionId, partNumber, content))
+                .flatMap(part -> createResponseEntity(createResponse(exchange, "分段上傳成功", part)))
+                .switchIfEmpty(unauthenticatedResponse(exchange))
+                .onErrorResume(e -> handleFileError(e, exchange, "分段上傳失敗"));
+    }
+
+    /**
+     * 查詢分段上傳會話狀態的請求，返回已上傳與缺少的分段
+     *
+     * @param sessionId 會話ID
+     * @param exchange  請求對象
+     *
+     * @return Mono<ResponseEntity> 返回會話狀態
+     */
+    public Mono<ResponseEntity<?>> getUploadSession(@PathVariable Long sessionId, ServerWebExchange exchange) {
+        return getAuthenticatedUserId()
+                .flatMap(userId -> uploadSessionService.getSessionStatus(userId, sessionId))
+                .flatMap(status -> createResponseEntity(createResponse(exchange, "查詢上傳會話成功", status)))
+                .switchIfEmpty(unauthenticatedResponse(exchange))
+                .onErrorResume(e -> handleFileError(e, exchange, "查詢上傳會話失敗"));
+    }
+
+    /**
+     * 合併分段上傳會話的請求
+     *
+     * @param sessionId 會話ID
+     * @param exchange  請求對象
+     *
+     * @return Mono<ResponseEntity> 返回文件資訊
+     */
+    public Mono<ResponseEntity<?>> commitUploadSession(@PathVariable Long sessionId, ServerWebExchange exchange) {
+        return getAuthenticatedUserId()
+                .flatMap(userId -> uploadSessionService.commitSession(userId, sessionId))
+                .flatMap(file -> createResponseEntity(createResponse(exchange, "上傳成功", file)))
+                .switchIfEmpty(unauthenticatedResponse(exchange))
+                .onErrorResume(e -> handleFileError(e, exchange, "合併分段失敗"));
+    }
+
+    /**
+     * 取消分段上傳會話的請求
+     *
+     * @param sessionId 會話ID
+     * @param exchange  請求對象
+     *
+     * @return Mono<ResponseEntity> 返回取消結果
+     */
+    public Mono<ResponseEntity<?>> abortUploadSession(@PathVariable Long sessionId, ServerWebExchange exchange) {
+        return getAuthenticatedUserId()
+                .flatMap(userId -> uploadSessionService.abortSession(userId, sessionId).then(createResponseEntity(createResponse(exchange,
+                                                                                                                              "已取消上傳會話",
+                                                                                                                              null))))
+                .switchIfEmpty(unauthenticatedResponse(exchange))
+                .onErrorResume(e -> handleFileError(e, exchange, "取消上傳會話失敗"));
+    }
+
+    /**
+     * 增量同步預備的請求，提交新版本的區塊清單並取得伺服器缺少的區塊
+     *
+     * @param fileId       用戶文件ID
+     * @param deltaSyncDTO 新版本的區塊清單
+     * @param exchange     請求對象
+     *
+     * @return Mono<ResponseEntity> 返回缺少的區塊
+     */
+    public Mono<ResponseEntity<?>> prepareDelta(
+            @PathVariable Long fileId, @Validated @RequestBody DeltaSyncDTO deltaSyncDTO, ServerWebExchange exchange) {
+        return getAuthenticatedUserId()
+                .flatMap(userId -> deltaSyncService.prepare(userId, fileId, deltaSyncDTO))
+                .flatMap(result -> createResponseEntity(createResponse(exchange, "比對區塊成功", result)))
+                .switchIfEmpty(unauthenticatedResponse(exchange))
+                .onErrorResume(e -> handleFileError(e, exchange, "比對區塊失敗"));
+    }
+
+    /**
+     * 在增量同步會話中上傳單一區塊的請求，請求體為區塊的原始內容，只接受預備時返回的區塊
+     *
+     * @param fileId   用戶文件ID
+     * @param hash     區塊的SHA-256值
+     * @param content  區塊內容的資料流
+     * @param exchange 請求對象
+     *
+     * @return Mono<ResponseEntity> 返回上傳結果
+     */
+    public Mono<ResponseEntity<?>> uploadChunk(
+            @PathVariable Long fileId, @PathVariable String hash, @RequestBody Flux<DataBuffer> content, ServerWebExchange exchange) {
+        return getAuthenticatedUserId()
+                .flatMap(userId -> deltaSyncService
+                        .uploadChunk(userId, fileId, hash, content)
+                        .then(createResponseEntity(createResponse(exchange, "區塊上傳成功", hash))))
+                .switchIfEmpty(unauthenticatedResponse(exchange))
+                .onErrorResume(e -> handleFileError(e, exchange, "區塊上傳失敗"));
+    }
+
+    /**
+     * 增量同步提交的請求，以區塊清單建立文件的新版本
+     *
+     * @param fileId       用戶文件ID
+     * @param deltaSyncDTO 新版本的區塊清單
+     * @param exchange     請求對象
+     *
+     * @return Mono<ResponseEntity> 返回文件資訊
+     */
+    public Mono<ResponseEntity<?>> commitDelta(
+            @PathVariable Long fileId, @Validated @RequestBody DeltaSyncDTO deltaSyncDTO, ServerWebExchange exchange) {
+        return getAuthenticatedUserId()
+                .flatMap(userId -> deltaSyncService.commit(userId, fileId, deltaSyncDTO))
+                .flatMap(file -> createResponseEntity(createResponse(exchange, "同步成功", file)))
+                .switchIfEmpty(unauthenticatedResponse(exchange))
+                .onErrorResume(e -> handleFileError(e, exchange, "同步失敗"));
+    }
+
+    /**
+     * 下載文件的請求，支援 Range 與 If-Range 的部分內容下載
+     * 內容直接寫入響應，錯誤交由全域異常處理器返回錯誤信息
+     *
+     * @param fileId   用戶文件ID
+     * @param inline   是否以 inline 方式顯示，例如在瀏覽器中直接播放影片
+     * @param exchange 請求對象
+     *
+     * @return Mono<Void> 寫入完成的信號
+     */
+    public Mono<Void> download(@PathVariable Long fileId, @RequestParam(defaultValue = "false") boolean inline, ServerWebExchange exchange) {
+        return getAuthenticatedUserId()
+                .switchIfEmpty(Mono.defer(() -> {
+                    exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+                    return exchange.getResponse().setComplete().then(Mono.empty());
+                }))
+                .flatMap(userId -> fileService.getUserFile(userId, fileId))
+                .flatMap(userFile -> fileService.getServerFile(userFile.getServerFileId()).flatMap(serverFile -> fileService
+                        .recordAccess(userFile)
+                        .onErrorResume(e -> Mono.empty())
+                        .then(rangeDownloadHandler.handle(exchange,
+                                                          userFile.getFilename(),
+                                                          serverFile,
+                                                          inline,
+                                                          fileService.localPath(serverFile),
+                                                          (offset, length) -> fileService.readContent(serverFile, offset, length)))
+                        .doOnSuccess(ignored -> tieringService.schedulePromotion(serverFile))));
+    }
+
+    /**
+     * 查詢儲存空間配額與使用狀況的請求，直接讀取記憶體中的計數器
+     *
+     * @param exchange 請求對象
+     *
+     * @return Mono<ResponseEntity> 返回配額與使用狀況
+     */
+    public Mono<ResponseEntity<?>> getQuota(ServerWebExchange exchange) {
+        return getAuthenticatedUserId()
+                .flatMap(userId -> quotaManager.getQuota(userId))
+                .flatMap(quota -> createResponseEntity(createResponse(exchange, "查詢配額成功", quota)))
+                .switchIfEmpty(unauthenticatedResponse(exchange))
+                .onErrorResume(e -> handleFileError(e, exchange, "查詢配額失敗"));
+    }
+
+    /**
+     * 列出目錄內容的請求，返回目錄本身、依名稱排序的子目錄以及目錄中依名稱排序的第一頁文件
+     * 子目錄與文件各自是一次索引範圍查詢，兩者並行執行；之後的文件以返回的游標透過 listFiles 取得
+     *
+     * @param directoryId 目錄ID，根目錄為 0
+     * @param exchange    請求對象
+     *
+     * @return Mono<ResponseEntity> 返回目錄內容
+     */
+    public Mono<ResponseEntity<?>> listDirectory(@PathVariable Long directoryId, ServerWebExchange exchange) {
+        return getAuthenticatedUserId()
+                .flatMap(userId -> directoryService.getDirectory(userId, directoryId).flatMap(directory -> Mono
+                        .zip(directoryService.listChildren(userId, directory.getId(), directory.getPath()).collectList(),
+                             fileService.listFiles(userId, directory, FileSortEnum.NAME, false, null, null))
+                        .map(contents -> {
+                            DirectoryListingDTO listing = new DirectoryListingDTO();
+                            listing.setDirectory(directory);
+                            listing.setDirectories(contents.getT1());
+                            listing.setFiles(contents.getT2().getFiles());
+                            listing.setNextCursor(contents.getT2().getNextCursor());
+                            return listing;
+                        })))
+                .flatMap(listing -> createResponseEntity(createResponse(exchange, "查詢目錄成功", listing)))
+                .switchIfEmpty(unauthenticatedResponse(exchange))
+                .onErrorResume(e -> handleFileError(e, exchange, "查詢目錄失敗"));
+    }
+
+    /**
+     * 以鍵值分頁列出目錄中文件的請求
+     * 第一頁依 sort 與 desc 排序，之後的頁只需要帶上前一頁返回的 cursor
+     *
+     * @param directoryId 目錄ID，根目錄為 0
+     * @param sort        排序欄位
+     * @param desc        是否由大到小排序
+     * @param cursor      上一頁返回的游標
+     * @param limit       每頁筆數
+     * @param exchange    請求對象
+     *
+     * @return Mono<ResponseEntity> 返回一頁文件以及下一頁的游標
+     */
+    public Mono<ResponseEntity<?>> listFiles(
+            @PathVariable Long directoryId, @RequestParam(defaultValue = "NAME") FileSortEnum sort,
+            @RequestParam(defaultValue = "false") boolean desc, @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit, ServerWebExchange exchange) {
+        return getAuthenticatedUserId()
+                .flatMap(userId -> directoryService
+                        .getDirectory(userId, directoryId)
+                        .flatMap(directory -> fileService.listFiles(userId, directory, sort, desc, cursor, limit)))
+                .flatMap(page -> createResponseEntity(createResponse(exchange, "查詢文件成功", page)))
+                .switchIfEmpty(unauthenticatedResponse(exchange))
+                .onErrorResume(e -> handleFileError(e, exchange, "查詢文件失敗"));
+    }
+
+    /**
+     * 以 NDJSON 資料流列出目錄中所有文件的請求，用於文件數量很多的目錄
+     * 每一行是一個文件資訊，不包裝為 ApiResponseDTO；伺服器逐頁查詢並寫出，不會將整個目錄讀入記憶體
+     * 錯誤交由全域異常處理器返回錯誤信息
+     *
+     * @param directoryId 目錄ID，根目錄為 0
+     * @param sort        排序欄位
+     * @param desc        是否由大到小排序
+     * @param exchange    請求對象
+     *
+     * @return Flux<FileMetadataDTO> 文件資訊的資料流
+     */
+    public Flux<FileMetadataDTO> streamFiles(
+            @PathVariable Long directoryId, @RequestParam(defaultValue = "NAME") FileSortEnum sort,
+            @RequestParam(defaultValue = "false") boolean desc, ServerWebExchange exchange) {
+        return getAuthenticatedUserId()
+                .switchIfEmpty(Mono.defer(() -> {
+                    exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+                    return exchange.getResponse().setComplete().then(Mono.empty());
+                }))
+                .flatMapMany(userId -> directoryService
+                        .getDirectory(userId, directoryId)
+                        .flatMapMany(directory -> fileService.streamFiles(userId, directory, sort, desc)));
+    }
+
+    /**
+     * 建立目錄的請求
+     *
+     * @param directoryDTO 目錄的數據傳輸對象，需要 parentId 與 name
+     * @param exchange     請求對象
+     *
+     * @return Mono<ResponseEntity> 返回目錄資訊
+     */
+    public Mono<ResponseEntity<?>> createDirectory(@RequestBody DirectoryDTO directoryDTO, ServerWebExchange exchange) {
+        return getAuthenticatedUserId()
+                .flatMap(userId -> directoryService.create(userId, directoryDTO.getParentId(), directoryDTO.getName()))
+                .flatMap(directory -> createResponseEntity(createResponse(exchange, "建立目錄成功", directory)))
+                .switchIfEmpty(unauthenticatedResponse(exchange))
+                .onErrorResume(e -> handleFileError(e, exchange, "建立目錄失敗"));
+    }
+
+    /**
+     * 重新命名目錄的請求
+     *
+     * @param directoryId  目錄ID
+     * @param directoryDTO 目錄的數據傳輸對象，需要 name
+     * @param exchange     請求對象
+     *
+     * @return Mono<ResponseEntity> 返回目錄資訊
+     */
+    public Mono<ResponseEntity<?>> renameDirectory(
+            @PathVariable Long directoryId, @RequestBody DirectoryDTO directoryDTO, ServerWebExchange exchange) {
+        return getAuthenticatedUserId()
+                .flatMap(userId -> directoryService.rename(userId, directoryId, directoryDTO.getName()))
+                .flatMap(directory -> createResponseEntity(createResponse(exchange, "重新命名目錄成功", directory)))
+                .switchIfEmpty(unauthenticatedResponse(exchange))
+                .onErrorResume(e -> handleFileError(e, exchange, "重新命名目錄失敗"));
+    }
+
+    /**
+     * 移動目錄的請求
+     *
+     * @param directoryId  目錄ID
+     * @param directoryDTO 目錄的數據傳輸對象，需要 parentId
+     * @param exchange     請求對象
+     *
+     * @return Mono<ResponseEntity> 返回目錄資訊
+     */
+    public Mono<ResponseEntity<?>> moveDirectory(
+            @PathVariable Long directoryId, @RequestBody DirectoryDTO directoryDTO, ServerWebExchange exchange) {
+        return getAuthenticatedUserId()
+                .flatMap(userId -> directoryService.move(userId, directoryId, directoryDTO.getParentId()))
+                .flatMap(directory -> createResponseEntity(createResponse(exchange, "移動目錄成功", directory)))
+                .switchIfEmpty(unauthenticatedResponse(exchange))
+                .onErrorResume(e -> handleFileError(e, exchange, "移動目錄失敗"));
+    }
+
+    /**
+     * 用戶未認證時的返回結果
+     *
+     * @param exchange 請求對象
+     *
+     * @return Mono<ResponseEntity> 返回未認證
+     */
+    protected Mono<ResponseEntity<?>> unauthenticatedResponse(ServerWebExchange exchange) {
+        return Mono.defer(() -> createResponseEntity(createResponse(exchange, 401, "未認證", null)));
+    }
+
+    /**
+     * 在文件內容流入時逐段增加預留的空間，用於沒有 Content-Length 而無法在開始前預留的上傳
+     * 超過剩餘空間時釋放當前的 DataBuffer 並以 QUOTA_EXCEEDED 錯誤中斷資料流
+     *
+     * @param content        文件內容的資料流
+     * @param reservationKey 預留的鍵值
+     *
+     * @return 逐段預留後的資料流
+     */
+    private Flux<DataBuffer> reserveAsReceived(Flux<DataBuffer> content, String reservationKey) {
+        return content.handle((dataBuffer, sink) -> {
+            try {
+                quotaManager.extend(reservationKey, dataBuffer.readableByteCount());
+                sink.next(dataBuffer);
+            } catch (FileException e) {
+                DataBufferUtils.release(dataBuffer);
+                sink.error(e);
+            }
+        });
+    }
+
+    /**
+     * 將文件操作中發生的 FileException 與 ValidationException 轉換為對應的錯誤信息
+     * 儲存空間不足時返回 413，客戶端不應以相同的內容重試，其他錯誤返回 400
+     * 其他異常則繼續向上傳遞，交由異常處理器處理
+     *
+     * @param error    異常
+     * @param exchange 請求對象
+     * @param action   發生錯誤的操作名稱
+     *
+     * @return Mono<ResponseEntity> 返回錯誤信息
+     */
+    protected Mono<ResponseEntity<?>> handleFileError(Throwable error, ServerWebExchange exchange, String action) {
+        if (error instanceof FileException fileException) {
+            String errorMessage = String.format("%s: %s", action, fileException.getMessage());
+            int responseCode = switch (fileException.getErrorCode()) {
+                case QUOTA_EXCEEDED -> HttpStatus.PAYLOAD_TOO_LARGE.value();
+                default -> HttpStatus.BAD_REQUEST.value();
+            };
+            return createResponseEntity(createResponse(exchange, fileException.getErrorCode().getCode(), errorMessage, null), responseCode);
+        }
+        if (error instanceof ValidationException validationException) {
+            String errorMessage = String.format("%s: %s", action, validationException.getMessage());
+            return createResponseEntity(createResponse(exchange, validationException.getErrorCode().getCode(), errorMessage, null));
+        }
+        return Mono.error(error);
+    }
+}
@@ -1,6 +1,8 @@
 package xyz.dowob.filemanagement.controller.base;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -57,11 +59,10 @@ public abstract class BaseGuestController implements BaseController {
             HashMap<String, Object> data = new HashMap<>();
             ApiResponseDTO<?> apiResponse = createResponse(exchange, "註冊成功", data);
             return createResponseEntity(apiResponse);
-        }).onErrorResume(ValidationException.class, e -> {
+        })).onErrorResume(ValidationException.class, e -> {
             String errorMessage = String.format("註冊失敗: %s", e.getMessage());
-            int errorCode = e.getErrorCode().getCode();
-            return createResponseEntity(createResponse(exchange, errorCode, errorMessage, null));
-        }));
+            return createValidationErrorResponseEntity(exchange, errorMessage, e);
+        });
     }
 
     /**
@@ -80,8 +81,7 @@ public abstract class BaseGuestController implements BaseController {
             return createResponseEntity(apiResponse);
         }).onErrorResume(ValidationException.class, e -> {
             String errorMessage = String.format("登入失敗: %s", e.getMessage());
-            int responseCode = e.getErrorCode().getCode();
-            return createResponseEntity(createResponse(exchange, responseCode, errorMessage, null));
+            return createValidationErrorResponseEntity(exchange, errorMessage, e);
         });
     }
 
@@ -99,8 +99,7 @@ public abstract class BaseGuestController implements BaseController {
             return createResponseEntity(apiResponse);
         })).onErrorResume(ValidationException.class, e -> {
             String errorMessage = String.format("重置密碼郵件發送失敗: %s", e.getMessage());
-            int responseCode = e.getErrorCode().getCode();
-            return createResponseEntity(createResponse(exchange, responseCode, errorMessage, null));
+            return createValidationErrorResponseEntity(exchange, errorMessage, e);
         });
     }
 
@@ -118,8 +117,29 @@ public abstract class BaseGuestController implements BaseController {
             return createResponseEntity(apiResponse);
         })).onErrorResume(ValidationException.class, e -> {
             String errorMessage = String.format("密碼重置失敗: %s", e.getMessage());
-            int responseCode = e.getErrorCode().getCode();
-            return createResponseEntity(createResponse(exchange, responseCode, errorMessage, null));
+            return createValidationErrorResponseEntity(exchange, errorMessage, e);
         });
     }
+
+    /**
+     * 根據驗證錯誤創建返回結果，密碼雜湊線程池已滿時返回 503 與 Retry-After，超過帳號的速率限制時返回 429，讓客戶端稍後重試，其他錯誤返回 400
+     * 註冊、登入與重置密碼都會雜湊密碼，線程池已滿時都經過這裡返回 503
+     *
+     * @param exchange     請求對象
+     * @param errorMessage 錯誤信息
+     * @param e            驗證錯誤
+     *
+     * @return Mono<ResponseEntity> 返回錯誤結果
+     */
+    protected Mono<ResponseEntity<?>> createValidationErrorResponseEntity(ServerWebExchange exchange, String errorMessage, ValidationException e) {
+        int responseCode = switch (e.getErrorCode()) {
+            case PASSWORD_HASH_BUSY -> {
+                exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+                yield HttpStatus.SERVICE_UNAVAILABLE.value();
+            }
+            case TOO_MANY_REQUESTS -> HttpStatus.TOO_MANY_REQUESTS.value();
+            default -> HttpStatus.BAD_REQUEST.value();
+        };
+        return createResponseEntity(createResponse(exchange, e.getErrorCode().getCode(), errorMessage, null), responseCode);
+    }
 }
@@ -0,0 +1,40 @@
+package xyz.dowob.filemanagement.customenum;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 郵件發件匣中郵件的狀態枚舉類
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName EmailStatusEnum
+ * @description
+ * @create 2026-10-18 23:05
+ * @Version 1.0
+ **/
+@Getter
+@RequiredArgsConstructor
+public enum EmailStatusEnum {
+    /**
+     * 等待發送，到達下次發送時間後會被發送
+     */
+    PENDING("等待發送"),
+    /**
+     * 已被發送程序取出，租約到期仍未完成時(例如節點中途停止)會重新發送
+     */
+    SENDING("發送中"),
+    /**
+     * 已發送
+     */
+    SENT("已發送"),
+    /**
+     * 超過重試次數，不再發送
+     */
+    FAILED("發送失敗");
+
+    /**
+     * 狀態名稱
+     */
+    private final String status;
+}
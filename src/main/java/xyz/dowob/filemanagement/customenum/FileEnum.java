@@ -45,4 +45,37 @@ public enum FileEnum {
      * 文件類型
      */
     private final String type;
+
+    /**
+     * 根據上傳時提供的內容類型(MIME)判斷文件類型
+     * 無法判斷時返回 OTHER
+     *
+     * @param contentType 內容類型，例如 image/png
+     *
+     * @return FileEnum 文件類型
+     */
+    public static FileEnum fromContentType(String contentType) {
+        if (contentType == null || contentType.isBlank()) {
+            return OTHER;
+        }
+        String mimeType = contentType.toLowerCase();
+        if (mimeType.startsWith("image/")) {
+            return IMAGE;
+        }
+        if (mimeType.startsWith("video/")) {
+            return VIDEO;
+        }
+        if (mimeType.startsWith("audio/")) {
+            return MUSIC;
+        }
+        if (mimeType.startsWith("text/") || mimeType.equals("application/pdf") || mimeType.contains("document") || mimeType.contains(
+                "msword") || mimeType.contains("spreadsheet") || mimeType.contains("presentation")) {
+            return DOCUMENT;
+        }
+        if (mimeType.contains("zip") || mimeType.contains("compressed") || mimeType.contains("x-tar") || mimeType.contains("x-7z") || mimeType.contains(
+                "x-rar")) {
+            return ZIP;
+        }
+        return OTHER;
+    }
 }
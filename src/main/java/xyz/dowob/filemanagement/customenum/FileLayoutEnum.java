@@ -0,0 +1,36 @@
+package xyz.dowob.filemanagement.customenum;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 伺服器文件內容的存放佈局枚舉類，用於決定讀取文件內容時如何組合資料
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName FileLayoutEnum
+ * @description
+ * @create 2026-10-18 11:35
+ * @Version 1.0
+ **/
+@Getter
+@RequiredArgsConstructor
+public enum FileLayoutEnum {
+    /**
+     * 文件內容存放於單一儲存鍵值
+     */
+    SINGLE("單一文件"),
+    /**
+     * 文件內容由多個依序排列的分段組成，分段記錄於 server_file_parts
+     */
+    COMPOSITE("分段組合"),
+    /**
+     * 文件內容由內容定義切塊後的資料區塊組成，區塊清單記錄於 file_chunks，相同的區塊在所有文件間共用
+     */
+    CHUNKED("區塊清單");
+
+    /**
+     * 佈局名稱
+     */
+    private final String layout;
+}
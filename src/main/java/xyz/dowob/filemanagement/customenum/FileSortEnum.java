@@ -0,0 +1,49 @@
+package xyz.dowob.filemanagement.customenum;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * 列出目錄中文件時可以使用的排序欄位
+ * 每個欄位在 user_file_metadata 上都有 (user_id, directory_id, 欄位) 索引，分頁時以 (欄位, id) 作為鍵值
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName FileSortEnum
+ * @description
+ * @create 2026-10-19 05:02
+ * @Version 1.0
+ **/
+@Getter
+@RequiredArgsConstructor
+public enum FileSortEnum {
+    /**
+     * 依文件名稱排序
+     */
+    NAME("filename", value -> value),
+    /**
+     * 依文件大小排序
+     */
+    SIZE("fileSize", Long::valueOf),
+    /**
+     * 依上傳時間排序
+     */
+    UPLOAD_TIME("uploadTime", LocalDateTime::parse),
+    /**
+     * 依文件類型排序
+     */
+    TYPE("fileType", FileEnum::valueOf);
+
+    /**
+     * 排序欄位對應的實體屬性名稱
+     */
+    private final String property;
+
+    /**
+     * 將分頁鍵值的字串還原為欄位的值
+     */
+    private final Function<String, Object> parser;
+}
@@ -0,0 +1,56 @@
+package xyz.dowob.filemanagement.customenum;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 文件內容的儲存後端枚舉類
+ * 儲存鍵值以前綴區分所屬的後端，沒有前綴的鍵值為 GridFS 的 ObjectId，因此既有的資料不需要遷移
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName StorageEnum
+ * @description
+ * @create 2026-10-18 17:10
+ * @Version 1.0
+ **/
+@Getter
+@RequiredArgsConstructor
+public enum StorageEnum {
+    /**
+     * MongoDB GridFS，儲存鍵值為 ObjectId 十六進位字串
+     */
+    GRID_FS("GridFS", ""),
+    /**
+     * 本機檔案系統，儲存鍵值以 local: 開頭
+     */
+    LOCAL("本機檔案系統", "local:"),
+    /**
+     * 本機打包卷，小型內容附加到大型的卷檔案中，儲存鍵值以 pack: 開頭
+     */
+    PACKED("打包卷", "pack:");
+
+    /**
+     * 儲存後端名稱
+     */
+    private final String storageName;
+
+    /**
+     * 儲存鍵值的前綴
+     */
+    private final String keyPrefix;
+
+    /**
+     * 根據儲存鍵值判斷所屬的儲存後端
+     *
+     * @param storageKey 儲存鍵值
+     *
+     * @return 儲存後端
+     */
+    public static StorageEnum fromStorageKey(String storageKey) {
+        if (storageKey.startsWith(LOCAL.keyPrefix)) {
+            return LOCAL;
+        }
+        return storageKey.startsWith(PACKED.keyPrefix) ? PACKED : GRID_FS;
+    }
+}
@@ -0,0 +1,40 @@
+package xyz.dowob.filemanagement.customenum;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 分段上傳會話的狀態枚舉類
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName UploadStatusEnum
+ * @description
+ * @create 2026-10-18 11:32
+ * @Version 1.0
+ **/
+@Getter
+@RequiredArgsConstructor
+public enum UploadStatusEnum {
+    /**
+     * 上傳中，可以繼續上傳分段
+     */
+    UPLOADING("上傳中"),
+    /**
+     * 正在合併分段，此時不接受新的分段
+     */
+    COMMITTING("合併中"),
+    /**
+     * 已完成合併
+     */
+    COMMITTED("已完成"),
+    /**
+     * 已取消或過期
+     */
+    ABORTED("已取消");
+
+    /**
+     * 狀態名稱
+     */
+    private final String status;
+}
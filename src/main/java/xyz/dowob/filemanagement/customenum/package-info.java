@@ -4,5 +4,10 @@
  * 2. Permission: 用於定義權限 {@link xyz.dowob.filemanagement.customenum.PermissionEnum}
  * 3. Role: 用於定義角色 {@link xyz.dowob.filemanagement.customenum.RoleEnum}
  * 4. Token: 用於定義憑證 {@link xyz.dowob.filemanagement.customenum.TokenEnum}
+ * 5. UploadStatus: 用於定義分段上傳會話狀態 {@link xyz.dowob.filemanagement.customenum.UploadStatusEnum}
+ * 6. FileLayout: 用於定義伺服器文件內容的存放佈局 {@link xyz.dowob.filemanagement.customenum.FileLayoutEnum}
+ * 7. Storage: 用於定義文件內容的儲存後端 {@link xyz.dowob.filemanagement.customenum.StorageEnum}
+ * 8. EmailStatus: 用於定義郵件發件匣中郵件的狀態 {@link xyz.dowob.filemanagement.customenum.EmailStatusEnum}
+ * 9. FileSort: 用於定義列出目錄中文件時的排序欄位 {@link xyz.dowob.filemanagement.customenum.FileSortEnum}
  */
 package xyz.dowob.filemanagement.customenum;
\ No newline at end of file
@@ -0,0 +1,34 @@
+package xyz.dowob.filemanagement.dto.file;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+/**
+ * 用於描述新版本文件中單一區塊的數據傳輸對象
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName DeltaChunkDTO
+ * @description
+ * @create 2026-10-18 15:40
+ * @Version 1.0
+ **/
+@Data
+public class DeltaChunkDTO {
+    /**
+     * 區塊內容的SHA-256值(16進位)
+     */
+    @NotBlank(message = "區塊雜湊值不能為空")
+    @Pattern(regexp = "^[0-9a-fA-F]{64}$", message = "區塊雜湊值格式不正確")
+    private String hash;
+
+    /**
+     * 區塊大小
+     */
+    @NotNull(message = "區塊大小不能為空")
+    @Positive(message = "區塊大小需大於0")
+    private Integer size;
+}
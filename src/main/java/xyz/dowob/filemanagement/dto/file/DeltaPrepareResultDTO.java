@@ -0,0 +1,59 @@
+package xyz.dowob.filemanagement.dto.file;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 用於返回增量同步預備結果的數據傳輸對象
+ * 客戶端只需要上傳 missingChunks 中的區塊，之後再提交完整的區塊清單
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName DeltaPrepareResultDTO
+ * @description
+ * @create 2026-10-18 15:45
+ * @Version 1.0
+ **/
+@Data
+public class DeltaPrepareResultDTO {
+    /**
+     * 文件ID
+     */
+    private Long fileId;
+
+    /**
+     * 新版本的區塊總數
+     */
+    private Integer totalChunks;
+
+    /**
+     * 新版本的文件大小
+     */
+    private Long totalBytes;
+
+    /**
+     * 用戶尚未擁有、需要在增量同步會話中上傳的區塊雜湊值(不重複)
+     */
+    private List<String> missingChunks;
+
+    /**
+     * 需要上傳的字節數
+     */
+    private Long missingBytes;
+
+    /**
+     * 伺服器切塊的最小區塊大小，客戶端使用相同參數可以得到最多的重複區塊
+     */
+    private Integer minChunkSize;
+
+    /**
+     * 伺服器切塊的平均區塊大小
+     */
+    private Integer avgChunkSize;
+
+    /**
+     * 單一區塊大小的上限
+     */
+    private Integer maxChunkSize;
+}
@@ -0,0 +1,27 @@
+package xyz.dowob.filemanagement.dto.file;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 用於增量同步的數據傳輸對象，包含新版本文件依序排列的區塊清單
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName DeltaSyncDTO
+ * @description
+ * @create 2026-10-18 15:42
+ * @Version 1.0
+ **/
+@Data
+public class DeltaSyncDTO {
+    /**
+     * 新版本文件依序排列的區塊清單
+     */
+    @Valid
+    @NotNull(message = "區塊清單不能為空")
+    private List<DeltaChunkDTO> chunks;
+}
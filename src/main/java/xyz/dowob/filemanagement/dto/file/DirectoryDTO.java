@@ -0,0 +1,27 @@
+package xyz.dowob.filemanagement.dto.file;
+
+import lombok.Data;
+
+/**
+ * 用於建立、重新命名與移動目錄的數據傳輸對象
+ * 建立時需要 parentId 與 name，重新命名時只需要 name，移動時只需要 parentId
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName DirectoryDTO
+ * @description
+ * @create 2026-10-19 04:14
+ * @Version 1.0
+ **/
+@Data
+public class DirectoryDTO {
+    /**
+     * 父目錄ID，根目錄為 0
+     */
+    private Long parentId;
+
+    /**
+     * 目錄名稱
+     */
+    private String name;
+}
@@ -0,0 +1,60 @@
+package xyz.dowob.filemanagement.dto.file;
+
+import lombok.Data;
+import xyz.dowob.filemanagement.customenum.FileEnum;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 用於返回目錄資訊的數據傳輸對象
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName DirectoryInfoDTO
+ * @description
+ * @create 2026-10-19 04:15
+ * @Version 1.0
+ **/
+@Data
+public class DirectoryInfoDTO {
+    /**
+     * 目錄ID，根目錄為 0
+     */
+    private Long id;
+
+    /**
+     * 父目錄ID，根目錄沒有父目錄時為空
+     */
+    private Long parentId;
+
+    /**
+     * 目錄名稱，根目錄為 "/"
+     */
+    private String name;
+
+    /**
+     * 目錄的完整路徑
+     */
+    private String path;
+
+    /**
+     * 建立時間
+     */
+    private LocalDateTime createTime;
+
+    /**
+     * 目錄以及所有子目錄中文件的總大小，統計最多延遲一個刷新週期
+     */
+    private Long totalBytes;
+
+    /**
+     * 目錄以及所有子目錄中的文件數量
+     */
+    private Long fileCount;
+
+    /**
+     * 目錄以及所有子目錄中各類型文件的數量
+     */
+    private Map<FileEnum, Long> typeCounts;
+}
@@ -0,0 +1,38 @@
+package xyz.dowob.filemanagement.dto.file;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 用於返回目錄內容的數據傳輸對象，包含目錄本身、子目錄以及目錄中的文件
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName DirectoryListingDTO
+ * @description
+ * @create 2026-10-19 04:16
+ * @Version 1.0
+ **/
+@Data
+public class DirectoryListingDTO {
+    /**
+     * 目錄資訊
+     */
+    private DirectoryInfoDTO directory;
+
+    /**
+     * 子目錄，依名稱排序
+     */
+    private List<DirectoryInfoDTO> directories;
+
+    /**
+     * 目錄中依文件名稱排序的第一頁文件
+     */
+    private List<FileMetadataDTO> files;
+
+    /**
+     * 取得下一頁文件使用的游標，沒有更多文件時為空
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,80 @@
+package xyz.dowob.filemanagement.dto.file;
+
+import lombok.Data;
+import xyz.dowob.filemanagement.customenum.FileEnum;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 用於返回用戶文件資訊的數據傳輸對象
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName FileMetadataDTO
+ * @description
+ * @create 2026-10-18 10:36
+ * @Version 1.0
+ **/
+@Data
+public class FileMetadataDTO {
+    /**
+     * 用戶文件ID
+     */
+    private Long id;
+
+    /**
+     * 文件名稱
+     */
+    private String filename;
+
+    /**
+     * 文件所在的目錄ID，根目錄為 0
+     */
+    private Long directoryId;
+
+    /**
+     * 文件路徑，由所在目錄向上組合而成
+     */
+    private String filePath;
+
+    /**
+     * 文件大小(bytes)
+     */
+    private Long fileSize;
+
+    /**
+     * 文件類型
+     */
+    private FileEnum fileType;
+
+    /**
+     * 內容類型(MIME)
+     */
+    private String contentType;
+
+    /**
+     * 文件的MD5值
+     */
+    private String md5;
+
+    /**
+     * 文件的SHA-256值
+     */
+    private String sha256;
+
+    /**
+     * 上傳時間
+     */
+    private LocalDateTime uploadTime;
+
+    /**
+     * 最後訪問時間
+     */
+    private LocalDateTime lastAccessTime;
+
+    /**
+     * 文件分享對象的用戶名稱，只有列出目錄文件時會載入，其他情況為空
+     */
+    private List<String> sharedWith;
+}
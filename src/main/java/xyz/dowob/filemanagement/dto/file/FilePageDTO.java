@@ -0,0 +1,28 @@
+package xyz.dowob.filemanagement.dto.file;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 用於返回目錄中一頁文件的數據傳輸對象
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName FilePageDTO
+ * @description
+ * @create 2026-10-19 05:10
+ * @Version 1.0
+ **/
+@Data
+public class FilePageDTO {
+    /**
+     * 這一頁的文件
+     */
+    private List<FileMetadataDTO> files;
+
+    /**
+     * 取得下一頁使用的游標，已經是最後一頁時為空
+     */
+    private String nextCursor;
+}
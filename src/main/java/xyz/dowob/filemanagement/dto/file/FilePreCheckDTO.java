@@ -0,0 +1,53 @@
+package xyz.dowob.filemanagement.dto.file;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+/**
+ * 用於上傳前預檢(秒傳)的數據傳輸對象
+ * 客戶端在上傳前先提交文件大小與摘要，伺服器已有相同內容時直接建立用戶文件，不需要傳輸文件內容
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName FilePreCheckDTO
+ * @description
+ * @create 2026-10-18 13:20
+ * @Version 1.0
+ **/
+@Data
+public class FilePreCheckDTO {
+    /**
+     * 文件名稱
+     */
+    @NotBlank(message = "文件名稱不能為空")
+    private String filename;
+
+    /**
+     * 文件路徑，為空時放在根目錄
+     */
+    private String path;
+
+    /**
+     * 文件總大小
+     */
+    @NotNull(message = "文件大小不能為空")
+    @PositiveOrZero(message = "文件大小不能小於0")
+    private Long fileSize;
+
+    /**
+     * 文件的MD5值(16進位)
+     */
+    @NotBlank(message = "MD5不能為空")
+    @Pattern(regexp = "^[0-9a-fA-F]{32}$", message = "MD5格式不正確")
+    private String md5;
+
+    /**
+     * 文件的SHA-256值(16進位)
+     */
+    @NotBlank(message = "SHA-256不能為空")
+    @Pattern(regexp = "^[0-9a-fA-F]{64}$", message = "SHA-256格式不正確")
+    private String sha256;
+}
@@ -0,0 +1,27 @@
+package xyz.dowob.filemanagement.dto.file;
+
+import lombok.Data;
+
+/**
+ * 用於返回上傳預檢結果的數據傳輸對象
+ * hit 為 true 時文件已建立完成，file 為文件資訊；為 false 時客戶端需要繼續上傳文件內容
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName FilePreCheckResultDTO
+ * @description
+ * @create 2026-10-18 13:22
+ * @Version 1.0
+ **/
+@Data
+public class FilePreCheckResultDTO {
+    /**
+     * 伺服器是否已有相同內容的文件
+     */
+    private boolean hit;
+
+    /**
+     * 秒傳建立的文件資訊，未命中時為空
+     */
+    private FileMetadataDTO file;
+}
@@ -0,0 +1,36 @@
+package xyz.dowob.filemanagement.dto.file;
+
+import lombok.Data;
+
+/**
+ * 用於返回用戶儲存空間配額與使用狀況的數據傳輸對象
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName StorageQuotaDTO
+ * @description
+ * @create 2026-10-19 06:45
+ * @Version 1.0
+ **/
+@Data
+public class StorageQuotaDTO {
+    /**
+     * 配額(bytes)，不限制時為空
+     */
+    private Long quotaBytes;
+
+    /**
+     * 已使用的空間(bytes)
+     */
+    private Long usedBytes;
+
+    /**
+     * 進行中的上傳已預留的空間(bytes)
+     */
+    private Long reservedBytes;
+
+    /**
+     * 剩餘可用空間(bytes)，不限制時為空
+     */
+    private Long remainingBytes;
+}
@@ -0,0 +1,36 @@
+package xyz.dowob.filemanagement.dto.file;
+
+import lombok.Data;
+
+/**
+ * 用於返回已上傳分段資訊的數據傳輸對象
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName UploadPartDTO
+ * @description
+ * @create 2026-10-18 12:07
+ * @Version 1.0
+ **/
+@Data
+public class UploadPartDTO {
+    /**
+     * 會話ID
+     */
+    private Long sessionId;
+
+    /**
+     * 分段編號
+     */
+    private Integer partNumber;
+
+    /**
+     * 分段大小
+     */
+    private Long partSize;
+
+    /**
+     * 分段的MD5值，客戶端可用於校驗
+     */
+    private String md5;
+}
@@ -0,0 +1,49 @@
+package xyz.dowob.filemanagement.dto.file;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+/**
+ * 用於建立分段上傳會話的數據傳輸對象
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName UploadSessionDTO
+ * @description
+ * @create 2026-10-18 12:02
+ * @Version 1.0
+ **/
+@Data
+public class UploadSessionDTO {
+    /**
+     * 文件名稱
+     */
+    @NotBlank(message = "文件名稱不能為空")
+    private String filename;
+
+    /**
+     * 文件路徑，為空時放在根目錄
+     */
+    private String path;
+
+    /**
+     * 內容類型(MIME)
+     */
+    private String contentType;
+
+    /**
+     * 文件總大小
+     */
+    @NotNull(message = "文件大小不能為空")
+    @PositiveOrZero(message = "文件大小不能小於0")
+    private Long fileSize;
+
+    /**
+     * 每個分段的大小，為空時使用伺服器預設值
+     */
+    @Positive(message = "分段大小需大於0")
+    private Long partSize;
+}
@@ -0,0 +1,66 @@
+package xyz.dowob.filemanagement.dto.file;
+
+import lombok.Data;
+import xyz.dowob.filemanagement.customenum.UploadStatusEnum;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 用於返回分段上傳會話狀態的數據傳輸對象
+ * 客戶端可以根據 missingParts 只補傳缺少的分段
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName UploadSessionStatusDTO
+ * @description
+ * @create 2026-10-18 12:05
+ * @Version 1.0
+ **/
+@Data
+public class UploadSessionStatusDTO {
+    /**
+     * 會話ID
+     */
+    private Long sessionId;
+
+    /**
+     * 文件名稱
+     */
+    private String filename;
+
+    /**
+     * 文件總大小
+     */
+    private Long fileSize;
+
+    /**
+     * 每個分段的大小
+     */
+    private Long partSize;
+
+    /**
+     * 分段總數
+     */
+    private Integer partCount;
+
+    /**
+     * 會話狀態
+     */
+    private UploadStatusEnum status;
+
+    /**
+     * 已上傳的分段編號
+     */
+    private List<Integer> uploadedParts;
+
+    /**
+     * 尚未上傳的分段編號
+     */
+    private List<Integer> missingParts;
+
+    /**
+     * 會話過期時間
+     */
+    private LocalDateTime expireTime;
+}
@@ -0,0 +1,19 @@
+/**
+ * File DTO.
+ * 用於規範文件相關的數據傳輸對象
+ * 1. FileMetadataDTO: 用於返回用戶文件資訊的數據傳輸對象 {@link xyz.dowob.filemanagement.dto.file.FileMetadataDTO}
+ * 2. UploadSessionDTO: 用於建立分段上傳會話的數據傳輸對象 {@link xyz.dowob.filemanagement.dto.file.UploadSessionDTO}
+ * 3. UploadSessionStatusDTO: 用於返回分段上傳會話狀態的數據傳輸對象 {@link xyz.dowob.filemanagement.dto.file.UploadSessionStatusDTO}
+ * 4. UploadPartDTO: 用於返回已上傳分段資訊的數據傳輸對象 {@link xyz.dowob.filemanagement.dto.file.UploadPartDTO}
+ * 5. FilePreCheckDTO: 用於上傳前預檢(秒傳)的數據傳輸對象 {@link xyz.dowob.filemanagement.dto.file.FilePreCheckDTO}
+ * 6. FilePreCheckResultDTO: 用於返回上傳預檢結果的數據傳輸對象 {@link xyz.dowob.filemanagement.dto.file.FilePreCheckResultDTO}
+ * 7. DeltaChunkDTO: 用於描述新版本文件中單一區塊的數據傳輸對象 {@link xyz.dowob.filemanagement.dto.file.DeltaChunkDTO}
+ * 8. DeltaSyncDTO: 用於增量同步的區塊清單數據傳輸對象 {@link xyz.dowob.filemanagement.dto.file.DeltaSyncDTO}
+ * 9. DeltaPrepareResultDTO: 用於返回增量同步預備結果的數據傳輸對象 {@link xyz.dowob.filemanagement.dto.file.DeltaPrepareResultDTO}
+ * 10. DirectoryDTO: 用於建立、重新命名與移動目錄的數據傳輸對象 {@link xyz.dowob.filemanagement.dto.file.DirectoryDTO}
+ * 11. DirectoryInfoDTO: 用於返回目錄資訊的數據傳輸對象 {@link xyz.dowob.filemanagement.dto.file.DirectoryInfoDTO}
+ * 12. DirectoryListingDTO: 用於返回目錄內容的數據傳輸對象 {@link xyz.dowob.filemanagement.dto.file.DirectoryListingDTO}
+ * 13. FilePageDTO: 用於返回目錄中一頁文件的數據傳輸對象 {@link xyz.dowob.filemanagement.dto.file.FilePageDTO}
+ * 14. StorageQuotaDTO: 用於返回用戶儲存空間配額與使用狀況的數據傳輸對象 {@link xyz.dowob.filemanagement.dto.file.StorageQuotaDTO}
+ */
+package xyz.dowob.filemanagement.dto.file;
@@ -3,5 +3,6 @@
  * 用於規範數據傳輸的格式的類別
  * 1.api: 用於規範API請求的數據傳輸對象
  * 2.user: 用於規範用戶相關的數據傳輸對象
+ * 3.file: 用於規範文件相關的數據傳輸對象
  */
 package xyz.dowob.filemanagement.dto;
\ No newline at end of file
@@ -0,0 +1,97 @@
+package xyz.dowob.filemanagement.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * 內容定義切塊後的資料區塊實體類
+ * 相同內容的區塊只會存放一次，以 SHA-256 作為鍵值，並以引用計數記錄被多少個文件清單使用
+ * hash 欄位需建立唯一索引，並發寫入相同區塊時依靠唯一索引避免重複存放
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName DataChunk
+ * @description
+ * @create 2026-10-18 14:20
+ * @Version 1.0
+ **/
+@Getter
+@Setter
+@Table(name = "data_chunks")
+public class DataChunk implements StringBuilderFormattable {
+    /**
+     * 區塊的主鍵ID
+     */
+    @Id
+    private Long id;
+
+    /**
+     * 區塊內容的SHA-256值
+     */
+    private String hash;
+
+    /**
+     * 區塊內容的儲存鍵值
+     */
+    @Column("storage_key")
+    private String storageKey;
+
+    /**
+     * 區塊大小
+     */
+    @Column("chunk_size")
+    private Integer chunkSize;
+
+    /**
+     * 引用計數，為0時可以被回收
+     */
+    @Column("ref_count")
+    private Long refCount;
+
+    /**
+     * 建立時間
+     */
+    @Column("create_time")
+    private LocalDateTime createTime;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        DataChunk that = (DataChunk) o;
+        return id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder buffer = new StringBuilder(128);
+        formatTo(buffer);
+        return buffer.toString();
+    }
+
+    @Override
+    public void formatTo(StringBuilder buffer) {
+        buffer
+                .append("{id=").append(id)
+                .append(", hash=").append(hash)
+                .append(", chunkSize=").append(chunkSize)
+                .append(", refCount=").append(refCount)
+                .append(", createTime=").append(createTime)
+                .append('}');
+    }
+}
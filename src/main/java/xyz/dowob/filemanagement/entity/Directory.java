@@ -0,0 +1,80 @@
+package xyz.dowob.filemanagement.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用戶目錄實體類，目錄以父目錄ID組成樹狀結構(鄰接表)
+ * 目錄只記錄自己的名稱與父目錄，完整路徑在需要時沿父目錄向上組合，因此移動或重新命名目錄只需要更新一行，不會改寫子目錄與文件
+ * 根目錄不存放於資料表中，以ID 0 表示
+ * (user_id, parent_id, name) 需建立唯一索引，列出目錄內容時以此索引做範圍查詢
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName Directory
+ * @description
+ * @create 2026-10-19 04:10
+ * @Version 1.0
+ **/
+@Getter
+@Setter
+@Table(name = "directories")
+public class Directory implements StringBuilderFormattable {
+    /**
+     * 根目錄的ID
+     */
+    public static final long ROOT_ID = 0L;
+
+    /**
+     * 目錄ID
+     */
+    @Id
+    private Long id;
+
+    /**
+     * 目錄擁有者的用戶ID
+     */
+    @Column("user_id")
+    private Long userId;
+
+    /**
+     * 父目錄ID，位於根目錄下時為 0
+     */
+    @Column("parent_id")
+    private Long parentId;
+
+    /**
+     * 目錄名稱
+     */
+    private String name;
+
+    /**
+     * 建立時間
+     */
+    @Column("create_time")
+    private LocalDateTime createTime;
+
+    @Override
+    public String toString() {
+        StringBuilder buffer = new StringBuilder(96);
+        formatTo(buffer);
+        return buffer.toString();
+    }
+
+    @Override
+    public void formatTo(StringBuilder buffer) {
+        buffer
+                .append("{id=").append(id)
+                .append(", user=").append(userId)
+                .append(", parent=").append(parentId)
+                .append(", name=").append(name)
+                .append(", createTime=").append(createTime)
+                .append('}');
+    }
+}
@@ -0,0 +1,122 @@
+package xyz.dowob.filemanagement.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * 目錄統計實體類，記錄目錄以及所有子目錄中文件的總大小、文件數量以及各文件類型的數量
+ * 統計在上傳、刪除與移動時以增量更新，因此讀取任何目錄的大小都只需要讀取一行
+ * 根目錄的統計以 directory_id 0 保存，即用戶所有文件的合計
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName DirectoryStats
+ * @description
+ * @create 2026-10-19 05:40
+ * @Version 1.0
+ **/
+@Getter
+@Setter
+@Table(name = "directory_stats")
+public class DirectoryStats implements StringBuilderFormattable {
+    /**
+     * 統計ID
+     */
+    @Id
+    private Long id;
+
+    /**
+     * 用戶ID
+     */
+    @Column("user_id")
+    private Long userId;
+
+    /**
+     * 目錄ID，根目錄為 0
+     */
+    @Column("directory_id")
+    private Long directoryId;
+
+    /**
+     * 文件總大小(bytes)
+     */
+    @Column("total_bytes")
+    private Long totalBytes;
+
+    /**
+     * 文件數量
+     */
+    @Column("file_count")
+    private Long fileCount;
+
+    /**
+     * 照片數量
+     */
+    @Column("image_count")
+    private Long imageCount;
+
+    /**
+     * 影片數量
+     */
+    @Column("video_count")
+    private Long videoCount;
+
+    /**
+     * 音樂數量
+     */
+    @Column("music_count")
+    private Long musicCount;
+
+    /**
+     * 文件類型的文件數量
+     */
+    @Column("document_count")
+    private Long documentCount;
+
+    /**
+     * 壓縮檔數量
+     */
+    @Column("zip_count")
+    private Long zipCount;
+
+    /**
+     * 其他類型的文件數量
+     */
+    @Column("other_count")
+    private Long otherCount;
+
+    /**
+     * 最後更新時間
+     */
+    @Column("update_time")
+    private LocalDateTime updateTime;
+
+    @Override
+    public String toString() {
+        StringBuilder buffer = new StringBuilder(160);
+        formatTo(buffer);
+        return buffer.toString();
+    }
+
+    @Override
+    public void formatTo(StringBuilder buffer) {
+        buffer
+                .append("{user=").append(userId)
+                .append(", directory=").append(directoryId)
+                .append(", bytes=").append(totalBytes)
+                .append(", files=").append(fileCount)
+                .append(", image=").append(imageCount)
+                .append(", video=").append(videoCount)
+                .append(", music=").append(musicCount)
+                .append(", document=").append(documentCount)
+                .append(", zip=").append(zipCount)
+                .append(", other=").append(otherCount)
+                .append('}');
+    }
+}
@@ -0,0 +1,81 @@
+package xyz.dowob.filemanagement.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+import xyz.dowob.filemanagement.customenum.EmailStatusEnum;
+
+import java.time.LocalDateTime;
+
+/**
+ * 郵件發件匣實體類，每一筆記錄代表一封等待發送或已發送的郵件
+ * 業務邏輯只需要寫入發件匣即可返回，實際的 SMTP 發送由背景的發送程序完成
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName EmailOutbox
+ * @description
+ * @create 2026-10-18 23:07
+ * @Version 1.0
+ **/
+@Getter
+@Setter
+@Table(name = "email_outbox")
+public class EmailOutbox {
+    /**
+     * 郵件的主鍵ID
+     */
+    @Id
+    private Long id;
+
+    /**
+     * 收件人郵箱
+     */
+    private String recipient;
+
+    /**
+     * 郵件主題
+     */
+    private String subject;
+
+    /**
+     * 郵件內容
+     */
+    private String content;
+
+    /**
+     * 郵件狀態
+     */
+    private EmailStatusEnum status;
+
+    /**
+     * 已嘗試發送的次數，同時作為取出郵件時的版本號
+     */
+    private Integer attempts;
+
+    /**
+     * 下次發送的時間，發送中時為租約到期的時間
+     */
+    @Column("next_attempt_time")
+    private LocalDateTime nextAttemptTime;
+
+    /**
+     * 最後一次發送失敗的原因
+     */
+    @Column("last_error")
+    private String lastError;
+
+    /**
+     * 建立時間
+     */
+    @Column("create_time")
+    private LocalDateTime createTime;
+
+    /**
+     * 發送完成的時間
+     */
+    @Column("sent_time")
+    private LocalDateTime sentTime;
+}
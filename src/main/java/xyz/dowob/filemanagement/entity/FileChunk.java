@@ -0,0 +1,96 @@
+package xyz.dowob.filemanagement.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * 區塊清單實體類
+ * 當伺服器文件的佈局為 CHUNKED 時，文件內容依照 chunkIndex 順序由對應的資料區塊組成
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName FileChunk
+ * @description
+ * @create 2026-10-18 14:22
+ * @Version 1.0
+ **/
+@Getter
+@Setter
+@Table(name = "file_chunks")
+public class FileChunk implements StringBuilderFormattable {
+    /**
+     * 清單項目的主鍵ID
+     */
+    @Id
+    private Long id;
+
+    /**
+     * 所屬的伺服器文件ID
+     */
+    @Column("server_file_id")
+    private Long serverFileId;
+
+    /**
+     * 區塊在文件中的順序(從0開始)
+     */
+    @Column("chunk_index")
+    private Integer chunkIndex;
+
+    /**
+     * 區塊在文件中的起始位置
+     */
+    @Column("chunk_offset")
+    private Long chunkOffset;
+
+    /**
+     * 區塊大小
+     */
+    @Column("chunk_size")
+    private Integer chunkSize;
+
+    /**
+     * 區塊內容的SHA-256值，對應 data_chunks 的 hash
+     */
+    @Column("chunk_hash")
+    private String chunkHash;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        FileChunk that = (FileChunk) o;
+        return id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder buffer = new StringBuilder(128);
+        formatTo(buffer);
+        return buffer.toString();
+    }
+
+    @Override
+    public void formatTo(StringBuilder buffer) {
+        buffer
+                .append("{id=").append(id)
+                .append(", serverFileId=").append(serverFileId)
+                .append(", chunkIndex=").append(chunkIndex)
+                .append(", chunkOffset=").append(chunkOffset)
+                .append(", chunkSize=").append(chunkSize)
+                .append(", chunkHash=").append(chunkHash)
+                .append('}');
+    }
+}
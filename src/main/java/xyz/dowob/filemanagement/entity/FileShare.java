@@ -0,0 +1,62 @@
+package xyz.dowob.filemanagement.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * 文件分享實體類，每一筆記錄代表一個用戶文件分享給一個用戶
+ * 用戶文件的 sharedWithUsers 由此表中指向該文件的記錄決定
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName FileShare
+ * @description
+ * @create 2026-10-19 07:10
+ * @Version 1.0
+ **/
+@Getter
+@Setter
+@Table(name = "file_shares")
+public class FileShare implements StringBuilderFormattable {
+    /**
+     * 記錄ID
+     */
+    @Id
+    private Long id;
+
+    /**
+     * 被分享的用戶文件ID
+     */
+    @Column("user_file_id")
+    private Long userFileId;
+
+    /**
+     * 被分享的用戶ID
+     */
+    @Column("user_id")
+    private Long userId;
+
+    /**
+     * 分享時間
+     */
+    @Column("create_time")
+    private LocalDateTime createTime;
+
+    @Override
+    public String toString() {
+        StringBuilder buffer = new StringBuilder(64);
+        formatTo(buffer);
+        return buffer.toString();
+    }
+
+    @Override
+    public void formatTo(StringBuilder buffer) {
+        buffer.append("{userFile=").append(userFileId).append(", user=").append(userId).append(", createTime=").append(createTime).append('}');
+    }
+}
@@ -0,0 +1,77 @@
+package xyz.dowob.filemanagement.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * 已被搬移取代、等待刪除的儲存內容實體類
+ * 分層儲存將內容移回本機儲存層後，冷儲存層的舊內容可能仍有下載在讀取，因此先記錄在這裡，超過保留時間後才刪除
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName RetiredStorageKey
+ * @description
+ * @create 2026-10-19 15:20
+ * @Version 1.0
+ **/
+@Getter
+@Setter
+@Table(name = "retired_storage_keys")
+public class RetiredStorageKey implements StringBuilderFormattable {
+    /**
+     * 記錄的主鍵ID
+     */
+    @Id
+    private Long id;
+
+    /**
+     * 等待刪除的儲存鍵值
+     */
+    @Column("storage_key")
+    private String storageKey;
+
+    /**
+     * 內容被取代的時間
+     */
+    @Column("retire_time")
+    private LocalDateTime retireTime;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        RetiredStorageKey that = (RetiredStorageKey) o;
+        return id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder buffer = new StringBuilder(96);
+        formatTo(buffer);
+        return buffer.toString();
+    }
+
+    @Override
+    public void formatTo(StringBuilder buffer) {
+        buffer
+                .append("{id=").append(id)
+                .append(", storageKey=").append(storageKey)
+                .append(", retireTime=").append(retireTime)
+                .append('}');
+    }
+}
@@ -2,13 +2,15 @@ package xyz.dowob.filemanagement.entity;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 import xyz.dowob.filemanagement.customenum.FileEnum;
+import xyz.dowob.filemanagement.customenum.FileLayoutEnum;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.Set;
 
 /**
@@ -23,7 +25,7 @@ import java.util.Set;
 @Getter
 @Setter
 @Table(name = "server_file_metadata")
-public class ServerFileMetadata {
+public class ServerFileMetadata implements StringBuilderFormattable {
     /**
      * 文件的主鍵ID
      */
@@ -55,19 +57,36 @@ public class ServerFileMetadata {
     private LocalDateTime lastAccessTime;
 
     /**
-     * 文件的GridFS ID
+     * 文件內容的儲存鍵值，GridFS 為 ObjectId，本機檔案系統以 local: 開頭，欄位名稱沿用最初只有 GridFS 時的命名
      */
     @Column("grid_fs_id")
     private String gridFsId;
 
+    /**
+     * 文件內容的存放佈局，COMPOSITE 時內容由 server_file_parts 中的分段組成，CHUNKED 時由 file_chunks 中的區塊清單組成，兩者的 gridFsId 皆為空
+     */
+    private FileLayoutEnum layout = FileLayoutEnum.SINGLE;
+
     /**
      * 文件的MD5值
      */
     private String md5;
 
     /**
-     * 擁有文件的用戶
+     * 文件的SHA-256值
+     */
+    private String sha256;
+
+    /**
+     * 文件的內容類型(MIME)
      */
+    @Column("content_type")
+    private String contentType;
+
+    /**
+     * 擁有文件的用戶，由 user_file_metadata 中指向此文件的記錄決定，不直接存放於此表
+     */
+    @Transient
     private Set<User> owners;
 
     @Override
@@ -89,15 +108,25 @@ public class ServerFileMetadata {
 
     @Override
     public String toString() {
-        HashMap<String, Object> fileMap = new HashMap<>();
-        fileMap.put("id", id);
-        fileMap.put("fileSize", fileSize);
-        fileMap.put("fileType", fileType);
-        fileMap.put("uploadTime", uploadTime);
-        fileMap.put("lastAccessTime", lastAccessTime);
-        fileMap.put("gridFsId", gridFsId);
-        fileMap.put("md5", md5);
-        return fileMap.toString();
+        StringBuilder buffer = new StringBuilder(128);
+        formatTo(buffer);
+        return buffer.toString();
+    }
+
+    @Override
+    public void formatTo(StringBuilder buffer) {
+        buffer
+                .append("{id=").append(id)
+                .append(", fileSize=").append(fileSize)
+                .append(", fileType=").append(fileType)
+                .append(", uploadTime=").append(uploadTime)
+                .append(", lastAccessTime=").append(lastAccessTime)
+                .append(", gridFsId=").append(gridFsId)
+                .append(", layout=").append(layout)
+                .append(", md5=").append(md5)
+                .append(", sha256=").append(sha256)
+                .append(", contentType=").append(contentType)
+                .append('}');
     }
 
 }
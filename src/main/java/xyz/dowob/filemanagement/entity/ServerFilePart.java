@@ -0,0 +1,96 @@
+package xyz.dowob.filemanagement.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * 分段組合文件的分段實體類
+ * 當伺服器文件的佈局為 COMPOSITE 時，文件內容依照 partIndex 順序由這些分段組成
+ * 分段在合併時直接沿用上傳時的儲存內容，不會再複製一次
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName ServerFilePart
+ * @description
+ * @create 2026-10-18 11:47
+ * @Version 1.0
+ **/
+@Getter
+@Setter
+@Table(name = "server_file_parts")
+public class ServerFilePart implements StringBuilderFormattable {
+    /**
+     * 分段的主鍵ID
+     */
+    @Id
+    private Long id;
+
+    /**
+     * 所屬的伺服器文件ID
+     */
+    @Column("server_file_id")
+    private Long serverFileId;
+
+    /**
+     * 分段在文件中的順序(從0開始)
+     */
+    @Column("part_index")
+    private Integer partIndex;
+
+    /**
+     * 分段內容的儲存鍵值
+     */
+    @Column("storage_key")
+    private String storageKey;
+
+    /**
+     * 分段在文件中的起始位置
+     */
+    @Column("part_offset")
+    private Long partOffset;
+
+    /**
+     * 分段大小
+     */
+    @Column("part_size")
+    private Long partSize;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ServerFilePart that = (ServerFilePart) o;
+        return id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder buffer = new StringBuilder(128);
+        formatTo(buffer);
+        return buffer.toString();
+    }
+
+    @Override
+    public void formatTo(StringBuilder buffer) {
+        buffer
+                .append("{id=").append(id)
+                .append(", serverFileId=").append(serverFileId)
+                .append(", partIndex=").append(partIndex)
+                .append(", partOffset=").append(partOffset)
+                .append(", partSize=").append(partSize)
+                .append('}');
+    }
+}
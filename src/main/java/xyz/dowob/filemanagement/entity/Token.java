@@ -2,12 +2,12 @@ package xyz.dowob.filemanagement.entity;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
 
 /**
  * 憑證實體類，用於定義憑證的數據庫表結構
@@ -22,7 +22,7 @@ import java.util.HashMap;
 @Getter
 @Setter
 @Table(name = "tokens")
-public class Token {
+public class Token implements StringBuilderFormattable {
     /**
      * 憑證的主鍵ID
      */
@@ -89,9 +89,13 @@ public class Token {
 
     @Override
     public String toString() {
-        HashMap<String, Object> tokenMap = new HashMap<>();
-        tokenMap.put("id", id);
-        tokenMap.put("userId", userId);
-        return tokenMap.toString();
+        StringBuilder buffer = new StringBuilder(128);
+        formatTo(buffer);
+        return buffer.toString();
+    }
+
+    @Override
+    public void formatTo(StringBuilder buffer) {
+        buffer.append("{id=").append(id).append(", userId=").append(userId).append('}');
     }
 }
@@ -0,0 +1,102 @@
+package xyz.dowob.filemanagement.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * 分段上傳中已上傳的分段實體類
+ * (session_id, part_number) 為唯一鍵，同一分段重新上傳時會覆蓋舊的記錄
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName UploadPart
+ * @description
+ * @create 2026-10-18 11:44
+ * @Version 1.0
+ **/
+@Getter
+@Setter
+@Table(name = "upload_parts")
+public class UploadPart implements StringBuilderFormattable {
+    /**
+     * 分段的主鍵ID
+     */
+    @Id
+    private Long id;
+
+    /**
+     * 所屬的上傳會話ID
+     */
+    @Column("session_id")
+    private Long sessionId;
+
+    /**
+     * 分段編號(從1開始)
+     */
+    @Column("part_number")
+    private Integer partNumber;
+
+    /**
+     * 分段內容的儲存鍵值
+     */
+    @Column("storage_key")
+    private String storageKey;
+
+    /**
+     * 分段大小
+     */
+    @Column("part_size")
+    private Long partSize;
+
+    /**
+     * 分段的MD5值
+     */
+    private String md5;
+
+    /**
+     * 上傳時間
+     */
+    @Column("upload_time")
+    private LocalDateTime uploadTime;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        UploadPart that = (UploadPart) o;
+        return id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder buffer = new StringBuilder(128);
+        formatTo(buffer);
+        return buffer.toString();
+    }
+
+    @Override
+    public void formatTo(StringBuilder buffer) {
+        buffer
+                .append("{id=").append(id)
+                .append(", sessionId=").append(sessionId)
+                .append(", partNumber=").append(partNumber)
+                .append(", partSize=").append(partSize)
+                .append(", md5=").append(md5)
+                .append('}');
+    }
+}
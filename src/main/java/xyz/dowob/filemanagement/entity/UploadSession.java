@@ -0,0 +1,143 @@
+package xyz.dowob.filemanagement.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+import xyz.dowob.filemanagement.customenum.UploadStatusEnum;
+
+import java.time.LocalDateTime;
+
+/**
+ * 分段上傳會話實體類，用於記錄一次可續傳的分段上傳
+ * 文件依照 partSize 切分為 partCount 個分段，最後一個分段可以小於 partSize
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName UploadSession
+ * @description
+ * @create 2026-10-18 11:40
+ * @Version 1.0
+ **/
+@Getter
+@Setter
+@Table(name = "upload_sessions")
+public class UploadSession implements StringBuilderFormattable {
+    /**
+     * 會話的主鍵ID
+     */
+    @Id
+    private Long id;
+
+    /**
+     * 建立會話的用戶ID
+     */
+    @Column("user_id")
+    private Long userId;
+
+    /**
+     * 文件名稱
+     */
+    private String filename;
+
+    /**
+     * 文件路徑
+     */
+    @Column("file_path")
+    private String filePath;
+
+    /**
+     * 內容類型(MIME)
+     */
+    @Column("content_type")
+    private String contentType;
+
+    /**
+     * 宣告的文件總大小
+     */
+    @Column("file_size")
+    private Long fileSize;
+
+    /**
+     * 每個分段的大小
+     */
+    @Column("part_size")
+    private Long partSize;
+
+    /**
+     * 分段總數
+     */
+    @Column("part_count")
+    private Integer partCount;
+
+    /**
+     * 會話狀態
+     */
+    private UploadStatusEnum status;
+
+    /**
+     * 建立時間
+     */
+    @Column("create_time")
+    private LocalDateTime createTime;
+
+    /**
+     * 過期時間，過期後不再接受分段
+     */
+    @Column("expire_time")
+    private LocalDateTime expireTime;
+
+    /**
+     * 取得指定分段應有的大小
+     *
+     * @param partNumber 分段編號(從1開始)
+     *
+     * @return 分段大小
+     */
+    public long expectedPartSize(int partNumber) {
+        if (partNumber < partCount) {
+            return partSize;
+        }
+        return fileSize - partSize * (partCount - 1);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        UploadSession that = (UploadSession) o;
+        return id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder buffer = new StringBuilder(128);
+        formatTo(buffer);
+        return buffer.toString();
+    }
+
+    @Override
+    public void formatTo(StringBuilder buffer) {
+        buffer
+                .append("{id=").append(id)
+                .append(", userId=").append(userId)
+                .append(", filename=").append(filename)
+                .append(", fileSize=").append(fileSize)
+                .append(", partSize=").append(partSize)
+                .append(", partCount=").append(partCount)
+                .append(", status=").append(status)
+                .append(", expireTime=").append(expireTime)
+                .append('}');
+    }
+}
@@ -3,6 +3,7 @@ package xyz.dowob.filemanagement.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Getter;
 import lombok.Setter;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
@@ -12,7 +13,6 @@ import xyz.dowob.filemanagement.customenum.RoleEnum;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 
 /**
  * 用於定義用戶的數據庫表實體
@@ -27,7 +27,7 @@ import java.util.HashMap;
 @Table(name = "users")
 @Getter
 @Setter
-public class User {
+public class User implements StringBuilderFormattable {
     /**
      * 用戶的主鍵ID
      */
@@ -74,12 +74,19 @@ public class User {
 
     @Override
     public String toString() {
-        HashMap<String, Object> userMap = new HashMap<>();
-        userMap.put("id", id);
-        userMap.put("username", username);
-        userMap.put("email", email);
-        userMap.put("role", role);
-        return userMap.toString();
+        StringBuilder buffer = new StringBuilder(128);
+        formatTo(buffer);
+        return buffer.toString();
+    }
+
+    @Override
+    public void formatTo(StringBuilder buffer) {
+        buffer
+                .append("{id=").append(id)
+                .append(", username=").append(username)
+                .append(", email=").append(email)
+                .append(", role=").append(role)
+                .append('}');
     }
 
     public Collection<? extends GrantedAuthority> getAuthorities() {
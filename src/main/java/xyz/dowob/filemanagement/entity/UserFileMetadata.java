@@ -2,15 +2,21 @@ package xyz.dowob.filemanagement.entity;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
+import xyz.dowob.filemanagement.customenum.FileEnum;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.Set;
 
 /**
+ * 用於定義以及映射用戶文件元數據表
+ * 每一筆記錄代表用戶看到的一個文件，實際的文件內容由 serverFileId 指向的伺服器文件提供
+ * 文件所在的位置由 directoryId 指向的目錄決定
+ *
  * @author yuan
  * @program File-Management
  * @ClassName UserFileMetadata
@@ -21,21 +27,35 @@ import java.util.Set;
 @Getter
 @Setter
 @Table(name = "user_file_metadata")
-public class UserFileMetadata {
+public class UserFileMetadata implements StringBuilderFormattable {
     /**
      * 文件 ID
      */
     @Id
     private Long id;
 
+    /**
+     * 文件擁有者的用戶ID
+     */
+    @Column("user_id")
+    private Long userId;
+
+    /**
+     * 對應的伺服器文件ID
+     */
+    @Column("server_file_id")
+    private Long serverFileId;
+
     /**
      * 文件擁有者
      */
+    @Transient
     private User user;
 
     /**
      * 文件類型
      */
+    @Transient
     private ServerFileMetadata serverFile;
 
     /**
@@ -44,13 +64,26 @@ public class UserFileMetadata {
     private String filename;
 
     /**
-     * 文件路徑
+     * 文件所在的目錄ID，位於根目錄時為 0 {@link Directory}
+     * 文件路徑不再保存於此表，移動目錄時不需要改寫目錄下的文件
      */
-    @Column("file_path")
-    private String filePath;
+    @Column("directory_id")
+    private Long directoryId;
 
     /**
-     * 文件大小
+     * 文件大小(bytes)，與伺服器文件相同，保存在此表以便依大小分頁排序時使用索引
+     */
+    @Column("file_size")
+    private Long fileSize;
+
+    /**
+     * 文件類型，與伺服器文件相同，保存在此表以便依類型分頁排序時使用索引
+     */
+    @Column("file_type")
+    private FileEnum fileType;
+
+    /**
+     * 上傳時間
      */
     @Column("upload_time")
     private LocalDateTime uploadTime;
@@ -64,18 +97,28 @@ public class UserFileMetadata {
     /**
      * 文件是否被刪除
      */
+    @Transient
     private Set<User> sharedWithUsers;
 
     @Override
     public String toString() {
-        HashMap<String, Object> map = new HashMap<>();
-        map.put("id", id);
-        map.put("user", user.getId());
-        map.put("serverFile", serverFile.getId());
-        map.put("filename", filename);
-        map.put("filePath", filePath);
-        map.put("uploadTime", uploadTime);
-        map.put("lastAccessTime", lastAccessTime);
-        return map.toString();
+        StringBuilder buffer = new StringBuilder(128);
+        formatTo(buffer);
+        return buffer.toString();
+    }
+
+    @Override
+    public void formatTo(StringBuilder buffer) {
+        buffer
+                .append("{id=").append(id)
+                .append(", user=").append(userId)
+                .append(", serverFile=").append(serverFileId)
+                .append(", filename=").append(filename)
+                .append(", directory=").append(directoryId)
+                .append(", size=").append(fileSize)
+                .append(", type=").append(fileType)
+                .append(", uploadTime=").append(uploadTime)
+                .append(", lastAccessTime=").append(lastAccessTime)
+                .append('}');
     }
 }
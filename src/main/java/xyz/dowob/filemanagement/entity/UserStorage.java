@@ -0,0 +1,68 @@
+package xyz.dowob.filemanagement.entity;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.logging.log4j.util.StringBuilderFormattable;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用戶儲存空間實體類，記錄用戶的配額與已使用的空間
+ * 已使用的空間以記憶體中的計數器為準，這裡只是定時寫入的檢查點，與 users 表分開存放，更新用戶資料時不會覆蓋檢查點
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName UserStorage
+ * @description
+ * @create 2026-10-19 06:40
+ * @Version 1.0
+ **/
+@Getter
+@Setter
+@Table(name = "user_storage")
+public class UserStorage implements StringBuilderFormattable {
+    /**
+     * 記錄ID
+     */
+    @Id
+    private Long id;
+
+    /**
+     * 用戶ID
+     */
+    @Column("user_id")
+    private Long userId;
+
+    /**
+     * 配額(bytes)，為空時使用角色的預設配額，負數表示不限制
+     */
+    @Column("quota_bytes")
+    private Long quotaBytes;
+
+    /**
+     * 已使用的空間(bytes)
+     */
+    @Column("used_bytes")
+    private Long usedBytes;
+
+    /**
+     * 最後更新時間
+     */
+    @Column("update_time")
+    private LocalDateTime updateTime;
+
+    @Override
+    public String toString() {
+        StringBuilder buffer = new StringBuilder(64);
+        formatTo(buffer);
+        return buffer.toString();
+    }
+
+    @Override
+    public void formatTo(StringBuilder buffer) {
+        buffer.append("{user=").append(userId).append(", quota=").append(quotaBytes).append(", used=").append(usedBytes).append('}');
+    }
+}
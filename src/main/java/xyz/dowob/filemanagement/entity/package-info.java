@@ -4,6 +4,19 @@
  * 2. Token: 用於對應憑證表 {@link xyz.dowob.filemanagement.entity.Token}
  * 3. User: 用於對應用戶表 {@link xyz.dowob.filemanagement.entity.User}
  * 4. UserFileMetadata: 用戶文件元數據表 {@link xyz.dowob.filemanagement.entity.UserFileMetadata}
+ * 5. UploadSession: 分段上傳會話表 {@link xyz.dowob.filemanagement.entity.UploadSession}
+ * 6. UploadPart: 分段上傳中已上傳的分段表 {@link xyz.dowob.filemanagement.entity.UploadPart}
+ * 7. ServerFilePart: 分段組合文件的分段表 {@link xyz.dowob.filemanagement.entity.ServerFilePart}
+ * 8. DataChunk: 內容定義切塊後的資料區塊表 {@link xyz.dowob.filemanagement.entity.DataChunk}
+ * 9. FileChunk: 伺服器文件的區塊清單表 {@link xyz.dowob.filemanagement.entity.FileChunk}
+ * 10. EmailOutbox: 郵件發件匣表 {@link xyz.dowob.filemanagement.entity.EmailOutbox}
+ * 11. Directory: 用戶目錄表，以父目錄ID組成目錄樹 {@link xyz.dowob.filemanagement.entity.Directory}
+ * 12. DirectoryStats: 目錄統計表，保存目錄以及所有子目錄中文件的總大小與數量 {@link xyz.dowob.filemanagement.entity.DirectoryStats}
+ * 13. UserStorage: 用戶儲存空間表，保存配額與已使用空間的檢查點 {@link xyz.dowob.filemanagement.entity.UserStorage}
+ * 14. FileShare: 用戶文件的分享記錄表 {@link xyz.dowob.filemanagement.entity.FileShare}
+ * 15. RetiredStorageKey: 等待刪除的已被取代儲存內容表 {@link xyz.dowob.filemanagement.entity.RetiredStorageKey}
+ * 實體的 toString 以 log4j2 的 StringBuilderFormattable 實現，作為日誌參數時直接寫入日誌的緩衝區，不會建立中間的 HashMap 與字串
+ * 方法追蹤記錄返回值時也以 formatTo 寫入重用的緩衝區 {@link xyz.dowob.filemanagement.component.aspect.TraceManager}
 
  */
 package xyz.dowob.filemanagement.entity;
\ No newline at end of file
@@ -0,0 +1,135 @@
+package xyz.dowob.filemanagement.exception;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 文件相關異常，當文件上傳、下載、儲存等操作發生錯誤時，將拋出此異常
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName FileException
+ * @description
+ * @create 2026-10-18 10:20
+ * @Version 1.0
+ **/
+@Getter
+public class FileException extends Exception {
+    /**
+     * 錯誤號碼
+     */
+    private final ErrorCode errorCode;
+
+    public FileException(ErrorCode errorCode, Object... args) {
+        super(String.format(errorCode.getMessage(), args));
+        this.errorCode = errorCode;
+    }
+
+    /**
+     * 內部類，定義錯誤碼以及錯誤信息
+     */
+    @Getter
+    @AllArgsConstructor
+    public enum ErrorCode {
+        /**
+         * 錯誤碼: 1201
+         * 錯誤信息: 文件不存在
+         */
+        FILE_NOT_FOUND(1201, "此文件不存在: %s"),
+        /**
+         * 錯誤碼: 1202
+         * 錯誤信息: 文件大小超過上限
+         */
+        FILE_TOO_LARGE(1202, "文件大小超過上限: %s bytes"),
+        /**
+         * 錯誤碼: 1203
+         * 錯誤信息: 上傳內容為空
+         */
+        FILE_IS_EMPTY(1203, "上傳的文件內容為空"),
+        /**
+         * 錯誤碼: 1204
+         * 錯誤信息: 文件儲存失敗
+         */
+        FILE_STORAGE_ERROR(1204, "文件儲存失敗: %s"),
+        /**
+         * 錯誤碼: 1205
+         * 錯誤信息: 上傳會話不存在
+         */
+        UPLOAD_SESSION_NOT_FOUND(1205, "此上傳會話不存在: %s"),
+        /**
+         * 錯誤碼: 1206
+         * 錯誤信息: 上傳會話狀態不允許此操作
+         */
+        UPLOAD_SESSION_STATE_INVALID(1206, "上傳會話目前的狀態不允許此操作: %s"),
+        /**
+         * 錯誤碼: 1207
+         * 錯誤信息: 分段不合法
+         */
+        UPLOAD_PART_INVALID(1207, "分段不合法: %s"),
+        /**
+         * 錯誤碼: 1208
+         * 錯誤信息: 尚有分段未上傳
+         */
+        UPLOAD_PARTS_MISSING(1208, "尚有分段未上傳: %s"),
+        /**
+         * 錯誤碼: 1209
+         * 錯誤信息: 區塊清單中有伺服器不存在的區塊
+         */
+        CHUNKS_MISSING(1209, "伺服器缺少以下區塊，請先上傳: %s"),
+        /**
+         * 錯誤碼: 1210
+         * 錯誤信息: 區塊不合法
+         */
+        CHUNK_INVALID(1210, "區塊不合法: %s"),
+        /**
+         * 錯誤碼: 1211
+         * 錯誤信息: 目錄不存在
+         */
+        DIRECTORY_NOT_FOUND(1211, "此目錄不存在: %s"),
+        /**
+         * 錯誤碼: 1212
+         * 錯誤信息: 同一目錄下已有相同名稱的子目錄
+         */
+        DIRECTORY_ALREADY_EXISTS(1212, "同一目錄下已有相同名稱的目錄: %s"),
+        /**
+         * 錯誤碼: 1213
+         * 錯誤信息: 目錄不能移動到自身或自身的子目錄中
+         */
+        DIRECTORY_MOVE_INVALID(1213, "目錄不能移動到自身或自身的子目錄中: %s"),
+        /**
+         * 錯誤碼: 1214
+         * 錯誤信息: 分頁游標不合法
+         */
+        LIST_CURSOR_INVALID(1214, "分頁游標不合法: %s"),
+        /**
+         * 錯誤碼: 1215
+         * 錯誤信息: 儲存空間不足
+         */
+        QUOTA_EXCEEDED(1215, "儲存空間不足，剩餘可用空間: %s bytes"),
+        /**
+         * 錯誤碼: 1216
+         * 錯誤信息: 增量同步會話不存在或已過期
+         */
+        DELTA_SESSION_NOT_FOUND(1216, "此文件沒有進行中的增量同步，請先預備: %s"),
+        /**
+         * 錯誤碼: 1217
+         * 錯誤信息: 目錄樹出現循環或超過最大深度
+         */
+        DIRECTORY_TREE_INVALID(1217, "目錄結構異常，祖先目錄出現循環或超過最大深度: %s"),
+        /**
+         * 錯誤碼: 1218
+         * 錯誤信息: 伺服器文件已被釋放
+         */
+        SERVER_FILE_RELEASED(1218, "伺服器文件已被釋放: %s");
+
+        /**
+         * 錯誤碼
+         */
+        private final int code;
+
+        /**
+         * 錯誤信息
+         */
+        private final String message;
+    }
+}
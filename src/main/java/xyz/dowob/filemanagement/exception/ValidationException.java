@@ -76,7 +76,22 @@ public class ValidationException extends Exception {
          * 錯誤碼: 1109
          * 錯誤信息: 驗證碼錯誤
          */
-        VERIFICATION_CODE_ERROR(1109, "驗證碼錯誤");
+        VERIFICATION_CODE_ERROR(1109, "驗證碼錯誤"),
+        /**
+         * 錯誤碼: 1110
+         * 錯誤信息: 文件名稱不合法
+         */
+        FILE_NAME_INVALID(1110, "此文件名稱不合法: %s"),
+        /**
+         * 錯誤碼: 1111
+         * 錯誤信息: 伺服器忙碌中，密碼驗證請求過多
+         */
+        PASSWORD_HASH_BUSY(1111, "伺服器忙碌中，請稍後再試"),
+        /**
+         * 錯誤碼: 1112
+         * 錯誤信息: 請求過於頻繁
+         */
+        TOO_MANY_REQUESTS(1112, "請求過於頻繁，請稍後再試");
 
 
 
@@ -2,5 +2,6 @@
  * 錯誤類型，自定義一些細部錯誤類型方便後期排查問題
  * 1. JwtAuthenticationException: JWT驗證異常 {@link xyz.dowob.filemanagement.exception.JwtAuthenticationException}
  * 2. ValidationException: 驗證異常 {@link xyz.dowob.filemanagement.exception.ValidationException}
+ * 3. FileException: 文件操作異常 {@link xyz.dowob.filemanagement.exception.FileException}
  */
 package xyz.dowob.filemanagement.exception;
\ No newline at end of file
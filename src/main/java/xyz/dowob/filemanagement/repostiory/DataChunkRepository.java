@@ -0,0 +1,105 @@
+package xyz.dowob.filemanagement.repostiory;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.entity.DataChunk;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * 資料區塊數據庫操作介面，用於操作DataChunk 實體與數據庫的轉換
+ * 繼承ReactiveCrudRepository接口，實現對DataChunk數據庫的非阻塞操作
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName DataChunkRepository
+ * @description
+ * @create 2026-10-18 14:25
+ * @Version 1.0
+ **/
+@Repository
+public interface DataChunkRepository extends ReactiveCrudRepository<DataChunk, Long> {
+    /**
+     * 根據雜湊值查詢區塊
+     *
+     * @param hash 區塊的SHA-256值
+     *
+     * @return 區塊
+     */
+    Mono<DataChunk> findByHash(String hash);
+
+    /**
+     * 查詢多個雜湊值對應的區塊
+     *
+     * @param hashes 區塊的SHA-256值
+     *
+     * @return 區塊列表
+     */
+    Flux<DataChunk> findAllByHashIn(Collection<String> hashes);
+
+    /**
+     * 查詢引用計數不大於指定值且在指定時間前建立的區塊，用於回收不再被使用的區塊
+     * 剛上傳尚未被文件引用的區塊會因為建立時間而被保留
+     *
+     * @param refCount   引用計數
+     * @param createTime 建立時間
+     *
+     * @return 區塊列表
+     */
+    Flux<DataChunk> findAllByRefCountLessThanEqualAndCreateTimeBefore(Long refCount, LocalDateTime createTime);
+
+    /**
+     * 增加區塊的引用計數
+     *
+     * @param hash  區塊的SHA-256值
+     * @param delta 增加的數量，可以為負數
+     *
+     * @return 更新的行數，0 表示區塊不存在
+     */
+    @Modifying
+    @Query("UPDATE data_chunks SET ref_count = ref_count + :delta WHERE hash = :hash")
+    Mono<Integer> addRefCount(String hash, long delta);
+
+    /**
+     * 刪除未被引用的區塊，引用計數在刪除前又被增加時不會刪除
+     *
+     * @param id 區塊ID
+     *
+     * @return 刪除的行數，0 表示區塊仍在使用中
+     */
+    @Modifying
+    @Query("DELETE FROM data_chunks WHERE id = :id AND ref_count <= 0")
+    Mono<Integer> deleteIfUnreferenced(Long id);
+
+    /**
+     * 依ID順序查詢內容存放於指定儲存後端、且所有引用它的文件在截止時間後都沒有被存取的區塊
+     * 區塊在文件間共用，只要有一個引用的文件仍然常被存取，區塊就不是冷資料
+     *
+     * @param keyPattern 儲存鍵值的 LIKE 條件，例如 local:%
+     * @param cutoff     截止時間
+     * @param afterId    只查詢ID大於此值的區塊，用於分頁
+     * @param limit      查詢數量
+     *
+     * @return 區塊列表
+     */
+    @Query("SELECT dc.* FROM data_chunks dc WHERE dc.storage_key LIKE :keyPattern AND dc.create_time < :cutoff AND dc.id > :afterId AND NOT EXISTS (SELECT 1 FROM file_chunks fc JOIN server_file_metadata sf ON sf.id = fc.server_file_id WHERE fc.chunk_hash = dc.hash AND COALESCE(sf.last_access_time, sf.upload_time) >= :cutoff) ORDER BY dc.id LIMIT :limit")
+    Flux<DataChunk> findColdChunks(String keyPattern, LocalDateTime cutoff, long afterId, int limit);
+
+    /**
+     * 儲存鍵值仍為預期值時才更新
+     *
+     * @param id          區塊ID
+     * @param expectedKey 預期的儲存鍵值
+     * @param newKey      新的儲存鍵值
+     *
+     * @return 更新的行數，0 表示儲存鍵值已經改變
+     */
+    @Modifying
+    @Query("UPDATE data_chunks SET storage_key = :newKey WHERE id = :id AND storage_key = :expectedKey")
+    Mono<Integer> compareAndSetStorageKey(Long id, String expectedKey, String newKey);
+}
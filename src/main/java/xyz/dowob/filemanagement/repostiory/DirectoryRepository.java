@@ -0,0 +1,61 @@
+package xyz.dowob.filemanagement.repostiory;
+
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.entity.Directory;
+
+/**
+ * 用戶目錄數據庫操作介面，用於操作Directory 實體與數據庫的轉換
+ * 繼承ReactiveCrudRepository接口，實現對Directory數據庫的非阻塞操作
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName DirectoryRepository
+ * @description
+ * @create 2026-10-19 04:12
+ * @Version 1.0
+ **/
+@Repository
+public interface DirectoryRepository extends ReactiveCrudRepository<Directory, Long> {
+    /**
+     * 根據目錄ID與用戶ID查詢目錄，用於確認目錄屬於該用戶
+     *
+     * @param id     目錄ID
+     * @param userId 用戶ID
+     *
+     * @return 目錄
+     */
+    Mono<Directory> findByIdAndUserId(Long id, Long userId);
+
+    /**
+     * 依名稱排序列出目錄下的子目錄，使用 (user_id, parent_id, name) 索引做範圍查詢
+     *
+     * @param userId   用戶ID
+     * @param parentId 父目錄ID
+     *
+     * @return 子目錄列表
+     */
+    Flux<Directory> findAllByUserIdAndParentIdOrderByName(Long userId, Long parentId);
+
+    /**
+     * 查詢目錄下指定名稱的子目錄
+     *
+     * @param userId   用戶ID
+     * @param parentId 父目錄ID
+     * @param name     目錄名稱
+     *
+     * @return 子目錄
+     */
+    Mono<Directory> findByUserIdAndParentIdAndName(Long userId, Long parentId, String name);
+
+    /**
+     * 查詢用戶的所有目錄，用於重新計算目錄統計時建立目錄樹
+     *
+     * @param userId 用戶ID
+     *
+     * @return 目錄列表
+     */
+    Flux<Directory> findAllByUserId(Long userId);
+}
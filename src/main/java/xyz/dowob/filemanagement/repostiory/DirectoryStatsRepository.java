@@ -0,0 +1,115 @@
+package xyz.dowob.filemanagement.repostiory;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.entity.DirectoryStats;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * 目錄統計數據庫操作介面，用於操作DirectoryStats 實體與數據庫的轉換
+ * 繼承ReactiveCrudRepository接口，實現對DirectoryStats數據庫的非阻塞操作
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName DirectoryStatsRepository
+ * @description
+ * @create 2026-10-19 05:44
+ * @Version 1.0
+ **/
+@Repository
+public interface DirectoryStatsRepository extends ReactiveCrudRepository<DirectoryStats, Long> {
+    /**
+     * 查詢目錄的統計
+     *
+     * @param userId      用戶ID
+     * @param directoryId 目錄ID，根目錄為 0
+     *
+     * @return 目錄統計
+     */
+    Mono<DirectoryStats> findByUserIdAndDirectoryId(Long userId, Long directoryId);
+
+    /**
+     * 查詢所有用戶同一個目錄ID的統計，以根目錄 0 查詢時即為每個用戶所有文件的合計
+     *
+     * @param directoryId 目錄ID
+     *
+     * @return 目錄統計列表
+     */
+    Flux<DirectoryStats> findAllByDirectoryId(Long directoryId);
+
+    /**
+     * 一次查詢多個目錄的統計，用於列出子目錄時帶上各自的大小
+     *
+     * @param userId       用戶ID
+     * @param directoryIds 目錄ID列表
+     *
+     * @return 目錄統計列表
+     */
+    Flux<DirectoryStats> findAllByUserIdAndDirectoryIdIn(Long userId, Collection<Long> directoryIds);
+
+    /**
+     * 將增量加到目錄的統計上，統計不存在時更新0行
+     *
+     * @param userId        用戶ID
+     * @param directoryId   目錄ID
+     * @param bytes         總大小的增量
+     * @param files         文件數量的增量
+     * @param image         照片數量的增量
+     * @param video         影片數量的增量
+     * @param music         音樂數量的增量
+     * @param document      文件類型數量的增量
+     * @param zip           壓縮檔數量的增量
+     * @param other         其他類型數量的增量
+     * @param updateTime    更新時間
+     *
+     * @return 更新的行數
+     */
+    @Modifying
+    @Query("UPDATE directory_stats SET total_bytes = total_bytes + :bytes, file_count = file_count + :files, " +
+           "image_count = image_count + :image, video_count = video_count + :video, music_count = music_count + :music, " +
+           "document_count = document_count + :document, zip_count = zip_count + :zip, other_count = other_count + :other, " +
+           "update_time = :updateTime WHERE user_id = :userId AND directory_id = :directoryId")
+    Mono<Integer> addDelta(
+            Long userId, Long directoryId, long bytes, long files, long image, long video, long music, long document, long zip, long other,
+            LocalDateTime updateTime);
+
+    /**
+     * 依目錄合計用戶直接放在每個目錄中的文件，不包含子目錄，用於重新計算統計
+     *
+     * @param userId 用戶ID
+     *
+     * @return 每個目錄的直接統計
+     */
+    @Query("SELECT user_id, directory_id, SUM(file_size) AS total_bytes, COUNT(*) AS file_count, " +
+           "SUM(CASE WHEN file_type = 'IMAGE' THEN 1 ELSE 0 END) AS image_count, " +
+           "SUM(CASE WHEN file_type = 'VIDEO' THEN 1 ELSE 0 END) AS video_count, " +
+           "SUM(CASE WHEN file_type = 'MUSIC' THEN 1 ELSE 0 END) AS music_count, " +
+           "SUM(CASE WHEN file_type = 'DOCUMENT' THEN 1 ELSE 0 END) AS document_count, " +
+           "SUM(CASE WHEN file_type = 'ZIP' THEN 1 ELSE 0 END) AS zip_count, " +
+           "SUM(CASE WHEN file_type = 'OTHER' THEN 1 ELSE 0 END) AS other_count " +
+           "FROM user_file_metadata WHERE user_id = :userId GROUP BY user_id, directory_id")
+    Flux<DirectoryStats> sumFilesByDirectory(Long userId);
+
+    /**
+     * 查詢所有擁有文件、目錄或統計的用戶ID，用於重新計算統計
+     *
+     * @return 用戶ID列表
+     */
+    @Query("SELECT user_id FROM user_file_metadata UNION SELECT user_id FROM directories UNION SELECT user_id FROM directory_stats")
+    Flux<Long> findAllUserIds();
+
+    /**
+     * 查詢用戶的所有目錄統計
+     *
+     * @param userId 用戶ID
+     *
+     * @return 目錄統計列表
+     */
+    Flux<DirectoryStats> findAllByUserId(Long userId);
+}
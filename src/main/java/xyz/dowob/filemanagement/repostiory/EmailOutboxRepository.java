@@ -0,0 +1,93 @@
+package xyz.dowob.filemanagement.repostiory;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.entity.EmailOutbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * 郵件發件匣數據庫操作介面，用於操作 EmailOutbox 實體與數據庫的轉換
+ * 繼承ReactiveCrudRepository接口，實現對EmailOutbox數據庫的非阻塞操作
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName EmailOutboxRepository
+ * @description
+ * @create 2026-10-18 23:10
+ * @Version 1.0
+ **/
+@Repository
+public interface EmailOutboxRepository extends ReactiveCrudRepository<EmailOutbox, Long> {
+    /**
+     * 查詢到達發送時間的郵件，包含租約已經到期的發送中郵件
+     *
+     * @param now   目前時間
+     * @param limit 最多返回的數量
+     *
+     * @return 郵件列表
+     */
+    @Query("SELECT * FROM email_outbox WHERE status IN ('PENDING', 'SENDING') AND next_attempt_time <= :now ORDER BY next_attempt_time LIMIT :limit")
+    Flux<EmailOutbox> findDue(LocalDateTime now, int limit);
+
+    /**
+     * 取出郵件準備發送，以嘗試次數作為版本號，只有在郵件未被其他發送程序取出時才會更新
+     *
+     * @param id               郵件ID
+     * @param expectedAttempts 查詢時的嘗試次數
+     * @param leaseUntil       租約到期時間
+     *
+     * @return 更新的行數，0 表示已被其他發送程序取出
+     */
+    @Modifying
+    @Query("UPDATE email_outbox SET status = 'SENDING', attempts = attempts + 1, next_attempt_time = :leaseUntil " +
+           "WHERE id = :id AND attempts = :expectedAttempts AND status IN ('PENDING', 'SENDING')")
+    Mono<Integer> claim(Long id, int expectedAttempts, LocalDateTime leaseUntil);
+
+    /**
+     * 將郵件標記為已發送並清空郵件內容，內容可能包含重置密碼連結等敏感資訊，發送後不再保留
+     * 只有嘗試次數仍為取出時的值才會更新，租約到期後郵件已被其他節點重新取出時，不會覆蓋其結果
+     *
+     * @param id              郵件ID
+     * @param claimedAttempts 取出後的嘗試次數
+     * @param sentTime        發送完成的時間
+     *
+     * @return 更新的行數，0 表示郵件已被重新取出
+     */
+    @Modifying
+    @Query("UPDATE email_outbox SET status = 'SENT', sent_time = :sentTime, last_error = NULL, content = '' " +
+           "WHERE id = :id AND attempts = :claimedAttempts AND status = 'SENDING'")
+    Mono<Integer> markSent(Long id, int claimedAttempts, LocalDateTime sentTime);
+
+    /**
+     * 記錄發送失敗，設定下次發送的時間或標記為失敗
+     * 只有嘗試次數仍為取出時的值才會更新，租約到期後郵件已被其他節點重新取出時，不會覆蓋其結果
+     *
+     * @param id              郵件ID
+     * @param claimedAttempts 取出後的嘗試次數
+     * @param status          新的狀態(PENDING 或 FAILED)
+     * @param nextAttemptTime 下次發送的時間
+     * @param lastError       失敗原因
+     *
+     * @return 更新的行數，0 表示郵件已被重新取出
+     */
+    @Modifying
+    @Query("UPDATE email_outbox SET status = :status, next_attempt_time = :nextAttemptTime, last_error = :lastError " +
+           "WHERE id = :id AND attempts = :claimedAttempts AND status = 'SENDING'")
+    Mono<Integer> markFailedAttempt(Long id, int claimedAttempts, String status, LocalDateTime nextAttemptTime, String lastError);
+
+    /**
+     * 刪除在指定時間之前已發送的郵件
+     *
+     * @param sentTime 發送完成的時間
+     *
+     * @return 刪除的行數
+     */
+    @Modifying
+    @Query("DELETE FROM email_outbox WHERE status = 'SENT' AND sent_time < :sentTime")
+    Mono<Integer> deleteSentBefore(LocalDateTime sentTime);
+}
@@ -0,0 +1,63 @@
+package xyz.dowob.filemanagement.repostiory;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.entity.FileChunk;
+
+import java.util.Collection;
+
+/**
+ * 區塊清單數據庫操作介面，用於操作FileChunk 實體與數據庫的轉換
+ * 繼承ReactiveCrudRepository接口，實現對FileChunk數據庫的非阻塞操作
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName FileChunkRepository
+ * @description
+ * @create 2026-10-18 14:26
+ * @Version 1.0
+ **/
+@Repository
+public interface FileChunkRepository extends ReactiveCrudRepository<FileChunk, Long> {
+    /**
+     * 依順序查詢伺服器文件的區塊清單
+     *
+     * @param serverFileId 伺服器文件ID
+     *
+     * @return 區塊清單
+     */
+    Flux<FileChunk> findAllByServerFileIdOrderByChunkIndex(Long serverFileId);
+
+    /**
+     * 依順序查詢與指定範圍重疊的區塊清單項目，用於範圍讀取時只讀取需要的區塊
+     *
+     * @param serverFileId 伺服器文件ID
+     * @param start        範圍起始位置(包含)
+     * @param end          範圍結束位置(不包含)
+     *
+     * @return 區塊清單
+     */
+    @Query("SELECT * FROM file_chunks WHERE server_file_id = :serverFileId AND chunk_offset < :end AND chunk_offset + chunk_size > :start ORDER BY chunk_index")
+    Flux<FileChunk> findAllInRange(Long serverFileId, long start, long end);
+
+    /**
+     * 查詢用戶自己的文件已經引用的區塊，只比對用戶的文件清單，不會透露其他用戶擁有的內容
+     *
+     * @param userId 用戶ID
+     * @param hashes 區塊的SHA-256值
+     *
+     * @return 用戶已經擁有的區塊雜湊值
+     */
+    @Query("SELECT DISTINCT fc.chunk_hash FROM file_chunks fc JOIN user_file_metadata uf ON uf.server_file_id = fc.server_file_id WHERE uf.user_id = :userId AND fc.chunk_hash IN (:hashes)")
+    Flux<String> findOwnedChunkHashes(Long userId, Collection<String> hashes);
+
+    /**
+     * 刪除伺服器文件的區塊清單
+     *
+     * @param serverFileId 伺服器文件ID
+     */
+    Mono<Void> deleteAllByServerFileId(Long serverFileId);
+}
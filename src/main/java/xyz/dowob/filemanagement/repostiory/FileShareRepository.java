@@ -0,0 +1,31 @@
+package xyz.dowob.filemanagement.repostiory;
+
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import xyz.dowob.filemanagement.entity.FileShare;
+
+import java.util.Collection;
+
+/**
+ * 文件分享數據庫操作介面，用於操作FileShare 實體與數據庫的轉換
+ * 繼承ReactiveCrudRepository接口，實現對FileShare數據庫的非阻塞操作
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName FileShareRepository
+ * @description
+ * @create 2026-10-19 07:12
+ * @Version 1.0
+ **/
+@Repository
+public interface FileShareRepository extends ReactiveCrudRepository<FileShare, Long> {
+    /**
+     * 以一次 IN 查詢取得多個用戶文件的分享記錄
+     *
+     * @param userFileIds 用戶文件ID
+     *
+     * @return 分享記錄
+     */
+    Flux<FileShare> findAllByUserFileIdIn(Collection<Long> userFileIds);
+}
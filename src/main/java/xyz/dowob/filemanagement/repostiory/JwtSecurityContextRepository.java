@@ -32,6 +32,11 @@ public class JwtSecurityContextRepository implements ServerSecurityContextReposi
      */
     private static final String TOKEN_PREFIX = "Bearer ";
 
+    /**
+     * 保存驗證結果的請求屬性名稱
+     */
+    private static final String CONTEXT_ATTRIBUTE = JwtSecurityContextRepository.class.getName() + ".CONTEXT";
+
     /**
      * JWT 驗證管理器
      */
@@ -53,6 +58,7 @@ public class JwtSecurityContextRepository implements ServerSecurityContextReposi
     /**
      * 從請求中獲取 JWT Token，若存在則進行驗證
      * 驗證成功則返回 SecurityContext
+     * 同一個請求中安全上下文會被多次讀取(授權過濾器、RequestContextFilter、控制器)，驗證結果保存在請求屬性中，只驗證一次
      *
      * @param exchange 請求
      *
@@ -60,11 +66,17 @@ public class JwtSecurityContextRepository implements ServerSecurityContextReposi
      */
     @Override
     public Mono<SecurityContext> load(ServerWebExchange exchange) {
+        Mono<SecurityContext> cached = exchange.getAttribute(CONTEXT_ATTRIBUTE);
+        if (cached != null) {
+            return cached;
+        }
         String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
         if (authHeader != null && authHeader.startsWith(TOKEN_PREFIX)) {
             String authToken = authHeader.substring(TOKEN_PREFIX.length());
             Authentication auth = new UsernamePasswordAuthenticationToken(authToken, authToken);
-            return authenticationManager.authenticate(auth).map(SecurityContextImpl::new);
+            Mono<SecurityContext> context = authenticationManager.authenticate(auth).<SecurityContext>map(SecurityContextImpl::new).cache();
+            exchange.getAttributes().put(CONTEXT_ATTRIBUTE, context);
+            return context;
         } else {
             return Mono.empty();
         }
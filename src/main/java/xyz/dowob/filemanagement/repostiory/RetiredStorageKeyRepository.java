@@ -0,0 +1,31 @@
+package xyz.dowob.filemanagement.repostiory;
+
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import xyz.dowob.filemanagement.entity.RetiredStorageKey;
+
+import java.time.LocalDateTime;
+
+/**
+ * 等待刪除的儲存內容數據庫操作介面，用於操作RetiredStorageKey 實體與數據庫的轉換
+ * 繼承ReactiveCrudRepository接口，實現對RetiredStorageKey數據庫的非阻塞操作
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName RetiredStorageKeyRepository
+ * @description
+ * @create 2026-10-19 15:22
+ * @Version 1.0
+ **/
+@Repository
+public interface RetiredStorageKeyRepository extends ReactiveCrudRepository<RetiredStorageKey, Long> {
+    /**
+     * 查詢在指定時間之前被取代的儲存內容
+     *
+     * @param retireTime 取代時間
+     *
+     * @return 等待刪除的儲存內容
+     */
+    Flux<RetiredStorageKey> findAllByRetireTimeBefore(LocalDateTime retireTime);
+}
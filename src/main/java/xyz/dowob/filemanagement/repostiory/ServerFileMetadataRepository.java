@@ -0,0 +1,76 @@
+package xyz.dowob.filemanagement.repostiory;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.entity.ServerFileMetadata;
+
+import java.time.LocalDateTime;
+
+/**
+ * 伺服器文件元數據數據庫操作介面，用於操作ServerFileMetadata 實體與數據庫的轉換
+ * 繼承ReactiveCrudRepository接口，實現對ServerFileMetadata數據庫的非阻塞操作
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName ServerFileMetadataRepository
+ * @description
+ * @create 2026-10-18 10:12
+ * @Version 1.0
+ **/
+@Repository
+public interface ServerFileMetadataRepository extends ReactiveCrudRepository<ServerFileMetadata, Long> {
+    /**
+     * 根據文件內容的摘要與大小查詢伺服器上已存在的文件，用於秒傳與上傳後去重
+     * 同時比對 SHA-256、MD5 與文件大小，避免單一摘要碰撞造成錯誤的共用
+     *
+     * @param sha256   文件的SHA-256值
+     * @param md5      文件的MD5值
+     * @param fileSize 文件大小
+     *
+     * @return 內容相同的伺服器文件
+     */
+    Mono<ServerFileMetadata> findFirstBySha256AndMd5AndFileSize(String sha256, String md5, Long fileSize);
+
+    /**
+     * 依ID順序查詢內容存放於指定儲存後端、且在截止時間後沒有被存取的單一文件，用於將冷資料移到較便宜的儲存層
+     * 從未被存取的文件以上傳時間判斷
+     *
+     * @param keyPattern 儲存鍵值的 LIKE 條件，例如 local:%
+     * @param cutoff     截止時間
+     * @param afterId    只查詢ID大於此值的文件，用於分頁
+     * @param limit      查詢數量
+     *
+     * @return 伺服器文件列表
+     */
+    @Query("SELECT * FROM server_file_metadata WHERE layout = 'SINGLE' AND grid_fs_id LIKE :keyPattern AND COALESCE(last_access_time, upload_time) < :cutoff AND id > :afterId ORDER BY id LIMIT :limit")
+    Flux<ServerFileMetadata> findColdSingleFiles(String keyPattern, LocalDateTime cutoff, long afterId, int limit);
+
+    /**
+     * 儲存鍵值仍為預期值時才更新，避免搬移內容期間文件被刪除或已經被其他搬移更新
+     *
+     * @param id          伺服器文件ID
+     * @param expectedKey 預期的儲存鍵值
+     * @param newKey      新的儲存鍵值
+     *
+     * @return 更新的行數，0 表示儲存鍵值已經改變
+     */
+    @Modifying
+    @Query("UPDATE server_file_metadata SET grid_fs_id = :newKey WHERE id = :id AND grid_fs_id = :expectedKey")
+    Mono<Integer> compareAndSetStorageKey(Long id, String expectedKey, String newKey);
+
+    /**
+     * 沒有任何用戶文件指向時才刪除伺服器文件，檢查與刪除在同一條語句中完成，避免計數後、刪除前有新的用戶文件指向它
+     *
+     * @param id 伺服器文件ID
+     *
+     * @return 刪除的行數，0 表示仍有用戶文件指向或已經被刪除
+     */
+    @Modifying
+    @Query("DELETE FROM server_file_metadata WHERE id = :id AND NOT EXISTS (SELECT 1 FROM user_file_metadata WHERE server_file_id = :id)")
+    Mono<Integer> deleteIfUnreferenced(Long id);
+
+}
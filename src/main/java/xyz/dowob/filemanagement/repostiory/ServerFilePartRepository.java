@@ -0,0 +1,79 @@
+package xyz.dowob.filemanagement.repostiory;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.entity.ServerFilePart;
+
+import java.time.LocalDateTime;
+
+/**
+ * 分段組合文件的分段數據庫操作介面，用於操作ServerFilePart 實體與數據庫的轉換
+ * 繼承ReactiveCrudRepository接口，實現對ServerFilePart數據庫的非阻塞操作
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName ServerFilePartRepository
+ * @description
+ * @create 2026-10-18 11:57
+ * @Version 1.0
+ **/
+@Repository
+public interface ServerFilePartRepository extends ReactiveCrudRepository<ServerFilePart, Long> {
+    /**
+     * 依分段順序查詢伺服器文件的所有分段
+     *
+     * @param serverFileId 伺服器文件ID
+     *
+     * @return 分段列表
+     */
+    Flux<ServerFilePart> findAllByServerFileIdOrderByPartIndex(Long serverFileId);
+
+    /**
+     * 依順序查詢與指定範圍重疊的分段，用於範圍讀取時只讀取需要的分段
+     *
+     * @param serverFileId 伺服器文件ID
+     * @param start        範圍起始位置(包含)
+     * @param end          範圍結束位置(不包含)
+     *
+     * @return 分段列表
+     */
+    @Query("SELECT * FROM server_file_parts WHERE server_file_id = :serverFileId AND part_offset < :end AND part_offset + part_size > :start ORDER BY part_index")
+    Flux<ServerFilePart> findAllInRange(Long serverFileId, long start, long end);
+
+    /**
+     * 刪除伺服器文件的所有分段記錄
+     *
+     * @param serverFileId 伺服器文件ID
+     */
+    Mono<Void> deleteAllByServerFileId(Long serverFileId);
+
+    /**
+     * 依ID順序查詢內容存放於指定儲存後端、且所屬文件在截止時間後沒有被存取的分段
+     *
+     * @param keyPattern 儲存鍵值的 LIKE 條件，例如 local:%
+     * @param cutoff     截止時間
+     * @param afterId    只查詢ID大於此值的分段，用於分頁
+     * @param limit      查詢數量
+     *
+     * @return 分段列表
+     */
+    @Query("SELECT p.* FROM server_file_parts p JOIN server_file_metadata sf ON sf.id = p.server_file_id WHERE p.storage_key LIKE :keyPattern AND COALESCE(sf.last_access_time, sf.upload_time) < :cutoff AND p.id > :afterId ORDER BY p.id LIMIT :limit")
+    Flux<ServerFilePart> findColdParts(String keyPattern, LocalDateTime cutoff, long afterId, int limit);
+
+    /**
+     * 儲存鍵值仍為預期值時才更新
+     *
+     * @param id          分段ID
+     * @param expectedKey 預期的儲存鍵值
+     * @param newKey      新的儲存鍵值
+     *
+     * @return 更新的行數，0 表示儲存鍵值已經改變
+     */
+    @Modifying
+    @Query("UPDATE server_file_parts SET storage_key = :newKey WHERE id = :id AND storage_key = :expectedKey")
+    Mono<Integer> compareAndSetStorageKey(Long id, String expectedKey, String newKey);
+}
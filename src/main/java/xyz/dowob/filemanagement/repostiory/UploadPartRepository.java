@@ -0,0 +1,47 @@
+package xyz.dowob.filemanagement.repostiory;
+
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.entity.UploadPart;
+
+/**
+ * 上傳分段數據庫操作介面，用於操作UploadPart 實體與數據庫的轉換
+ * 繼承ReactiveCrudRepository接口，實現對UploadPart數據庫的非阻塞操作
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName UploadPartRepository
+ * @description
+ * @create 2026-10-18 11:55
+ * @Version 1.0
+ **/
+@Repository
+public interface UploadPartRepository extends ReactiveCrudRepository<UploadPart, Long> {
+    /**
+     * 依分段編號排序查詢會話的所有分段
+     *
+     * @param sessionId 會話ID
+     *
+     * @return 分段列表
+     */
+    Flux<UploadPart> findAllBySessionIdOrderByPartNumber(Long sessionId);
+
+    /**
+     * 查詢會話中的指定分段
+     *
+     * @param sessionId  會話ID
+     * @param partNumber 分段編號
+     *
+     * @return 分段
+     */
+    Mono<UploadPart> findBySessionIdAndPartNumber(Long sessionId, Integer partNumber);
+
+    /**
+     * 刪除會話的所有分段記錄(不包含分段內容)
+     *
+     * @param sessionId 會話ID
+     */
+    Mono<Void> deleteAllBySessionId(Long sessionId);
+}
@@ -0,0 +1,70 @@
+package xyz.dowob.filemanagement.repostiory;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.entity.UploadSession;
+
+import java.time.LocalDateTime;
+
+/**
+ * 分段上傳會話數據庫操作介面，用於操作UploadSession 實體與數據庫的轉換
+ * 繼承ReactiveCrudRepository接口，實現對UploadSession數據庫的非阻塞操作
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName UploadSessionRepository
+ * @description
+ * @create 2026-10-18 11:52
+ * @Version 1.0
+ **/
+@Repository
+public interface UploadSessionRepository extends ReactiveCrudRepository<UploadSession, Long> {
+    /**
+     * 根據會話ID與用戶ID查詢會話，用於確認會話屬於該用戶
+     *
+     * @param id     會話ID
+     * @param userId 用戶ID
+     *
+     * @return 上傳會話
+     */
+    Mono<UploadSession> findByIdAndUserId(Long id, Long userId);
+
+    /**
+     * 以比較並交換的方式更新會話狀態，只有當前狀態符合預期時才會更新
+     * 用於避免同一個會話被重複合併或在合併時被取消
+     *
+     * @param id             會話ID
+     * @param expectedStatus 預期的當前狀態
+     * @param newStatus      新的狀態
+     *
+     * @return 更新的行數，0 表示狀態不符合預期
+     */
+    @Modifying
+    @Query("UPDATE upload_sessions SET status = :newStatus WHERE id = :id AND status = :expectedStatus")
+    Mono<Integer> compareAndSetStatus(Long id, String expectedStatus, String newStatus);
+
+    /**
+     * 鎖定仍在上傳中的會話這一行直到交易結束，用於讓保存分段與合併時的狀態變更互斥
+     * 需要在交易中呼叫，否則語句結束時鎖就會釋放
+     *
+     * @param id 會話ID
+     *
+     * @return 會話ID，會話不存在或已經不在上傳中時為空
+     */
+    @Query("SELECT id FROM upload_sessions WHERE id = :id AND status = 'UPLOADING' FOR UPDATE")
+    Mono<Long> lockUploading(Long id);
+
+    /**
+     * 查詢指定狀態且已經過期的會話
+     *
+     * @param status     會話狀態
+     * @param expireTime 過期時間
+     *
+     * @return 上傳會話列表
+     */
+    Flux<UploadSession> findAllByStatusAndExpireTimeBefore(String status, LocalDateTime expireTime);
+}
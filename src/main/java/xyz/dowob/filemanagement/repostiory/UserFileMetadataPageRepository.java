@@ -0,0 +1,35 @@
+package xyz.dowob.filemanagement.repostiory;
+
+import reactor.core.publisher.Flux;
+import xyz.dowob.filemanagement.customenum.FileSortEnum;
+import xyz.dowob.filemanagement.entity.UserFileMetadata;
+
+/**
+ * 用戶文件元數據的分頁查詢介面，作為 UserFileMetadataRepository 的片段
+ * 排序欄位與方向由請求決定，無法以固定的派生查詢表示，因此由實現類組合查詢條件
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName UserFileMetadataPageRepository
+ * @description
+ * @create 2026-10-19 05:12
+ * @Version 1.0
+ **/
+public interface UserFileMetadataPageRepository {
+    /**
+     * 以鍵值分頁列出目錄中的文件
+     * 查詢條件為 (排序欄位, id) 大於(或小於)上一頁最後一筆，並以同樣的順序排序後取 limit 筆，不使用 OFFSET
+     *
+     * @param userId      用戶ID
+     * @param directoryId 目錄ID
+     * @param sort        排序欄位
+     * @param descending  是否由大到小排序
+     * @param afterValue  上一頁最後一筆的排序欄位值，第一頁為空
+     * @param afterId     上一頁最後一筆的用戶文件ID，第一頁為空
+     * @param limit       筆數上限
+     *
+     * @return 用戶文件列表
+     */
+    Flux<UserFileMetadata> findPageByDirectory(
+            Long userId, Long directoryId, FileSortEnum sort, boolean descending, Object afterValue, Long afterId, int limit);
+}
@@ -0,0 +1,63 @@
+package xyz.dowob.filemanagement.repostiory;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import reactor.core.publisher.Flux;
+import xyz.dowob.filemanagement.customenum.FileSortEnum;
+import xyz.dowob.filemanagement.entity.UserFileMetadata;
+
+/**
+ * 用戶文件元數據分頁查詢的實現類，以 R2dbcEntityTemplate 組合查詢條件
+ * 實現接口 @see {@link UserFileMetadataPageRepository}
+ * 由 Spring Data 合併到 UserFileMetadataRepository，呼叫時同樣經過 Repository 的耗時記錄
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName UserFileMetadataPageRepositoryImpl
+ * @description
+ * @create 2026-10-19 05:14
+ * @Version 1.0
+ **/
+@RequiredArgsConstructor
+public class UserFileMetadataPageRepositoryImpl implements UserFileMetadataPageRepository {
+    /**
+     * R2DBC 實體操作模板
+     */
+    private final R2dbcEntityTemplate r2dbcEntityTemplate;
+
+    /**
+     * 以鍵值分頁列出目錄中的文件
+     * 條件展開為 欄位 > 值 OR (欄位 = 值 AND id > ID)，可以直接使用 (user_id, directory_id, 欄位) 索引做範圍掃描
+     *
+     * @param userId      用戶ID
+     * @param directoryId 目錄ID
+     * @param sort        排序欄位
+     * @param descending  是否由大到小排序
+     * @param afterValue  上一頁最後一筆的排序欄位值
+     * @param afterId     上一頁最後一筆的用戶文件ID
+     * @param limit       筆數上限
+     *
+     * @return 用戶文件列表
+     */
+    @Override
+    public Flux<UserFileMetadata> findPageByDirectory(
+            Long userId, Long directoryId, FileSortEnum sort, boolean descending, Object afterValue, Long afterId, int limit) {
+        Criteria criteria = Criteria.where("userId").is(userId).and("directoryId").is(directoryId);
+        if (afterValue != null && afterId != null) {
+            Criteria after = descending ? Criteria
+                    .where(sort.getProperty())
+                    .lessThan(afterValue)
+                    .or(Criteria.where(sort.getProperty()).is(afterValue).and("id").lessThan(afterId)) : Criteria
+                    .where(sort.getProperty())
+                    .greaterThan(afterValue)
+                    .or(Criteria.where(sort.getProperty()).is(afterValue).and("id").greaterThan(afterId));
+            criteria = criteria.and(after);
+        }
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Query query = Query.query(criteria).sort(Sort.by(direction, sort.getProperty(), "id")).limit(limit);
+        return r2dbcEntityTemplate.select(query, UserFileMetadata.class);
+    }
+}
@@ -0,0 +1,61 @@
+package xyz.dowob.filemanagement.repostiory;
+
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.entity.UserFileMetadata;
+
+import java.util.Collection;
+
+/**
+ * 用戶文件元數據數據庫操作介面，用於操作UserFileMetadata 實體與數據庫的轉換
+ * 繼承ReactiveCrudRepository接口，實現對UserFileMetadata數據庫的非阻塞操作
+ * 目錄中文件的鍵值分頁查詢由 UserFileMetadataPageRepository 片段提供 {@link UserFileMetadataPageRepository}
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName UserFileMetadataRepository
+ * @description
+ * @create 2026-10-18 10:14
+ * @Version 1.0
+ **/
+@Repository
+public interface UserFileMetadataRepository extends ReactiveCrudRepository<UserFileMetadata, Long>, UserFileMetadataPageRepository {
+    /**
+     * 查詢用戶擁有的所有文件
+     *
+     * @param userId 用戶ID
+     *
+     * @return 用戶文件列表
+     */
+    Flux<UserFileMetadata> findAllByUserId(Long userId);
+
+    /**
+     * 根據文件ID與用戶ID查詢文件，用於確認文件屬於該用戶
+     *
+     * @param id     文件ID
+     * @param userId 用戶ID
+     *
+     * @return 用戶文件
+     */
+    Mono<UserFileMetadata> findByIdAndUserId(Long id, Long userId);
+
+    /**
+     * 查詢指向同一個伺服器文件的所有用戶文件，即該伺服器文件的擁有者
+     *
+     * @param serverFileId 伺服器文件ID
+     *
+     * @return 用戶文件列表
+     */
+    Flux<UserFileMetadata> findAllByServerFileId(Long serverFileId);
+
+    /**
+     * 以一次 IN 查詢取得指向多個伺服器文件的所有用戶文件，用於批次載入伺服器文件的擁有者
+     *
+     * @param serverFileIds 伺服器文件ID
+     *
+     * @return 用戶文件列表
+     */
+    Flux<UserFileMetadata> findAllByServerFileIdIn(Collection<Long> serverFileIds);
+}
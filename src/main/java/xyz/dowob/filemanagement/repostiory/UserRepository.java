@@ -1,5 +1,6 @@
 package xyz.dowob.filemanagement.repostiory;
 
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import reactor.core.publisher.Mono;
 import xyz.dowob.filemanagement.entity.User;
@@ -18,4 +19,15 @@ public interface UserRepository extends ReactiveCrudRepository<User, Long> {
     Mono<User> findByUsername(String username);
     Mono<User> findByEmail(String email);
 
+    /**
+     * 鎖定用戶這一行直到交易結束，用於串行化同一用戶會改動目錄樹結構的操作
+     * 需要在交易中呼叫，否則語句結束時鎖就會釋放
+     *
+     * @param userId 用戶ID
+     *
+     * @return 用戶ID，用戶不存在時為空
+     */
+    @Query("SELECT id FROM users WHERE id = :userId FOR UPDATE")
+    Mono<Long> lockById(Long userId);
+
 }
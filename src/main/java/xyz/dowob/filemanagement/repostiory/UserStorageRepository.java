@@ -0,0 +1,46 @@
+package xyz.dowob.filemanagement.repostiory;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.entity.UserStorage;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用戶儲存空間數據庫操作介面，用於操作UserStorage 實體與數據庫的轉換
+ * 繼承ReactiveCrudRepository接口，實現對UserStorage數據庫的非阻塞操作
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName UserStorageRepository
+ * @description
+ * @create 2026-10-19 06:42
+ * @Version 1.0
+ **/
+@Repository
+public interface UserStorageRepository extends ReactiveCrudRepository<UserStorage, Long> {
+    /**
+     * 查詢用戶的儲存空間記錄
+     *
+     * @param userId 用戶ID
+     *
+     * @return 用戶儲存空間
+     */
+    Mono<UserStorage> findByUserId(Long userId);
+
+    /**
+     * 寫入已使用空間的檢查點，只更新已使用的空間，不會覆蓋配額
+     *
+     * @param userId     用戶ID
+     * @param usedBytes  已使用的空間
+     * @param updateTime 更新時間
+     *
+     * @return 更新的行數
+     */
+    @Modifying
+    @Query("UPDATE user_storage SET used_bytes = :usedBytes, update_time = :updateTime WHERE user_id = :userId")
+    Mono<Integer> updateUsedBytes(Long userId, long usedBytes, LocalDateTime updateTime);
+}
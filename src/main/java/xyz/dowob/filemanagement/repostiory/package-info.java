@@ -3,5 +3,19 @@
  * 1. JwtSecurityContextRepository: 用於加載JWT SecurityContext
  * 2. UserRepository: 用於操作用戶數據庫 {@link xyz.dowob.filemanagement.entity.User}
  * 3. TokenRepository: 用於操作憑證數據庫 {@link xyz.dowob.filemanagement.entity.Token}
+ * 4. ServerFileMetadataRepository: 用於操作伺服器文件元數據庫 {@link xyz.dowob.filemanagement.entity.ServerFileMetadata}
+ * 5. UserFileMetadataRepository: 用於操作用戶文件元數據庫 {@link xyz.dowob.filemanagement.entity.UserFileMetadata}
+ * 6. UploadSessionRepository: 用於操作分段上傳會話數據庫 {@link xyz.dowob.filemanagement.entity.UploadSession}
+ * 7. UploadPartRepository: 用於操作上傳分段數據庫 {@link xyz.dowob.filemanagement.entity.UploadPart}
+ * 8. ServerFilePartRepository: 用於操作分段組合文件的分段數據庫 {@link xyz.dowob.filemanagement.entity.ServerFilePart}
+ * 9. DataChunkRepository: 用於操作資料區塊數據庫 {@link xyz.dowob.filemanagement.entity.DataChunk}
+ * 10. FileChunkRepository: 用於操作區塊清單數據庫 {@link xyz.dowob.filemanagement.entity.FileChunk}
+ * 11. EmailOutboxRepository: 用於操作郵件發件匣數據庫 {@link xyz.dowob.filemanagement.entity.EmailOutbox}
+ * 12. DirectoryRepository: 用於操作用戶目錄數據庫 {@link xyz.dowob.filemanagement.entity.Directory}
+ * 13. UserFileMetadataPageRepository: UserFileMetadataRepository 的鍵值分頁查詢片段 {@link xyz.dowob.filemanagement.entity.UserFileMetadata}
+ * 14. DirectoryStatsRepository: 用於操作目錄統計數據庫 {@link xyz.dowob.filemanagement.entity.DirectoryStats}
+ * 15. UserStorageRepository: 用於操作用戶儲存空間數據庫 {@link xyz.dowob.filemanagement.entity.UserStorage}
+ * 16. FileShareRepository: 用於操作文件分享記錄數據庫 {@link xyz.dowob.filemanagement.entity.FileShare}
+ * 17. RetiredStorageKeyRepository: 用於操作等待刪除的儲存內容數據庫 {@link xyz.dowob.filemanagement.entity.RetiredStorageKey}
  */
 package xyz.dowob.filemanagement.repostiory;
\ No newline at end of file
@@ -1,10 +1,11 @@
 package xyz.dowob.filemanagement.service.ServiceImpl;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.component.manager.PasswordHashManager;
+import xyz.dowob.filemanagement.component.manager.RateLimitManager;
 import xyz.dowob.filemanagement.customenum.TokenEnum;
 import xyz.dowob.filemanagement.dto.user.AuthRequestDTO;
 import xyz.dowob.filemanagement.entity.User;
@@ -34,9 +35,14 @@ public class AuthorizationServiceImpl implements AuthorizationService {
     private final UserRepository userRepository;
 
     /**
-     * 密碼加密器(採用BCrypt加密)
+     * 密碼雜湊的執行管理，BCrypt 的計算在專用線程池中執行
      */
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashManager passwordHashManager;
+
+    /**
+     * 速率限制管理
+     */
+    private final RateLimitManager rateLimitManager;
 
     /**
      * 憑證服務
@@ -72,6 +78,8 @@ public class AuthorizationServiceImpl implements AuthorizationService {
      * 根據用戶名和密碼進行授權
      * 當用戶名和密碼正確時，返回用戶對象
      * 當用戶名或密碼錯誤時，返回錯誤信息
+     * 同一個用戶名的登入嘗試超過速率限制時返回 TOO_MANY_REQUESTS 錯誤
+     * 密碼比對在專用線程池中執行，線程池已滿時返回 PASSWORD_HASH_BUSY 錯誤
      *
      * @param authRequestDTO 用戶驗證請求對象
      *
@@ -79,16 +87,17 @@ public class AuthorizationServiceImpl implements AuthorizationService {
      */
     @Override
     public Mono<String> authenticate(AuthRequestDTO authRequestDTO, ServerWebExchange request) {
-        return userRepository
-                .findByUsername(authRequestDTO.getUsername())
+        return rateLimitManager
+                .checkAccount("login", authRequestDTO.getUsername())
+                .then(Mono.defer(() -> userRepository.findByUsername(authRequestDTO.getUsername())))
                 .switchIfEmpty(Mono.error(new ValidationException(ValidationException.ErrorCode.USERNAME_OR_PASSWORD_ERROR)))
-                .flatMap(user -> {
-                    if (passwordEncoder.matches(authRequestDTO.getPassword(), user.getPassword())) {
+                .flatMap(user -> passwordHashManager.matches(authRequestDTO.getPassword(), user.getPassword()).flatMap(matches -> {
+                    if (matches) {
                         Mono<Void> sessionMono = request != null ? setSessionAuthorization(request, user) : Mono.empty();
                         return sessionMono.then(tokenService.generateToken(user, TokenEnum.JWT_AUTHORIZATION_TOKEN));
                     }
                     return Mono.error(new ValidationException(ValidationException.ErrorCode.USERNAME_OR_PASSWORD_ERROR));
-                });
+                }));
     }
 
     /**
@@ -0,0 +1,479 @@
+package xyz.dowob.filemanagement.service.ServiceImpl;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.component.factory.StorageStrategyFactory;
+import xyz.dowob.filemanagement.entity.DataChunk;
+import xyz.dowob.filemanagement.entity.FileChunk;
+import xyz.dowob.filemanagement.exception.FileException;
+import xyz.dowob.filemanagement.repostiory.DataChunkRepository;
+import xyz.dowob.filemanagement.repostiory.FileChunkRepository;
+import xyz.dowob.filemanagement.service.ServiceInterFace.ChunkStoreService;
+import xyz.dowob.filemanagement.utils.FastCdcChunker;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 區塊儲存業務邏輯實現類
+ * 實現接口 @see {@link ChunkStoreService}
+ * 文件內容以 FastCDC 切塊，每個區塊以 SHA-256 為鍵值只存放一次，文件本身只保存依序排列的區塊清單
+ * 區塊的引用計數在存放時增加、文件被去重或刪除時減少，計數為0的區塊由排程任務回收
+ * 回收時以條件刪除確保區塊在刪除前沒有被重新引用，存放時若引用計數更新失敗則重新寫入區塊
+ * 客戶端單獨上傳的區塊引用計數為0，回收時只處理建立超過保留時間的區塊，讓這些區塊有時間被提交的文件清單引用
+ * 一般上傳預設不切塊(file.storage.chunking.enabled 為 false)，仍以單一儲存鍵值存放，保留 GridFS 的偏移讀取與本機儲存的零複製下載；
+ * 增量同步提交的文件不受此設定影響，一律以區塊清單存放
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName ChunkStoreServiceImpl
+ * @description
+ * @create 2026-10-18 14:35
+ * @Version 1.0
+ **/
+@Log4j2
+@Service
+public class ChunkStoreServiceImpl implements ChunkStoreService {
+    /**
+     * 資料區塊數據庫操作對象
+     */
+    private final DataChunkRepository dataChunkRepository;
+
+    /**
+     * 區塊清單數據庫操作對象
+     */
+    private final FileChunkRepository fileChunkRepository;
+
+    /**
+     * 儲存策略工廠，寫入時使用配置的儲存後端，讀取與刪除時依照儲存鍵值選擇儲存後端
+     */
+    private final StorageStrategyFactory storageStrategyFactory;
+
+    /**
+     * 內容定義切塊器
+     */
+    private final FastCdcChunker chunker;
+
+    /**
+     * 是否啟用區塊儲存，從配置文件中獲取
+     */
+    private final boolean enabled;
+
+    /**
+     * 同時寫入區塊的數量，從配置文件中獲取
+     */
+    private final int storeConcurrency;
+
+    /**
+     * 引用計數為0的區塊在建立後至少保留的時間，讓客戶端上傳的區塊有時間被提交的文件清單引用
+     */
+    private final Duration gcGracePeriod;
+
+    /**
+     * 單次查詢區塊時 IN 條件中的雜湊值數量上限
+     */
+    private static final int QUERY_BATCH_SIZE = 1000;
+
+    /**
+     * 建立區塊儲存服務
+     *
+     * @param dataChunkRepository    資料區塊數據庫操作對象
+     * @param fileChunkRepository    區塊清單數據庫操作對象
+     * @param storageStrategyFactory 儲存策略工廠
+     * @param enabled                是否啟用區塊儲存
+     * @param minChunkSize           區塊最小大小
+     * @param avgChunkSize           區塊平均大小
+     * @param maxChunkSize           區塊最大大小
+     * @param storeConcurrency       同時寫入區塊的數量
+     * @param gcGraceMinutes         引用計數為0的區塊在建立後至少保留的分鐘數
+     */
+    public ChunkStoreServiceImpl(
+            DataChunkRepository dataChunkRepository, FileChunkRepository fileChunkRepository, StorageStrategyFactory storageStrategyFactory,
+            @Value("${file.storage.chunking.enabled: false}") boolean enabled,
+            @Value("${file.storage.chunking.min-size: 262144}") int minChunkSize,
+            @Value("${file.storage.chunking.avg-size: 1048576}") int avgChunkSize,
+            @Value("${file.storage.chunking.max-size: 4194304}") int maxChunkSize,
+            @Value("${file.storage.chunking.store-concurrency: 4}") int storeConcurrency,
+            @Value("${file.storage.chunking.gc-grace-minutes: 1440}") long gcGraceMinutes) {
+        this.dataChunkRepository = dataChunkRepository;
+        this.fileChunkRepository = fileChunkRepository;
+        this.storageStrategyFactory = storageStrategyFactory;
+        this.enabled = enabled;
+        this.chunker = new FastCdcChunker(minChunkSize, avgChunkSize, maxChunkSize);
+        this.storeConcurrency = storeConcurrency;
+        this.gcGracePeriod = Duration.ofMinutes(gcGraceMinutes);
+    }
+
+    /**
+     * 是否啟用區塊儲存
+     *
+     * @return 是否啟用
+     */
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 取得伺服器使用的切塊器
+     *
+     * @return 切塊器
+     */
+    @Override
+    public FastCdcChunker getChunker() {
+        return chunker;
+    }
+
+    /**
+     * 查詢伺服器已經存在的區塊，雜湊值較多時分批查詢
+     *
+     * @param hashes 區塊的SHA-256值
+     *
+     * @return 以雜湊值為鍵的區塊
+     */
+    @Override
+    public Mono<Map<String, DataChunk>> findChunks(Collection<String> hashes) {
+        return Flux
+                .fromIterable(hashes)
+                .distinct()
+                .buffer(QUERY_BATCH_SIZE)
+                .concatMap(dataChunkRepository::findAllByHashIn)
+                .collectMap(DataChunk::getHash, Function.identity());
+    }
+
+    /**
+     * 查詢用戶自己的文件已經引用的區塊
+     *
+     * @param userId 用戶ID
+     * @param hashes 區塊的SHA-256值
+     *
+     * @return 用戶已經擁有的區塊雜湊值
+     */
+    @Override
+    public Mono<Set<String>> findOwnedChunks(Long userId, Collection<String> hashes) {
+        return Flux
+                .fromIterable(hashes)
+                .distinct()
+                .buffer(QUERY_BATCH_SIZE)
+                .concatMap(batch -> fileChunkRepository.findOwnedChunkHashes(userId, batch))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * 上傳單一區塊
+     * 內容最多只會讀取最大區塊大小，超過時直接拒絕
+     *
+     * @param hash    區塊的SHA-256值
+     * @param content 區塊內容的資料流
+     */
+    @Override
+    public Mono<Void> putChunk(String hash, Flux<DataBuffer> content) {
+        String normalizedHash = hash.toLowerCase(Locale.ROOT);
+        return DataBufferUtils
+                .join(content, chunker.getMaxSize())
+                .onErrorMap(DataBufferLimitException.class,
+                            e -> new FileException(FileException.ErrorCode.CHUNK_INVALID, "區塊大小超過上限 " + chunker.getMaxSize()))
+                .map(dataBuffer -> {
+                    byte[] chunk = new byte[dataBuffer.readableByteCount()];
+                    dataBuffer.read(chunk);
+                    DataBufferUtils.release(dataBuffer);
+                    return chunk;
+                })
+                .filter(chunk -> chunk.length > 0)
+                .switchIfEmpty(Mono.error(() -> new FileException(FileException.ErrorCode.CHUNK_INVALID, "區塊內容為空")))
+                .flatMap(chunk -> {
+                    if (!sha256Hex(chunk).equals(normalizedHash)) {
+                        return Mono.error(new FileException(FileException.ErrorCode.CHUNK_INVALID, "區塊內容與雜湊值不符 " + normalizedHash));
+                    }
+                    return dataChunkRepository
+                            .findByHash(normalizedHash)
+                            .hasElement()
+                            .flatMap(exists -> exists ? Mono.empty() : insertChunk(normalizedHash, chunk, 0L).then());
+                });
+    }
+
+    /**
+     * 將文件內容切塊並存放
+     * 切塊在串流中進行，最多只會緩存兩個最大區塊大小的資料，區塊以有限的並發數寫入並保持原本的順序
+     *
+     * @param content 文件內容的資料流
+     *
+     * @return 區塊清單
+     */
+    @Override
+    public Mono<List<FileChunk>> storeChunks(Flux<DataBuffer> content) {
+        return Mono.defer(() -> {
+            FastCdcChunker.Stream stream = chunker.newStream();
+            List<FileChunk> acquired = Collections.synchronizedList(new ArrayList<>());
+            Flux<byte[]> chunks = content
+                    .concatMapIterable(dataBuffer -> {
+                        try (DataBuffer.ByteBufferIterator iterator = dataBuffer.readableByteBuffers()) {
+                            List<byte[]> completed = new ArrayList<>();
+                            while (iterator.hasNext()) {
+                                completed.addAll(stream.update(iterator.next()));
+                            }
+                            return completed;
+                        } finally {
+                            DataBufferUtils.release(dataBuffer);
+                        }
+                    })
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(stream.finish())));
+
+            return chunks
+                    .flatMapSequential(chunk -> acquireChunk(chunk).map(hash -> {
+                        FileChunk fileChunk = new FileChunk();
+                        fileChunk.setChunkHash(hash);
+                        fileChunk.setChunkSize(chunk.length);
+                        acquired.add(fileChunk);
+                        return fileChunk;
+                    }), storeConcurrency)
+                    .collectList()
+                    .map(manifest -> {
+                        long offset = 0;
+                        for (int i = 0; i < manifest.size(); i++) {
+                            FileChunk fileChunk = manifest.get(i);
+                            fileChunk.setChunkIndex(i);
+                            fileChunk.setChunkOffset(offset);
+                            offset += fileChunk.getChunkSize();
+                        }
+                        return manifest;
+                    })
+                    .onErrorResume(e -> releaseChunks(new ArrayList<>(acquired)).then(Mono.error(e)));
+        });
+    }
+
+    /**
+     * 取得一次區塊的引用
+     * 1. 區塊已存在時直接增加引用計數
+     * 2. 區塊不存在時寫入內容並新增記錄
+     * 3. 新增記錄時若其他請求已經寫入相同區塊(唯一索引衝突)，刪除剛寫入的內容並改為增加引用計數
+     *
+     * @param chunk 區塊內容
+     *
+     * @return 區塊的SHA-256值
+     */
+    private Mono<String> acquireChunk(byte[] chunk) {
+        String hash = sha256Hex(chunk);
+        return dataChunkRepository
+                .addRefCount(hash, 1)
+                .flatMap(updated -> updated > 0 ? Mono.just(hash) : insertChunk(hash, chunk, 1L));
+    }
+
+    /**
+     * 寫入區塊內容並新增記錄
+     * 新增記錄時若其他請求已經寫入相同區塊(唯一索引衝突)，刪除剛寫入的內容並改為增加引用計數
+     *
+     * @param hash       區塊的SHA-256值
+     * @param chunk      區塊內容
+     * @param initialRef 初始的引用計數
+     *
+     * @return 區塊的SHA-256值
+     */
+    private Mono<String> insertChunk(String hash, byte[] chunk, long initialRef) {
+        return storageStrategyFactory
+                .getStorageProviderBySize(chunk.length)
+                .store(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(chunk)), "chunk-" + hash, MediaType.APPLICATION_OCTET_STREAM_VALUE)
+                .flatMap(storageKey -> {
+                    DataChunk dataChunk = new DataChunk();
+                    dataChunk.setHash(hash);
+                    dataChunk.setStorageKey(storageKey);
+                    dataChunk.setChunkSize(chunk.length);
+                    dataChunk.setRefCount(initialRef);
+                    dataChunk.setCreateTime(LocalDateTime.now());
+                    return dataChunkRepository
+                            .save(dataChunk)
+                            .thenReturn(hash)
+                            .onErrorResume(DataIntegrityViolationException.class, e -> storageStrategyFactory
+                                    .getStorageProvider(storageKey)
+                                    .delete(storageKey)
+                                    .then(initialRef > 0 ? dataChunkRepository.addRefCount(hash, initialRef) : Mono.just(1))
+                                    .flatMap(retried -> retried > 0 ? Mono.just(hash) : Mono.error(e)));
+                });
+    }
+
+    /**
+     * 依照區塊雜湊值清單取得每個區塊的一次引用並建立區塊清單
+     * 1. 一次查詢所有區塊，有不存在的區塊時直接返回錯誤
+     * 2. 同一個區塊出現多次時一次增加對應的引用計數
+     * 3. 增加引用時區塊剛好被回收，釋放已取得的引用並返回錯誤
+     *
+     * @param hashes 依序排列的區塊SHA-256值
+     *
+     * @return 尚未關聯伺服器文件的區塊清單
+     */
+    @Override
+    public Mono<List<FileChunk>> acquireManifest(List<String> hashes) {
+        Map<String, Long> counts = hashes.stream().collect(Collectors.groupingBy(Function.identity(), LinkedHashMap::new, Collectors.counting()));
+        return findChunks(counts.keySet()).flatMap(chunkMap -> {
+            List<String> missing = counts.keySet().stream().filter(hash -> !chunkMap.containsKey(hash)).toList();
+            if (!missing.isEmpty()) {
+                return Mono.error(new FileException(FileException.ErrorCode.CHUNKS_MISSING, missing));
+            }
+            Map<String, Long> acquired = new LinkedHashMap<>();
+            return Flux
+                    .fromIterable(counts.entrySet())
+                    .concatMap(entry -> dataChunkRepository.addRefCount(entry.getKey(), entry.getValue()).flatMap(updated -> {
+                        if (updated > 0) {
+                            acquired.put(entry.getKey(), entry.getValue());
+                            return Mono.empty();
+                        }
+                        return Mono.just(entry.getKey());
+                    }))
+                    .collectList()
+                    .flatMap(missingAfterAcquire -> {
+                        if (!missingAfterAcquire.isEmpty()) {
+                            return releaseCounts(acquired).then(Mono.error(new FileException(FileException.ErrorCode.CHUNKS_MISSING,
+                                                                                              missingAfterAcquire)));
+                        }
+                        List<FileChunk> manifest = new ArrayList<>(hashes.size());
+                        long offset = 0;
+                        for (String hash : hashes) {
+                            FileChunk fileChunk = new FileChunk();
+                            fileChunk.setChunkIndex(manifest.size());
+                            fileChunk.setChunkOffset(offset);
+                            fileChunk.setChunkSize(chunkMap.get(hash).getChunkSize());
+                            fileChunk.setChunkHash(hash);
+                            manifest.add(fileChunk);
+                            offset += fileChunk.getChunkSize();
+                        }
+                        return Mono.just(manifest);
+                    });
+        });
+    }
+
+    /**
+     * 保存伺服器文件的區塊清單
+     *
+     * @param serverFileId 伺服器文件ID
+     * @param manifest     區塊清單
+     */
+    @Override
+    public Mono<Void> saveManifest(Long serverFileId, List<FileChunk> manifest) {
+        manifest.forEach(fileChunk -> fileChunk.setServerFileId(serverFileId));
+        return fileChunkRepository.saveAll(manifest).then();
+    }
+
+    /**
+     * 釋放區塊清單中每個區塊的一次引用，同一個區塊出現多次時一次扣除
+     *
+     * @param manifest 區塊清單
+     */
+    @Override
+    public Mono<Void> releaseChunks(List<FileChunk> manifest) {
+        return releaseCounts(manifest.stream().collect(Collectors.groupingBy(FileChunk::getChunkHash, Collectors.counting())));
+    }
+
+    /**
+     * 依照每個區塊的次數釋放引用
+     *
+     * @param counts 區塊雜湊值與要釋放的次數
+     */
+    private Mono<Void> releaseCounts(Map<String, Long> counts) {
+        return Flux.fromIterable(counts.entrySet()).concatMap(entry -> dataChunkRepository.addRefCount(entry.getKey(), -entry.getValue())).then();
+    }
+
+    /**
+     * 刪除伺服器文件的區塊清單並釋放其中區塊的引用
+     *
+     * @param serverFileId 伺服器文件ID
+     */
+    @Override
+    public Mono<Void> deleteManifest(Long serverFileId) {
+        return fileChunkRepository
+                .findAllByServerFileIdOrderByChunkIndex(serverFileId)
+                .collectList()
+                .flatMap(this::releaseChunks)
+                .then(fileChunkRepository.deleteAllByServerFileId(serverFileId));
+    }
+
+    /**
+     * 依照區塊清單讀取伺服器文件內容中的一段
+     * 只查詢與範圍重疊的區塊清單項目，區塊的儲存鍵值以一次查詢取得，首尾區塊只讀取範圍內的部分
+     *
+     * @param serverFileId 伺服器文件ID
+     * @param offset       起始位置
+     * @param length       讀取長度
+     *
+     * @return 文件內容的資料流
+     */
+    @Override
+    public Flux<DataBuffer> read(Long serverFileId, long offset, long length) {
+        if (length <= 0) {
+            return Flux.empty();
+        }
+        long end = offset + length;
+        return fileChunkRepository
+                .findAllInRange(serverFileId, offset, end)
+                .collectList()
+                .flatMapMany(manifest -> findChunks(manifest.stream().map(FileChunk::getChunkHash).toList())
+                        .flatMapMany(chunkMap -> Flux.fromIterable(manifest).concatMap(fileChunk -> {
+                            DataChunk dataChunk = chunkMap.get(fileChunk.getChunkHash());
+                            if (dataChunk == null) {
+                                return Mono.error(new FileException(FileException.ErrorCode.FILE_STORAGE_ERROR,
+                                                                    "缺少區塊 " + fileChunk.getChunkHash()));
+                            }
+                            long chunkStart = Math.max(offset, fileChunk.getChunkOffset());
+                            long chunkEnd = Math.min(end, fileChunk.getChunkOffset() + fileChunk.getChunkSize());
+                            return storageStrategyFactory
+                                    .getStorageProvider(dataChunk.getStorageKey())
+                                    .read(dataChunk.getStorageKey(), chunkStart - fileChunk.getChunkOffset(), chunkEnd - chunkStart);
+                        })));
+    }
+
+    /**
+     * 回收所有引用計數為0且超過保留時間的區塊
+     * 先以條件刪除記錄，刪除成功後才刪除儲存內容，避免刪除正在被重新引用的區塊
+     *
+     * @return 回收的區塊數量
+     */
+    @Override
+    public Mono<Long> collectGarbage() {
+        return dataChunkRepository
+                .findAllByRefCountLessThanEqualAndCreateTimeBefore(0L, LocalDateTime.now().minus(gcGracePeriod))
+                .concatMap(dataChunk -> dataChunkRepository
+                        .deleteIfUnreferenced(dataChunk.getId())
+                        .filter(deleted -> deleted > 0)
+                        .flatMap(deleted -> storageStrategyFactory
+                                .getStorageProvider(dataChunk.getStorageKey())
+                                .delete(dataChunk.getStorageKey())
+                                .thenReturn(dataChunk)))
+                .count();
+    }
+
+    /**
+     * 計算區塊內容的SHA-256值
+     *
+     * @param chunk 區塊內容
+     *
+     * @return SHA-256 的十六進位字串
+     */
+    private static String sha256Hex(byte[] chunk) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(chunk));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("JVM 不支援 SHA-256", e);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package xyz.dowob.filemanagement.service.ServiceImpl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.component.manager.DeltaSessionManager;
+import xyz.dowob.filemanagement.component.manager.QuotaManager;
+import xyz.dowob.filemanagement.customenum.FileLayoutEnum;
+import xyz.dowob.filemanagement.dto.file.DeltaChunkDTO;
+import xyz.dowob.filemanagement.dto.file.DeltaPrepareResultDTO;
+import xyz.dowob.filemanagement.dto.file.DeltaSyncDTO;
+import xyz.dowob.filemanagement.dto.file.FileMetadataDTO;
+import xyz.dowob.filemanagement.entity.ServerFileMetadata;
+import xyz.dowob.filemanagement.entity.UserFileMetadata;
+import xyz.dowob.filemanagement.exception.FileException;
+import xyz.dowob.filemanagement.repostiory.ServerFileMetadataRepository;
+import xyz.dowob.filemanagement.repostiory.UserFileMetadataRepository;
+import xyz.dowob.filemanagement.service.ServiceInterFace.ChunkStoreService;
+import xyz.dowob.filemanagement.service.ServiceInterFace.DeltaSyncService;
+import xyz.dowob.filemanagement.service.ServiceInterFace.FileService;
+import xyz.dowob.filemanagement.utils.FastCdcChunker;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 增量同步業務邏輯實現類
+ * 實現接口 @see {@link DeltaSyncService}
+ * 1. prepare：客戶端提交新版本的區塊清單，伺服器建立增量同步會話，返回用戶尚未擁有的區塊並預留其空間
+ * 2. uploadChunk：客戶端只上傳會話中缺少的區塊，伺服器確認內容、雜湊值與大小相符後存放
+ * 3. commit：伺服器確認清單中的區塊都屬於用戶後取得引用，建立 CHUNKED 佈局的新版本並讓用戶文件指向它
+ * 新版本的 MD5 與 SHA-256 需要讀取全部內容才能得到，為了讓提交不需要讀取未變動的區塊，新版本不記錄整體摘要，也不參與秒傳比對
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName DeltaSyncServiceImpl
+ * @description
+ * @create 2026-10-18 16:00
+ * @Version 1.0
+ **/
+@Service
+@RequiredArgsConstructor
+public class DeltaSyncServiceImpl implements DeltaSyncService {
+    /**
+     * 用戶文件元數據數據庫操作對象
+     */
+    private final UserFileMetadataRepository userFileMetadataRepository;
+
+    /**
+     * 伺服器文件元數據數據庫操作對象
+     */
+    private final ServerFileMetadataRepository serverFileMetadataRepository;
+
+    /**
+     * 區塊儲存服務
+     */
+    private final ChunkStoreService chunkStoreService;
+
+    /**
+     * 文件服務
+     */
+    private final FileService fileService;
+
+    /**
+     * 儲存空間配額的計數器
+     */
+    private final QuotaManager quotaManager;
+
+    /**
+     * 增量同步會話的管理
+     */
+    private final DeltaSessionManager deltaSessionManager;
+
+    /**
+     * 單一文件的大小上限，從配置文件中獲取
+     * 單位：bytes，預設為 10GB
+     */
+    @Value("${file.upload.max-size: 10737418240}")
+    private long maxUploadSize;
+
+    /**
+     * 比對新版本的區塊清單，建立增量同步會話並返回需要上傳的區塊
+     * 只有用戶自己的文件已經引用的區塊，以及同一文件之前的會話中已經上傳且仍然存在的區塊視為不需要上傳，
+     * 其他用戶擁有的區塊同樣需要上傳，回應不會透露伺服器上是否存在其他用戶的內容
+     *
+     * @param userId       用戶ID
+     * @param fileId       用戶文件ID
+     * @param deltaSyncDTO 新版本的區塊清單
+     *
+     * @return 預備結果
+     */
+    @Override
+    public Mono<DeltaPrepareResultDTO> prepare(Long userId, Long fileId, DeltaSyncDTO deltaSyncDTO) {
+        return findUserFile(userId, fileId).then(validateChunks(deltaSyncDTO)).flatMap(chunkSizes -> {
+            DeltaSessionManager.Session previous = deltaSessionManager.get(userId, fileId);
+            Set<String> carried = previous == null ? Set.of() : previous.getUploadedChunks();
+            Mono<Set<String>> stillStored = carried.isEmpty() ? Mono.just(Set.of()) : chunkStoreService
+                    .findChunks(carried)
+                    .map(Map::keySet);
+            return Mono.zip(chunkStoreService.findOwnedChunks(userId, chunkSizes.keySet()), stillStored).flatMap(tuple -> {
+                Map<String, Integer> missingChunks = new LinkedHashMap<>();
+                chunkSizes.forEach((hash, size) -> {
+                    if (!tuple.getT1().contains(hash) && !tuple.getT2().contains(hash)) {
+                        missingChunks.put(hash, size);
+                    }
+                });
+                return deltaSessionManager.open(userId, fileId, missingChunks, tuple.getT2()).thenReturn(missingChunks);
+            });
+        }).map(missingChunks -> {
+            FastCdcChunker chunker = chunkStoreService.getChunker();
+            DeltaPrepareResultDTO result = new DeltaPrepareResultDTO();
+            result.setFileId(fileId);
+            result.setTotalChunks(deltaSyncDTO.getChunks().size());
+            result.setTotalBytes(deltaSyncDTO.getChunks().stream().mapToLong(DeltaChunkDTO::getSize).sum());
+            result.setMissingChunks(List.copyOf(missingChunks.keySet()));
+            result.setMissingBytes(missingChunks.values().stream().mapToLong(Integer::longValue).sum());
+            result.setMinChunkSize(chunker.getMinSize());
+            result.setAvgChunkSize(chunker.getAvgSize());
+            result.setMaxChunkSize(chunker.getMaxSize());
+            return result;
+        });
+    }
+
+    /**
+     * 在文件的增量同步會話中上傳單一區塊
+     * 只接受會話中宣告缺少且尚未上傳的區塊，內容超過宣告的大小時立即中斷，上傳完成後大小也必須與宣告相符
+     * 區塊的空間在預備時已經預留，因此上傳的總量不會超過用戶的配額
+     *
+     * @param userId  用戶ID
+     * @param fileId  用戶文件ID
+     * @param hash    區塊的SHA-256值
+     * @param content 區塊內容的資料流
+     */
+    @Override
+    public Mono<Void> uploadChunk(Long userId, Long fileId, String hash, Flux<DataBuffer> content) {
+        if (hash == null || !hash.matches("^[0-9a-fA-F]{64}$")) {
+            return Mono.error(new FileException(FileException.ErrorCode.CHUNK_INVALID, hash));
+        }
+        String normalizedHash = hash.toLowerCase(Locale.ROOT);
+        return Mono.defer(() -> {
+            DeltaSessionManager.Session session = deltaSessionManager.get(userId, fileId);
+            if (session == null) {
+                return Mono.error(new FileException(FileException.ErrorCode.DELTA_SESSION_NOT_FOUND, fileId));
+            }
+            if (session.isUploaded(normalizedHash)) {
+                return Mono.empty();
+            }
+            Integer declaredSize = session.claim(normalizedHash);
+            if (declaredSize == null) {
+                return Mono.error(new FileException(FileException.ErrorCode.CHUNK_INVALID, "此區塊不在增量同步需要上傳的區塊中或正在上傳 " + normalizedHash));
+            }
+            AtomicLong received = new AtomicLong();
+            Flux<DataBuffer> limitedContent = content.handle((dataBuffer, sink) -> {
+                if (received.addAndGet(dataBuffer.readableByteCount()) > declaredSize) {
+                    DataBufferUtils.release(dataBuffer);
+                    sink.error(new FileException(FileException.ErrorCode.CHUNK_INVALID, "區塊大小與宣告的 " + declaredSize + " bytes 不符"));
+                    return;
+                }
+                sink.next(dataBuffer);
+            });
+            return chunkStoreService
+                    .putChunk(normalizedHash, limitedContent)
+                    .then(Mono.defer(() -> received.get() == declaredSize ? Mono.<Void>empty() : Mono.error(new FileException(
+                            FileException.ErrorCode.CHUNK_INVALID,
+                            "區塊大小與宣告的 " + declaredSize + " bytes 不符"))))
+                    .doOnSuccess(done -> session.complete(normalizedHash))
+                    .doOnError(e -> session.abandon(normalizedHash))
+                    .doOnCancel(() -> session.abandon(normalizedHash));
+        });
+    }
+
+    /**
+     * 提交新版本的區塊清單
+     * 1. 必須有進行中的增量同步會話，清單中的區塊只能是用戶自己的文件已經引用的區塊或在會話中上傳的區塊，不能以雜湊值引用其他用戶的內容
+     * 2. 結束會話並釋放預備時預留的空間；新版本比目前版本大時，改為預留增加的空間，空間不足時不會取得任何區塊引用
+     * 3. 取得區塊引用後若保存失敗，會釋放已取得的引用；會話已經結束，需要重新預備後才能再次提交
+     *
+     * @param userId       用戶ID
+     * @param fileId       用戶文件ID
+     * @param deltaSyncDTO 新版本的區塊清單
+     *
+     * @return 文件資訊
+     */
+    @Override
+    public Mono<FileMetadataDTO> commit(Long userId, Long fileId, DeltaSyncDTO deltaSyncDTO) {
+        String reservationKey = "delta:" + UUID.randomUUID();
+        return findUserFile(userId, fileId).flatMap(userFile -> validateChunks(deltaSyncDTO)
+                .flatMap(chunkSizes -> {
+                    DeltaSessionManager.Session session = deltaSessionManager.get(userId, fileId);
+                    if (session == null) {
+                        return Mono.error(new FileException(FileException.ErrorCode.DELTA_SESSION_NOT_FOUND, fileId));
+                    }
+                    List<String> notUploaded = chunkSizes.keySet().stream().filter(hash -> !session.isUploaded(hash)).toList();
+                    return chunkStoreService.findOwnedChunks(userId, notUploaded).flatMap(owned -> {
+                        List<String> missingChunks = notUploaded.stream().filter(hash -> !owned.contains(hash)).toList();
+                        if (!missingChunks.isEmpty()) {
+                            return Mono.error(new FileException(FileException.ErrorCode.CHUNKS_MISSING, String.join(",", missingChunks)));
+                        }
+                        if (!deltaSessionManager.close(session)) {
+                            return Mono.error(new FileException(FileException.ErrorCode.DELTA_SESSION_NOT_FOUND, fileId));
+                        }
+                        return Mono.empty();
+                    });
+                })
+                .then(Mono.defer(() -> {
+                    long newSize = deltaSyncDTO.getChunks().stream().mapToLong(DeltaChunkDTO::getSize).sum();
+                    long growth = newSize - (userFile.getFileSize() != null ? userFile.getFileSize() : 0);
+                    return growth > 0 ? quotaManager.reserve(userId, reservationKey, growth) : Mono.<Void>empty();
+                }))
+                .then(serverFileMetadataRepository.findById(userFile.getServerFileId()))
+                .switchIfEmpty(Mono.error(() -> new FileException(FileException.ErrorCode.FILE_NOT_FOUND, fileId)))
+                .flatMap(baseServerFile -> chunkStoreService
+                        .acquireManifest(deltaSyncDTO.getChunks().stream().map(chunk -> chunk.getHash().toLowerCase(Locale.ROOT)).toList())
+                        .flatMap(manifest -> {
+                            ServerFileMetadata serverFile = new ServerFileMetadata();
+                            serverFile.setFileSize(manifest.stream().mapToLong(chunk -> chunk.getChunkSize().longValue()).sum());
+                            serverFile.setFileType(baseServerFile.getFileType());
+                            serverFile.setContentType(baseServerFile.getContentType());
+                            serverFile.setLayout(FileLayoutEnum.CHUNKED);
+                            serverFile.setUploadTime(LocalDateTime.now());
+                            serverFile.setLastAccessTime(serverFile.getUploadTime());
+                            return serverFileMetadataRepository
+                                    .save(serverFile)
+                                    .flatMap(savedServerFile -> chunkStoreService
+                                            .saveManifest(savedServerFile.getId(), manifest)
+                                            .then(fileService.replaceContent(userFile, savedServerFile)))
+                                    .onErrorResume(e -> chunkStoreService.releaseChunks(manifest).then(Mono.error(e)));
+                        }))).doFinally(signal -> quotaManager.release(reservationKey));
+    }
+
+    /**
+     * 查詢屬於用戶的文件
+     *
+     * @param userId 用戶ID
+     * @param fileId 用戶文件ID
+     *
+     * @return 用戶文件
+     */
+    private Mono<UserFileMetadata> findUserFile(Long userId, Long fileId) {
+        return userFileMetadataRepository
+                .findByIdAndUserId(fileId, userId)
+                .switchIfEmpty(Mono.error(() -> new FileException(FileException.ErrorCode.FILE_NOT_FOUND, fileId)));
+    }
+
+    /**
+     * 確認區塊清單中的區塊大小不超過上限、同一區塊的大小一致且文件總大小不超過上限
+     *
+     * @param deltaSyncDTO 新版本的區塊清單
+     *
+     * @return 不重複的區塊雜湊值(小寫)與其大小
+     */
+    private Mono<Map<String, Integer>> validateChunks(DeltaSyncDTO deltaSyncDTO) {
+        return Mono.fromCallable(() -> {
+            int maxChunkSize = chunkStoreService.getChunker().getMaxSize();
+            Map<String, Integer> chunkSizes = new LinkedHashMap<>();
+            long totalBytes = 0;
+            for (DeltaChunkDTO chunk : deltaSyncDTO.getChunks()) {
+                String hash = chunk.getHash().toLowerCase(Locale.ROOT);
+                if (chunk.getSize() > maxChunkSize) {
+                    throw new FileException(FileException.ErrorCode.CHUNK_INVALID, hash);
+                }
+                Integer previousSize = chunkSizes.putIfAbsent(hash, chunk.getSize());
+                if (previousSize != null && !previousSize.equals(chunk.getSize())) {
+                    throw new FileException(FileException.ErrorCode.CHUNK_INVALID, hash);
+                }
+                totalBytes += chunk.getSize();
+            }
+            if (totalBytes > maxUploadSize) {
+                throw new FileException(FileException.ErrorCode.FILE_TOO_LARGE, maxUploadSize);
+            }
+            return chunkSizes;
+        });
+    }
+}
@@ -0,0 +1,482 @@
+package xyz.dowob.filemanagement.service.ServiceImpl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.component.manager.DirectoryStatsManager;
+import xyz.dowob.filemanagement.customenum.FileEnum;
+import xyz.dowob.filemanagement.dto.file.DirectoryInfoDTO;
+import xyz.dowob.filemanagement.entity.Directory;
+import xyz.dowob.filemanagement.entity.DirectoryStats;
+import xyz.dowob.filemanagement.exception.FileException;
+import xyz.dowob.filemanagement.repostiory.DirectoryRepository;
+import xyz.dowob.filemanagement.repostiory.DirectoryStatsRepository;
+import xyz.dowob.filemanagement.repostiory.UserRepository;
+import xyz.dowob.filemanagement.service.ServiceInterFace.DirectoryService;
+import xyz.dowob.filemanagement.service.ServiceInterFace.ValidationService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 目錄業務邏輯實現類，主要用於處理目錄樹相關的業務邏輯
+ * 實現接口 @see {@link DirectoryService}
+ * 目錄以鄰接表保存，每個目錄只記錄父目錄ID與名稱，文件只記錄所在的目錄ID
+ * 因此移動與重新命名目錄都只更新一行，列出目錄內容則是 (user_id, parent_id) 與 (user_id, directory_id) 索引上的範圍查詢
+ * 完整路徑只在返回結果時沿父目錄向上組合，查詢次數為目錄的深度
+ * 目錄的總大小與文件數量讀取預先彙總的目錄統計，一個目錄只讀一行，不需要掃描子樹
+ * 同一用戶的移動目錄在交易中鎖定用戶這一行後才檢查與更新父目錄，並發的移動不會組成循環
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName DirectoryServiceImpl
+ * @description
+ * @create 2026-10-19 04:26
+ * @Version 1.0
+ **/
+@Service
+@RequiredArgsConstructor
+public class DirectoryServiceImpl implements DirectoryService {
+    /**
+     * 根目錄的路徑
+     */
+    private static final String ROOT_PATH = "/";
+
+    /**
+     * 目錄數據庫操作對象
+     */
+    private final DirectoryRepository directoryRepository;
+
+    /**
+     * 目錄統計數據庫操作對象
+     */
+    private final DirectoryStatsRepository directoryStatsRepository;
+
+    /**
+     * 目錄統計的增量緩衝
+     */
+    private final DirectoryStatsManager directoryStatsManager;
+
+    /**
+     * 驗證服務
+     */
+    private final ValidationService validationService;
+
+    /**
+     * 用戶數據庫操作對象，用於鎖定用戶
+     */
+    private final UserRepository userRepository;
+
+    /**
+     * 響應式交易
+     */
+    private final TransactionalOperator transactionalOperator;
+
+    /**
+     * 沿父目錄向上查詢的最大層數，超過時視為目錄樹損壞，從配置文件中獲取
+     * 預設為 1000
+     */
+    @Value("${file.directory.max-depth: 1000}")
+    private int maxDepth;
+
+    /**
+     * 查詢屬於用戶的目錄與其完整路徑，根目錄不存放於資料表中，直接組合返回
+     *
+     * @param userId      用戶ID
+     * @param directoryId 目錄ID，根目錄為 0
+     *
+     * @return 目錄資訊
+     */
+    @Override
+    public Mono<DirectoryInfoDTO> getDirectory(Long userId, Long directoryId) {
+        if (isRoot(directoryId)) {
+            DirectoryInfoDTO root = new DirectoryInfoDTO();
+            root.setId(Directory.ROOT_ID);
+            root.setName(ROOT_PATH);
+            root.setPath(ROOT_PATH);
+            return withStats(userId, root);
+        }
+        return findDirectory(userId, directoryId).flatMap(this::toDirectoryInfoDTO);
+    }
+
+    /**
+     * 依名稱排序列出目錄下的子目錄，子目錄的路徑由父目錄的路徑直接組合，不需要再向上查詢
+     * 子目錄的統計以一次 IN 查詢取得
+     *
+     * @param userId     用戶ID
+     * @param parentId   父目錄ID
+     * @param parentPath 父目錄的完整路徑
+     *
+     * @return 子目錄列表
+     */
+    @Override
+    public Flux<DirectoryInfoDTO> listChildren(Long userId, Long parentId, String parentPath) {
+        return directoryRepository
+                .findAllByUserIdAndParentIdOrderByName(userId, isRoot(parentId) ? Directory.ROOT_ID : parentId)
+                .collectList()
+                .flatMapMany(children -> {
+                    if (children.isEmpty()) {
+                        return Flux.empty();
+                    }
+                    List<Long> childIds = children.stream().map(Directory::getId).toList();
+                    return directoryStatsRepository
+                            .findAllByUserIdAndDirectoryIdIn(userId, childIds)
+                            .collectMap(DirectoryStats::getDirectoryId)
+                            .flatMapMany(stats -> Flux
+                                    .fromIterable(children)
+                                    .map(directory -> applyStats(toDirectoryInfoDTO(directory, childPath(parentPath, directory.getName())),
+                                                                 stats.get(directory.getId()))));
+                });
+    }
+
+    /**
+     * 在父目錄下建立目錄
+     * 1. 驗證目錄名稱
+     * 2. 確認父目錄屬於該用戶
+     * 3. 保存目錄，同名目錄由唯一索引擋下，並發建立時只有一個請求會成功
+     *
+     * @param userId   用戶ID
+     * @param parentId 父目錄ID
+     * @param name     目錄名稱
+     *
+     * @return 建立的目錄資訊
+     */
+    @Override
+    public Mono<DirectoryInfoDTO> create(Long userId, Long parentId, String name) {
+        Long targetParentId = isRoot(parentId) ? Directory.ROOT_ID : parentId;
+        return validationService
+                .validateFilename(name)
+                .then(Mono.defer(() -> getPath(userId, targetParentId)))
+                .flatMap(parentPath -> {
+                    Directory directory = new Directory();
+                    directory.setUserId(userId);
+                    directory.setParentId(targetParentId);
+                    directory.setName(name);
+                    directory.setCreateTime(LocalDateTime.now());
+                    return saveDirectory(directory).map(saved -> toDirectoryInfoDTO(saved, childPath(parentPath, saved.getName())));
+                });
+    }
+
+    /**
+     * 重新命名目錄，只更新目錄本身這一行，根目錄不能重新命名
+     *
+     * @param userId      用戶ID
+     * @param directoryId 目錄ID
+     * @param name        新的目錄名稱
+     *
+     * @return 重新命名後的目錄資訊
+     */
+    @Override
+    public Mono<DirectoryInfoDTO> rename(Long userId, Long directoryId, String name) {
+        if (isRoot(directoryId)) {
+            return Mono.error(new FileException(FileException.ErrorCode.DIRECTORY_NOT_FOUND, ROOT_PATH));
+        }
+        return validationService.validateFilename(name).then(Mono.defer(() -> findDirectory(userId, directoryId))).flatMap(directory -> {
+            if (name.equals(directory.getName())) {
+                return Mono.just(directory);
+            }
+            directory.setName(name);
+            return saveDirectory(directory);
+        }).flatMap(this::toDirectoryInfoDTO);
+    }
+
+    /**
+     * 將目錄移動到新的父目錄下，只更新目錄本身這一行
+     * 1. 在交易中先鎖定用戶這一行，同一用戶的移動依序執行，檢查通過到更新父目錄之間目錄樹不會被其他移動改變
+     * 2. 沿新父目錄向上查詢，路徑上出現被移動的目錄時表示要移動到自身的子目錄中，返回錯誤
+     * 3. 新父目錄下的同名目錄由唯一索引擋下
+     * 4. 交易提交後，目錄本身與子樹中的統計不變，只記錄舊父目錄減去、新父目錄加上被移動目錄的統計，由增量緩衝展開到兩邊的祖先目錄
+     *
+     * @param userId      用戶ID
+     * @param directoryId 目錄ID
+     * @param parentId    新的父目錄ID
+     *
+     * @return 移動後的目錄資訊
+     */
+    @Override
+    public Mono<DirectoryInfoDTO> move(Long userId, Long directoryId, Long parentId) {
+        if (isRoot(directoryId)) {
+            return Mono.error(new FileException(FileException.ErrorCode.DIRECTORY_MOVE_INVALID, ROOT_PATH));
+        }
+        Long targetParentId = isRoot(parentId) ? Directory.ROOT_ID : parentId;
+        Mono<Moved> moved = userRepository
+                .lockById(userId)
+                .then(Mono.defer(() -> findDirectory(userId, directoryId)))
+                .flatMap(directory -> {
+                    Long oldParentId = directory.getParentId();
+                    if (targetParentId.equals(oldParentId)) {
+                        return Mono.just(new Moved(directory, oldParentId));
+                    }
+                    return ancestors(userId, targetParentId)
+                            .any(ancestor -> ancestor.getId().equals(directoryId))
+                            .flatMap(cyclic -> {
+                                if (cyclic) {
+                                    return Mono.error(new FileException(FileException.ErrorCode.DIRECTORY_MOVE_INVALID, directory.getName()));
+                                }
+                                directory.setParentId(targetParentId);
+                                return saveDirectory(directory).map(saved -> new Moved(saved, oldParentId));
+                            });
+                });
+        return transactionalOperator
+                .transactional(moved)
+                .flatMap(result -> {
+                    if (targetParentId.equals(result.oldParentId())) {
+                        return Mono.just(result.directory());
+                    }
+                    return directoryStatsRepository
+                            .findByUserIdAndDirectoryId(userId, directoryId)
+                            .doOnNext(stats -> {
+                                directoryStatsManager.recordSubtree(userId, result.oldParentId(), stats, -1);
+                                directoryStatsManager.recordSubtree(userId, targetParentId, stats, 1);
+                            })
+                            .thenReturn(result.directory());
+                })
+                .flatMap(this::toDirectoryInfoDTO);
+    }
+
+    /**
+     * 將路徑轉換為目錄ID，路徑中不存在的目錄會依序建立
+     * 路徑中的每一段都需要通過文件名稱驗證，"." 與 ".." 等特殊名稱會被拒絕
+     *
+     * @param userId 用戶ID
+     * @param path   以 "/" 分隔的路徑
+     *
+     * @return 目錄ID
+     */
+    @Override
+    public Mono<Long> resolvePath(Long userId, String path) {
+        if (path == null || path.isBlank()) {
+            return Mono.just(Directory.ROOT_ID);
+        }
+        List<String> segments = Arrays.stream(path.trim().replace('\\', '/').split("/")).filter(segment -> !segment.isEmpty()).toList();
+        return Flux
+                .fromIterable(segments)
+                .concatMap(validationService::validateFilename)
+                .then(Mono.defer(() -> Flux
+                        .fromIterable(segments)
+                        .reduce(Mono.just(Directory.ROOT_ID),
+                                (parent, name) -> parent.flatMap(parentId -> findOrCreate(userId, parentId, name)))
+                        .flatMap(directoryId -> directoryId)));
+    }
+
+    /**
+     * 沿父目錄向上組合目錄的完整路徑
+     *
+     * @param userId      用戶ID
+     * @param directoryId 目錄ID
+     *
+     * @return 完整路徑
+     */
+    @Override
+    public Mono<String> getPath(Long userId, Long directoryId) {
+        if (isRoot(directoryId)) {
+            return Mono.just(ROOT_PATH);
+        }
+        return findDirectory(userId, directoryId).flatMap(this::pathOf);
+    }
+
+    /**
+     * 查詢屬於用戶的目錄，不存在時傳出 DIRECTORY_NOT_FOUND 錯誤
+     *
+     * @param userId      用戶ID
+     * @param directoryId 目錄ID
+     *
+     * @return 目錄
+     */
+    private Mono<Directory> findDirectory(Long userId, Long directoryId) {
+        return directoryRepository
+                .findByIdAndUserId(directoryId, userId)
+                .switchIfEmpty(Mono.error(() -> new FileException(FileException.ErrorCode.DIRECTORY_NOT_FOUND, directoryId)));
+    }
+
+    /**
+     * 由指定目錄開始向上列出目錄本身與所有祖先目錄，不包含根目錄
+     * 同一個目錄出現兩次或超過最大層數時傳出 DIRECTORY_TREE_INVALID 錯誤，損壞的目錄樹不會讓查詢無限進行
+     *
+     * @param userId      用戶ID
+     * @param directoryId 起始目錄ID
+     *
+     * @return 目錄本身以及祖先目錄，由下往上
+     */
+    private Flux<Directory> ancestors(Long userId, Long directoryId) {
+        if (isRoot(directoryId)) {
+            return Flux.empty();
+        }
+        return Flux.defer(() -> {
+            Set<Long> visited = new HashSet<>();
+            return findDirectory(userId, directoryId)
+                    .expand(directory -> isRoot(directory.getParentId()) ? Mono.empty() : findDirectory(userId, directory.getParentId()))
+                    .<Directory>handle((directory, sink) -> {
+                        if (!visited.add(directory.getId()) || visited.size() > maxDepth) {
+                            sink.error(new FileException(FileException.ErrorCode.DIRECTORY_TREE_INVALID, directoryId));
+                            return;
+                        }
+                        sink.next(directory);
+                    });
+        });
+    }
+
+    /**
+     * 組合目錄的完整路徑
+     *
+     * @param directory 目錄
+     *
+     * @return 完整路徑
+     */
+    private Mono<String> pathOf(Directory directory) {
+        return ancestors(directory.getUserId(), directory.getParentId()).map(Directory::getName).collectList().map(names -> {
+            List<String> segments = new ArrayList<>(names);
+            Collections.reverse(segments);
+            segments.add(directory.getName());
+            return ROOT_PATH + String.join("/", segments);
+        });
+    }
+
+    /**
+     * 查詢父目錄下的同名目錄，不存在時建立
+     * 並發建立同一個目錄時，唯一索引衝突的一方改為讀取另一方建立的目錄
+     *
+     * @param userId   用戶ID
+     * @param parentId 父目錄ID
+     * @param name     目錄名稱
+     *
+     * @return 目錄ID
+     */
+    private Mono<Long> findOrCreate(Long userId, Long parentId, String name) {
+        return directoryRepository.findByUserIdAndParentIdAndName(userId, parentId, name).map(Directory::getId).switchIfEmpty(Mono.defer(() -> {
+            Directory directory = new Directory();
+            directory.setUserId(userId);
+            directory.setParentId(parentId);
+            directory.setName(name);
+            directory.setCreateTime(LocalDateTime.now());
+            return directoryRepository
+                    .save(directory)
+                    .map(Directory::getId)
+                    .onErrorResume(DataIntegrityViolationException.class,
+                                   e -> directoryRepository.findByUserIdAndParentIdAndName(userId, parentId, name).map(Directory::getId));
+        }));
+    }
+
+    /**
+     * 保存目錄，同一父目錄下已有同名目錄時轉換為 DIRECTORY_ALREADY_EXISTS 錯誤
+     *
+     * @param directory 目錄
+     *
+     * @return 保存後的目錄
+     */
+    private Mono<Directory> saveDirectory(Directory directory) {
+        return directoryRepository
+                .save(directory)
+                .onErrorMap(DataIntegrityViolationException.class,
+                            e -> new FileException(FileException.ErrorCode.DIRECTORY_ALREADY_EXISTS, directory.getName()));
+    }
+
+    /**
+     * 將目錄轉換為目錄資訊，完整路徑沿父目錄向上查詢
+     *
+     * @param directory 目錄
+     *
+     * @return 目錄資訊
+     */
+    private Mono<DirectoryInfoDTO> toDirectoryInfoDTO(Directory directory) {
+        return pathOf(directory).flatMap(path -> withStats(directory.getUserId(), toDirectoryInfoDTO(directory, path)));
+    }
+
+    /**
+     * 讀取目錄的統計並填入目錄資訊，還沒有統計的目錄視為空目錄
+     *
+     * @param userId           用戶ID
+     * @param directoryInfoDTO 目錄資訊
+     *
+     * @return 填入統計後的目錄資訊
+     */
+    private Mono<DirectoryInfoDTO> withStats(Long userId, DirectoryInfoDTO directoryInfoDTO) {
+        return directoryStatsRepository
+                .findByUserIdAndDirectoryId(userId, directoryInfoDTO.getId())
+                .map(stats -> applyStats(directoryInfoDTO, stats))
+                .switchIfEmpty(Mono.fromSupplier(() -> applyStats(directoryInfoDTO, null)));
+    }
+
+    /**
+     * 將目錄統計填入目錄資訊
+     *
+     * @param directoryInfoDTO 目錄資訊
+     * @param stats            目錄統計，為空時填入 0
+     *
+     * @return 目錄資訊
+     */
+    private DirectoryInfoDTO applyStats(DirectoryInfoDTO directoryInfoDTO, DirectoryStats stats) {
+        Map<FileEnum, Long> typeCounts = new EnumMap<>(FileEnum.class);
+        typeCounts.put(FileEnum.IMAGE, stats != null ? stats.getImageCount() : 0L);
+        typeCounts.put(FileEnum.VIDEO, stats != null ? stats.getVideoCount() : 0L);
+        typeCounts.put(FileEnum.MUSIC, stats != null ? stats.getMusicCount() : 0L);
+        typeCounts.put(FileEnum.DOCUMENT, stats != null ? stats.getDocumentCount() : 0L);
+        typeCounts.put(FileEnum.ZIP, stats != null ? stats.getZipCount() : 0L);
+        typeCounts.put(FileEnum.OTHER, stats != null ? stats.getOtherCount() : 0L);
+        directoryInfoDTO.setTotalBytes(stats != null ? stats.getTotalBytes() : 0L);
+        directoryInfoDTO.setFileCount(stats != null ? stats.getFileCount() : 0L);
+        directoryInfoDTO.setTypeCounts(typeCounts);
+        return directoryInfoDTO;
+    }
+
+    /**
+     * 將目錄轉換為目錄資訊
+     *
+     * @param directory 目錄
+     * @param path      目錄的完整路徑
+     *
+     * @return 目錄資訊
+     */
+    private DirectoryInfoDTO toDirectoryInfoDTO(Directory directory, String path) {
+        DirectoryInfoDTO directoryInfoDTO = new DirectoryInfoDTO();
+        directoryInfoDTO.setId(directory.getId());
+        directoryInfoDTO.setParentId(directory.getParentId());
+        directoryInfoDTO.setName(directory.getName());
+        directoryInfoDTO.setPath(path);
+        directoryInfoDTO.setCreateTime(directory.getCreateTime());
+        return directoryInfoDTO;
+    }
+
+    /**
+     * 組合子目錄或文件的路徑
+     *
+     * @param parentPath 父目錄的完整路徑
+     * @param name       名稱
+     *
+     * @return 完整路徑
+     */
+    private String childPath(String parentPath, String name) {
+        return ROOT_PATH.equals(parentPath) ? ROOT_PATH + name : parentPath + "/" + name;
+    }
+
+    /**
+     * 判斷目錄ID是否為根目錄，未指定時視為根目錄
+     *
+     * @param directoryId 目錄ID
+     *
+     * @return 是否為根目錄
+     */
+    private boolean isRoot(Long directoryId) {
+        return directoryId == null || Objects.equals(directoryId, Directory.ROOT_ID);
+    }
+
+    /**
+     * 移動目錄的結果
+     *
+     * @param directory   移動後的目錄
+     * @param oldParentId 移動前的父目錄ID
+     */
+    private record Moved(Directory directory, Long oldParentId) {}
+}
@@ -0,0 +1,292 @@
+package xyz.dowob.filemanagement.service.ServiceImpl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import xyz.dowob.filemanagement.component.provider.providerInterface.EmailProvider;
+import xyz.dowob.filemanagement.customenum.EmailStatusEnum;
+import xyz.dowob.filemanagement.entity.EmailOutbox;
+import xyz.dowob.filemanagement.repostiory.EmailOutboxRepository;
+import xyz.dowob.filemanagement.service.ServiceInterFace.EmailOutboxService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 郵件發件匣服務實現類
+ * 實現了 EmailOutboxService 接口
+ * 1. 業務邏輯呼叫 enqueue 寫入發件匣後立即返回，並喚醒發送程序
+ * 2. 發送程序定時或被喚醒時取出一批到達發送時間的郵件，以嘗試次數作為版本號取出，多個節點同時執行時同一封郵件只會被一個節點取出
+ * 3. 取出的郵件以同一個 SMTP 連線發送，成功的標記為已發送，失敗的依嘗試次數以指數退避設定下次發送時間，超過次數後標記為失敗
+ * 4. 取出時設定租約，節點在發送途中停止時，租約到期後郵件會被重新發送；結果只在嘗試次數仍為取出時的值才寫入，租約到期的節點不會覆蓋重新取出的節點的結果
+ * 5. 標記為已發送時清空郵件內容，重置密碼等郵件的連結不會在保留期間留在數據庫中
+ * 郵件至少會被發送一次，節點在 SMTP 發送完成後、標記為已發送前停止時可能重複發送
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName EmailOutboxServiceImpl
+ * @description
+ * @create 2026-10-18 23:25
+ * @Version 1.0
+ **/
+@Log4j2
+@Service
+public class EmailOutboxServiceImpl implements EmailOutboxService {
+    /**
+     * 失敗原因保存的最大長度
+     */
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    /**
+     * 郵件發件匣數據庫操作對象
+     */
+    private final EmailOutboxRepository emailOutboxRepository;
+
+    /**
+     * 郵件提供者
+     */
+    private final EmailProvider emailProvider;
+
+    /**
+     * 單次取出的郵件數量
+     */
+    private final int batchSize;
+
+    /**
+     * 定時檢查發件匣的間隔
+     */
+    private final Duration pollInterval;
+
+    /**
+     * 取出郵件的租約時間
+     */
+    private final Duration lease;
+
+    /**
+     * 最多嘗試發送的次數
+     */
+    private final int maxAttempts;
+
+    /**
+     * 第一次重試的等待時間
+     */
+    private final Duration retryBase;
+
+    /**
+     * 重試的最長等待時間
+     */
+    private final Duration retryMax;
+
+    /**
+     * 已發送郵件的保留期限
+     */
+    private final Duration retention;
+
+    /**
+     * 喚醒發送程序的信號
+     */
+    private final Sinks.Many<Boolean> wakeUp = Sinks.many().multicast().directBestEffort();
+
+    /**
+     * 發送程序的訂閱
+     */
+    private Disposable dispatcher;
+
+    /**
+     * 建立郵件發件匣服務
+     *
+     * @param emailOutboxRepository 郵件發件匣數據庫操作對象
+     * @param emailProvider         郵件提供者
+     * @param batchSize             單次取出的郵件數量
+     * @param pollIntervalMs        定時檢查發件匣的間隔(毫秒)
+     * @param leaseSeconds          取出郵件的租約時間(秒)
+     * @param maxAttempts           最多嘗試發送的次數
+     * @param retryBaseSeconds      第一次重試的等待時間(秒)，之後每次加倍
+     * @param retryMaxSeconds       重試的最長等待時間(秒)
+     * @param retentionDays         已發送郵件的保留天數
+     */
+    public EmailOutboxServiceImpl(
+            EmailOutboxRepository emailOutboxRepository, EmailProvider emailProvider,
+            @Value("${email.outbox.batch-size: 50}") int batchSize,
+            @Value("${email.outbox.poll-interval-ms: 5000}") long pollIntervalMs,
+            @Value("${email.outbox.lease-seconds: 300}") long leaseSeconds,
+            @Value("${email.outbox.max-attempts: 8}") int maxAttempts,
+            @Value("${email.outbox.retry-base-seconds: 30}") long retryBaseSeconds,
+            @Value("${email.outbox.retry-max-seconds: 3600}") long retryMaxSeconds,
+            @Value("${email.outbox.retention-days: 7}") long retentionDays) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailProvider = emailProvider;
+        this.batchSize = batchSize;
+        this.pollInterval = Duration.ofMillis(pollIntervalMs);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.maxAttempts = maxAttempts;
+        this.retryBase = Duration.ofSeconds(retryBaseSeconds);
+        this.retryMax = Duration.ofSeconds(retryMaxSeconds);
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    /**
+     * 啟動發送程序，定時或被喚醒時發送發件匣中的郵件，直到沒有到達發送時間的郵件
+     * 發送程序執行中收到的喚醒信號會被忽略，由執行中的發送程序繼續取出
+     */
+    @PostConstruct
+    public void start() {
+        dispatcher = Flux
+                .merge(Flux.interval(pollInterval).map(tick -> true), wakeUp.asFlux())
+                .onBackpressureDrop()
+                .concatMap(signal -> dispatch().expand(count -> count >= batchSize ? dispatch() : Mono.empty()).onErrorResume(e -> {
+                    log.warn("發送發件匣中的郵件失敗: {}", e.getMessage());
+                    return Mono.empty();
+                }), 1)
+                .subscribe();
+    }
+
+    /**
+     * 停止發送程序，未發送的郵件留在發件匣中，下次啟動時繼續發送
+     */
+    @PreDestroy
+    public void stop() {
+        if (dispatcher != null) {
+            dispatcher.dispose();
+        }
+    }
+
+    /**
+     * 將郵件寫入發件匣並喚醒發送程序
+     *
+     * @param recipient 收件人郵箱
+     * @param subject   郵件主題
+     * @param content   郵件內容
+     *
+     * @return 寫入完成的信號
+     */
+    @Override
+    public Mono<Void> enqueue(String recipient, String subject, String content) {
+        return Mono.defer(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            EmailOutbox email = new EmailOutbox();
+            email.setRecipient(recipient);
+            email.setSubject(subject);
+            email.setContent(content);
+            email.setStatus(EmailStatusEnum.PENDING);
+            email.setAttempts(0);
+            email.setNextAttemptTime(now);
+            email.setCreateTime(now);
+            return emailOutboxRepository.save(email);
+        }).doOnSuccess(saved -> wakeUp.tryEmitNext(true)).then();
+    }
+
+    /**
+     * 取出一批到達發送時間的郵件，以同一個連線發送後記錄結果
+     *
+     * @return 取出的郵件數量
+     */
+    @Override
+    public Mono<Integer> dispatch() {
+        return Mono.defer(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime leaseUntil = now.plus(lease);
+            return emailOutboxRepository
+                    .findDue(now, batchSize)
+                    .concatMap(email -> emailOutboxRepository
+                            .claim(email.getId(), email.getAttempts(), leaseUntil)
+                            .filter(updated -> updated > 0)
+                            .map(updated -> {
+                                email.setAttempts(email.getAttempts() + 1);
+                                return email;
+                            }))
+                    .collectList()
+                    .flatMap(claimed -> claimed.isEmpty() ? Mono.just(0) : send(claimed).thenReturn(claimed.size()));
+        });
+    }
+
+    /**
+     * 刪除超過保留期限的已發送郵件
+     *
+     * @return 刪除的郵件數量
+     */
+    @Override
+    public Mono<Integer> purgeSent() {
+        return emailOutboxRepository.deleteSentBefore(LocalDateTime.now().minus(retention));
+    }
+
+    /**
+     * 發送已取出的郵件並記錄每封郵件的結果
+     *
+     * @param emails 已取出的郵件
+     *
+     * @return 記錄完成的信號
+     */
+    private Mono<Void> send(List<EmailOutbox> emails) {
+        return emailProvider.sendEmails(emails).flatMapMany(failures -> {
+            LocalDateTime now = LocalDateTime.now();
+            return Flux.fromIterable(emails).concatMap(email -> recordResult(email, failures, now));
+        }).then();
+    }
+
+    /**
+     * 記錄一封郵件的發送結果
+     *
+     * @param email    郵件
+     * @param failures 發送失敗的郵件ID與失敗原因
+     * @param now      目前時間
+     *
+     * @return 更新的行數
+     */
+    private Mono<Integer> recordResult(EmailOutbox email, Map<Long, String> failures, LocalDateTime now) {
+        return updateResult(email, failures, now).doOnNext(updated -> {
+            if (updated == 0) {
+                log.warn("郵件 {} 的租約已到期並被重新取出，略過第 {} 次發送的結果", email.getId(), email.getAttempts());
+            }
+        });
+    }
+
+    /**
+     * 依照發送結果更新郵件，以取出後的嘗試次數確認郵件仍由這次發送持有
+     *
+     * @param email    郵件
+     * @param failures 發送失敗的郵件ID與失敗原因
+     * @param now      目前時間
+     *
+     * @return 更新的行數
+     */
+    private Mono<Integer> updateResult(EmailOutbox email, Map<Long, String> failures, LocalDateTime now) {
+        String error = failures.get(email.getId());
+        if (error == null) {
+            return emailOutboxRepository.markSent(email.getId(), email.getAttempts(), now);
+        }
+        String lastError = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        if (email.getAttempts() >= maxAttempts) {
+            log.error("郵件 {} 發送 {} 次仍失敗，不再重試: {}", email.getId(), email.getAttempts(), lastError);
+            return emailOutboxRepository.markFailedAttempt(email.getId(), email.getAttempts(), EmailStatusEnum.FAILED.name(), now, lastError);
+        }
+        log.warn("郵件 {} 第 {} 次發送失敗: {}", email.getId(), email.getAttempts(), lastError);
+        return emailOutboxRepository.markFailedAttempt(email.getId(),
+                                                       email.getAttempts(),
+                                                       EmailStatusEnum.PENDING.name(),
+                                                       now.plus(backoff(email.getAttempts())),
+                                                       lastError);
+    }
+
+    /**
+     * 計算重試的等待時間，每次加倍並加上最多 20% 的隨機延遲，避免大量郵件在同一時間重試
+     *
+     * @param attempts 已嘗試的次數
+     *
+     * @return 等待時間
+     */
+    private Duration backoff(int attempts) {
+        long baseMillis = retryBase.toMillis() << Math.min(attempts - 1, 20);
+        long delayMillis = Math.min(retryMax.toMillis(), baseMillis);
+        return Duration.ofMillis(delayMillis + ThreadLocalRandom.current().nextLong(delayMillis / 5 + 1));
+    }
+}
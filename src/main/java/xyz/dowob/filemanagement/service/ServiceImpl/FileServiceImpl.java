@@ -0,0 +1,749 @@
+package xyz.dowob.filemanagement.service.ServiceImpl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.component.factory.StorageStrategyFactory;
+import xyz.dowob.filemanagement.component.manager.AccessTimeManager;
+import xyz.dowob.filemanagement.component.manager.DirectoryStatsManager;
+import xyz.dowob.filemanagement.component.manager.FileRelationManager;
+import xyz.dowob.filemanagement.component.manager.QuotaManager;
+import xyz.dowob.filemanagement.customenum.FileEnum;
+import xyz.dowob.filemanagement.customenum.FileLayoutEnum;
+import xyz.dowob.filemanagement.customenum.FileSortEnum;
+import xyz.dowob.filemanagement.dto.file.DirectoryInfoDTO;
+import xyz.dowob.filemanagement.dto.file.FileMetadataDTO;
+import xyz.dowob.filemanagement.dto.file.FilePageDTO;
+import xyz.dowob.filemanagement.dto.file.FilePreCheckDTO;
+import xyz.dowob.filemanagement.dto.file.FilePreCheckResultDTO;
+import xyz.dowob.filemanagement.entity.ServerFileMetadata;
+import xyz.dowob.filemanagement.entity.User;
+import xyz.dowob.filemanagement.entity.UserFileMetadata;
+import xyz.dowob.filemanagement.exception.FileException;
+import xyz.dowob.filemanagement.repostiory.ServerFileMetadataRepository;
+import xyz.dowob.filemanagement.repostiory.ServerFilePartRepository;
+import xyz.dowob.filemanagement.repostiory.UserFileMetadataRepository;
+import xyz.dowob.filemanagement.service.ServiceInterFace.ChunkStoreService;
+import xyz.dowob.filemanagement.service.ServiceInterFace.DirectoryService;
+import xyz.dowob.filemanagement.service.ServiceInterFace.FileService;
+import xyz.dowob.filemanagement.service.ServiceInterFace.ValidationService;
+import xyz.dowob.filemanagement.utils.FileCursor;
+import xyz.dowob.filemanagement.utils.StreamingDigest;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * 文件業務邏輯實現類，主要用於處理文件上傳以及文件元數據相關的業務邏輯
+ * 實現接口 @see {@link FileService}
+ * 上傳時文件內容會以 DataBuffer 串流的方式經過摘要計算後直接寫入儲存空間，不會在記憶體中保留整個文件
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName FileServiceImpl
+ * @description
+ * @create 2026-10-18 10:48
+ * @Version 1.0
+ **/
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class FileServiceImpl implements FileService {
+    /**
+     * 伺服器文件元數據數據庫操作對象
+     */
+    private final ServerFileMetadataRepository serverFileMetadataRepository;
+
+    /**
+     * 用戶文件元數據數據庫操作對象
+     */
+    private final UserFileMetadataRepository userFileMetadataRepository;
+
+    /**
+     * 分段組合文件的分段數據庫操作對象
+     */
+    private final ServerFilePartRepository serverFilePartRepository;
+
+    /**
+     * 儲存策略工廠，寫入時使用配置的儲存後端，讀取與刪除時依照儲存鍵值選擇儲存後端
+     */
+    private final StorageStrategyFactory storageStrategyFactory;
+
+    /**
+     * 驗證服務
+     */
+    private final ValidationService validationService;
+
+    /**
+     * 區塊儲存服務
+     */
+    private final ChunkStoreService chunkStoreService;
+
+    /**
+     * 最後訪問時間的寫回緩衝
+     */
+    private final AccessTimeManager accessTimeManager;
+
+    /**
+     * 目錄服務，用於將文件路徑轉換為目錄ID
+     */
+    private final DirectoryService directoryService;
+
+    /**
+     * 目錄統計的增量緩衝，文件新增、移除或更換內容時記錄增量
+     */
+    private final DirectoryStatsManager directoryStatsManager;
+
+    /**
+     * 儲存空間配額的計數器，文件新增、移除或更換內容時計入已使用的空間
+     */
+    private final QuotaManager quotaManager;
+
+    /**
+     * 文件關聯資料的批次載入管理
+     */
+    private final FileRelationManager fileRelationManager;
+
+    /**
+     * 單一文件上傳的大小上限，從配置文件中獲取
+     * 單位：bytes，預設為 10GB
+     */
+    @Value("${file.upload.max-size: 10737418240}")
+    private long maxUploadSize;
+
+    /**
+     * 是否啟用秒傳與上傳後的內容去重，從配置文件中獲取
+     */
+    @Value("${file.upload.instant.enabled: true}")
+    private boolean instantUploadEnabled;
+
+    /**
+     * 列出目錄中文件時的預設每頁筆數，從配置文件中獲取
+     */
+    @Value("${file.list.page-size: 100}")
+    private int defaultPageSize;
+
+    /**
+     * 列出目錄中文件時的每頁筆數上限，也是以資料流列出時每次查詢的筆數，從配置文件中獲取
+     */
+    @Value("${file.list.max-page-size: 1000}")
+    private int maxPageSize;
+
+    /**
+     * 以串流方式上傳文件
+     * 1. 驗證文件名稱
+     * 2. 文件內容在流向儲存空間的途中計算 MD5、SHA-256 與文件大小，超過上限時立即中斷
+     * 3. 啟用區塊儲存時內容以區塊清單存放，否則寫入單一儲存鍵值，已知大小上限且不超過打包上限時寫入打包卷
+     * 4. 寫入完成後若伺服器已有相同內容的文件，刪除或釋放剛寫入的內容並直接指向已存在的文件
+     * 5. 否則保存伺服器文件元數據與用戶文件元數據
+     * 當元數據保存失敗時，會刪除已經寫入的文件內容
+     *
+     * @param userId         上傳者的用戶ID
+     * @param filename       文件名稱
+     * @param filePath       文件路徑
+     * @param contentType    內容類型
+     * @param content        文件內容的資料流
+     * @param maxContentSize 寫入前已知的文件大小上限，未知時為負數
+     *
+     * @return 上傳後的文件資訊
+     */
+    @Override
+    public Mono<FileMetadataDTO> upload(
+            Long userId, String filename, String filePath, String contentType, Flux<DataBuffer> content, long maxContentSize) {
+        String resolvedContentType = contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        return validationService.validateFilename(filename).then(Mono.defer(() -> {
+            StreamingDigest digest = new StreamingDigest();
+            Flux<DataBuffer> digestedContent = content.handle((dataBuffer, sink) -> {
+                digest.update(dataBuffer);
+                if (digest.getByteCount() > maxUploadSize) {
+                    DataBufferUtils.release(dataBuffer);
+                    sink.error(new FileException(FileException.ErrorCode.FILE_TOO_LARGE, maxUploadSize));
+                    return;
+                }
+                sink.next(dataBuffer);
+            });
+
+            if (chunkStoreService.isEnabled()) {
+                return chunkStoreService
+                        .storeChunks(digestedContent)
+                        .onErrorMap(e -> !(e instanceof FileException), e -> new FileException(FileException.ErrorCode.FILE_STORAGE_ERROR,
+                                                                                              e.getMessage()))
+                        .flatMap(manifest -> findDuplicate(digest.sha256Hex(), digest.md5Hex(), digest.getByteCount())
+                                .flatMap(existingServerFile -> linkDuplicate(userId, filename, filePath, existingServerFile))
+                                .flatMap(fileMetadataDTO -> chunkStoreService.releaseChunks(manifest).thenReturn(fileMetadataDTO))
+                                .switchIfEmpty(Mono.defer(() -> {
+                                    ServerFileMetadata serverFile = newServerFile(resolvedContentType, digest);
+                                    serverFile.setLayout(FileLayoutEnum.CHUNKED);
+                                    return saveServerFile(userId,
+                                                          filename,
+                                                          filePath,
+                                                          serverFile,
+                                                          savedServerFile -> chunkStoreService.saveManifest(savedServerFile.getId(), manifest),
+                                                          chunkStoreService.releaseChunks(manifest));
+                                })));
+            }
+
+            return storageStrategyFactory
+                    .getStorageProviderBySize(maxContentSize)
+                    .store(digestedContent, filename, resolvedContentType)
+                    .onErrorMap(e -> !(e instanceof FileException), e -> new FileException(FileException.ErrorCode.FILE_STORAGE_ERROR,
+                                                                                          e.getMessage()))
+                    .flatMap(storageKey -> findDuplicate(digest.sha256Hex(), digest.md5Hex(), digest.getByteCount())
+                            .flatMap(existingServerFile -> linkDuplicate(userId, filename, filePath, existingServerFile))
+                            .flatMap(fileMetadataDTO -> storageStrategyFactory
+                                    .getStorageProvider(storageKey)
+                                    .delete(storageKey)
+                                    .thenReturn(fileMetadataDTO))
+                            .switchIfEmpty(Mono.defer(() -> {
+                                ServerFileMetadata serverFile = newServerFile(resolvedContentType, digest);
+                                serverFile.setGridFsId(storageKey);
+                                return saveServerFile(userId, filename, filePath, serverFile, savedServerFile -> Mono.empty(),
+                                                      storageStrategyFactory.getStorageProvider(storageKey).delete(storageKey));
+                            })));
+        }));
+    }
+
+    /**
+     * 依照上傳內容的摘要建立新的伺服器文件元數據
+     *
+     * @param contentType 內容類型
+     * @param digest      文件內容的摘要
+     *
+     * @return 尚未保存的伺服器文件元數據
+     */
+    private ServerFileMetadata newServerFile(String contentType, StreamingDigest digest) {
+        ServerFileMetadata serverFile = new ServerFileMetadata();
+        serverFile.setFileSize(digest.getByteCount());
+        serverFile.setFileType(FileEnum.fromContentType(contentType));
+        serverFile.setContentType(contentType);
+        serverFile.setMd5(digest.md5Hex());
+        serverFile.setSha256(digest.sha256Hex());
+        serverFile.setUploadTime(LocalDateTime.now());
+        serverFile.setLastAccessTime(serverFile.getUploadTime());
+        return serverFile;
+    }
+
+    /**
+     * 保存伺服器文件元數據、內容索引以及用戶文件元數據
+     * 保存失敗時會執行回滾，刪除或釋放已經寫入的文件內容
+     *
+     * @param userId           上傳者的用戶ID
+     * @param filename         文件名稱
+     * @param filePath         文件路徑
+     * @param serverFile       尚未保存的伺服器文件元數據
+     * @param saveContentIndex 伺服器文件保存後，保存內容索引(如區塊清單)的操作
+     * @param rollback         保存失敗時的回滾操作
+     *
+     * @return 上傳後的文件資訊
+     */
+    private Mono<FileMetadataDTO> saveServerFile(
+            Long userId, String filename, String filePath, ServerFileMetadata serverFile,
+            Function<ServerFileMetadata, Mono<Void>> saveContentIndex, Mono<Void> rollback) {
+        return serverFileMetadataRepository
+                .save(serverFile)
+                .flatMap(savedServerFile -> saveContentIndex
+                        .apply(savedServerFile)
+                        .then(linkUserFile(userId, filename, filePath, savedServerFile)))
+                .onErrorResume(e -> rollback.then(Mono.error(e)));
+    }
+
+    /**
+     * 上傳前預檢(秒傳)
+     * 同時比對文件大小、MD5 與 SHA-256，全部相同才視為同一份內容
+     * 命中時只建立一筆用戶文件元數據，該用戶即成為伺服器文件的擁有者之一
+     * 預檢前先以宣告的文件大小預留空間，空間不足時直接返回 QUOTA_EXCEEDED 錯誤，客戶端不需要再上傳文件內容
+     *
+     * @param userId          用戶ID
+     * @param filePreCheckDTO 預檢的數據傳輸對象
+     *
+     * @return 預檢結果
+     */
+    @Override
+    public Mono<FilePreCheckResultDTO> preCheck(Long userId, FilePreCheckDTO filePreCheckDTO) {
+        String reservationKey = "precheck:" + UUID.randomUUID();
+        return validationService
+                .validateFilename(filePreCheckDTO.getFilename())
+                .then(Mono.defer(() -> quotaManager.reserve(userId, reservationKey, filePreCheckDTO.getFileSize())))
+                .then(Mono.defer(() -> findDuplicate(filePreCheckDTO.getSha256(), filePreCheckDTO.getMd5(), filePreCheckDTO.getFileSize())))
+                .flatMap(serverFile -> linkDuplicate(userId, filePreCheckDTO.getFilename(), filePreCheckDTO.getPath(), serverFile))
+                .map(fileMetadataDTO -> {
+                    FilePreCheckResultDTO result = new FilePreCheckResultDTO();
+                    result.setHit(true);
+                    result.setFile(fileMetadataDTO);
+                    return result;
+                })
+                .defaultIfEmpty(new FilePreCheckResultDTO())
+                .doFinally(signal -> quotaManager.release(reservationKey));
+    }
+
+    /**
+     * 查詢內容相同的伺服器文件
+     * 摘要統一以小寫16進位比對
+     *
+     * @param sha256   文件的SHA-256值
+     * @param md5      文件的MD5值
+     * @param fileSize 文件大小
+     *
+     * @return 內容相同的伺服器文件
+     */
+    @Override
+    public Mono<ServerFileMetadata> findDuplicate(String sha256, String md5, long fileSize) {
+        if (!instantUploadEnabled || sha256 == null || md5 == null) {
+            return Mono.empty();
+        }
+        return serverFileMetadataRepository.findFirstBySha256AndMd5AndFileSize(sha256.toLowerCase(Locale.ROOT),
+                                                                                 md5.toLowerCase(Locale.ROOT),
+                                                                                 fileSize);
+    }
+
+    /**
+     * 建立一筆指向伺服器文件的用戶文件元數據
+     * 文件路徑會轉換為目錄ID，路徑中不存在的目錄會依序建立
+     * 保存後確認伺服器文件仍然存在，與釋放時的條件刪除搭配，用戶文件只會指向存在的伺服器文件：
+     * 1. 釋放先完成時這裡查不到伺服器文件，刪除剛保存的用戶文件並傳出 SERVER_FILE_RELEASED 錯誤
+     * 2. 用戶文件先保存時釋放的條件刪除不會刪除伺服器文件
+     * 確認後計入用戶已使用的空間與目錄統計，配額由呼叫端在上傳開始前預留
+     *
+     * @param userId     用戶ID
+     * @param filename   文件名稱
+     * @param filePath   文件路徑
+     * @param serverFile 伺服器文件元數據
+     *
+     * @return 文件資訊
+     */
+    @Override
+    public Mono<FileMetadataDTO> linkUserFile(Long userId, String filename, String filePath, ServerFileMetadata serverFile) {
+        return directoryService
+                .resolvePath(userId, filePath)
+                .flatMap(directoryId -> {
+                    UserFileMetadata userFile = new UserFileMetadata();
+                    userFile.setUserId(userId);
+                    userFile.setServerFileId(serverFile.getId());
+                    userFile.setFileSize(serverFile.getFileSize());
+                    userFile.setFileType(serverFile.getFileType() != null ? serverFile.getFileType() : FileEnum.OTHER);
+                    userFile.setFilename(filename);
+                    userFile.setDirectoryId(directoryId);
+                    userFile.setUploadTime(LocalDateTime.now());
+                    userFile.setLastAccessTime(userFile.getUploadTime());
+                    return userFileMetadataRepository.save(userFile);
+                })
+                .flatMap(savedUserFile -> serverFileMetadataRepository
+                        .existsById(serverFile.getId())
+                        .flatMap(exists -> exists ? Mono.just(savedUserFile) : userFileMetadataRepository
+                                .delete(savedUserFile)
+                                .then(Mono.error(new FileException(FileException.ErrorCode.SERVER_FILE_RELEASED, serverFile.getId())))))
+                .flatMap(savedUserFile -> quotaManager.charge(userId, savedUserFile.getFileSize()).thenReturn(savedUserFile))
+                .doOnNext(savedUserFile -> directoryStatsManager.recordFile(userId,
+                                                                            savedUserFile.getDirectoryId(),
+                                                                            savedUserFile.getFileSize(),
+                                                                            savedUserFile.getFileType(),
+                                                                            1))
+                .flatMap(savedUserFile -> toFileMetadataDTO(savedUserFile, serverFile));
+    }
+
+    /**
+     * 建立一筆指向重複內容的用戶文件，伺服器文件在建立前已被釋放時返回空，由呼叫端保存自己的內容
+     *
+     * @param userId     用戶ID
+     * @param filename   文件名稱
+     * @param filePath   文件路徑
+     * @param serverFile 內容相同的伺服器文件
+     *
+     * @return 文件資訊
+     */
+    @Override
+    public Mono<FileMetadataDTO> linkDuplicate(Long userId, String filename, String filePath, ServerFileMetadata serverFile) {
+        return linkUserFile(userId, filename, filePath, serverFile).onErrorResume(FileException.class, e -> {
+            if (e.getErrorCode() != FileException.ErrorCode.SERVER_FILE_RELEASED) {
+                return Mono.error(e);
+            }
+            log.debug("伺服器文件 {} 在建立用戶文件前已被釋放，改為保存新的內容", serverFile.getId());
+            return Mono.empty();
+        });
+    }
+
+    /**
+     * 將用戶文件指向新的伺服器文件(新版本)
+     * 更新完成後舊的伺服器文件沒有其他擁有者時會被釋放，釋放失敗不影響新版本
+     *
+     * @param userFile      用戶文件元數據
+     * @param newServerFile 新版本的伺服器文件元數據
+     *
+     * @return 文件資訊
+     */
+    @Override
+    public Mono<FileMetadataDTO> replaceContent(UserFileMetadata userFile, ServerFileMetadata newServerFile) {
+        Long oldServerFileId = userFile.getServerFileId();
+        Long oldFileSize = userFile.getFileSize();
+        FileEnum oldFileType = userFile.getFileType();
+        userFile.setServerFileId(newServerFile.getId());
+        userFile.setFileSize(newServerFile.getFileSize());
+        userFile.setFileType(newServerFile.getFileType() != null ? newServerFile.getFileType() : FileEnum.OTHER);
+        userFile.setLastAccessTime(LocalDateTime.now());
+        return userFileMetadataRepository
+                .save(userFile)
+                .flatMap(savedUserFile -> quotaManager
+                        .charge(savedUserFile.getUserId(), savedUserFile.getFileSize() - (oldFileSize != null ? oldFileSize : 0))
+                        .thenReturn(savedUserFile))
+                .doOnNext(savedUserFile -> {
+                    directoryStatsManager.recordFile(savedUserFile.getUserId(),
+                                                     savedUserFile.getDirectoryId(),
+                                                     oldFileSize != null ? oldFileSize : 0,
+                                                     oldFileType,
+                                                     -1);
+                    directoryStatsManager.recordFile(savedUserFile.getUserId(),
+                                                     savedUserFile.getDirectoryId(),
+                                                     savedUserFile.getFileSize(),
+                                                     savedUserFile.getFileType(),
+                                                     1);
+                })
+                .flatMap(savedUserFile -> releaseServerFileIfUnreferenced(oldServerFileId)
+                        .onErrorResume(e -> {
+                            log.warn("釋放舊版本伺服器文件 {} 失敗: {}", oldServerFileId, e.getMessage());
+                            return Mono.empty();
+                        })
+                        .then(toFileMetadataDTO(savedUserFile, newServerFile)));
+    }
+
+    /**
+     * 以鍵值分頁列出目錄中的文件
+     * 1. 有游標時排序欄位與方向以游標為準，從游標記錄的 (欄位, id) 之後開始查詢
+     * 2. 多查詢一筆用於判斷是否還有下一頁，不需要另外計算總數
+     * 每一頁的查詢成本只與頁大小有關，與頁數無關
+     *
+     * @param userId     用戶ID
+     * @param directory  目錄資訊
+     * @param sort       排序欄位
+     * @param descending 是否由大到小排序
+     * @param cursor     上一頁返回的游標，第一頁為空
+     * @param limit      每頁筆數，為空時使用預設值
+     *
+     * @return 一頁文件
+     */
+    @Override
+    public Mono<FilePageDTO> listFiles(Long userId, DirectoryInfoDTO directory, FileSortEnum sort, boolean descending, String cursor, Integer limit) {
+        int pageSize = limit == null || limit <= 0 ? defaultPageSize : Math.min(limit, maxPageSize);
+        if (cursor == null || cursor.isBlank()) {
+            return fetchPage(userId, directory, new FileCursor(sort, descending, 0, null), pageSize);
+        }
+        return Mono.fromCallable(() -> FileCursor.decode(cursor))
+                .onErrorMap(IllegalArgumentException.class, e -> new FileException(FileException.ErrorCode.LIST_CURSOR_INVALID, cursor))
+                .flatMap(fileCursor -> fetchPage(userId, directory, fileCursor, pageSize));
+    }
+
+    /**
+     * 以資料流列出目錄中的所有文件
+     * 內部以最大頁大小逐頁查詢，前一頁被下游消費後才查詢下一頁，記憶體中最多只保留一頁
+     *
+     * @param userId     用戶ID
+     * @param directory  目錄資訊
+     * @param sort       排序欄位
+     * @param descending 是否由大到小排序
+     *
+     * @return 文件資訊的資料流
+     */
+    @Override
+    public Flux<FileMetadataDTO> streamFiles(Long userId, DirectoryInfoDTO directory, FileSortEnum sort, boolean descending) {
+        return fetchPage(userId, directory, new FileCursor(sort, descending, 0, null), maxPageSize)
+                .expand(page -> page.getNextCursor() == null ? Mono.empty() : fetchPage(userId,
+                                                                                        directory,
+                                                                                        FileCursor.decode(page.getNextCursor()),
+                                                                                        maxPageSize))
+                .concatMapIterable(FilePageDTO::getFiles);
+    }
+
+    /**
+     * 查詢一頁文件，目錄中的用戶文件以鍵值範圍查詢取得，對應的伺服器文件與分享對象由 {@link FileRelationManager} 以 IN 查詢批次載入
+     * 每一頁使用新的載入上下文，不論頁大小，一頁固定是鍵值範圍、伺服器文件、分享記錄與分享用戶四次查詢；串流列出時快取不會隨頁數累積
+     *
+     * @param userId    用戶ID
+     * @param directory 目錄資訊
+     * @param cursor    分頁位置，第一頁的鍵值為空
+     * @param pageSize  每頁筆數
+     *
+     * @return 一頁文件
+     */
+    private Mono<FilePageDTO> fetchPage(Long userId, DirectoryInfoDTO directory, FileCursor cursor, int pageSize) {
+        return userFileMetadataRepository
+                .findPageByDirectory(userId,
+                                     directory.getId(),
+                                     cursor.sort(),
+                                     cursor.descending(),
+                                     cursor.lastValue(),
+                                     cursor.lastId(),
+                                     pageSize + 1)
+                .collectList()
+                .flatMap(rows -> {
+                    List<UserFileMetadata> userFiles = rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+                    FilePageDTO page = new FilePageDTO();
+                    if (rows.size() > pageSize) {
+                        UserFileMetadata last = userFiles.getLast();
+                        page.setNextCursor(new FileCursor(cursor.sort(), cursor.descending(), last.getId(), sortValue(last, cursor.sort())).encode());
+                    }
+                    if (userFiles.isEmpty()) {
+                        page.setFiles(List.of());
+                        return Mono.just(page);
+                    }
+                    FileRelationManager.Context context = fileRelationManager.newContext();
+                    return Mono.when(context.loadServerFiles(userFiles), context.loadSharedWithUsers(userFiles)).then(Mono.fromSupplier(() -> {
+                        page.setFiles(userFiles
+                                              .stream()
+                                              .filter(userFile -> userFile.getServerFile() != null)
+                                              .map(userFile -> toFileMetadataDTO(userFile, userFile.getServerFile(), directory.getPath()))
+                                              .toList());
+                        return page;
+                    }));
+                });
+    }
+
+    /**
+     * 取得用戶文件在排序欄位上的值，作為下一頁游標的鍵值
+     *
+     * @param userFile 用戶文件元數據
+     * @param sort     排序欄位
+     *
+     * @return 排序欄位的值
+     */
+    private Object sortValue(UserFileMetadata userFile, FileSortEnum sort) {
+        return switch (sort) {
+            case NAME -> userFile.getFilename();
+            case SIZE -> userFile.getFileSize();
+            case UPLOAD_TIME -> userFile.getUploadTime();
+            case TYPE -> userFile.getFileType();
+        };
+    }
+
+    /**
+     * 伺服器文件已經沒有任何用戶文件指向時，刪除其內容與元數據
+     * 元數據以條件刪除，與 {@link #linkUserFile(Long, String, String, ServerFileMetadata)} 保存後的確認搭配，同時建立的用戶文件不會指向已刪除的內容
+     *
+     * @param serverFileId 伺服器文件ID
+     */
+    @Override
+    public Mono<Void> releaseServerFileIfUnreferenced(Long serverFileId) {
+        return serverFileMetadataRepository
+                .findById(serverFileId)
+                .flatMap(serverFile -> serverFileMetadataRepository
+                        .deleteIfUnreferenced(serverFileId)
+                        .filter(deleted -> deleted > 0)
+                        .map(deleted -> serverFile))
+                .flatMap(serverFile -> {
+                    Mono<Void> deleteContent = switch (serverFile.getLayout()) {
+                        case SINGLE -> storageStrategyFactory.getStorageProvider(serverFile.getGridFsId()).delete(serverFile.getGridFsId());
+                        case COMPOSITE -> serverFilePartRepository
+                                .findAllByServerFileIdOrderByPartIndex(serverFileId)
+                                .concatMap(part -> storageStrategyFactory.getStorageProvider(part.getStorageKey()).delete(part.getStorageKey()))
+                                .then(serverFilePartRepository.deleteAllByServerFileId(serverFileId));
+                        case CHUNKED -> chunkStoreService.deleteManifest(serverFileId);
+                    };
+                    return deleteContent;
+                });
+    }
+
+    /**
+     * 查詢屬於用戶的文件
+     *
+     * @param userId 用戶ID
+     * @param fileId 用戶文件ID
+     *
+     * @return 用戶文件元數據
+     */
+    @Override
+    public Mono<UserFileMetadata> getUserFile(Long userId, Long fileId) {
+        return userFileMetadataRepository
+                .findByIdAndUserId(fileId, userId)
+                .switchIfEmpty(Mono.error(() -> new FileException(FileException.ErrorCode.FILE_NOT_FOUND, fileId)));
+    }
+
+    /**
+     * 查詢伺服器文件
+     *
+     * @param serverFileId 伺服器文件ID
+     *
+     * @return 伺服器文件元數據
+     */
+    @Override
+    public Mono<ServerFileMetadata> getServerFile(Long serverFileId) {
+        return serverFileMetadataRepository
+                .findById(serverFileId)
+                .switchIfEmpty(Mono.error(() -> new FileException(FileException.ErrorCode.FILE_NOT_FOUND, serverFileId)));
+    }
+
+    /**
+     * 讀取伺服器文件內容中的一段
+     * 1. SINGLE：由儲存提供者直接從起始位置讀取
+     * 2. COMPOSITE：只讀取與範圍重疊的分段，首尾分段只讀取範圍內的部分
+     * 3. CHUNKED：由區塊儲存服務只讀取與範圍重疊的區塊
+     *
+     * @param serverFile 伺服器文件元數據
+     * @param offset     起始位置
+     * @param length     讀取長度
+     *
+     * @return 文件內容的資料流
+     */
+    @Override
+    public Flux<DataBuffer> readContent(ServerFileMetadata serverFile, long offset, long length) {
+        if (length <= 0) {
+            return Flux.empty();
+        }
+        long end = offset + length;
+        return switch (serverFile.getLayout()) {
+            case SINGLE -> storageStrategyFactory.getStorageProvider(serverFile.getGridFsId()).read(serverFile.getGridFsId(), offset, length);
+            case COMPOSITE -> serverFilePartRepository.findAllInRange(serverFile.getId(), offset, end).concatMap(part -> {
+                long partStart = Math.max(offset, part.getPartOffset());
+                long partEnd = Math.min(end, part.getPartOffset() + part.getPartSize());
+                return storageStrategyFactory
+                        .getStorageProvider(part.getStorageKey())
+                        .read(part.getStorageKey(), partStart - part.getPartOffset(), partEnd - partStart);
+            });
+            case CHUNKED -> chunkStoreService.read(serverFile.getId(), offset, length);
+        };
+    }
+
+    /**
+     * 取得伺服器文件內容在本機檔案系統上的路徑
+     * 只有 SINGLE 佈局且存放於本機檔案系統時才有單一檔案可以直接傳送，分段與區塊組成的文件需要依序讀取多個內容
+     *
+     * @param serverFile 伺服器文件元數據
+     *
+     * @return 本機檔案路徑
+     */
+    @Override
+    public Optional<Path> localPath(ServerFileMetadata serverFile) {
+        if (serverFile.getLayout() != FileLayoutEnum.SINGLE) {
+            return Optional.empty();
+        }
+        return storageStrategyFactory.getStorageProvider(serverFile.getGridFsId()).localPath(serverFile.getGridFsId());
+    }
+
+    /**
+     * 記錄用戶文件被存取，用戶文件與伺服器文件的最後訪問時間先記錄在寫回緩衝中，由 AccessTimeManager 批次寫入數據庫
+     * 伺服器文件的最後訪問時間用於分層儲存判斷冷資料
+     *
+     * @param userFile 用戶文件元數據
+     */
+    @Override
+    public Mono<Void> recordAccess(UserFileMetadata userFile) {
+        return Mono.fromRunnable(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            userFile.setLastAccessTime(now);
+            accessTimeManager.touch(userFile.getId(), userFile.getServerFileId(), now);
+        });
+    }
+
+    /**
+     * 將用戶文件以及對應的伺服器文件轉換為文件資訊，文件路徑沿所在目錄向上查詢
+     *
+     * @param userFile   用戶文件元數據
+     * @param serverFile 伺服器文件元數據
+     *
+     * @return 文件資訊
+     */
+    private Mono<FileMetadataDTO> toFileMetadataDTO(UserFileMetadata userFile, ServerFileMetadata serverFile) {
+        return directoryService
+                .getPath(userFile.getUserId(), userFile.getDirectoryId())
+                .map(directoryPath -> toFileMetadataDTO(userFile, serverFile, directoryPath));
+    }
+
+    /**
+     * 將用戶文件以及對應的伺服器文件轉換為文件資訊
+     *
+     * @param userFile      用戶文件元數據
+     * @param serverFile    伺服器文件元數據
+     * @param directoryPath 文件所在目錄的完整路徑
+     *
+     * @return 文件資訊
+     */
+    private FileMetadataDTO toFileMetadataDTO(UserFileMetadata userFile, ServerFileMetadata serverFile, String directoryPath) {
+        FileMetadataDTO fileMetadataDTO = new FileMetadataDTO();
+        fileMetadataDTO.setId(userFile.getId());
+        fileMetadataDTO.setFilename(userFile.getFilename());
+        fileMetadataDTO.setDirectoryId(userFile.getDirectoryId());
+        fileMetadataDTO.setFilePath(directoryPath);
+        fileMetadataDTO.setFileSize(serverFile.getFileSize());
+        fileMetadataDTO.setFileType(serverFile.getFileType());
+        fileMetadataDTO.setContentType(serverFile.getContentType());
+        fileMetadataDTO.setMd5(serverFile.getMd5());
+        fileMetadataDTO.setSha256(serverFile.getSha256());
+        fileMetadataDTO.setUploadTime(userFile.getUploadTime());
+        fileMetadataDTO.setLastAccessTime(userFile.getLastAccessTime());
+        if (userFile.getSharedWithUsers() != null) {
+            fileMetadataDTO.setSharedWith(userFile.getSharedWithUsers().stream().map(User::getUsername).toList());
+        }
+        return fileMetadataDTO;
+    }
+
+    /**
+     * 此方法之後為CrudService接口中的方法實現
+     * 創建一個新的實體
+     *
+     * @return 返回一個新的實體對象
+     */
+    @Override
+    public Mono<UserFileMetadata> create() {
+        return Mono.just(new UserFileMetadata());
+    }
+
+    /**
+     * 根據ID獲取一個實體
+     *
+     * @param userFileId 實體ID
+     *
+     * @return 返回一個Optional對象
+     */
+    @Override
+    public Mono<UserFileMetadata> getById(Long userFileId) {
+        return userFileMetadataRepository.findById(userFileId);
+    }
+
+    /**
+     * 獲取所有實體
+     */
+    @Override
+    public Flux<UserFileMetadata> getAll() {
+        return userFileMetadataRepository.findAll();
+    }
+
+    /**
+     * 更新一個實體
+     *
+     * @param entity 實體對象
+     */
+    @Override
+    public Mono<Void> update(UserFileMetadata entity) {
+        return userFileMetadataRepository.save(entity).then();
+    }
+
+    /**
+     * 刪除一個實體，並從用戶已使用的空間與所在目錄的統計中扣除
+     * 對應的伺服器文件沒有其他用戶文件指向時一併釋放其內容，釋放失敗只記錄警告，不影響刪除的結果
+     *
+     * @param entity 實體對象
+     */
+    @Override
+    public Mono<Void> delete(UserFileMetadata entity) {
+        return userFileMetadataRepository
+                .delete(entity)
+                .then(Mono.defer(() -> quotaManager.charge(entity.getUserId(), -(entity.getFileSize() != null ? entity.getFileSize() : 0))))
+                .doOnSuccess(done -> directoryStatsManager.recordFile(entity.getUserId(),
+                                                                      entity.getDirectoryId(),
+                                                                      entity.getFileSize() != null ? entity.getFileSize() : 0,
+                                                                      entity.getFileType(),
+                                                                      -1))
+                .then(Mono.defer(() -> releaseServerFileIfUnreferenced(entity.getServerFileId()).onErrorResume(e -> {
+                    log.warn("釋放伺服器文件 {} 失敗: {}", entity.getServerFileId(), e.getMessage());
+                    return Mono.empty();
+                })));
+    }
+}
@@ -0,0 +1,372 @@
+package xyz.dowob.filemanagement.service.ServiceImpl;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.component.factory.StorageStrategyFactory;
+import xyz.dowob.filemanagement.component.provider.providerInterface.StorageProvider;
+import xyz.dowob.filemanagement.customenum.StorageEnum;
+import xyz.dowob.filemanagement.entity.FileChunk;
+import xyz.dowob.filemanagement.entity.RetiredStorageKey;
+import xyz.dowob.filemanagement.entity.ServerFileMetadata;
+import xyz.dowob.filemanagement.repostiory.DataChunkRepository;
+import xyz.dowob.filemanagement.repostiory.FileChunkRepository;
+import xyz.dowob.filemanagement.repostiory.RetiredStorageKeyRepository;
+import xyz.dowob.filemanagement.repostiory.ServerFileMetadataRepository;
+import xyz.dowob.filemanagement.repostiory.ServerFilePartRepository;
+import xyz.dowob.filemanagement.service.ServiceInterFace.ChunkStoreService;
+import xyz.dowob.filemanagement.service.ServiceInterFace.TieringService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 分層儲存服務實現類
+ * 實現了 TieringService 接口
+ * 本機儲存層(LOCAL)存放近期被存取的內容，超過冷資料天數沒有被存取的內容會被移到冷儲存層(預設為 GridFS)
+ * 1. 單一文件與分段文件以伺服器文件的最後訪問時間判斷，從未被存取的文件以上傳時間判斷
+ * 2. 區塊在文件間共用，只有所有引用它的文件都是冷資料時才會被搬移
+ * 3. 搬移時先將內容複製到目標儲存層，再以條件更新將儲存鍵值換成新的鍵值，更新成功後才處理來源內容；
+ * 更新失敗(搬移期間文件被刪除或已被其他搬移更新)時刪除剛複製的內容
+ * 4. 冷資料被下載後在背景移回本機儲存層，下載完成後才開始
+ * 5. 來源是本機儲存層時直接刪除，已經開啟的檔案在刪除後仍可讀完；來源是冷儲存層時其他下載可能仍在逐段讀取舊的鍵值，
+ * 因此只記錄為等待刪除，超過保留時間後由排程任務刪除
+ * 內容存放於打包卷時不參與分層，小型內容的存放成本已經很低
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName TieringServiceImpl
+ * @description
+ * @create 2026-10-18 19:10
+ * @Version 1.0
+ **/
+@Log4j2
+@Service
+public class TieringServiceImpl implements TieringService {
+    /**
+     * 本機儲存層
+     */
+    private static final StorageEnum HOT_TIER = StorageEnum.LOCAL;
+
+    /**
+     * 儲存策略工廠
+     */
+    private final StorageStrategyFactory storageStrategyFactory;
+
+    /**
+     * 伺服器文件元數據數據庫操作對象
+     */
+    private final ServerFileMetadataRepository serverFileMetadataRepository;
+
+    /**
+     * 分段組合文件的分段數據庫操作對象
+     */
+    private final ServerFilePartRepository serverFilePartRepository;
+
+    /**
+     * 資料區塊數據庫操作對象
+     */
+    private final DataChunkRepository dataChunkRepository;
+
+    /**
+     * 區塊清單數據庫操作對象
+     */
+    private final FileChunkRepository fileChunkRepository;
+
+    /**
+     * 區塊儲存服務
+     */
+    private final ChunkStoreService chunkStoreService;
+
+    /**
+     * 等待刪除的儲存內容數據庫操作對象
+     */
+    private final RetiredStorageKeyRepository retiredStorageKeyRepository;
+
+    /**
+     * 是否啟用分層儲存
+     */
+    private final boolean enabled;
+
+    /**
+     * 冷儲存層
+     */
+    private final StorageEnum coldTier;
+
+    /**
+     * 超過此時間沒有被存取的內容視為冷資料
+     */
+    private final Duration coldAfter;
+
+    /**
+     * 單次執行最多搬移的字節數
+     */
+    private final long ioBudgetBytes;
+
+    /**
+     * 單次查詢的冷資料數量
+     */
+    private final int batchSize;
+
+    /**
+     * 是否在冷資料被下載後移回本機儲存層
+     */
+    private final boolean promoteOnRead;
+
+    /**
+     * 冷儲存層的舊內容在被取代後保留的時間，讓進行中的下載可以讀完
+     */
+    private final Duration retireGrace;
+
+    /**
+     * 正在移回本機儲存層的伺服器文件ID
+     */
+    private final Set<Long> promotingFiles = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 建立分層儲存服務
+     *
+     * @param storageStrategyFactory       儲存策略工廠
+     * @param serverFileMetadataRepository 伺服器文件元數據數據庫操作對象
+     * @param serverFilePartRepository     分段組合文件的分段數據庫操作對象
+     * @param dataChunkRepository          資料區塊數據庫操作對象
+     * @param fileChunkRepository          區塊清單數據庫操作對象
+     * @param chunkStoreService            區塊儲存服務
+     * @param retiredStorageKeyRepository  等待刪除的儲存內容數據庫操作對象
+     * @param enabled                      是否啟用分層儲存
+     * @param coldTier                     冷儲存層，不能是本機儲存層或打包卷
+     * @param coldAfterDays                超過此天數沒有被存取的內容視為冷資料
+     * @param ioBudgetMb                   單次執行最多搬移的 MB 數
+     * @param batchSize                    單次查詢的冷資料數量
+     * @param promoteOnRead                是否在冷資料被下載後移回本機儲存層
+     * @param retireGraceMinutes           冷儲存層的舊內容在被取代後保留的分鐘數
+     */
+    public TieringServiceImpl(
+            StorageStrategyFactory storageStrategyFactory, ServerFileMetadataRepository serverFileMetadataRepository,
+            ServerFilePartRepository serverFilePartRepository, DataChunkRepository dataChunkRepository, FileChunkRepository fileChunkRepository,
+            ChunkStoreService chunkStoreService, RetiredStorageKeyRepository retiredStorageKeyRepository,
+            @Value("${file.storage.tiering.enabled: false}") boolean enabled,
+            @Value("${file.storage.tiering.cold-tier: GRID_FS}") StorageEnum coldTier,
+            @Value("${file.storage.tiering.cold-after-days: 30}") long coldAfterDays,
+            @Value("${file.storage.tiering.io-budget-mb: 1024}") long ioBudgetMb,
+            @Value("${file.storage.tiering.batch-size: 100}") int batchSize,
+            @Value("${file.storage.tiering.promote-on-read: true}") boolean promoteOnRead,
+            @Value("${file.storage.tiering.retire-grace-minutes: 60}") long retireGraceMinutes) {
+        if (coldTier == HOT_TIER || coldTier == StorageEnum.PACKED) {
+            throw new IllegalArgumentException("冷儲存層不能是 " + coldTier);
+        }
+        this.storageStrategyFactory = storageStrategyFactory;
+        this.serverFileMetadataRepository = serverFileMetadataRepository;
+        this.serverFilePartRepository = serverFilePartRepository;
+        this.dataChunkRepository = dataChunkRepository;
+        this.fileChunkRepository = fileChunkRepository;
+        this.chunkStoreService = chunkStoreService;
+        this.retiredStorageKeyRepository = retiredStorageKeyRepository;
+        this.enabled = enabled;
+        this.coldTier = coldTier;
+        this.coldAfter = Duration.ofDays(coldAfterDays);
+        this.ioBudgetBytes = ioBudgetMb * 1024 * 1024;
+        this.batchSize = batchSize;
+        this.promoteOnRead = promoteOnRead;
+        this.retireGrace = Duration.ofMinutes(retireGraceMinutes);
+    }
+
+    /**
+     * 依序將冷的單一文件、分段與區塊移到冷儲存層，用完 I/O 預算後停止
+     * 單一內容搬移失敗時只記錄日誌並繼續處理下一個
+     *
+     * @return 搬移的字節數
+     */
+    @Override
+    public Mono<Long> demoteColdContent() {
+        if (!enabled) {
+            return Mono.just(0L);
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(coldAfter);
+        String keyPattern = HOT_TIER.getKeyPrefix() + "%";
+        AtomicLong budget = new AtomicLong(ioBudgetBytes);
+
+        Flux<Long> singleFiles = pages(afterId -> serverFileMetadataRepository.findColdSingleFiles(keyPattern, cutoff, afterId, batchSize),
+                                       ServerFileMetadata::getId)
+                .takeWhile(serverFile -> budget.get() > 0)
+                .concatMap(serverFile -> migrate(serverFile.getGridFsId(),
+                                                 coldTier,
+                                                 newKey -> serverFileMetadataRepository.compareAndSetStorageKey(serverFile.getId(),
+                                                                                                                 serverFile.getGridFsId(),
+                                                                                                                 newKey),
+                                                 serverFile.getFileSize(),
+                                                 budget));
+        Flux<Long> parts = pages(afterId -> serverFilePartRepository.findColdParts(keyPattern, cutoff, afterId, batchSize), part -> part.getId())
+                .takeWhile(part -> budget.get() > 0)
+                .concatMap(part -> migrate(part.getStorageKey(),
+                                           coldTier,
+                                           newKey -> serverFilePartRepository.compareAndSetStorageKey(part.getId(), part.getStorageKey(), newKey),
+                                           part.getPartSize(),
+                                           budget));
+        Flux<Long> chunks = pages(afterId -> dataChunkRepository.findColdChunks(keyPattern, cutoff, afterId, batchSize), chunk -> chunk.getId())
+                .takeWhile(chunk -> budget.get() > 0)
+                .concatMap(chunk -> migrate(chunk.getStorageKey(),
+                                            coldTier,
+                                            newKey -> dataChunkRepository.compareAndSetStorageKey(chunk.getId(), chunk.getStorageKey(), newKey),
+                                            chunk.getChunkSize(),
+                                            budget));
+        return Flux.concat(singleFiles, parts, chunks).reduce(0L, Long::sum);
+    }
+
+    /**
+     * 在背景將伺服器文件位於冷儲存層的內容移回本機儲存層
+     *
+     * @param serverFile 伺服器文件元數據
+     */
+    @Override
+    public void schedulePromotion(ServerFileMetadata serverFile) {
+        if (!enabled || !promoteOnRead || !promotingFiles.add(serverFile.getId())) {
+            return;
+        }
+        AtomicLong unlimited = new AtomicLong(Long.MAX_VALUE);
+        Flux<Long> promotions = switch (serverFile.getLayout()) {
+            case SINGLE -> isCold(serverFile.getGridFsId()) ? migrate(serverFile.getGridFsId(),
+                                                                      HOT_TIER,
+                                                                      newKey -> serverFileMetadataRepository.compareAndSetStorageKey(serverFile.getId(),
+                                                                                                                                      serverFile.getGridFsId(),
+                                                                                                                                      newKey),
+                                                                      serverFile.getFileSize(),
+                                                                      unlimited).flux() : Flux.empty();
+            case COMPOSITE -> serverFilePartRepository
+                    .findAllByServerFileIdOrderByPartIndex(serverFile.getId())
+                    .filter(part -> isCold(part.getStorageKey()))
+                    .concatMap(part -> migrate(part.getStorageKey(),
+                                               HOT_TIER,
+                                               newKey -> serverFilePartRepository.compareAndSetStorageKey(part.getId(), part.getStorageKey(), newKey),
+                                               part.getPartSize(),
+                                               unlimited));
+            case CHUNKED -> fileChunkRepository
+                    .findAllByServerFileIdOrderByChunkIndex(serverFile.getId())
+                    .map(FileChunk::getChunkHash)
+                    .distinct()
+                    .collectList()
+                    .flatMap(chunkStoreService::findChunks)
+                    .flatMapIterable(chunkMap -> List.copyOf(chunkMap.values()))
+                    .filter(chunk -> isCold(chunk.getStorageKey()))
+                    .concatMap(chunk -> migrate(chunk.getStorageKey(),
+                                                HOT_TIER,
+                                                newKey -> dataChunkRepository.compareAndSetStorageKey(chunk.getId(), chunk.getStorageKey(), newKey),
+                                                chunk.getChunkSize(),
+                                                unlimited));
+        };
+        promotions
+                .reduce(0L, Long::sum)
+                .doFinally(signal -> promotingFiles.remove(serverFile.getId()))
+                .subscribe(moved -> log.debug("伺服器文件 {} 移回本機儲存層 {} bytes", serverFile.getId(), moved),
+                           e -> log.warn("伺服器文件 {} 移回本機儲存層失敗: {}", serverFile.getId(), e.getMessage()));
+    }
+
+    /**
+     * 刪除被取代超過保留時間的舊內容，刪除失敗的內容保留記錄，留待下次執行
+     * 分層儲存關閉後仍會執行，清理關閉前留下的記錄
+     *
+     * @return 刪除的內容數量
+     */
+    @Override
+    public Mono<Long> purgeRetiredContent() {
+        return retiredStorageKeyRepository
+                .findAllByRetireTimeBefore(LocalDateTime.now().minus(retireGrace))
+                .concatMap(retired -> storageStrategyFactory
+                        .getStorageProvider(retired.getStorageKey())
+                        .delete(retired.getStorageKey())
+                        .then(retiredStorageKeyRepository.delete(retired))
+                        .thenReturn(retired)
+                        .onErrorResume(e -> {
+                            log.warn("刪除被取代的儲存內容 {} 失敗: {}", retired.getStorageKey(), e.getMessage());
+                            return Mono.empty();
+                        }))
+                .count();
+    }
+
+    /**
+     * 將一個儲存內容搬移到目標儲存層
+     *
+     * @param sourceKey     來源儲存鍵值
+     * @param target        目標儲存層
+     * @param compareAndSet 以新的儲存鍵值條件更新記錄的方法，返回更新的行數
+     * @param size          內容大小
+     * @param budget        剩餘的 I/O 預算
+     *
+     * @return 搬移的字節數，記錄已經改變或搬移失敗時為0
+     */
+    private Mono<Long> migrate(String sourceKey, StorageEnum target, Function<String, Mono<Integer>> compareAndSet, long size, AtomicLong budget) {
+        StorageProvider sourceProvider = storageStrategyFactory.getStorageProvider(sourceKey);
+        StorageProvider targetProvider = storageStrategyFactory.getStorageProvider(target);
+        budget.addAndGet(-size);
+        return targetProvider
+                .store(sourceProvider.read(sourceKey), "tier-" + sourceKey, MediaType.APPLICATION_OCTET_STREAM_VALUE)
+                .flatMap(newKey -> compareAndSet
+                        .apply(newKey)
+                        .flatMap(updated -> updated > 0 ? releaseSource(sourceKey).thenReturn(size) : targetProvider.delete(newKey).thenReturn(0L))
+                        .onErrorResume(e -> targetProvider.delete(newKey).then(Mono.error(e))))
+                .onErrorResume(e -> {
+                    log.warn("搬移儲存內容 {} 到 {} 失敗: {}", sourceKey, target, e.getMessage());
+                    return Mono.just(0L);
+                });
+    }
+
+    /**
+     * 處理已被新鍵值取代的來源內容，本機儲存層的內容直接刪除，其他儲存層的內容記錄為等待刪除
+     * 此時記錄已經指向新的鍵值，處理失敗只記錄警告，不能刪除新的內容
+     *
+     * @param sourceKey 來源儲存鍵值
+     *
+     * @return 處理完成的信號
+     */
+    private Mono<Void> releaseSource(String sourceKey) {
+        Mono<Void> release;
+        if (StorageEnum.fromStorageKey(sourceKey) == HOT_TIER) {
+            release = storageStrategyFactory.getStorageProvider(sourceKey).delete(sourceKey);
+        } else {
+            RetiredStorageKey retired = new RetiredStorageKey();
+            retired.setStorageKey(sourceKey);
+            retired.setRetireTime(LocalDateTime.now());
+            release = retiredStorageKeyRepository.save(retired).then();
+        }
+        return release.onErrorResume(e -> {
+            log.warn("處理已被取代的儲存內容 {} 失敗: {}", sourceKey, e.getMessage());
+            return Mono.empty();
+        });
+    }
+
+    /**
+     * 依ID分頁查詢，直到查詢結果少於一頁
+     *
+     * @param query 以上一頁最後的ID查詢下一頁的方法
+     * @param idOf  取得記錄ID的方法
+     * @param <T>   記錄類型
+     *
+     * @return 所有記錄
+     */
+    private <T> Flux<T> pages(Function<Long, Flux<T>> query, Function<T, Long> idOf) {
+        return query
+                .apply(0L)
+                .collectList()
+                .expand(page -> page.size() < batchSize ? Mono.empty() : query.apply(idOf.apply(page.getLast())).collectList())
+                .concatMapIterable(page -> page);
+    }
+
+    /**
+     * 儲存內容是否位於冷儲存層
+     *
+     * @param storageKey 儲存鍵值
+     *
+     * @return 是否位於冷儲存層
+     */
+    private boolean isCold(String storageKey) {
+        return StorageEnum.fromStorageKey(storageKey) == coldTier;
+    }
+}
@@ -0,0 +1,608 @@
+package xyz.dowob.filemanagement.service.ServiceImpl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.component.factory.StorageStrategyFactory;
+import xyz.dowob.filemanagement.component.manager.QuotaManager;
+import xyz.dowob.filemanagement.customenum.FileEnum;
+import xyz.dowob.filemanagement.customenum.FileLayoutEnum;
+import xyz.dowob.filemanagement.customenum.UploadStatusEnum;
+import xyz.dowob.filemanagement.dto.file.FileMetadataDTO;
+import xyz.dowob.filemanagement.dto.file.UploadPartDTO;
+import xyz.dowob.filemanagement.dto.file.UploadSessionDTO;
+import xyz.dowob.filemanagement.dto.file.UploadSessionStatusDTO;
+import xyz.dowob.filemanagement.entity.ServerFileMetadata;
+import xyz.dowob.filemanagement.entity.ServerFilePart;
+import xyz.dowob.filemanagement.entity.UploadPart;
+import xyz.dowob.filemanagement.entity.UploadSession;
+import xyz.dowob.filemanagement.exception.FileException;
+import xyz.dowob.filemanagement.repostiory.ServerFileMetadataRepository;
+import xyz.dowob.filemanagement.repostiory.ServerFilePartRepository;
+import xyz.dowob.filemanagement.repostiory.UploadPartRepository;
+import xyz.dowob.filemanagement.repostiory.UploadSessionRepository;
+import xyz.dowob.filemanagement.service.ServiceInterFace.DirectoryService;
+import xyz.dowob.filemanagement.service.ServiceInterFace.FileService;
+import xyz.dowob.filemanagement.service.ServiceInterFace.UploadSessionService;
+import xyz.dowob.filemanagement.service.ServiceInterFace.ValidationService;
+import xyz.dowob.filemanagement.utils.StreamingDigest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * 分段上傳會話業務邏輯實現類
+ * 實現接口 @see {@link UploadSessionService}
+ * 每個分段都以獨立的儲存鍵值寫入儲存空間，合併時只建立 ServerFilePart 記錄指向這些分段，不會再次複製文件內容
+ * 建立會話時以宣告的文件大小預留儲存空間，預留在會話進入終止狀態(合併完成、取消或過期清理)時釋放
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName UploadSessionServiceImpl
+ * @description
+ * @create 2026-10-18 12:20
+ * @Version 1.0
+ **/
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UploadSessionServiceImpl implements UploadSessionService {
+    /**
+     * 上傳會話數據庫操作對象
+     */
+    private final UploadSessionRepository uploadSessionRepository;
+
+    /**
+     * 上傳分段數據庫操作對象
+     */
+    private final UploadPartRepository uploadPartRepository;
+
+    /**
+     * 伺服器文件元數據數據庫操作對象
+     */
+    private final ServerFileMetadataRepository serverFileMetadataRepository;
+
+    /**
+     * 分段組合文件的分段數據庫操作對象
+     */
+    private final ServerFilePartRepository serverFilePartRepository;
+
+    /**
+     * 儲存策略工廠，寫入時使用配置的儲存後端，讀取與刪除時依照儲存鍵值選擇儲存後端
+     */
+    private final StorageStrategyFactory storageStrategyFactory;
+
+    /**
+     * 文件服務
+     */
+    private final FileService fileService;
+
+    /**
+     * 目錄服務
+     */
+    private final DirectoryService directoryService;
+
+    /**
+     * 驗證服務
+     */
+    private final ValidationService validationService;
+
+    /**
+     * 儲存空間配額的計數器
+     */
+    private final QuotaManager quotaManager;
+
+    /**
+     * 響應式交易
+     */
+    private final TransactionalOperator transactionalOperator;
+
+    /**
+     * 預設的分段大小，從配置文件中獲取
+     * 單位：bytes，預設為 8MB
+     */
+    @Value("${file.upload.session.default-part-size: 8388608}")
+    private long defaultPartSize;
+
+    /**
+     * 最小的分段大小，從配置文件中獲取
+     * 單位：bytes，預設為 1MB
+     */
+    @Value("${file.upload.session.min-part-size: 1048576}")
+    private long minPartSize;
+
+    /**
+     * 最大的分段數量，從配置文件中獲取
+     */
+    @Value("${file.upload.session.max-part-count: 10000}")
+    private int maxPartCount;
+
+    /**
+     * 單一文件上傳的大小上限，從配置文件中獲取
+     * 單位：bytes，預設為 10GB
+     */
+    @Value("${file.upload.max-size: 10737418240}")
+    private long maxUploadSize;
+
+    /**
+     * 會話的有效時間，從配置文件中獲取
+     * 單位：分鐘，預設為 1 天
+     */
+    @Value("${file.upload.session.expiration: 1440}")
+    private long sessionExpiration;
+
+    /**
+     * 建立分段上傳會話
+     * 根據文件大小與分段大小計算分段數量，當分段數量超過上限時會自動放大分段大小
+     * 目標路徑在建立會話時就先解析，不合法的路徑直接返回錯誤，不會等到分段全部上傳後合併時才失敗
+     * 會話保存後預留文件大小的空間，空間不足時刪除會話並返回 QUOTA_EXCEEDED 錯誤，客戶端不會上傳任何分段
+     *
+     * @param userId           用戶ID
+     * @param uploadSessionDTO 建立會話的數據傳輸對象
+     *
+     * @return 會話狀態
+     */
+    @Override
+    public Mono<UploadSessionStatusDTO> createSession(Long userId, UploadSessionDTO uploadSessionDTO) {
+        return validationService
+                .validateNotNull(uploadSessionDTO)
+                .then(Mono.defer(() -> validationService.validateFilename(uploadSessionDTO.getFilename())))
+                .then(Mono.defer(() -> directoryService.resolvePath(userId, uploadSessionDTO.getPath())))
+                .then(Mono.defer(() -> {
+                    long fileSize = uploadSessionDTO.getFileSize();
+                    if (fileSize > maxUploadSize) {
+                        return Mono.error(new FileException(FileException.ErrorCode.FILE_TOO_LARGE, maxUploadSize));
+                    }
+                    long partSize = Math.max(uploadSessionDTO.getPartSize() != null ? uploadSessionDTO.getPartSize() : defaultPartSize,
+                                             minPartSize);
+                    partSize = Math.max(partSize, (fileSize + maxPartCount - 1) / maxPartCount);
+                    int partCount = (int) Math.max(1, (fileSize + partSize - 1) / partSize);
+
+                    UploadSession session = new UploadSession();
+                    session.setUserId(userId);
+                    session.setFilename(uploadSessionDTO.getFilename());
+                    session.setFilePath(uploadSessionDTO.getPath());
+                    session.setContentType(uploadSessionDTO.getContentType() != null ? uploadSessionDTO.getContentType() : MediaType
+                            .APPLICATION_OCTET_STREAM_VALUE);
+                    session.setFileSize(fileSize);
+                    session.setPartSize(partSize);
+                    session.setPartCount(partCount);
+                    session.setStatus(UploadStatusEnum.UPLOADING);
+                    session.setCreateTime(LocalDateTime.now());
+                    session.setExpireTime(session.getCreateTime().plusMinutes(sessionExpiration));
+                    return uploadSessionRepository
+                            .save(session)
+                            .flatMap(saved -> quotaManager
+                                    .reserve(userId, reservationKey(saved.getId()), fileSize)
+                                    .onErrorResume(e -> uploadSessionRepository.delete(saved).then(Mono.error(e)))
+                                    .thenReturn(toSessionStatusDTO(saved, List.of())));
+                }));
+    }
+
+    /**
+     * 上傳指定編號的分段
+     * 分段內容以串流方式寫入儲存空間，大小必須與會話計算出的分段大小一致
+     * 同一編號重複上傳時，新的分段寫入成功後才會刪除舊的分段內容，因此重試不會遺失資料
+     *
+     * @param userId     用戶ID
+     * @param sessionId  會話ID
+     * @param partNumber 分段編號(從1開始)
+     * @param content    分段內容的資料流
+     *
+     * @return 分段資訊
+     */
+    @Override
+    public Mono<UploadPartDTO> uploadPart(Long userId, Long sessionId, int partNumber, Flux<DataBuffer> content) {
+        return findUploadingSession(userId, sessionId).flatMap(session -> {
+            if (partNumber < 1 || partNumber > session.getPartCount()) {
+                return Mono.error(new FileException(FileException.ErrorCode.UPLOAD_PART_INVALID,
+                                                    String.format("分段編號需介於 1 到 %d", session.getPartCount())));
+            }
+            long expectedSize = session.expectedPartSize(partNumber);
+            StreamingDigest digest = new StreamingDigest();
+            Flux<DataBuffer> checkedContent = content.handle((dataBuffer, sink) -> {
+                digest.update(dataBuffer);
+                if (digest.getByteCount() > expectedSize) {
+                    DataBufferUtils.release(dataBuffer);
+                    sink.error(new FileException(FileException.ErrorCode.UPLOAD_PART_INVALID,
+                                                 String.format("分段 %d 的大小應為 %d bytes", partNumber, expectedSize)));
+                    return;
+                }
+                sink.next(dataBuffer);
+            });
+
+            String partName = String.format("%s.part%d", session.getFilename(), partNumber);
+            return storageStrategyFactory
+                    .getStorageProviderBySize(expectedSize)
+                    .store(checkedContent, partName, MediaType.APPLICATION_OCTET_STREAM_VALUE)
+                    .flatMap(storageKey -> savePart(session, partNumber, expectedSize, digest, storageKey).onErrorResume(e -> storageStrategyFactory
+                            .getStorageProvider(storageKey)
+                            .delete(storageKey)
+                            .then(Mono.error(e))));
+        }).map(this::toUploadPartDTO);
+    }
+
+    /**
+     * 保存分段記錄，當同一分段已存在時以新的分段內容取代並刪除舊的內容
+     * 分段記錄在鎖定上傳中會話的交易中保存，合併時將會話改為 COMMITTING 的更新會等待交易結束，因此：
+     * 1. 會話已經開始合併時鎖定不到會話，不會替換分段，呼叫端會刪除剛寫入的內容
+     * 2. 交易提交後合併才能開始，讀到的是新的分段，舊的內容在提交後才刪除，不會刪除合併已經引用的內容
+     *
+     * @param session      上傳會話
+     * @param partNumber   分段編號
+     * @param expectedSize 分段應有的大小
+     * @param digest       分段的摘要
+     * @param storageKey   分段內容的儲存鍵值
+     *
+     * @return 保存後的分段
+     */
+    private Mono<UploadPart> savePart(UploadSession session, int partNumber, long expectedSize, StreamingDigest digest, String storageKey) {
+        if (digest.getByteCount() != expectedSize) {
+            return Mono.error(new FileException(FileException.ErrorCode.UPLOAD_PART_INVALID,
+                                                String.format("分段 %d 的大小應為 %d bytes，實際為 %d bytes",
+                                                              partNumber,
+                                                              expectedSize,
+                                                              digest.getByteCount())));
+        }
+        String md5 = digest.md5Hex();
+        Mono<SavedPart> upsert = uploadSessionRepository
+                .lockUploading(session.getId())
+                .switchIfEmpty(Mono.defer(() -> findSession(session.getUserId(), session.getId()).flatMap(current -> Mono.error(new FileException(
+                        FileException.ErrorCode.UPLOAD_SESSION_STATE_INVALID,
+                        current.getStatus().getStatus())))))
+                .then(uploadPartRepository.findBySessionIdAndPartNumber(session.getId(), partNumber))
+                .flatMap(existingPart -> {
+                    String replacedStorageKey = existingPart.getStorageKey();
+                    existingPart.setStorageKey(storageKey);
+                    existingPart.setPartSize(expectedSize);
+                    existingPart.setMd5(md5);
+                    existingPart.setUploadTime(LocalDateTime.now());
+                    return uploadPartRepository.save(existingPart).map(saved -> new SavedPart(saved, replacedStorageKey));
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    UploadPart uploadPart = new UploadPart();
+                    uploadPart.setSessionId(session.getId());
+                    uploadPart.setPartNumber(partNumber);
+                    uploadPart.setStorageKey(storageKey);
+                    uploadPart.setPartSize(expectedSize);
+                    uploadPart.setMd5(md5);
+                    uploadPart.setUploadTime(LocalDateTime.now());
+                    return uploadPartRepository.save(uploadPart).map(saved -> new SavedPart(saved, null));
+                }));
+        return findUploadingSession(session.getUserId(), session.getId())
+                .then(transactionalOperator.transactional(upsert))
+                .flatMap(saved -> saved.replacedStorageKey() == null ? Mono.just(saved.part()) : storageStrategyFactory
+                        .getStorageProvider(saved.replacedStorageKey())
+                        .delete(saved.replacedStorageKey())
+                        .thenReturn(saved.part()));
+    }
+
+    /**
+     * 查詢會話狀態以及缺少的分段
+     *
+     * @param userId    用戶ID
+     * @param sessionId 會話ID
+     *
+     * @return 會話狀態
+     */
+    @Override
+    public Mono<UploadSessionStatusDTO> getSessionStatus(Long userId, Long sessionId) {
+        return findSession(userId, sessionId).flatMap(session -> uploadPartRepository
+                .findAllBySessionIdOrderByPartNumber(sessionId)
+                .map(UploadPart::getPartNumber)
+                .collectList()
+                .map(uploadedParts -> toSessionStatusDTO(session, uploadedParts)));
+    }
+
+    /**
+     * 合併所有分段並建立文件
+     * 1. 以比較並交換的方式將會話狀態改為 COMMITTING，避免重複合併
+     * 2. 確認所有分段都已上傳且大小正確
+     * 3. 依序讀取分段計算整個文件的 MD5 與 SHA-256(只讀取，不會寫入新的副本)
+     * 4. 伺服器已有相同內容的文件時刪除所有分段並直接指向該文件，否則建立 COMPOSITE 佈局的伺服器文件，分段記錄直接指向上傳時的儲存內容
+     * 合併失敗時會話狀態會回到 UPLOADING，客戶端可以補傳後重試，預留的空間保留給重試使用
+     * 合併前再次預留空間，應用重啟後遺失的預留會在這裡補回；會話標記為 COMMITTED 時釋放預留，無法回到 UPLOADING 時也會釋放
+     *
+     * @param userId    用戶ID
+     * @param sessionId 會話ID
+     *
+     * @return 文件資訊
+     */
+    @Override
+    public Mono<FileMetadataDTO> commitSession(Long userId, Long sessionId) {
+        return findSession(userId, sessionId)
+                .flatMap(session -> session.getStatus() != UploadStatusEnum.UPLOADING ? Mono.just(session) : quotaManager
+                        .reserve(userId, reservationKey(sessionId), session.getFileSize())
+                        .thenReturn(session))
+                .flatMap(session -> uploadSessionRepository
+                        .compareAndSetStatus(sessionId, UploadStatusEnum.UPLOADING.name(), UploadStatusEnum.COMMITTING.name())
+                        .flatMap(updated -> updated == 0 ? Mono.error(new FileException(FileException.ErrorCode.UPLOAD_SESSION_STATE_INVALID,
+                                                                                         session.getStatus().getStatus())) : Mono.just(session)))
+                .flatMap(session -> uploadPartRepository
+                        .findAllBySessionIdOrderByPartNumber(sessionId)
+                        .collectList()
+                        .flatMap(parts -> verifyParts(session, parts).then(Mono.defer(() -> mergeParts(session, parts))))
+                        .onErrorResume(e -> uploadSessionRepository
+                                .compareAndSetStatus(sessionId, UploadStatusEnum.COMMITTING.name(), UploadStatusEnum.UPLOADING.name())
+                                .doOnNext(updated -> {
+                                    if (updated == 0) {
+                                        quotaManager.release(reservationKey(sessionId));
+                                    }
+                                })
+                                .then(Mono.error(e))));
+    }
+
+    /**
+     * 確認所有分段都已上傳且大小正確
+     *
+     * @param session 上傳會話
+     * @param parts   依編號排序的分段
+     */
+    private Mono<Void> verifyParts(UploadSession session, List<UploadPart> parts) {
+        return Mono.defer(() -> {
+            List<Integer> missingParts = findMissingParts(session, parts.stream().map(UploadPart::getPartNumber).toList());
+            if (!missingParts.isEmpty()) {
+                return Mono.error(new FileException(FileException.ErrorCode.UPLOAD_PARTS_MISSING, missingParts));
+            }
+            for (UploadPart part : parts) {
+                if (part.getPartSize() != session.expectedPartSize(part.getPartNumber())) {
+                    return Mono.error(new FileException(FileException.ErrorCode.UPLOAD_PART_INVALID, part.getPartNumber()));
+                }
+            }
+            return Mono.empty();
+        });
+    }
+
+    /**
+     * 計算整個文件的摘要並建立分段組合的伺服器文件
+     *
+     * @param session 上傳會話
+     * @param parts   依編號排序的分段
+     *
+     * @return 文件資訊
+     */
+    private Mono<FileMetadataDTO> mergeParts(UploadSession session, List<UploadPart> parts) {
+        StreamingDigest digest = new StreamingDigest();
+        return Flux.fromIterable(parts).concatMap(part -> storageStrategyFactory.getStorageProvider(part.getStorageKey()).read(part.getStorageKey())).doOnNext(dataBuffer -> {
+            digest.update(dataBuffer);
+            DataBufferUtils.release(dataBuffer);
+        }).then(Mono.defer(() -> fileService
+                .findDuplicate(digest.sha256Hex(), digest.md5Hex(), digest.getByteCount())
+                .flatMap(existingServerFile -> finishSession(session,
+                                                             fileService.linkDuplicate(session.getUserId(),
+                                                                                       session.getFilename(),
+                                                                                       session.getFilePath(),
+                                                                                       existingServerFile),
+                                                             Mono.empty()).flatMap(fileMetadataDTO -> Flux
+                        .fromIterable(parts)
+                        .concatMap(part -> storageStrategyFactory.getStorageProvider(part.getStorageKey()).delete(part.getStorageKey()))
+                        .then(Mono.just(fileMetadataDTO))))
+                .switchIfEmpty(Mono.defer(() -> {
+                    ServerFileMetadata serverFile = new ServerFileMetadata();
+                    serverFile.setFileSize(digest.getByteCount());
+                    serverFile.setFileType(FileEnum.fromContentType(session.getContentType()));
+                    serverFile.setContentType(session.getContentType());
+                    serverFile.setLayout(FileLayoutEnum.COMPOSITE);
+                    serverFile.setMd5(digest.md5Hex());
+                    serverFile.setSha256(digest.sha256Hex());
+                    serverFile.setUploadTime(LocalDateTime.now());
+                    serverFile.setLastAccessTime(serverFile.getUploadTime());
+                    return serverFileMetadataRepository
+                            .save(serverFile)
+                            .flatMap(savedServerFile -> serverFilePartRepository
+                                    .saveAll(toServerFileParts(savedServerFile, parts))
+                                    .then(finishSession(session,
+                                                        fileService.linkUserFile(session.getUserId(),
+                                                                                 session.getFilename(),
+                                                                                 session.getFilePath(),
+                                                                                 savedServerFile),
+                                                        serverFilePartRepository
+                                                                .deleteAllByServerFileId(savedServerFile.getId())
+                                                                .then(serverFileMetadataRepository.delete(savedServerFile)))));
+                }))));
+    }
+
+    /**
+     * 建立指向伺服器文件的用戶文件、將會話標記為已完成並釋放預留，最後刪除會話的分段記錄
+     * 用戶文件在會話仍為 COMMITTING 時建立，建立失敗時先執行回滾再傳出錯誤，由呼叫端將會話改回 UPLOADING，分段內容保留給重試使用
+     * 重複內容的伺服器文件在建立前已被釋放時返回空，會話維持 COMMITTING，由呼叫端改為建立新的伺服器文件
+     * 會話標記為 COMMITTED 後分段內容已由伺服器文件持有，刪除分段記錄失敗只記錄警告
+     *
+     * @param session  上傳會話
+     * @param link     建立用戶文件的操作
+     * @param rollback 建立用戶文件失敗時的回滾操作，用於刪除這次合併新建的伺服器文件記錄
+     *
+     * @return 文件資訊
+     */
+    private Mono<FileMetadataDTO> finishSession(UploadSession session, Mono<FileMetadataDTO> link, Mono<Void> rollback) {
+        return link
+                .onErrorResume(e -> rollback.then(Mono.error(e)))
+                .flatMap(fileMetadataDTO -> uploadSessionRepository
+                        .compareAndSetStatus(session.getId(), UploadStatusEnum.COMMITTING.name(), UploadStatusEnum.COMMITTED.name())
+                        .doOnNext(updated -> quotaManager.release(reservationKey(session.getId())))
+                        .then(uploadPartRepository.deleteAllBySessionId(session.getId()).onErrorResume(e -> {
+                            log.warn("刪除會話 {} 的分段記錄失敗: {}", session.getId(), e.getMessage());
+                            return Mono.empty();
+                        }))
+                        .thenReturn(fileMetadataDTO));
+    }
+
+    /**
+     * 將上傳分段轉換為伺服器文件的分段記錄，並計算每個分段在文件中的起始位置
+     *
+     * @param serverFile 伺服器文件
+     * @param parts      依編號排序的分段
+     *
+     * @return 伺服器文件的分段記錄
+     */
+    private List<ServerFilePart> toServerFileParts(ServerFileMetadata serverFile, List<UploadPart> parts) {
+        List<ServerFilePart> serverFileParts = new ArrayList<>(parts.size());
+        long offset = 0;
+        for (UploadPart part : parts) {
+            ServerFilePart serverFilePart = new ServerFilePart();
+            serverFilePart.setServerFileId(serverFile.getId());
+            serverFilePart.setPartIndex(part.getPartNumber() - 1);
+            serverFilePart.setStorageKey(part.getStorageKey());
+            serverFilePart.setPartOffset(offset);
+            serverFilePart.setPartSize(part.getPartSize());
+            serverFileParts.add(serverFilePart);
+            offset += part.getPartSize();
+        }
+        return serverFileParts;
+    }
+
+    /**
+     * 取消會話並刪除已上傳的分段
+     *
+     * @param userId    用戶ID
+     * @param sessionId 會話ID
+     */
+    @Override
+    public Mono<Void> abortSession(Long userId, Long sessionId) {
+        return findSession(userId, sessionId).flatMap(this::abort);
+    }
+
+    /**
+     * 清理所有已經過期但仍在上傳中的會話
+     *
+     * @return 清理的會話數量
+     */
+    @Override
+    public Mono<Long> cleanExpiredSessions() {
+        return uploadSessionRepository
+                .findAllByStatusAndExpireTimeBefore(UploadStatusEnum.UPLOADING.name(), LocalDateTime.now())
+                .concatMap(session -> abort(session).thenReturn(session).onErrorResume(FileException.class, e -> Mono.empty()))
+                .count();
+    }
+
+    /**
+     * 將上傳中的會話標記為取消，釋放預留的空間，並刪除所有分段內容與記錄
+     *
+     * @param session 上傳會話
+     */
+    private Mono<Void> abort(UploadSession session) {
+        return uploadSessionRepository
+                .compareAndSetStatus(session.getId(), UploadStatusEnum.UPLOADING.name(), UploadStatusEnum.ABORTED.name())
+                .flatMap(updated -> updated == 0 ? Mono.error(new FileException(FileException.ErrorCode.UPLOAD_SESSION_STATE_INVALID,
+                                                                                 session.getStatus().getStatus())) : Mono.empty())
+                .doOnSuccess(done -> quotaManager.release(reservationKey(session.getId())))
+                .thenMany(uploadPartRepository.findAllBySessionIdOrderByPartNumber(session.getId()))
+                .concatMap(part -> storageStrategyFactory.getStorageProvider(part.getStorageKey()).delete(part.getStorageKey()))
+                .then(uploadPartRepository.deleteAllBySessionId(session.getId()));
+    }
+
+    /**
+     * 會話預留儲存空間時使用的鍵值
+     *
+     * @param sessionId 會話ID
+     *
+     * @return 預留的鍵值
+     */
+    private static String reservationKey(Long sessionId) {
+        return "session:" + sessionId;
+    }
+
+    /**
+     * 查詢屬於用戶的會話
+     *
+     * @param userId    用戶ID
+     * @param sessionId 會話ID
+     *
+     * @return 上傳會話
+     */
+    private Mono<UploadSession> findSession(Long userId, Long sessionId) {
+        return uploadSessionRepository
+                .findByIdAndUserId(sessionId, userId)
+                .switchIfEmpty(Mono.error(new FileException(FileException.ErrorCode.UPLOAD_SESSION_NOT_FOUND, sessionId)));
+    }
+
+    /**
+     * 查詢屬於用戶、仍在上傳中且未過期的會話
+     *
+     * @param userId    用戶ID
+     * @param sessionId 會話ID
+     *
+     * @return 上傳會話
+     */
+    private Mono<UploadSession> findUploadingSession(Long userId, Long sessionId) {
+        return findSession(userId, sessionId).flatMap(session -> {
+            if (session.getStatus() != UploadStatusEnum.UPLOADING || LocalDateTime.now().isAfter(session.getExpireTime())) {
+                return Mono.error(new FileException(FileException.ErrorCode.UPLOAD_SESSION_STATE_INVALID, session.getStatus().getStatus()));
+            }
+            return Mono.just(session);
+        });
+    }
+
+    /**
+     * 找出尚未上傳的分段編號
+     *
+     * @param session       上傳會話
+     * @param uploadedParts 已上傳的分段編號
+     *
+     * @return 缺少的分段編號
+     */
+    private List<Integer> findMissingParts(UploadSession session, List<Integer> uploadedParts) {
+        BitSet uploaded = new BitSet(session.getPartCount() + 1);
+        uploadedParts.forEach(uploaded::set);
+        List<Integer> missingParts = new ArrayList<>();
+        for (int partNumber = uploaded.nextClearBit(1); partNumber <= session.getPartCount(); partNumber = uploaded.nextClearBit(partNumber + 1)) {
+            missingParts.add(partNumber);
+        }
+        return missingParts;
+    }
+
+    /**
+     * 將會話轉換為會話狀態
+     *
+     * @param session       上傳會話
+     * @param uploadedParts 已上傳的分段編號
+     *
+     * @return 會話狀態
+     */
+    private UploadSessionStatusDTO toSessionStatusDTO(UploadSession session, List<Integer> uploadedParts) {
+        UploadSessionStatusDTO statusDTO = new UploadSessionStatusDTO();
+        statusDTO.setSessionId(session.getId());
+        statusDTO.setFilename(session.getFilename());
+        statusDTO.setFileSize(session.getFileSize());
+        statusDTO.setPartSize(session.getPartSize());
+        statusDTO.setPartCount(session.getPartCount());
+        statusDTO.setStatus(session.getStatus());
+        statusDTO.setUploadedParts(uploadedParts);
+        statusDTO.setMissingParts(findMissingParts(session, uploadedParts));
+        statusDTO.setExpireTime(session.getExpireTime());
+        return statusDTO;
+    }
+
+    /**
+     * 將分段轉換為分段資訊
+     *
+     * @param uploadPart 分段
+     *
+     * @return 分段資訊
+     */
+    private UploadPartDTO toUploadPartDTO(UploadPart uploadPart) {
+        UploadPartDTO uploadPartDTO = new UploadPartDTO();
+        uploadPartDTO.setSessionId(uploadPart.getSessionId());
+        uploadPartDTO.setPartNumber(uploadPart.getPartNumber());
+        uploadPartDTO.setPartSize(uploadPart.getPartSize());
+        uploadPartDTO.setMd5(uploadPart.getMd5());
+        return uploadPartDTO;
+    }
+
+    /**
+     * 保存後的分段與被取代的舊內容儲存鍵值
+     *
+     * @param part               保存後的分段
+     * @param replacedStorageKey 被取代的儲存鍵值，第一次上傳時為空
+     */
+    private record SavedPart(UploadPart part, String replacedStorageKey) {}
+}
@@ -9,7 +9,8 @@ import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import xyz.dowob.filemanagement.annotation.HideSensitive;
-import xyz.dowob.filemanagement.component.provider.providerInterface.EmailProvider;
+import xyz.dowob.filemanagement.component.manager.PasswordHashManager;
+import xyz.dowob.filemanagement.component.manager.RateLimitManager;
 import xyz.dowob.filemanagement.customenum.TokenEnum;
 import xyz.dowob.filemanagement.dto.user.AuthRequestDTO;
 import xyz.dowob.filemanagement.dto.user.RegisterDTO;
@@ -19,6 +20,7 @@ import xyz.dowob.filemanagement.entity.User;
 import xyz.dowob.filemanagement.exception.ValidationException;
 import xyz.dowob.filemanagement.repostiory.UserRepository;
 import xyz.dowob.filemanagement.service.ServiceInterFace.AuthorizationService;
+import xyz.dowob.filemanagement.service.ServiceInterFace.EmailOutboxService;
 import xyz.dowob.filemanagement.service.ServiceInterFace.TokenService;
 import xyz.dowob.filemanagement.service.ServiceInterFace.UserService;
 import xyz.dowob.filemanagement.service.ServiceInterFace.ValidationService;
@@ -58,9 +60,19 @@ public class UserServiceImpl implements UserService {
     private final TokenService tokenService;
 
     /**
-     * 驗證碼服務
+     * 郵件發件匣服務，郵件寫入發件匣後由背景發送
      */
-    private final EmailProvider emailProvider;
+    private final EmailOutboxService emailOutboxService;
+
+    /**
+     * 密碼雜湊的執行管理
+     */
+    private final PasswordHashManager passwordHashManager;
+
+    /**
+     * 速率限制管理
+     */
+    private final RateLimitManager rateLimitManager;
 
     /**
      * 驗證碼過期時間
@@ -70,7 +82,7 @@ public class UserServiceImpl implements UserService {
 
     /**
      * 此方法之後為UserService接口中的方法實現
-     * 用戶註冊
+     * 用戶註冊，密碼以 BCrypt 雜湊後保存
      *
      * @param registerUserDTO 用戶註冊數據傳輸對象
      *
@@ -78,13 +90,16 @@ public class UserServiceImpl implements UserService {
      */
     @Override
     public Mono<Void> register(RegisterDTO registerUserDTO) {
-        return validationService.validateRegisterDTO(registerUserDTO).then(Mono.defer(() -> {
-            User user = new User();
-            user.setUsername(registerUserDTO.getUsername());
-            user.setPassword(registerUserDTO.getPassword());
-            user.setEmail(registerUserDTO.getEmail());
-            return userRepository.save(user).then();
-        }));
+        return validationService
+                .validateRegisterDTO(registerUserDTO)
+                .then(Mono.defer(() -> passwordHashManager.encode(registerUserDTO.getPassword())))
+                .flatMap(encodedPassword -> {
+                    User user = new User();
+                    user.setUsername(registerUserDTO.getUsername());
+                    user.setPassword(encodedPassword);
+                    user.setEmail(registerUserDTO.getEmail());
+                    return userRepository.save(user).then();
+                });
     }
 
     /**
@@ -145,6 +160,8 @@ public class UserServiceImpl implements UserService {
 
     /**
      * 發送重置密碼郵件，並依照VerificationCodeExpiration設定的時間內有效
+     * 同一個信箱的請求超過速率限制時返回 TOO_MANY_REQUESTS 錯誤，避免被用來大量發送郵件
+     * 郵件寫入發件匣後即返回，不等待 SMTP 發送
      *
      * @param userEmailDTO 用戶郵箱數據傳輸對象
      *
@@ -154,18 +171,19 @@ public class UserServiceImpl implements UserService {
     public Mono<Void> sendResetPasswordMail(UserEmailDTO userEmailDTO) {
         return validationService
                 .validateNotNull(userEmailDTO)
+                .then(Mono.defer(() -> rateLimitManager.checkAccount("reset-password-mail", userEmailDTO.getEmail())))
                 .then(Mono.defer(() -> userRepository
                         .findByEmail(userEmailDTO.getEmail())
                         .switchIfEmpty(Mono.error(new ValidationException(ValidationException.ErrorCode.USER_NOT_FOUND,
                                                                           userEmailDTO.getEmail())))
                         .flatMap(user -> tokenService.generateToken(user, TokenEnum.RESET_PASSWORD_TOKEN).flatMap(token -> {
                             String content = String.format("重置密碼的憑證為：%s\n請於%s分鐘內重置密碼", token, verificationCodeExpiration);
-                            return emailProvider.sendEmail(user.getEmail(), "重置密碼", content);
+                            return emailOutboxService.enqueue(user.getEmail(), "重置密碼", content);
                         }))));
     }
 
     /**
-     * 重置密碼，並且撤銷憑證
+     * 重置密碼，新密碼以 BCrypt 雜湊後保存，並且撤銷憑證
      *
      * @param resetPasswordDTO 重置密碼數據傳輸對象
      *
@@ -181,12 +199,13 @@ public class UserServiceImpl implements UserService {
                                                                           resetPasswordDTO.getEmail())))
                         .flatMap(user -> tokenService
                                 .validateToken(resetPasswordDTO.getVerificationCode(), user.getId(), TokenEnum.RESET_PASSWORD_TOKEN)
-                                .then(Mono.defer(() -> {
-                                    user.setPassword(resetPasswordDTO.getNewPassword());
+                                .then(Mono.defer(() -> passwordHashManager.encode(resetPasswordDTO.getNewPassword())))
+                                .flatMap(encodedPassword -> {
+                                    user.setPassword(encodedPassword);
                                     return userRepository
                                             .save(user)
                                             .then(tokenService.revokeToken(user.getId(), TokenEnum.RESET_PASSWORD_TOKEN));
-                                })))));
+                                }))));
     }
 
     /**
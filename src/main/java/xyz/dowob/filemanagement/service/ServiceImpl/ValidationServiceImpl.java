@@ -77,6 +77,30 @@ public class ValidationServiceImpl implements ValidationService {
 
      */
 
+    /**
+     * 驗證上傳的文件名稱是否合法
+     * 須符合以下條件：
+     * 1. 文件名稱不為空且長度不超過255
+     * 2. 文件名稱不包含路徑分隔符與控制字元
+     * 3. 文件名稱不為 "." 或 ".."
+     *
+     * @param filename 文件名稱
+     */
+    @Override
+    public Mono<Void> validateFilename(String filename) {
+        return Mono.defer(() -> {
+            if (filename == null || filename.isBlank() || filename.length() > 255 || filename.equals(".") || filename.equals("..")) {
+                return Mono.error(new ValidationException(ValidationException.ErrorCode.FILE_NAME_INVALID, filename));
+            }
+            for (char c : filename.toCharArray()) {
+                if (c == '/' || c == '\\' || Character.isISOControl(c)) {
+                    return Mono.error(new ValidationException(ValidationException.ErrorCode.FILE_NAME_INVALID, filename));
+                }
+            }
+            return Mono.empty();
+        });
+    }
+
     /**
      * 驗證用戶密碼與確認密碼是否一致
      * 當密碼與確認密碼不一致時，拋出ValidationException
@@ -0,0 +1,130 @@
+package xyz.dowob.filemanagement.service.ServiceInterFace;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.entity.DataChunk;
+import xyz.dowob.filemanagement.entity.FileChunk;
+import xyz.dowob.filemanagement.utils.FastCdcChunker;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 區塊儲存服務接口
+ * 定義以內容定義切塊存放文件、讀取區塊清單組成的文件以及回收區塊等方法
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName ChunkStoreService
+ * @description
+ * @create 2026-10-18 14:30
+ * @Version 1.0
+ **/
+public interface ChunkStoreService {
+    /**
+     * 是否啟用區塊儲存，啟用時新上傳的文件以區塊清單的方式存放
+     *
+     * @return 是否啟用
+     */
+    boolean isEnabled();
+
+    /**
+     * 取得伺服器使用的切塊器，用於告知客戶端切塊參數
+     *
+     * @return 切塊器
+     */
+    FastCdcChunker getChunker();
+
+    /**
+     * 查詢伺服器已經存在的區塊
+     *
+     * @param hashes 區塊的SHA-256值
+     *
+     * @return 以雜湊值為鍵的區塊
+     */
+    Mono<Map<String, DataChunk>> findChunks(Collection<String> hashes);
+
+    /**
+     * 查詢用戶自己的文件已經引用的區塊
+     * 與 findChunks 不同，只比對用戶的文件清單，用於回應用戶的請求時不會透露其他用戶擁有哪些內容
+     *
+     * @param userId 用戶ID
+     * @param hashes 區塊的SHA-256值
+     *
+     * @return 用戶已經擁有的區塊雜湊值
+     */
+    Mono<Set<String>> findOwnedChunks(Long userId, Collection<String> hashes);
+
+    /**
+     * 上傳單一區塊，伺服器會確認內容的SHA-256與大小
+     * 區塊已存在時不會重複存放；新存放的區塊引用計數為0，需要在回收的保留時間內被文件清單引用
+     *
+     * @param hash    區塊的SHA-256值
+     * @param content 區塊內容的資料流
+     */
+    Mono<Void> putChunk(String hash, Flux<DataBuffer> content);
+
+    /**
+     * 依照區塊雜湊值清單取得每個區塊的一次引用並建立區塊清單，區塊大小以伺服器記錄為準
+     * 有區塊不存在時會釋放已取得的引用並返回 CHUNKS_MISSING 錯誤
+     *
+     * @param hashes 依序排列的區塊SHA-256值
+     *
+     * @return 尚未關聯伺服器文件的區塊清單
+     */
+    Mono<List<FileChunk>> acquireManifest(List<String> hashes);
+
+    /**
+     * 刪除伺服器文件的區塊清單並釋放其中區塊的引用
+     *
+     * @param serverFileId 伺服器文件ID
+     */
+    Mono<Void> deleteManifest(Long serverFileId);
+
+    /**
+     * 將文件內容切塊並存放，已存在的區塊只增加引用計數
+     * 返回的區塊清單尚未關聯伺服器文件，需要再呼叫 saveManifest 保存
+     * 發生錯誤時已經引用的區塊會被釋放
+     *
+     * @param content 文件內容的資料流
+     *
+     * @return 區塊清單
+     */
+    Mono<List<FileChunk>> storeChunks(Flux<DataBuffer> content);
+
+    /**
+     * 保存伺服器文件的區塊清單
+     *
+     * @param serverFileId 伺服器文件ID
+     * @param manifest     區塊清單
+     */
+    Mono<Void> saveManifest(Long serverFileId, List<FileChunk> manifest);
+
+    /**
+     * 釋放區塊清單中每個區塊的一次引用，引用計數為0的區塊之後會被回收
+     *
+     * @param manifest 區塊清單
+     */
+    Mono<Void> releaseChunks(List<FileChunk> manifest);
+
+    /**
+     * 依照區塊清單讀取伺服器文件內容中的一段，只讀取與範圍重疊的區塊
+     *
+     * @param serverFileId 伺服器文件ID
+     * @param offset       起始位置
+     * @param length       讀取長度
+     *
+     * @return 文件內容的資料流
+     */
+    Flux<DataBuffer> read(Long serverFileId, long offset, long length);
+
+    /**
+     * 回收所有引用計數為0且超過保留時間的區塊，刪除其儲存內容
+     *
+     * @return 回收的區塊數量
+     */
+    Mono<Long> collectGarbage();
+}
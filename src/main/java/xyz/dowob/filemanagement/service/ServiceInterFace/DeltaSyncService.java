@@ -0,0 +1,53 @@
+package xyz.dowob.filemanagement.service.ServiceInterFace;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.dto.file.DeltaPrepareResultDTO;
+import xyz.dowob.filemanagement.dto.file.DeltaSyncDTO;
+import xyz.dowob.filemanagement.dto.file.FileMetadataDTO;
+
+/**
+ * 增量同步服務接口
+ * 客戶端以區塊清單描述已存在文件的新版本，只上傳伺服器缺少的區塊後提交
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName DeltaSyncService
+ * @description
+ * @create 2026-10-18 15:55
+ * @Version 1.0
+ **/
+public interface DeltaSyncService {
+    /**
+     * 比對新版本的區塊清單，建立增量同步會話並返回用戶需要上傳的區塊
+     *
+     * @param userId       用戶ID
+     * @param fileId       用戶文件ID
+     * @param deltaSyncDTO 新版本的區塊清單
+     *
+     * @return 預備結果
+     */
+    Mono<DeltaPrepareResultDTO> prepare(Long userId, Long fileId, DeltaSyncDTO deltaSyncDTO);
+
+    /**
+     * 在文件的增量同步會話中上傳預備時返回的單一區塊
+     *
+     * @param userId  用戶ID
+     * @param fileId  用戶文件ID
+     * @param hash    區塊的SHA-256值
+     * @param content 區塊內容的資料流
+     */
+    Mono<Void> uploadChunk(Long userId, Long fileId, String hash, Flux<DataBuffer> content);
+
+    /**
+     * 提交新版本的區塊清單，所有區塊都必須是用戶已經擁有或在會話中上傳的區塊
+     *
+     * @param userId       用戶ID
+     * @param fileId       用戶文件ID
+     * @param deltaSyncDTO 新版本的區塊清單
+     *
+     * @return 文件資訊
+     */
+    Mono<FileMetadataDTO> commit(Long userId, Long fileId, DeltaSyncDTO deltaSyncDTO);
+}
@@ -0,0 +1,95 @@
+package xyz.dowob.filemanagement.service.ServiceInterFace;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.dto.file.DirectoryInfoDTO;
+
+/**
+ * 目錄服務接口
+ * 定義目錄樹的查詢、建立、重新命名與移動等業務邏輯方法
+ * 目錄以父目錄ID組成樹狀結構，根目錄的ID為 0
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName DirectoryService
+ * @description
+ * @create 2026-10-19 04:20
+ * @Version 1.0
+ **/
+public interface DirectoryService {
+    /**
+     * 查詢屬於用戶的目錄與其完整路徑
+     * 目錄不存在或不屬於該用戶時傳出 DIRECTORY_NOT_FOUND 錯誤
+     *
+     * @param userId      用戶ID
+     * @param directoryId 目錄ID，根目錄為 0
+     *
+     * @return 目錄資訊
+     */
+    Mono<DirectoryInfoDTO> getDirectory(Long userId, Long directoryId);
+
+    /**
+     * 依名稱排序列出目錄下的子目錄
+     *
+     * @param userId     用戶ID
+     * @param parentId   父目錄ID
+     * @param parentPath 父目錄的完整路徑，用於組合子目錄的路徑
+     *
+     * @return 子目錄列表
+     */
+    Flux<DirectoryInfoDTO> listChildren(Long userId, Long parentId, String parentPath);
+
+    /**
+     * 在父目錄下建立目錄，同一目錄下已有相同名稱時傳出 DIRECTORY_ALREADY_EXISTS 錯誤
+     *
+     * @param userId   用戶ID
+     * @param parentId 父目錄ID
+     * @param name     目錄名稱
+     *
+     * @return 建立的目錄資訊
+     */
+    Mono<DirectoryInfoDTO> create(Long userId, Long parentId, String name);
+
+    /**
+     * 重新命名目錄，只更新目錄本身這一行，子目錄與文件不需要改寫
+     *
+     * @param userId      用戶ID
+     * @param directoryId 目錄ID
+     * @param name        新的目錄名稱
+     *
+     * @return 重新命名後的目錄資訊
+     */
+    Mono<DirectoryInfoDTO> rename(Long userId, Long directoryId, String name);
+
+    /**
+     * 將目錄移動到新的父目錄下，只更新目錄本身這一行，子目錄與文件不需要改寫
+     * 目標為自身或自身的子目錄時傳出 DIRECTORY_MOVE_INVALID 錯誤
+     *
+     * @param userId      用戶ID
+     * @param directoryId 目錄ID
+     * @param parentId    新的父目錄ID
+     *
+     * @return 移動後的目錄資訊
+     */
+    Mono<DirectoryInfoDTO> move(Long userId, Long directoryId, Long parentId);
+
+    /**
+     * 將路徑轉換為目錄ID，路徑中不存在的目錄會依序建立
+     *
+     * @param userId 用戶ID
+     * @param path   以 "/" 分隔的路徑，空白時為根目錄
+     *
+     * @return 目錄ID
+     */
+    Mono<Long> resolvePath(Long userId, String path);
+
+    /**
+     * 沿父目錄向上組合目錄的完整路徑，根目錄為 "/"
+     *
+     * @param userId      用戶ID
+     * @param directoryId 目錄ID
+     *
+     * @return 完整路徑
+     */
+    Mono<String> getPath(Long userId, Long directoryId);
+}
@@ -0,0 +1,41 @@
+package xyz.dowob.filemanagement.service.ServiceInterFace;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * 郵件發件匣服務接口
+ * 定義將郵件寫入發件匣，以及由背景發送程序批次發送發件匣中郵件的方法
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName EmailOutboxService
+ * @description
+ * @create 2026-10-18 23:20
+ * @Version 1.0
+ **/
+public interface EmailOutboxService {
+    /**
+     * 將郵件寫入發件匣，寫入完成即返回，不等待 SMTP 發送
+     *
+     * @param recipient 收件人郵箱
+     * @param subject   郵件主題
+     * @param content   郵件內容
+     *
+     * @return 寫入完成的信號
+     */
+    Mono<Void> enqueue(String recipient, String subject, String content);
+
+    /**
+     * 取出一批到達發送時間的郵件並發送
+     *
+     * @return 取出的郵件數量
+     */
+    Mono<Integer> dispatch();
+
+    /**
+     * 刪除超過保留期限的已發送郵件
+     *
+     * @return 刪除的郵件數量
+     */
+    Mono<Integer> purgeSent();
+}
@@ -0,0 +1,186 @@
+package xyz.dowob.filemanagement.service.ServiceInterFace;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.customenum.FileSortEnum;
+import xyz.dowob.filemanagement.dto.file.DirectoryInfoDTO;
+import xyz.dowob.filemanagement.dto.file.FileMetadataDTO;
+import xyz.dowob.filemanagement.dto.file.FilePageDTO;
+import xyz.dowob.filemanagement.dto.file.FilePreCheckDTO;
+import xyz.dowob.filemanagement.dto.file.FilePreCheckResultDTO;
+import xyz.dowob.filemanagement.entity.ServerFileMetadata;
+import xyz.dowob.filemanagement.entity.UserFileMetadata;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * 文件服務接口
+ * 定義文件上傳、查詢等業務邏輯方法
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName FileService
+ * @description
+ * @create 2026-10-18 10:42
+ * @Version 1.0
+ **/
+public interface FileService extends CrudService<UserFileMetadata, Long> {
+    /**
+     * 以串流方式上傳文件
+     * 文件內容在寫入儲存空間的同時計算 MD5、SHA-256 與文件大小
+     *
+     * @param userId         上傳者的用戶ID
+     * @param filename       文件名稱
+     * @param filePath       文件路徑
+     * @param contentType    內容類型
+     * @param content        文件內容的資料流
+     * @param maxContentSize 寫入前已知的文件大小上限(例如請求的 Content-Length)，用於選擇儲存後端，未知時為負數
+     *
+     * @return 上傳後的文件資訊
+     */
+    Mono<FileMetadataDTO> upload(Long userId, String filename, String filePath, String contentType, Flux<DataBuffer> content, long maxContentSize);
+
+    /**
+     * 建立一筆指向已存在伺服器文件的用戶文件
+     * 伺服器文件在建立期間被釋放時，刪除剛建立的用戶文件並傳出 SERVER_FILE_RELEASED 錯誤
+     *
+     * @param userId     用戶ID
+     * @param filename   文件名稱
+     * @param filePath   文件路徑，會轉換為目錄ID，不存在的目錄會依序建立
+     * @param serverFile 伺服器文件元數據
+     *
+     * @return 文件資訊
+     */
+    Mono<FileMetadataDTO> linkUserFile(Long userId, String filename, String filePath, ServerFileMetadata serverFile);
+
+    /**
+     * 建立一筆指向重複內容的用戶文件，用於秒傳與上傳後去重
+     * 查到的伺服器文件在建立前已被釋放時返回空，呼叫端應改為保存自己的內容
+     *
+     * @param userId     用戶ID
+     * @param filename   文件名稱
+     * @param filePath   文件路徑
+     * @param serverFile 以 {@link #findDuplicate(String, String, long)} 查到的伺服器文件
+     *
+     * @return 文件資訊
+     */
+    Mono<FileMetadataDTO> linkDuplicate(Long userId, String filename, String filePath, ServerFileMetadata serverFile);
+
+    /**
+     * 上傳前預檢(秒傳)
+     * 伺服器已有相同大小與摘要的文件時，直接建立指向該文件的用戶文件，不需要傳輸文件內容
+     *
+     * @param userId          用戶ID
+     * @param filePreCheckDTO 預檢的數據傳輸對象
+     *
+     * @return 預檢結果
+     */
+    Mono<FilePreCheckResultDTO> preCheck(Long userId, FilePreCheckDTO filePreCheckDTO);
+
+    /**
+     * 查詢內容相同的伺服器文件
+     * 秒傳功能關閉時固定返回空
+     *
+     * @param sha256   文件的SHA-256值
+     * @param md5      文件的MD5值
+     * @param fileSize 文件大小
+     *
+     * @return 內容相同的伺服器文件
+     */
+    Mono<ServerFileMetadata> findDuplicate(String sha256, String md5, long fileSize);
+
+    /**
+     * 將用戶文件指向新的伺服器文件(新版本)，舊的伺服器文件沒有其他擁有者時會被釋放
+     *
+     * @param userFile      用戶文件元數據
+     * @param newServerFile 新版本的伺服器文件元數據
+     *
+     * @return 文件資訊
+     */
+    Mono<FileMetadataDTO> replaceContent(UserFileMetadata userFile, ServerFileMetadata newServerFile);
+
+    /**
+     * 以鍵值分頁列出目錄中的文件，每一頁的成本與頁數無關
+     * 游標不合法時傳出 LIST_CURSOR_INVALID 錯誤
+     *
+     * @param userId     用戶ID
+     * @param directory  目錄資訊
+     * @param sort       排序欄位，有游標時以游標為準
+     * @param descending 是否由大到小排序，有游標時以游標為準
+     * @param cursor     上一頁返回的游標，第一頁為空
+     * @param limit      每頁筆數，為空時使用預設值，超過上限時使用上限
+     *
+     * @return 一頁文件以及下一頁的游標
+     */
+    Mono<FilePageDTO> listFiles(Long userId, DirectoryInfoDTO directory, FileSortEnum sort, boolean descending, String cursor, Integer limit);
+
+    /**
+     * 以資料流列出目錄中的所有文件，內部逐頁查詢，不會一次將整個目錄讀入記憶體
+     *
+     * @param userId     用戶ID
+     * @param directory  目錄資訊
+     * @param sort       排序欄位
+     * @param descending 是否由大到小排序
+     *
+     * @return 文件資訊的資料流
+     */
+    Flux<FileMetadataDTO> streamFiles(Long userId, DirectoryInfoDTO directory, FileSortEnum sort, boolean descending);
+
+    /**
+     * 伺服器文件已經沒有任何用戶文件指向時，刪除其內容與元數據
+     * 元數據以條件刪除，只有確實刪除時才刪除內容，同時有新的用戶文件指向時保留
+     * 依照佈局刪除單一儲存內容、分段內容或釋放區塊引用
+     *
+     * @param serverFileId 伺服器文件ID
+     */
+    Mono<Void> releaseServerFileIfUnreferenced(Long serverFileId);
+
+    /**
+     * 查詢屬於用戶的文件
+     * 文件不存在或不屬於該用戶時傳出 FILE_NOT_FOUND 錯誤
+     *
+     * @param userId 用戶ID
+     * @param fileId 用戶文件ID
+     *
+     * @return 用戶文件元數據
+     */
+    Mono<UserFileMetadata> getUserFile(Long userId, Long fileId);
+
+    /**
+     * 查詢伺服器文件，不存在時傳出 FILE_NOT_FOUND 錯誤
+     *
+     * @param serverFileId 伺服器文件ID
+     *
+     * @return 伺服器文件元數據
+     */
+    Mono<ServerFileMetadata> getServerFile(Long serverFileId);
+
+    /**
+     * 讀取伺服器文件內容中的一段，依照文件的佈局只讀取範圍內的儲存內容
+     *
+     * @param serverFile 伺服器文件元數據
+     * @param offset     起始位置
+     * @param length     讀取長度
+     *
+     * @return 文件內容的資料流
+     */
+    Flux<DataBuffer> readContent(ServerFileMetadata serverFile, long offset, long length);
+
+    /**
+     * 取得伺服器文件內容在本機檔案系統上的路徑，只有內容以單一本機檔案存放時才會返回，用於零複製下載
+     *
+     * @param serverFile 伺服器文件元數據
+     *
+     * @return 本機檔案路徑
+     */
+    Optional<Path> localPath(ServerFileMetadata serverFile);
+
+    /**
+     * 記錄用戶文件被存取，更新用戶文件與伺服器文件的最後訪問時間，更新可能延遲寫入數據庫
+     *
+     * @param userFile 用戶文件元數據
+     */
+    Mono<Void> recordAccess(UserFileMetadata userFile);
+}
@@ -0,0 +1,39 @@
+package xyz.dowob.filemanagement.service.ServiceInterFace;
+
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.entity.ServerFileMetadata;
+
+/**
+ * 分層儲存服務接口
+ * 定義將長時間未被存取的內容從快速的本機儲存層移到較便宜的冷儲存層，以及在冷資料被讀取後移回本機的方法
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName TieringService
+ * @description
+ * @create 2026-10-18 19:05
+ * @Version 1.0
+ **/
+public interface TieringService {
+    /**
+     * 將冷資料從本機儲存層移到冷儲存層，單次執行搬移的資料量受 I/O 預算限制
+     *
+     * @return 搬移的字節數
+     */
+    Mono<Long> demoteColdContent();
+
+    /**
+     * 在背景將伺服器文件位於冷儲存層的內容移回本機儲存層，不會等待搬移完成
+     * 同一個文件同時只會有一個搬移在進行
+     *
+     * @param serverFile 伺服器文件元數據
+     */
+    void schedulePromotion(ServerFileMetadata serverFile);
+
+    /**
+     * 刪除移回本機儲存層後超過保留時間的冷儲存層舊內容
+     *
+     * @return 刪除的內容數量
+     */
+    Mono<Long> purgeRetiredContent();
+}
@@ -0,0 +1,79 @@
+package xyz.dowob.filemanagement.service.ServiceInterFace;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.dto.file.FileMetadataDTO;
+import xyz.dowob.filemanagement.dto.file.UploadPartDTO;
+import xyz.dowob.filemanagement.dto.file.UploadSessionDTO;
+import xyz.dowob.filemanagement.dto.file.UploadSessionStatusDTO;
+
+/**
+ * 分段上傳會話服務接口
+ * 定義可續傳、可亂序並行上傳分段的會話流程：建立會話、上傳分段、查詢缺少的分段、合併或取消
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName UploadSessionService
+ * @description
+ * @create 2026-10-18 12:12
+ * @Version 1.0
+ **/
+public interface UploadSessionService {
+    /**
+     * 建立分段上傳會話
+     *
+     * @param userId           用戶ID
+     * @param uploadSessionDTO 建立會話的數據傳輸對象
+     *
+     * @return 會話狀態
+     */
+    Mono<UploadSessionStatusDTO> createSession(Long userId, UploadSessionDTO uploadSessionDTO);
+
+    /**
+     * 上傳指定編號的分段，同一編號重複上傳時會覆蓋之前的分段
+     *
+     * @param userId     用戶ID
+     * @param sessionId  會話ID
+     * @param partNumber 分段編號(從1開始)
+     * @param content    分段內容的資料流
+     *
+     * @return 分段資訊
+     */
+    Mono<UploadPartDTO> uploadPart(Long userId, Long sessionId, int partNumber, Flux<DataBuffer> content);
+
+    /**
+     * 查詢會話狀態以及缺少的分段
+     *
+     * @param userId    用戶ID
+     * @param sessionId 會話ID
+     *
+     * @return 會話狀態
+     */
+    Mono<UploadSessionStatusDTO> getSessionStatus(Long userId, Long sessionId);
+
+    /**
+     * 合併所有分段並建立文件
+     *
+     * @param userId    用戶ID
+     * @param sessionId 會話ID
+     *
+     * @return 文件資訊
+     */
+    Mono<FileMetadataDTO> commitSession(Long userId, Long sessionId);
+
+    /**
+     * 取消會話並刪除已上傳的分段
+     *
+     * @param userId    用戶ID
+     * @param sessionId 會話ID
+     */
+    Mono<Void> abortSession(Long userId, Long sessionId);
+
+    /**
+     * 清理所有已經過期但仍在上傳中的會話
+     *
+     * @return 清理的會話數量
+     */
+    Mono<Long> cleanExpiredSessions();
+}
@@ -44,6 +44,14 @@ public interface ValidationService {
      */
     //Mono<Void> validateFileMetadataDTO(FileMetadataDTO fileMetadataDTO);
 
+    /**
+     * 驗證上傳的文件名稱是否合法
+     *
+     * @param filename 文件名稱
+     *
+     */
+    Mono<Void> validateFilename(String filename);
+
     /**
      * 驗證數據傳輸對象是否為空
      *
@@ -7,5 +7,12 @@
  * 4. TokenService 用於定義憑證相關的方法
  * 5. UserService 用於定義用戶相關的方法
  * 6. ValidationService 用於定義驗證相關的方法
+ * 7. FileService 用於定義文件相關的方法
+ * 8. UploadSessionService 用於定義分段上傳會話相關的方法
+ * 9. ChunkStoreService 用於定義區塊儲存相關的方法
+ * 10. DeltaSyncService 用於定義增量同步相關的方法
+ * 11. TieringService 用於定義分層儲存相關的方法
+ * 12. EmailOutboxService 用於定義郵件發件匣相關的方法
+ * 13. DirectoryService 用於定義目錄樹相關的方法
  */
 package xyz.dowob.filemanagement.service.ServiceInterFace;
\ No newline at end of file
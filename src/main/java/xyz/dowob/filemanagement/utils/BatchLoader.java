@@ -0,0 +1,193 @@
+package xyz.dowob.filemanagement.utils;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 以批次查詢取代逐筆查詢的載入器(DataLoader 模式)
+ * 1. load 逐筆要求的鍵值先放入待查詢的批次，第一個鍵值放入後經過一個時間窗口或批次達到上限時，以一次批次查詢取得整批的值
+ * 2. loadMany 一次放入一整頁的鍵值後立即查詢，不需要等待時間窗口
+ * 3. 查詢過或正在查詢的鍵值會被快取，同一個載入器再次要求時不會重複查詢；批次查詢失敗時移除該批的快取，之後可以重新查詢
+ * 載入器的快取沒有容量上限與過期時間，應該在一個請求或一次列表中建立並使用，不應該作為全域快取
+ * 本類為執行緒安全
+ *
+ * @param <K> 鍵值類型
+ * @param <V> 值類型
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName BatchLoader
+ * @description
+ * @create 2026-10-19 07:20
+ * @Version 1.0
+ **/
+public class BatchLoader<K, V> {
+    /**
+     * 批次查詢，傳入不重複的鍵值，返回查詢到的鍵值與值，查詢不到的鍵值不需要放入結果
+     */
+    private final Function<Set<K>, Mono<Map<K, V>>> batchFunction;
+
+    /**
+     * 逐筆要求時等待同一批其他鍵值的時間窗口
+     */
+    private final Duration window;
+
+    /**
+     * 單次批次查詢最多的鍵值數量
+     */
+    private final int maxBatchSize;
+
+    /**
+     * 查詢過或正在查詢的鍵值與其結果
+     */
+    private final Map<K, Mono<V>> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 保護待查詢批次的鎖
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * 已執行的批次查詢次數
+     */
+    private final AtomicInteger batchCount = new AtomicInteger();
+
+    /**
+     * 待查詢的鍵值與等待結果的訂閱
+     */
+    private Map<K, Sinks.One<V>> pending = new LinkedHashMap<>();
+
+    /**
+     * 建立載入器
+     *
+     * @param batchFunction 批次查詢
+     * @param window        逐筆要求時等待同一批其他鍵值的時間窗口
+     * @param maxBatchSize  單次批次查詢最多的鍵值數量
+     */
+    public BatchLoader(Function<Set<K>, Mono<Map<K, V>>> batchFunction, Duration window, int maxBatchSize) {
+        this.batchFunction = batchFunction;
+        this.window = window;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+    }
+
+    /**
+     * 要求單一鍵值，與時間窗口內其他要求的鍵值合併為一次批次查詢
+     *
+     * @param key 鍵值
+     *
+     * @return 值，查詢不到時為空
+     */
+    public Mono<V> load(K key) {
+        return Mono.defer(() -> enqueue(key, true));
+    }
+
+    /**
+     * 要求多個鍵值，尚未快取的鍵值立即以批次查詢取得
+     *
+     * @param keys 鍵值
+     *
+     * @return 查詢到的鍵值與值
+     */
+    public Mono<Map<K, V>> loadMany(Collection<K> keys) {
+        return Mono.defer(() -> {
+            Map<K, Mono<V>> values = new LinkedHashMap<>();
+            for (K key : keys) {
+                if (key != null && !values.containsKey(key)) {
+                    values.put(key, enqueue(key, false));
+                }
+            }
+            dispatch();
+            return Flux
+                    .fromIterable(values.entrySet())
+                    .flatMap(entry -> entry.getValue().map(value -> Map.entry(entry.getKey(), value)))
+                    .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+        });
+    }
+
+    /**
+     * 已執行的批次查詢次數
+     *
+     * @return 批次查詢次數
+     */
+    public int getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * 將鍵值放入待查詢的批次，已經快取時直接返回快取的結果
+     *
+     * @param key      鍵值
+     * @param schedule 是否在批次的第一個鍵值放入時安排時間窗口後的查詢
+     *
+     * @return 值
+     */
+    private Mono<V> enqueue(K key, boolean schedule) {
+        Mono<V> cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        boolean first;
+        boolean full;
+        lock.lock();
+        try {
+            cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+            Sinks.One<V> sink = Sinks.one();
+            cached = sink.asMono();
+            cache.put(key, cached);
+            pending.put(key, sink);
+            first = pending.size() == 1;
+            full = pending.size() >= maxBatchSize;
+        } finally {
+            lock.unlock();
+        }
+        if (full) {
+            dispatch();
+        } else if (first && schedule) {
+            Mono.delay(window).subscribe(tick -> dispatch());
+        }
+        return cached;
+    }
+
+    /**
+     * 取出待查詢的批次並執行批次查詢，將結果分發給等待的訂閱
+     */
+    private void dispatch() {
+        Map<K, Sinks.One<V>> batch;
+        lock.lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        } finally {
+            lock.unlock();
+        }
+        batchCount.incrementAndGet();
+        Mono.defer(() -> batchFunction.apply(batch.keySet())).defaultIfEmpty(Map.of()).subscribe(values -> batch.forEach((key, sink) -> {
+            V value = values.get(key);
+            if (value != null) {
+                sink.tryEmitValue(value);
+            } else {
+                sink.tryEmitEmpty();
+            }
+        }), error -> batch.forEach((key, sink) -> {
+            cache.remove(key);
+            sink.tryEmitError(error);
+        }));
+    }
+}
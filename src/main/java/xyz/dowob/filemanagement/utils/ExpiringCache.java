@@ -0,0 +1,140 @@
+package xyz.dowob.filemanagement.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 有容量上限與過期時間的記憶體快取
+ * 1. 快取分成多個分段，每個分段以自己的鎖保護一個依存取順序排列的 LinkedHashMap，不同鍵值的存取不會互相競爭
+ * 2. 分段超過容量時淘汰最久沒有被存取的記錄
+ * 3. 每筆記錄有各自的過期時間，讀取到已過期的記錄時直接刪除並視為不存在
+ * 本類為執行緒安全
+ *
+ * @param <K> 鍵值類型
+ * @param <V> 值類型
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName ExpiringCache
+ * @description
+ * @create 2026-10-18 20:40
+ * @Version 1.0
+ **/
+public class ExpiringCache<K, V> {
+    /**
+     * 快取的分段
+     */
+    private final Segment<K, V>[] segments;
+
+    /**
+     * 建立快取
+     *
+     * @param maxSize      最多保存的記錄數量
+     * @param segmentCount 分段數量
+     */
+    @SuppressWarnings("unchecked")
+    public ExpiringCache(int maxSize, int segmentCount) {
+        int segmentSize = Math.max(1, maxSize / segmentCount);
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(segmentSize);
+        }
+    }
+
+    /**
+     * 讀取記錄
+     *
+     * @param key 鍵值
+     *
+     * @return 值，不存在或已過期時返回 null
+     */
+    public V get(K key) {
+        Segment<K, V> segment = segmentOf(key);
+        segment.lock.lock();
+        try {
+            Entry<V> entry = segment.map.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAtNanos() - System.nanoTime() <= 0) {
+                segment.map.remove(key);
+                return null;
+            }
+            return entry.value();
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * 新增或更新記錄
+     *
+     * @param key      鍵值
+     * @param value    值
+     * @param ttlNanos 有效時間(奈秒)，小於等於0時不保存
+     */
+    public void put(K key, V value, long ttlNanos) {
+        if (ttlNanos <= 0) {
+            return;
+        }
+        Segment<K, V> segment = segmentOf(key);
+        segment.lock.lock();
+        try {
+            segment.map.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * 目前保存的記錄數量，包含尚未被清除的過期記錄
+     *
+     * @return 記錄數量
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.map.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private Segment<K, V> segmentOf(K key) {
+        int hash = key.hashCode();
+        return segments[((hash ^ (hash >>> 16)) & 0x7fffffff) % segments.length];
+    }
+
+    /**
+     * 快取記錄
+     *
+     * @param value          值
+     * @param expiresAtNanos 過期的時間點(System.nanoTime)
+     * @param <V>            值類型
+     */
+    private record Entry<V>(V value, long expiresAtNanos) {
+    }
+
+    /**
+     * 快取的一個分段
+     */
+    private static class Segment<K, V> {
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final Map<K, Entry<V>> map;
+
+        Segment(int capacity) {
+            map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package xyz.dowob.filemanagement.utils;
+
+import lombok.Getter;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 以內容定義切塊(FastCDC)將資料切分為大小不固定的區塊
+ * 切點只取決於切點前的內容，因此在文件中插入或刪除內容後，其餘區塊的切點與內容仍然相同，可以被重複利用
+ * 使用 Gear 滾動雜湊並搭配正規化切塊：在平均大小之前使用較嚴格的遮罩、之後使用較寬鬆的遮罩，讓區塊大小集中在平均值附近
+ * 本類不可變且執行緒安全，串流切塊的狀態保存在 {@link Stream} 中
+ * 客戶端需要以相同的參數與 Gear 表(種子 {@link #GEAR_SEED})切塊，區塊雜湊才會與伺服器一致
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName FastCdcChunker
+ * @description
+ * @create 2026-10-18 14:05
+ * @Version 1.0
+ **/
+public class FastCdcChunker {
+    /**
+     * 產生 Gear 表使用的種子，改變後所有已存在的區塊都無法再被比對到
+     */
+    public static final long GEAR_SEED = 0x46617374434443L;
+
+    /**
+     * Gear 表，每個字節值對應一個64位元的隨機數
+     */
+    private static final long[] GEAR = new long[256];
+
+    static {
+        SplittableRandom random = new SplittableRandom(GEAR_SEED);
+        for (int i = 0; i < GEAR.length; i++) {
+            GEAR[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * 區塊的最小大小
+     */
+    @Getter
+    private final int minSize;
+
+    /**
+     * 區塊的平均大小，必須為2的次方
+     */
+    @Getter
+    private final int avgSize;
+
+    /**
+     * 區塊的最大大小
+     */
+    @Getter
+    private final int maxSize;
+
+    /**
+     * 未達平均大小時使用的遮罩，位元數較多，較不容易切塊
+     */
+    private final long maskSmall;
+
+    /**
+     * 超過平均大小後使用的遮罩，位元數較少，較容易切塊
+     */
+    private final long maskLarge;
+
+    /**
+     * 建立切塊器
+     *
+     * @param minSize 區塊的最小大小
+     * @param avgSize 區塊的平均大小，必須為2的次方
+     * @param maxSize 區塊的最大大小
+     */
+    public FastCdcChunker(int minSize, int avgSize, int maxSize) {
+        if (Integer.bitCount(avgSize) != 1 || avgSize < 64) {
+            throw new IllegalArgumentException("平均區塊大小必須為不小於64的2的次方: " + avgSize);
+        }
+        if (minSize <= 0 || minSize >= avgSize || maxSize <= avgSize) {
+            throw new IllegalArgumentException(String.format("區塊大小必須滿足 0 < min < avg < max: %d, %d, %d", minSize, avgSize, maxSize));
+        }
+        this.minSize = minSize;
+        this.avgSize = avgSize;
+        this.maxSize = maxSize;
+        int bits = Integer.numberOfTrailingZeros(avgSize);
+        this.maskSmall = highBitsMask(bits + 2);
+        this.maskLarge = highBitsMask(bits - 2);
+    }
+
+    /**
+     * 產生高位元的遮罩，Gear 雜湊的高位元包含較長範圍的內容，比低位元更適合判斷切點
+     *
+     * @param bits 位元數
+     *
+     * @return 遮罩
+     */
+    private static long highBitsMask(int bits) {
+        return -1L << (Long.SIZE - bits);
+    }
+
+    /**
+     * 從指定位置開始尋找下一個切點
+     * 可用長度內找到切點，或可用長度已達最大區塊大小時返回區塊長度；否則返回 -1，表示需要更多資料才能決定
+     *
+     * @param data   資料
+     * @param offset 區塊的起始位置
+     * @param length 可用的長度
+     *
+     * @return 區塊長度，或 -1
+     */
+    public int findBoundary(byte[] data, int offset, int length) {
+        if (length <= minSize) {
+            return -1;
+        }
+        int limit = Math.min(length, maxSize);
+        int normal = Math.min(limit, avgSize);
+        long fingerprint = 0;
+        int i = minSize;
+        for (; i < normal; i++) {
+            fingerprint = (fingerprint << 1) + GEAR[data[offset + i] & 0xFF];
+            if ((fingerprint & maskSmall) == 0) {
+                return i + 1;
+            }
+        }
+        for (; i < limit; i++) {
+            fingerprint = (fingerprint << 1) + GEAR[data[offset + i] & 0xFF];
+            if ((fingerprint & maskLarge) == 0) {
+                return i + 1;
+            }
+        }
+        return limit == maxSize ? maxSize : -1;
+    }
+
+    /**
+     * 將完整的資料切塊，主要用於測量與客戶端計算區塊清單
+     *
+     * @param data 資料
+     *
+     * @return 每個區塊的長度
+     */
+    public List<Integer> chunkLengths(byte[] data) {
+        List<Integer> lengths = new ArrayList<>();
+        int offset = 0;
+        while (offset < data.length) {
+            int cut = findBoundary(data, offset, data.length - offset);
+            if (cut < 0) {
+                cut = data.length - offset;
+            }
+            lengths.add(cut);
+            offset += cut;
+        }
+        return lengths;
+    }
+
+    /**
+     * 建立新的串流切塊狀態
+     *
+     * @return 串流切塊狀態
+     */
+    public Stream newStream() {
+        return new Stream();
+    }
+
+    /**
+     * 串流切塊的狀態，最多只會緩存兩個最大區塊大小的資料
+     * 非執行緒安全，一個串流只能由一個訂閱者依序使用
+     */
+    public class Stream {
+        /**
+         * 尚未切出的資料緩存
+         */
+        private final byte[] buffer = new byte[maxSize * 2];
+
+        /**
+         * 緩存中的資料長度
+         */
+        private int size;
+
+        /**
+         * 加入資料並返回已經可以確定的區塊
+         *
+         * @param byteBuffer 資料，會被完整讀取
+         *
+         * @return 完成的區塊
+         */
+        public List<byte[]> update(ByteBuffer byteBuffer) {
+            List<byte[]> chunks = new ArrayList<>(2);
+            while (byteBuffer.hasRemaining()) {
+                int read = Math.min(byteBuffer.remaining(), buffer.length - size);
+                byteBuffer.get(buffer, size, read);
+                size += read;
+                cut(chunks, false);
+            }
+            return chunks;
+        }
+
+        /**
+         * 結束串流並返回剩餘的區塊
+         *
+         * @return 剩餘的區塊
+         */
+        public List<byte[]> finish() {
+            List<byte[]> chunks = new ArrayList<>(2);
+            cut(chunks, true);
+            return chunks;
+        }
+
+        /**
+         * 從緩存中切出所有可以確定的區塊，並將剩餘資料移到緩存開頭
+         *
+         * @param chunks 完成的區塊
+         * @param eof    是否已經沒有更多資料
+         */
+        private void cut(List<byte[]> chunks, boolean eof) {
+            int position = 0;
+            while (position < size) {
+                int length = findBoundary(buffer, position, size - position);
+                if (length < 0) {
+                    if (!eof) {
+                        break;
+                    }
+                    length = size - position;
+                }
+                chunks.add(Arrays.copyOfRange(buffer, position, position + length));
+                position += length;
+            }
+            if (position > 0) {
+                System.arraycopy(buffer, position, buffer, 0, size - position);
+                size -= position;
+            }
+        }
+    }
+}
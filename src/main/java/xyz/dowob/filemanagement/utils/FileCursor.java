@@ -0,0 +1,68 @@
+package xyz.dowob.filemanagement.utils;
+
+import xyz.dowob.filemanagement.customenum.FileSortEnum;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 目錄文件分頁的游標，記錄上一頁最後一筆的排序欄位值與ID
+ * 下一頁從 (欄位, id) 之後開始查詢，不使用 OFFSET，因此每一頁的成本相同
+ * 游標以 Base64 URL 編碼傳給客戶端，內容為 排序欄位、方向、ID、欄位值，欄位值放在最後以容許文件名稱中出現分隔符號
+ *
+ * @param sort       排序欄位
+ * @param descending 是否由大到小排序
+ * @param lastId     上一頁最後一筆的用戶文件ID
+ * @param lastValue  上一頁最後一筆的排序欄位值
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName FileCursor
+ * @description
+ * @create 2026-10-19 05:06
+ * @Version 1.0
+ **/
+public record FileCursor(FileSortEnum sort, boolean descending, long lastId, Object lastValue) {
+    /**
+     * 欄位之間的分隔符號
+     */
+    private static final char SEPARATOR = '\n';
+
+    /**
+     * 將游標編碼為字串
+     *
+     * @return 游標字串
+     */
+    public String encode() {
+        String raw = sort.name() + SEPARATOR + (descending ? "DESC" : "ASC") + SEPARATOR + lastId + SEPARATOR + lastValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 將游標字串還原，格式不正確時傳出 IllegalArgumentException
+     *
+     * @param cursor 游標字串
+     *
+     * @return 游標
+     */
+    public static FileCursor decode(String cursor) {
+        String[] fields = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(String.valueOf(SEPARATOR), 4);
+        if (fields.length != 4) {
+            throw new IllegalArgumentException(cursor);
+        }
+        FileSortEnum sort = FileSortEnum.valueOf(fields[0]);
+        boolean descending = switch (fields[1]) {
+            case "ASC" -> false;
+            case "DESC" -> true;
+            default -> throw new IllegalArgumentException(cursor);
+        };
+        Object lastValue;
+        try {
+            lastValue = sort.getParser().apply(fields[3]);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(cursor, e);
+        }
+        return new FileCursor(sort, descending, Long.parseLong(fields[2]), lastValue);
+    }
+}
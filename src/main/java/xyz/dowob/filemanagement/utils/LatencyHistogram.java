@@ -0,0 +1,151 @@
+package xyz.dowob.filemanagement.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 延遲分佈直方圖，用於觀察延遲的百分位數
+ * 以微秒為單位記錄，桶的寬度隨數值以 2 的次方成長，每個 2 的次方區間再分成 8 個桶，百分位數的相對誤差不超過 12.5%
+ * 記錄只需要一次原子遞增，不會建立物件，可以在請求的熱路徑上使用
+ * 本類為執行緒安全
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName LatencyHistogram
+ * @description
+ * @create 2026-10-18 21:45
+ * @Version 1.0
+ **/
+public class LatencyHistogram {
+    /**
+     * 每個 2 的次方區間分成的桶數的位元數
+     */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /**
+     * 每個 2 的次方區間分成的桶數
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * 輸出的百分位數
+     */
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    /**
+     * 每個桶的記錄數量
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray((64 - SUB_BUCKET_BITS) * SUB_BUCKETS);
+
+    /**
+     * 記錄總數
+     */
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * 記錄的總和(微秒)
+     */
+    private final AtomicLong sum = new AtomicLong();
+
+    /**
+     * 最大值(微秒)
+     */
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * 記錄一次延遲
+     *
+     * @param nanos 延遲(奈秒)
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        buckets.incrementAndGet(indexOf(micros));
+        count.incrementAndGet();
+        sum.addAndGet(micros);
+        max.accumulateAndGet(micros, Math::max);
+    }
+
+    /**
+     * 記錄總數
+     *
+     * @return 記錄總數
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * 查詢百分位數
+     *
+     * @param percentile 百分位數，0 到 100
+     *
+     * @return 延遲(微秒)，沒有記錄時為0
+     */
+    public long percentile(double percentile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * 目前分佈的摘要，包含記錄數、平均值、最大值與常用的百分位數，單位為毫秒
+     *
+     * @return 摘要
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        long total = count.get();
+        snapshot.put("count", total);
+        snapshot.put("meanMs", total == 0 ? 0 : sum.get() / 1000.0 / total);
+        snapshot.put("maxMs", max.get() / 1000.0);
+        for (double percentile : PERCENTILES) {
+            snapshot.put("p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile)) + "Ms",
+                         percentile(percentile) / 1000.0);
+        }
+        return snapshot;
+    }
+
+    /**
+     * 數值所在的桶
+     *
+     * @param value 數值
+     *
+     * @return 桶的索引
+     */
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * 桶內數值的上限
+     *
+     * @param index 桶的索引
+     *
+     * @return 上限
+     */
+    private static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int magnitude = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + subBucket + 1) << (magnitude - SUB_BUCKET_BITS)) - 1;
+    }
+}
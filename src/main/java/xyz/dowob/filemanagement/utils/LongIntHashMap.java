@@ -0,0 +1,204 @@
+package xyz.dowob.filemanagement.utils;
+
+import java.util.Arrays;
+
+/**
+ * 鍵值為 long、值為 int 的雜湊表
+ * 以基本型別陣列實現的開放定址雜湊表(線性探測)，不會為鍵值與值建立包裝物件，適合保存大量用戶的小型狀態
+ * 本類非執行緒安全，需要由使用者加鎖
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName LongIntHashMap
+ * @description
+ * @create 2026-10-18 21:05
+ * @Version 1.0
+ **/
+public class LongIntHashMap {
+    /**
+     * 擴容前的最大負載
+     */
+    private static final double MAX_LOAD = 0.7;
+
+    /**
+     * 鍵值，0 表示空位
+     */
+    private long[] keys;
+
+    /**
+     * 值
+     */
+    private int[] values;
+
+    /**
+     * 刪除所有記錄，保留目前的容量
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+    }
+
+    /**
+     * 記錄數量
+     */
+    private int size;
+
+    /**
+     * 建立雜湊表
+     *
+     * @param expectedSize 預期的記錄數量
+     */
+    public LongIntHashMap(int expectedSize) {
+        allocate(Math.max(16, Integer.highestOneBit((int) Math.min(1 << 30, expectedSize / MAX_LOAD)) << 1));
+    }
+
+    /**
+     * 新增或更新記錄
+     *
+     * @param key   鍵值，必須大於0
+     * @param value 值
+     */
+    public void put(long key, int value) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("鍵值必須大於0: " + key);
+        }
+        if (size + 1 > keys.length * MAX_LOAD) {
+            resize(keys.length << 1);
+        }
+        int slot = find(key);
+        if (keys[slot] == 0) {
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * 鍵值不存在時新增記錄
+     *
+     * @param key   鍵值，必須大於0
+     * @param value 值
+     *
+     * @return 是否新增了記錄
+     */
+    public boolean putIfAbsent(long key, int value) {
+        if (containsKey(key)) {
+            return false;
+        }
+        put(key, value);
+        return true;
+    }
+
+    /**
+     * 查詢記錄
+     *
+     * @param key          鍵值
+     * @param missingValue 記錄不存在時返回的值
+     *
+     * @return 值
+     */
+    public int get(long key, int missingValue) {
+        int slot = find(key);
+        return keys[slot] == 0 ? missingValue : values[slot];
+    }
+
+    /**
+     * 是否存在記錄
+     *
+     * @param key 鍵值
+     *
+     * @return 是否存在
+     */
+    public boolean containsKey(long key) {
+        return keys[find(key)] != 0;
+    }
+
+    /**
+     * 刪除記錄，刪除後將同一探測序列中後面的記錄往前移，不需要墓碑
+     *
+     * @param key 鍵值
+     *
+     * @return 是否有記錄被刪除
+     */
+    public boolean remove(long key) {
+        int slot = find(key);
+        if (keys[slot] == 0) {
+            return false;
+        }
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != 0) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = 0;
+        size--;
+        return true;
+    }
+
+    /**
+     * 記錄數量
+     *
+     * @return 記錄數量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 尋找鍵值所在的位置，或應該插入的空位
+     *
+     * @param key 鍵值
+     *
+     * @return 陣列索引
+     */
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * 擴容並重新放入所有記錄
+     *
+     * @param capacity 新的容量
+     */
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+    }
+
+    /**
+     * 打散連續的鍵值，避免線性探測時聚集
+     *
+     * @param key 鍵值
+     *
+     * @return 雜湊值
+     */
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
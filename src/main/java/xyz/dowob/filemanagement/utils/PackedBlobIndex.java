@@ -0,0 +1,240 @@
+package xyz.dowob.filemanagement.utils;
+
+/**
+ * 打包卷的記憶體索引，記錄每個內容ID所在的卷、位置與長度
+ * 以基本型別陣列實現的開放定址雜湊表(線性探測)，每筆記錄只佔用 20 bytes 加上空位，不會為每筆記錄建立物件，
+ * 數千萬筆記錄時也不會對 GC 造成壓力
+ * 位置以一個 long 表示：高 24 位元為卷編號，低 40 位元為卷內的偏移量(單一卷最大 1TB)
+ * 本類非執行緒安全，需要由使用者加鎖
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName PackedBlobIndex
+ * @description
+ * @create 2026-10-18 18:05
+ * @Version 1.0
+ **/
+public class PackedBlobIndex {
+    /**
+     * 卷內偏移量的位元數
+     */
+    private static final int OFFSET_BITS = 40;
+
+    /**
+     * 卷內偏移量的遮罩
+     */
+    private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+
+    /**
+     * 查無記錄時返回的位置
+     */
+    public static final long NOT_FOUND = -1;
+
+    /**
+     * 擴容前的最大負載
+     */
+    private static final double MAX_LOAD = 0.7;
+
+    /**
+     * 內容ID，0 表示空位
+     */
+    private long[] keys;
+
+    /**
+     * 內容位置
+     */
+    private long[] locations;
+
+    /**
+     * 內容長度
+     */
+    private int[] lengths;
+
+    /**
+     * 記錄數量
+     */
+    private int size;
+
+    /**
+     * 建立索引
+     *
+     * @param expectedSize 預期的記錄數量
+     */
+    public PackedBlobIndex(int expectedSize) {
+        allocate(Math.max(16, Integer.highestOneBit((int) Math.min(1 << 30, expectedSize / MAX_LOAD)) << 1));
+    }
+
+    /**
+     * 將卷編號與卷內偏移量組合為位置
+     *
+     * @param volumeId 卷編號
+     * @param offset   卷內偏移量
+     *
+     * @return 位置
+     */
+    public static long location(int volumeId, long offset) {
+        return ((long) volumeId << OFFSET_BITS) | offset;
+    }
+
+    /**
+     * 從位置取出卷編號
+     *
+     * @param location 位置
+     *
+     * @return 卷編號
+     */
+    public static int volumeId(long location) {
+        return (int) (location >>> OFFSET_BITS);
+    }
+
+    /**
+     * 從位置取出卷內偏移量
+     *
+     * @param location 位置
+     *
+     * @return 卷內偏移量
+     */
+    public static long offset(long location) {
+        return location & OFFSET_MASK;
+    }
+
+    /**
+     * 新增或更新記錄
+     *
+     * @param id       內容ID，必須大於0
+     * @param location 位置
+     * @param length   內容長度
+     */
+    public void put(long id, long location, int length) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("內容ID必須大於0: " + id);
+        }
+        if (size + 1 > keys.length * MAX_LOAD) {
+            resize(keys.length << 1);
+        }
+        int slot = find(id);
+        if (keys[slot] == 0) {
+            keys[slot] = id;
+            size++;
+        }
+        locations[slot] = location;
+        lengths[slot] = length;
+    }
+
+    /**
+     * 查詢內容的位置
+     *
+     * @param id 內容ID
+     *
+     * @return 位置，查無記錄時返回 {@link #NOT_FOUND}
+     */
+    public long getLocation(long id) {
+        int slot = find(id);
+        return keys[slot] == 0 ? NOT_FOUND : locations[slot];
+    }
+
+    /**
+     * 查詢內容的長度
+     *
+     * @param id 內容ID
+     *
+     * @return 長度，查無記錄時返回 -1
+     */
+    public int getLength(long id) {
+        int slot = find(id);
+        return keys[slot] == 0 ? -1 : lengths[slot];
+    }
+
+    /**
+     * 刪除記錄，刪除後將同一探測序列中後面的記錄往前移，不需要墓碑
+     *
+     * @param id 內容ID
+     *
+     * @return 是否有記錄被刪除
+     */
+    public boolean remove(long id) {
+        int slot = find(id);
+        if (keys[slot] == 0) {
+            return false;
+        }
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != 0) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                locations[hole] = locations[next];
+                lengths[hole] = lengths[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = 0;
+        size--;
+        return true;
+    }
+
+    /**
+     * 記錄數量
+     *
+     * @return 記錄數量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 尋找內容ID所在的位置，或應該插入的空位
+     *
+     * @param id 內容ID
+     *
+     * @return 陣列索引
+     */
+    private int find(long id) {
+        int mask = keys.length - 1;
+        int slot = hash(id) & mask;
+        while (keys[slot] != 0 && keys[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * 擴容並重新放入所有記錄
+     *
+     * @param capacity 新的容量
+     */
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldLocations = locations;
+        int[] oldLengths = lengths;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = find(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                locations[slot] = oldLocations[i];
+                lengths[slot] = oldLengths[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        locations = new long[capacity];
+        lengths = new int[capacity];
+    }
+
+    /**
+     * 打散連續的內容ID，避免線性探測時聚集
+     *
+     * @param id 內容ID
+     *
+     * @return 雜湊值
+     */
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
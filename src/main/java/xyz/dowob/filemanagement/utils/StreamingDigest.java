@@ -0,0 +1,108 @@
+package xyz.dowob.filemanagement.utils;
+
+import org.springframework.core.io.buffer.DataBuffer;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 串流摘要計算工具，用於在資料流經過時同時計算 MD5、SHA-256 以及總字節數
+ * 只讀取 DataBuffer 的可讀區段而不移動讀取位置，因此可以放在寫入 GridFS 等下游之前使用
+ * 此類不是線程安全的，一個上傳流程應使用一個實例
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName StreamingDigest
+ * @description
+ * @create 2026-10-18 10:05
+ * @Version 1.0
+ **/
+public class StreamingDigest {
+    /**
+     * MD5 摘要
+     */
+    private final MessageDigest md5;
+
+    /**
+     * SHA-256 摘要
+     */
+    private final MessageDigest sha256;
+
+    /**
+     * 已經處理的字節數
+     */
+    private long byteCount;
+
+    /**
+     * 完成計算後的 MD5 十六進位字串
+     */
+    private String md5Hex;
+
+    /**
+     * 完成計算後的 SHA-256 十六進位字串
+     */
+    private String sha256Hex;
+
+    /**
+     * 建立同時計算 MD5 與 SHA-256 的摘要工具
+     */
+    public StreamingDigest() {
+        try {
+            this.md5 = MessageDigest.getInstance("MD5");
+            this.sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("JVM 不支援所需的摘要演算法", e);
+        }
+    }
+
+    /**
+     * 將 DataBuffer 的可讀內容加入摘要計算，不會改變 DataBuffer 的讀取位置
+     *
+     * @param dataBuffer 資料區塊
+     */
+    public void update(DataBuffer dataBuffer) {
+        try (DataBuffer.ByteBufferIterator iterator = dataBuffer.readableByteBuffers()) {
+            while (iterator.hasNext()) {
+                ByteBuffer byteBuffer = iterator.next();
+                byteCount += byteBuffer.remaining();
+                md5.update(byteBuffer.duplicate());
+                sha256.update(byteBuffer);
+            }
+        }
+    }
+
+    /**
+     * 取得已處理的字節數
+     *
+     * @return 字節數
+     */
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * 完成計算並取得 MD5 的十六進位字串，結果會被保留，重複呼叫返回相同的值
+     *
+     * @return MD5 值
+     */
+    public String md5Hex() {
+        if (md5Hex == null) {
+            md5Hex = HexFormat.of().formatHex(md5.digest());
+        }
+        return md5Hex;
+    }
+
+    /**
+     * 完成計算並取得 SHA-256 的十六進位字串，結果會被保留，重複呼叫返回相同的值
+     *
+     * @return SHA-256 值
+     */
+    public String sha256Hex() {
+        if (sha256Hex == null) {
+            sha256Hex = HexFormat.of().formatHex(sha256.digest());
+        }
+        return sha256Hex;
+    }
+}
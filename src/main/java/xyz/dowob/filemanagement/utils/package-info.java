@@ -0,0 +1,12 @@
+/**
+ * 工具類，存放不屬於 Spring 組件、可以被各層直接使用的輔助類
+ * 1. StreamingDigest: 串流摘要計算工具 {@link xyz.dowob.filemanagement.utils.StreamingDigest}
+ * 2. FastCdcChunker: 內容定義切塊工具 {@link xyz.dowob.filemanagement.utils.FastCdcChunker}
+ * 3. PackedBlobIndex: 打包卷的記憶體索引 {@link xyz.dowob.filemanagement.utils.PackedBlobIndex}
+ * 4. ExpiringCache: 有容量上限與過期時間的記憶體快取 {@link xyz.dowob.filemanagement.utils.ExpiringCache}
+ * 5. LongIntHashMap: 以基本型別陣列實現的 long 對 int 雜湊表 {@link xyz.dowob.filemanagement.utils.LongIntHashMap}
+ * 6. LatencyHistogram: 延遲分佈直方圖 {@link xyz.dowob.filemanagement.utils.LatencyHistogram}
+ * 7. FileCursor: 目錄文件鍵值分頁的游標 {@link xyz.dowob.filemanagement.utils.FileCursor}
+ * 8. BatchLoader: 將逐筆查詢合併為批次 IN 查詢的載入器 {@link xyz.dowob.filemanagement.utils.BatchLoader}
+ */
+package xyz.dowob.filemanagement.utils;
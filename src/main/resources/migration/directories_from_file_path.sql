@@ -0,0 +1,91 @@
+-- 將 user_file_metadata.file_path 遷移為目錄樹(MySQL 8.0 語法)
+-- 適用於還保存 file_path 欄位的資料庫，在部署使用 directories 表與 directory_id 的版本之前手動執行一次
+-- 步驟 1 到 4 只新增資料，不修改 file_path；確認步驟 5 的檢查結果為 0 後才執行步驟 6 刪除 file_path
+-- 舊版本保存的路徑格式為 "/" 或 "/a/b"，這裡同樣忽略反斜線、重複與結尾的斜線，根目錄與空路徑的文件 directory_id 保持為 0
+-- 目錄名稱的唯一索引沿用資料表的排序規則，大小寫不敏感時只差在大小寫的路徑(例如 "/Docs" 與 "/docs")需要先統一，否則步驟 3 會違反唯一索引
+
+-- 1. 新增 directory_id 欄位與目錄表
+ALTER TABLE user_file_metadata
+    ADD COLUMN directory_id BIGINT NOT NULL DEFAULT 0 AFTER filename;
+
+CREATE TABLE IF NOT EXISTS directories
+(
+    id          BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id     BIGINT       NOT NULL,
+    parent_id   BIGINT       NOT NULL DEFAULT 0,
+    name        VARCHAR(255) NOT NULL,
+    create_time DATETIME(6)  NOT NULL,
+    UNIQUE KEY uk_directories_parent_name (user_id, parent_id, name)
+);
+
+-- 2. 將每個用戶的每個路徑展開為所有前綴，"/a/b/c" 產生 "a"、"a/b"、"a/b/c" 三個目錄，每個目錄得到一個遷移用的編號
+--    使用一般資料表而不是臨時表，步驟 3 需要在同一個查詢中引用兩次
+CREATE TABLE migration_directory_paths
+(
+    id          BIGINT        NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id     BIGINT        NOT NULL,
+    path        VARCHAR(1024) NOT NULL,
+    parent_path VARCHAR(1024) NOT NULL,
+    name        VARCHAR(255)  NOT NULL,
+    depth       INT           NOT NULL,
+    KEY idx_migration_directory_paths_path (user_id, path(191))
+);
+
+INSERT INTO migration_directory_paths (user_id, path, parent_path, name, depth)
+WITH RECURSIVE normalized AS (SELECT DISTINCT user_id,
+                                             TRIM(BOTH '/' FROM REGEXP_REPLACE(REPLACE(TRIM(file_path), '\\', '/'), '/+', '/')) AS rest
+                              FROM user_file_metadata
+                              WHERE file_path IS NOT NULL),
+               segments AS (SELECT user_id,
+                                   CAST(SUBSTRING_INDEX(rest, '/', 1) AS CHAR(1024)) AS path,
+                                   CAST('' AS CHAR(1024))                            AS parent_path,
+                                   CAST(SUBSTRING_INDEX(rest, '/', 1) AS CHAR(255))  AS name,
+                                   1                                                 AS depth,
+                                   rest
+                            FROM normalized
+                            WHERE rest <> ''
+                            UNION ALL
+                            SELECT user_id,
+                                   CONCAT(path, '/', SUBSTRING_INDEX(SUBSTRING_INDEX(rest, '/', depth + 1), '/', -1)),
+                                   path,
+                                   SUBSTRING_INDEX(SUBSTRING_INDEX(rest, '/', depth + 1), '/', -1),
+                                   depth + 1,
+                                   rest
+                            FROM segments
+                            WHERE depth < 1 + LENGTH(rest) - LENGTH(REPLACE(rest, '/', '')))
+SELECT DISTINCT user_id, path, parent_path, name, depth
+FROM segments
+ORDER BY user_id, depth, path;
+
+-- 3. 建立目錄，目錄ID為遷移編號加上目錄表現有的最大ID，父目錄以父路徑對應，第一層的父目錄為根目錄 0
+SET @directory_id_base = (SELECT COALESCE(MAX(id), 0) FROM directories);
+
+INSERT INTO directories (id, user_id, parent_id, name, create_time)
+SELECT p.id + @directory_id_base,
+       p.user_id,
+       COALESCE(parent.id + @directory_id_base, 0),
+       p.name,
+       NOW(6)
+FROM migration_directory_paths p
+         LEFT JOIN migration_directory_paths parent ON parent.user_id = p.user_id AND parent.path = p.parent_path
+ORDER BY p.id;
+
+-- 4. 回填文件所在的目錄
+UPDATE user_file_metadata f
+    JOIN migration_directory_paths p ON p.user_id = f.user_id
+        AND p.path = TRIM(BOTH '/' FROM REGEXP_REPLACE(REPLACE(TRIM(f.file_path), '\\', '/'), '/+', '/'))
+SET f.directory_id = p.id + @directory_id_base;
+
+-- 5. 檢查：不在根目錄卻沒有回填目錄的文件數量，應為 0
+SELECT COUNT(*) AS unmigrated_files
+FROM user_file_metadata
+WHERE directory_id = 0
+  AND TRIM(BOTH '/' FROM REGEXP_REPLACE(REPLACE(TRIM(COALESCE(file_path, '')), '\\', '/'), '/+', '/')) <> '';
+
+-- 6. 檢查通過後刪除遷移表與 file_path，並以目錄索引取代原本的用戶索引
+DROP TABLE migration_directory_paths;
+
+ALTER TABLE user_file_metadata
+    DROP COLUMN file_path,
+    DROP KEY idx_user_file_metadata_user_id,
+    ADD KEY idx_user_file_metadata_directory (user_id, directory_id, filename);
@@ -0,0 +1,195 @@
+-- FileManagement 的 R2DBC 資料表結構(MySQL 語法)
+-- 部署到 MySQL 時需要手動執行；Spring Boot 只會在嵌入式資料庫(例如壓力測試使用的 H2 MySQL 模式)上自動執行本文件
+-- 欄位名稱與實體類的 @Column 對應，列舉以名稱字串保存
+
+CREATE TABLE IF NOT EXISTS users
+(
+    id       BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(64)  NOT NULL,
+    password VARCHAR(100) NOT NULL,
+    email    VARCHAR(255) NOT NULL,
+    role     VARCHAR(16)  NOT NULL,
+    UNIQUE KEY uk_users_username (username),
+    UNIQUE KEY uk_users_email (email)
+);
+
+CREATE TABLE IF NOT EXISTS tokens
+(
+    id                                  BIGINT      NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id                             BIGINT      NOT NULL,
+    jwt_token_version                   INT         NOT NULL DEFAULT 0,
+    jwt_token_expire_time               DATETIME(6) NULL,
+    reset_verification_code             VARCHAR(64) NULL,
+    reset_verification_code_expire_time DATETIME(6) NULL,
+    UNIQUE KEY uk_tokens_user_id (user_id),
+    KEY idx_tokens_jwt_token_expire_time (jwt_token_expire_time)
+);
+
+CREATE TABLE IF NOT EXISTS server_file_metadata
+(
+    id               BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    file_size        BIGINT       NOT NULL,
+    file_type        VARCHAR(16)  NULL,
+    upload_time      DATETIME(6)  NOT NULL,
+    last_access_time DATETIME(6)  NULL,
+    grid_fs_id       VARCHAR(255) NULL,
+    layout           VARCHAR(16)  NOT NULL DEFAULT 'SINGLE',
+    md5              CHAR(32)     NULL,
+    sha256           CHAR(64)     NULL,
+    content_type     VARCHAR(255) NULL,
+    KEY idx_server_file_metadata_sha256 (sha256)
+);
+
+CREATE TABLE IF NOT EXISTS server_file_parts
+(
+    id             BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    server_file_id BIGINT       NOT NULL,
+    part_index     INT          NOT NULL,
+    storage_key    VARCHAR(255) NOT NULL,
+    part_offset    BIGINT       NOT NULL,
+    part_size      BIGINT       NOT NULL,
+    UNIQUE KEY uk_server_file_parts_index (server_file_id, part_index)
+);
+
+-- 目錄列表以 (排序欄位, id) 鍵值分頁，每個排序欄位各有一個索引；InnoDB 的次要索引包含主鍵，同值時依 id 的順序也由索引提供
+CREATE TABLE IF NOT EXISTS user_file_metadata
+(
+    id               BIGINT        NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id          BIGINT        NOT NULL,
+    server_file_id   BIGINT        NOT NULL,
+    filename         VARCHAR(255)  NOT NULL,
+    directory_id     BIGINT        NOT NULL DEFAULT 0,
+    file_size        BIGINT        NOT NULL DEFAULT 0,
+    file_type        VARCHAR(16)   NOT NULL DEFAULT 'OTHER',
+    upload_time      DATETIME(6)   NOT NULL,
+    last_access_time DATETIME(6)   NULL,
+    KEY idx_user_file_metadata_directory (user_id, directory_id, filename),
+    KEY idx_user_file_metadata_directory_size (user_id, directory_id, file_size),
+    KEY idx_user_file_metadata_directory_time (user_id, directory_id, upload_time),
+    KEY idx_user_file_metadata_directory_type (user_id, directory_id, file_type),
+    KEY idx_user_file_metadata_server_file_id (server_file_id)
+);
+
+-- 用戶文件分享給其他用戶的記錄，同一個文件對同一個用戶只有一筆
+CREATE TABLE IF NOT EXISTS file_shares
+(
+    id           BIGINT      NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_file_id BIGINT      NOT NULL,
+    user_id      BIGINT      NOT NULL,
+    create_time  DATETIME(6) NOT NULL,
+    UNIQUE KEY uk_file_shares_user_file (user_file_id, user_id),
+    KEY idx_file_shares_user_id (user_id)
+);
+
+-- 目錄樹以鄰接表保存，parent_id 為 0 表示位於根目錄；移動或重新命名目錄只更新一行
+-- 從以 user_file_metadata.file_path 保存路徑的版本升級時，先執行 migration/directories_from_file_path.sql 建立目錄並回填 directory_id
+CREATE TABLE IF NOT EXISTS directories
+(
+    id          BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id     BIGINT       NOT NULL,
+    parent_id   BIGINT       NOT NULL DEFAULT 0,
+    name        VARCHAR(255) NOT NULL,
+    create_time DATETIME(6)  NOT NULL,
+    UNIQUE KEY uk_directories_parent_name (user_id, parent_id, name)
+);
+
+CREATE TABLE IF NOT EXISTS directory_stats
+(
+    id             BIGINT      NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id        BIGINT      NOT NULL,
+    directory_id   BIGINT      NOT NULL,
+    total_bytes    BIGINT      NOT NULL DEFAULT 0,
+    file_count     BIGINT      NOT NULL DEFAULT 0,
+    image_count    BIGINT      NOT NULL DEFAULT 0,
+    video_count    BIGINT      NOT NULL DEFAULT 0,
+    music_count    BIGINT      NOT NULL DEFAULT 0,
+    document_count BIGINT      NOT NULL DEFAULT 0,
+    zip_count      BIGINT      NOT NULL DEFAULT 0,
+    other_count    BIGINT      NOT NULL DEFAULT 0,
+    update_time    DATETIME(6) NOT NULL,
+    UNIQUE KEY uk_directory_stats_directory (user_id, directory_id)
+);
+
+CREATE TABLE IF NOT EXISTS user_storage
+(
+    id          BIGINT      NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id     BIGINT      NOT NULL,
+    quota_bytes BIGINT      NULL,
+    used_bytes  BIGINT      NOT NULL DEFAULT 0,
+    update_time DATETIME(6) NOT NULL,
+    UNIQUE KEY uk_user_storage_user (user_id)
+);
+
+CREATE TABLE IF NOT EXISTS data_chunks
+(
+    id          BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    hash        CHAR(64)     NOT NULL,
+    storage_key VARCHAR(255) NOT NULL,
+    chunk_size  INT          NOT NULL,
+    ref_count   BIGINT       NOT NULL DEFAULT 0,
+    create_time DATETIME(6)  NOT NULL,
+    UNIQUE KEY uk_data_chunks_hash (hash)
+);
+
+CREATE TABLE IF NOT EXISTS file_chunks
+(
+    id             BIGINT   NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    server_file_id BIGINT   NOT NULL,
+    chunk_index    INT      NOT NULL,
+    chunk_offset   BIGINT   NOT NULL,
+    chunk_size     INT      NOT NULL,
+    chunk_hash     CHAR(64) NOT NULL,
+    UNIQUE KEY uk_file_chunks_index (server_file_id, chunk_index),
+    KEY idx_file_chunks_chunk_hash (chunk_hash)
+);
+
+CREATE TABLE IF NOT EXISTS upload_sessions
+(
+    id           BIGINT        NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id      BIGINT        NOT NULL,
+    filename     VARCHAR(255)  NOT NULL,
+    file_path    VARCHAR(1024) NULL,
+    content_type VARCHAR(255)  NULL,
+    file_size    BIGINT        NOT NULL,
+    part_size    BIGINT        NOT NULL,
+    part_count   INT           NOT NULL,
+    status       VARCHAR(16)   NOT NULL,
+    create_time  DATETIME(6)   NOT NULL,
+    expire_time  DATETIME(6)   NOT NULL,
+    KEY idx_upload_sessions_status_expire_time (status, expire_time)
+);
+
+CREATE TABLE IF NOT EXISTS upload_parts
+(
+    id          BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    session_id  BIGINT       NOT NULL,
+    part_number INT          NOT NULL,
+    storage_key VARCHAR(255) NOT NULL,
+    part_size   BIGINT       NOT NULL,
+    md5         CHAR(32)     NULL,
+    upload_time DATETIME(6)  NOT NULL,
+    UNIQUE KEY uk_upload_parts_part_number (session_id, part_number)
+);
+
+CREATE TABLE IF NOT EXISTS email_outbox
+(
+    id                BIGINT        NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    recipient         VARCHAR(255)  NOT NULL,
+    subject           VARCHAR(255)  NOT NULL,
+    content           TEXT          NOT NULL,
+    status            VARCHAR(16)   NOT NULL,
+    attempts          INT           NOT NULL DEFAULT 0,
+    next_attempt_time DATETIME(6)   NOT NULL,
+    last_error        VARCHAR(1024) NULL,
+    create_time       DATETIME(6)   NOT NULL,
+    sent_time         DATETIME(6)   NULL,
+    KEY idx_email_outbox_status_next_attempt_time (status, next_attempt_time)
+);
+
+CREATE TABLE IF NOT EXISTS retired_storage_keys
+(
+    id          BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    storage_key VARCHAR(255) NOT NULL,
+    retire_time DATETIME(6)  NOT NULL,
+    KEY idx_retired_storage_keys_retire_time (retire_time)
+);
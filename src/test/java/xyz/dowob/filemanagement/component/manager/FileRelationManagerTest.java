@@ -0,0 +1,150 @@
+package xyz.dowob.filemanagement.component.manager;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import reactor.core.publisher.Mono;
+import xyz.dowob.filemanagement.customenum.FileEnum;
+import xyz.dowob.filemanagement.customenum.RoleEnum;
+import xyz.dowob.filemanagement.entity.FileShare;
+import xyz.dowob.filemanagement.entity.ServerFileMetadata;
+import xyz.dowob.filemanagement.entity.User;
+import xyz.dowob.filemanagement.entity.UserFileMetadata;
+import xyz.dowob.filemanagement.repostiory.FileShareRepository;
+import xyz.dowob.filemanagement.repostiory.ServerFileMetadataRepository;
+import xyz.dowob.filemanagement.repostiory.UserFileMetadataRepository;
+import xyz.dowob.filemanagement.support.IntegrationTestSupport;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 文件關聯資料批次載入的整合測試
+ * 以一頁 1000 筆(等於預設的單次 IN 查詢上限)的用戶文件載入擁有者、伺服器文件、分享對象與伺服器文件的擁有者，
+ * 確認每種實體各只有一次 IN 查詢，查詢次數與頁大小無關
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName FileRelationManagerTest
+ * @description
+ * @create 2026-10-19 11:40
+ * @Version 1.0
+ **/
+class FileRelationManagerTest extends IntegrationTestSupport {
+    /**
+     * 一頁的筆數
+     */
+    private static final int PAGE_SIZE = 1000;
+
+    /**
+     * 擁有文件的用戶數量，文件也分享給這些用戶
+     */
+    private static final int OWNER_COUNT = 5;
+
+    @Autowired
+    private FileRelationManager fileRelationManager;
+
+    @Autowired
+    private ServerFileMetadataRepository serverFileMetadataRepository;
+
+    @Autowired
+    private UserFileMetadataRepository userFileMetadataRepository;
+
+    @Autowired
+    private FileShareRepository fileShareRepository;
+
+    @Test
+    void pageOfThousandRowsUsesOneBatchPerEntity() {
+        List<User> owners = IntStream.range(0, OWNER_COUNT).mapToObj(i -> createUser(RoleEnum.USER)).toList();
+        List<UserFileMetadata> page = createPage(owners);
+        List<ServerFileMetadata> serverFiles = page.stream().map(UserFileMetadata::getServerFile).toList();
+
+        FileRelationManager.Context context = fileRelationManager.newContext();
+        context.loadUsers(page).block(TIMEOUT);
+        assertThat(context.getBatchCount()).isEqualTo(1);
+        context.loadServerFiles(page).block(TIMEOUT);
+        assertThat(context.getBatchCount()).isEqualTo(2);
+        context.loadSharedWithUsers(page).block(TIMEOUT);
+        assertThat(context.getBatchCount()).isEqualTo(3);
+        context.loadOwners(serverFiles).block(TIMEOUT);
+        assertThat(context.getBatchCount()).isEqualTo(4);
+
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            UserFileMetadata userFile = page.get(i);
+            User owner = owners.get(i % OWNER_COUNT);
+            assertThat(userFile.getUser().getId()).isEqualTo(owner.getId());
+            assertThat(userFile.getServerFile().getId()).isEqualTo(userFile.getServerFileId());
+            assertThat(serverFiles.get(i).getOwners()).extracting(User::getId).containsExactly(owner.getId());
+            if (i % 2 == 0) {
+                assertThat(userFile.getSharedWithUsers()).extracting(User::getId).containsExactly(owners.get((i + 1) % OWNER_COUNT).getId());
+            } else {
+                assertThat(userFile.getSharedWithUsers()).isEmpty();
+            }
+        }
+    }
+
+    @Test
+    void listingBatchCountDoesNotDependOnPageSize() {
+        List<User> owners = IntStream.range(0, OWNER_COUNT).mapToObj(i -> createUser(RoleEnum.USER)).toList();
+        List<UserFileMetadata> page = createPage(owners);
+
+        assertThat(listingBatchCount(page.subList(0, 10))).isEqualTo(3);
+        assertThat(listingBatchCount(page)).isEqualTo(3);
+    }
+
+    /**
+     * 以列出目錄的方式載入一頁：伺服器文件與分享對象同時載入，分享對象的用戶再批次載入一次
+     */
+    private int listingBatchCount(List<UserFileMetadata> page) {
+        FileRelationManager.Context context = fileRelationManager.newContext();
+        Mono.when(context.loadServerFiles(page), context.loadSharedWithUsers(page)).block(TIMEOUT);
+        return context.getBatchCount();
+    }
+
+    /**
+     * 建立一頁用戶文件，每個文件指向各自的伺服器文件並依序屬於不同的用戶，偶數筆分享給下一個用戶
+     * 返回的用戶文件已填入伺服器文件，只用於取得ID與比對結果
+     */
+    private List<UserFileMetadata> createPage(List<User> owners) {
+        LocalDateTime now = LocalDateTime.now();
+        List<ServerFileMetadata> serverFiles = serverFileMetadataRepository.saveAll(IntStream.range(0, PAGE_SIZE).mapToObj(i -> {
+            ServerFileMetadata serverFile = new ServerFileMetadata();
+            serverFile.setFileSize((long) i);
+            serverFile.setFileType(FileEnum.OTHER);
+            serverFile.setUploadTime(now);
+            return serverFile;
+        }).toList()).collectList().block(TIMEOUT);
+
+        List<UserFileMetadata> userFiles = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            UserFileMetadata userFile = new UserFileMetadata();
+            userFile.setUserId(owners.get(i % OWNER_COUNT).getId());
+            userFile.setServerFileId(serverFiles.get(i).getId());
+            userFile.setDirectoryId(0L);
+            userFile.setFilename("relation-" + i);
+            userFile.setFileSize((long) i);
+            userFile.setFileType(FileEnum.OTHER);
+            userFile.setUploadTime(now);
+            userFiles.add(userFile);
+        }
+        List<UserFileMetadata> saved = userFileMetadataRepository.saveAll(userFiles).collectList().block(TIMEOUT);
+
+        List<FileShare> shares = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i += 2) {
+            FileShare share = new FileShare();
+            share.setUserFileId(saved.get(i).getId());
+            share.setUserId(owners.get((i + 1) % OWNER_COUNT).getId());
+            share.setCreateTime(now);
+            shares.add(share);
+        }
+        fileShareRepository.saveAll(shares).blockLast(TIMEOUT);
+
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            saved.get(i).setServerFile(serverFiles.get(i));
+        }
+        return saved;
+    }
+}
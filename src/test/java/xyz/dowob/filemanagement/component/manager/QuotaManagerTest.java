@@ -0,0 +1,201 @@
+package xyz.dowob.filemanagement.component.manager;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import xyz.dowob.filemanagement.customenum.RoleEnum;
+import xyz.dowob.filemanagement.dto.file.StorageQuotaDTO;
+import xyz.dowob.filemanagement.entity.User;
+import xyz.dowob.filemanagement.entity.UserStorage;
+import xyz.dowob.filemanagement.exception.FileException;
+import xyz.dowob.filemanagement.repostiory.UserStorageRepository;
+import xyz.dowob.filemanagement.support.IntegrationTestSupport;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 儲存空間配額計數器的測試
+ * 在小配額下以多個線程同時預留與釋放，確認已使用與已預留的合計在任何時刻都不超過配額，以及預留、計入、釋放後已使用的空間正確
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName QuotaManagerTest
+ * @description
+ * @create 2026-10-19 10:00
+ * @Version 1.0
+ **/
+class QuotaManagerTest extends IntegrationTestSupport {
+    /**
+     * 測試用戶的配額
+     */
+    private static final long LIMIT = 1_000_000;
+
+    @Autowired
+    private QuotaManager quotaManager;
+
+    @Autowired
+    private UserStorageRepository userStorageRepository;
+
+    @Test
+    void concurrentReservesNeverExceedQuota() throws Exception {
+        User user = createUserWithQuota(LIMIT);
+        int threads = 16;
+        int reservationsPerThread = 8;
+        long size = 100_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < reservationsPerThread; i++) {
+                        if (tryReserve(user, "reserve-" + thread + "-" + i, size)) {
+                            succeeded.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(succeeded.get()).isEqualTo((int) (LIMIT / size));
+        StorageQuotaDTO quota = quota(user);
+        assertThat(quota.getUsedBytes() + quota.getReservedBytes()).isEqualTo(LIMIT);
+        assertThat(quota.getRemainingBytes()).isZero();
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < reservationsPerThread; i++) {
+                quotaManager.release("reserve-" + t + "-" + i);
+            }
+        }
+        assertThat(quota(user).getReservedBytes()).isZero();
+    }
+
+    @Test
+    void chargedStaysWithinQuotaWhileReservingAndReleasing() throws Exception {
+        User user = createUserWithQuota(LIMIT);
+        int threads = 8;
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong maxCharged = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        String key = "churn-" + thread + "-" + i;
+                        if (tryReserve(user, key, ThreadLocalRandom.current().nextLong(1, 300_000))) {
+                            quotaManager.release(key);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            Future<?> sampler = executor.submit(() -> {
+                while (running.get()) {
+                    StorageQuotaDTO quota = quota(user);
+                    maxCharged.accumulateAndGet(quota.getUsedBytes() + quota.getReservedBytes(), Math::max);
+                }
+                return null;
+            });
+            for (Future<?> worker : workers) {
+                worker.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+            }
+            running.set(false);
+            sampler.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+        } finally {
+            running.set(false);
+            executor.shutdownNow();
+        }
+
+        assertThat(maxCharged.get()).isLessThanOrEqualTo(LIMIT);
+        StorageQuotaDTO quota = quota(user);
+        assertThat(quota.getUsedBytes()).isZero();
+        assertThat(quota.getReservedBytes()).isZero();
+    }
+
+    @Test
+    void reserveChargeReleaseLeavesUsedCorrect() {
+        User user = createUserWithQuota(LIMIT);
+
+        quotaManager.reserve(user.getId(), "upload-1", 300_000).block(TIMEOUT);
+        quotaManager.reserve(user.getId(), "upload-1", 300_000).block(TIMEOUT);
+        assertThat(quota(user).getReservedBytes()).isEqualTo(300_000);
+
+        quotaManager.charge(user.getId(), 250_000).block(TIMEOUT);
+        quotaManager.release("upload-1");
+        quotaManager.release("upload-1");
+        StorageQuotaDTO quota = quota(user);
+        assertThat(quota.getUsedBytes()).isEqualTo(250_000);
+        assertThat(quota.getReservedBytes()).isZero();
+        assertThat(quota.getRemainingBytes()).isEqualTo(LIMIT - 250_000);
+
+        quotaManager.charge(user.getId(), -100_000).block(TIMEOUT);
+        assertThat(quota(user).getUsedBytes()).isEqualTo(150_000);
+        assertThat(quota(user).getRemainingBytes()).isEqualTo(LIMIT - 150_000);
+    }
+
+    @Test
+    void reservationOfUnknownSizeGrowsUntilQuota() throws Exception {
+        User user = createUserWithQuota(LIMIT);
+
+        quotaManager.reserve(user.getId(), "chunked", -1).block(TIMEOUT);
+        quotaManager.extend("chunked", 400_000);
+        quotaManager.extend("chunked", 400_000);
+        assertThatThrownBy(() -> quotaManager.extend("chunked", 400_000))
+                .isInstanceOfSatisfying(FileException.class,
+                                        e -> assertThat(e.getErrorCode()).isEqualTo(FileException.ErrorCode.QUOTA_EXCEEDED));
+        assertThat(quota(user).getReservedBytes()).isEqualTo(800_000);
+
+        quotaManager.release("chunked");
+        assertThat(quota(user).getReservedBytes()).isZero();
+    }
+
+    private boolean tryReserve(User user, String key, long bytes) {
+        try {
+            quotaManager.reserve(user.getId(), key, bytes).block(TIMEOUT);
+            return true;
+        } catch (RuntimeException e) {
+            assertThat(e.getCause()).isInstanceOfSatisfying(FileException.class,
+                                                            cause -> assertThat(cause.getErrorCode()).isEqualTo(FileException.ErrorCode.QUOTA_EXCEEDED));
+            return false;
+        }
+    }
+
+    private StorageQuotaDTO quota(User user) {
+        return quotaManager.getQuota(user.getId()).block(TIMEOUT);
+    }
+
+    private User createUserWithQuota(long quotaBytes) {
+        User user = createUser(RoleEnum.USER);
+        UserStorage storage = new UserStorage();
+        storage.setUserId(user.getId());
+        storage.setQuotaBytes(quotaBytes);
+        storage.setUsedBytes(0L);
+        storage.setUpdateTime(LocalDateTime.now());
+        userStorageRepository.save(storage).block(TIMEOUT);
+        return user;
+    }
+}
@@ -0,0 +1,138 @@
+package xyz.dowob.filemanagement.component.provider.providerImplement;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import xyz.dowob.filemanagement.exception.FileException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 打包卷儲存的測試
+ * 模擬壓縮搬移記錄後、刪除舊卷前程式中斷，舊卷留在磁碟上時，搬移後才刪除的內容在重新啟動後不會復原
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName PackedStorageProviderImplTest
+ * @description
+ * @create 2026-10-19 11:00
+ * @Version 1.0
+ **/
+class PackedStorageProviderImplTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * 卷的大小上限，每個卷放得下兩筆 1000 bytes 的內容
+     */
+    private static final long VOLUME_SIZE = 2100;
+
+    @TempDir
+    Path root;
+
+    @Test
+    void deleteAfterInterruptedCompactionStaysDeleted() throws IOException {
+        CompactedStore store = compactThenDelete();
+        Files.createFile(root.resolve("00000001.compacting"));
+
+        PackedStorageProviderImpl restarted = open();
+        try {
+            assertNotFound(restarted, store.deleted());
+            assertThat(read(restarted, store.kept())).isEqualTo(store.keptContent());
+            assertThat(root.resolve("00000001.vol")).doesNotExist();
+            assertThat(root.resolve("00000001.compacting")).doesNotExist();
+        } finally {
+            restarted.closeVolumes();
+        }
+    }
+
+    @Test
+    void newerDeletedRecordHidesOlderCopyWithoutMarker() throws IOException {
+        CompactedStore store = compactThenDelete();
+
+        PackedStorageProviderImpl restarted = open();
+        try {
+            assertNotFound(restarted, store.deleted());
+            assertThat(read(restarted, store.kept())).isEqualTo(store.keptContent());
+            restarted.compact().block(TIMEOUT);
+            assertThat(root.resolve("00000001.vol")).doesNotExist();
+            assertNotFound(restarted, store.deleted());
+        } finally {
+            restarted.closeVolumes();
+        }
+    }
+
+    /**
+     * 在第一個卷寫入兩筆內容並刪除其中一筆，第二筆寫入第二個卷後壓縮第一個卷，搬移後再刪除剩下的一筆
+     * 最後關閉並把壓縮前的第一個卷放回磁碟，相當於壓縮刪除舊卷之前程式中斷
+     */
+    private CompactedStore compactThenDelete() throws IOException {
+        PackedStorageProviderImpl provider = open();
+        String moved = provider.store(content(content(1)), "moved", null).block(TIMEOUT);
+        String dead = provider.store(content(content(2)), "dead", null).block(TIMEOUT);
+        byte[] keptContent = content(3);
+        String kept = provider.store(content(keptContent), "kept", null).block(TIMEOUT);
+        provider.delete(dead).block(TIMEOUT);
+        byte[] firstVolume = Files.readAllBytes(root.resolve("00000001.vol"));
+
+        provider.compact().block(TIMEOUT);
+        assertThat(root.resolve("00000001.vol")).doesNotExist();
+        provider.delete(moved).block(TIMEOUT);
+        provider.closeVolumes();
+
+        Files.write(root.resolve("00000001.vol"), firstVolume);
+        return new CompactedStore(moved, kept, keptContent);
+    }
+
+    private PackedStorageProviderImpl open() throws IOException {
+        PackedStorageProviderImpl provider = new PackedStorageProviderImpl(true, root.toString(), 262144, VOLUME_SIZE, 0.3, false);
+        provider.openVolumes();
+        return provider;
+    }
+
+    private static void assertNotFound(PackedStorageProviderImpl provider, String storageKey) {
+        StepVerifier
+                .create(provider.read(storageKey))
+                .expectErrorSatisfies(e -> {
+                    assertThat(e).isInstanceOf(FileException.class);
+                    assertThat(((FileException) e).getErrorCode()).isEqualTo(FileException.ErrorCode.FILE_NOT_FOUND);
+                })
+                .verify(TIMEOUT);
+    }
+
+    private static Flux<DataBuffer> content(byte[] content) {
+        return Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(content));
+    }
+
+    private static byte[] read(PackedStorageProviderImpl provider, String storageKey) {
+        DataBuffer dataBuffer = DataBufferUtils.join(provider.read(storageKey)).block(TIMEOUT);
+        byte[] bytes = new byte[dataBuffer.readableByteCount()];
+        dataBuffer.read(bytes);
+        DataBufferUtils.release(dataBuffer);
+        return bytes;
+    }
+
+    private static byte[] content(long seed) {
+        byte[] content = new byte[1000];
+        new Random(seed).nextBytes(content);
+        return content;
+    }
+
+    /**
+     * 壓縮後的內容
+     *
+     * @param deleted     搬移後刪除的內容
+     * @param kept        仍然有效的內容
+     * @param keptContent 仍然有效的內容的資料
+     */
+    private record CompactedStore(String deleted, String kept, byte[] keptContent) {}
+}
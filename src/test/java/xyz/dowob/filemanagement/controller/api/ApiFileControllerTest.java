@@ -0,0 +1,114 @@
+package xyz.dowob.filemanagement.controller.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.BodyInserters;
+import xyz.dowob.filemanagement.component.manager.QuotaManager;
+import xyz.dowob.filemanagement.customenum.RoleEnum;
+import xyz.dowob.filemanagement.customenum.TokenEnum;
+import xyz.dowob.filemanagement.entity.User;
+import xyz.dowob.filemanagement.entity.UserStorage;
+import xyz.dowob.filemanagement.exception.FileException;
+import xyz.dowob.filemanagement.repostiory.UserStorageRepository;
+import xyz.dowob.filemanagement.service.ServiceInterFace.TokenService;
+import xyz.dowob.filemanagement.support.IntegrationTestSupport;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 文件 API 的整合測試
+ * 以真實的 HTTP 請求上傳文件，確認沒有 Content-Length 的上傳(chunked 傳輸)也會計入配額，超過配額時返回 413
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName ApiFileControllerTest
+ * @description
+ * @create 2026-10-19 10:20
+ * @Version 1.0
+ **/
+class ApiFileControllerTest extends IntegrationTestSupport {
+    /**
+     * 測試用戶的配額
+     */
+    private static final long LIMIT = 256 * 1024;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private QuotaManager quotaManager;
+
+    @Autowired
+    private UserStorageRepository userStorageRepository;
+
+    @Test
+    void chunkedUploadWithinQuotaIsCounted() {
+        User user = createUserWithQuota(LIMIT);
+        byte[] content = randomContent(1, 100 * 1024);
+
+        upload(user, content).expectStatus().isOk().expectBody().jsonPath("$.data[0].fileSize").isEqualTo(content.length);
+
+        assertThat(quotaManager.getQuota(user.getId()).block(TIMEOUT).getUsedBytes()).isEqualTo(content.length);
+        assertThat(quotaManager.getQuota(user.getId()).block(TIMEOUT).getReservedBytes()).isZero();
+    }
+
+    @Test
+    void chunkedUploadOverQuotaIsRejectedWith413() {
+        User user = createUserWithQuota(LIMIT);
+        byte[] content = randomContent(2, 512 * 1024);
+
+        upload(user, content)
+                .expectStatus()
+                .isEqualTo(413)
+                .expectBody()
+                .jsonPath("$.status")
+                .isEqualTo(FileException.ErrorCode.QUOTA_EXCEEDED.getCode());
+
+        assertThat(quotaManager.getQuota(user.getId()).block(TIMEOUT).getUsedBytes()).isZero();
+        assertThat(quotaManager.getQuota(user.getId()).block(TIMEOUT).getReservedBytes()).isZero();
+    }
+
+    /**
+     * 以 multipart 上傳文件，文件部分是沒有固定長度的資料流，請求會以 chunked 傳輸送出，不帶 Content-Length
+     */
+    private WebTestClient.ResponseSpec upload(User user, byte[] content) {
+        MultipartBodyBuilder builder = new MultipartBodyBuilder();
+        builder.part("path", "/");
+        builder.asyncPart("file", toFlux(content, 16 * 1024), DataBuffer.class).filename("chunked-" + System.nanoTime() + ".bin");
+        return webTestClient
+                .post()
+                .uri("/api/file/upload")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.generateToken(user, TokenEnum.JWT_AUTHORIZATION_TOKEN).block(TIMEOUT))
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(BodyInserters.fromMultipartData(builder.build()))
+                .exchange();
+    }
+
+    private User createUserWithQuota(long quotaBytes) {
+        User user = createUser(RoleEnum.USER);
+        UserStorage storage = new UserStorage();
+        storage.setUserId(user.getId());
+        storage.setQuotaBytes(quotaBytes);
+        storage.setUsedBytes(0L);
+        storage.setUpdateTime(LocalDateTime.now());
+        userStorageRepository.save(storage).block(TIMEOUT);
+        return user;
+    }
+
+    private static byte[] randomContent(long seed, int size) {
+        byte[] content = new byte[size];
+        new Random(seed).nextBytes(content);
+        return content;
+    }
+}
@@ -0,0 +1,262 @@
+package xyz.dowob.filemanagement.service.ServiceImpl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import xyz.dowob.filemanagement.component.manager.QuotaManager;
+import xyz.dowob.filemanagement.customenum.RoleEnum;
+import xyz.dowob.filemanagement.dto.file.DeltaChunkDTO;
+import xyz.dowob.filemanagement.dto.file.DeltaPrepareResultDTO;
+import xyz.dowob.filemanagement.dto.file.DeltaSyncDTO;
+import xyz.dowob.filemanagement.dto.file.FileMetadataDTO;
+import xyz.dowob.filemanagement.dto.file.StorageQuotaDTO;
+import xyz.dowob.filemanagement.entity.User;
+import xyz.dowob.filemanagement.entity.UserStorage;
+import xyz.dowob.filemanagement.exception.FileException;
+import xyz.dowob.filemanagement.repostiory.UserStorageRepository;
+import xyz.dowob.filemanagement.service.ServiceInterFace.ChunkStoreService;
+import xyz.dowob.filemanagement.service.ServiceInterFace.DeltaSyncService;
+import xyz.dowob.filemanagement.service.ServiceInterFace.FileService;
+import xyz.dowob.filemanagement.support.IntegrationTestSupport;
+
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 增量同步的整合測試
+ * 以本機儲存取代 MongoDB 執行完整的預備、上傳區塊、提交流程，確認傳送的字節數、提交的耗時，以及會話、配額與區塊擁有權的檢查
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName DeltaSyncServiceImplTest
+ * @description
+ * @create 2026-10-19 09:10
+ * @Version 1.0
+ **/
+class DeltaSyncServiceImplTest extends IntegrationTestSupport {
+    /**
+     * 測試文件的大小
+     */
+    private static final int FILE_SIZE = 8 * 1024 * 1024;
+
+    /**
+     * 提交的耗時上限，提交不讀取區塊內容，遠低於重新上傳整個文件的時間
+     */
+    private static final Duration COMMIT_LIMIT = Duration.ofSeconds(5);
+
+    @Autowired
+    private DeltaSyncService deltaSyncService;
+
+    @Autowired
+    private FileService fileService;
+
+    @Autowired
+    private ChunkStoreService chunkStoreService;
+
+    @Autowired
+    private QuotaManager quotaManager;
+
+    @Autowired
+    private UserStorageRepository userStorageRepository;
+
+    @Test
+    void deltaSyncTransfersOnlyChangedChunks() {
+        User user = createUser(RoleEnum.USER);
+        byte[] original = randomContent(1, FILE_SIZE);
+        FileMetadataDTO file = upload(user, original);
+        long usedBefore = quota(user).getUsedBytes();
+
+        byte[] modified = insert(original, FILE_SIZE / 2, "inserted line\n".getBytes());
+        Map<String, byte[]> chunks = chunk(modified);
+        DeltaSyncDTO manifest = manifest(modified);
+
+        DeltaPrepareResultDTO prepared = deltaSyncService.prepare(user.getId(), file.getId(), manifest).block(TIMEOUT);
+        assertThat(prepared).isNotNull();
+        assertThat(prepared.getTotalBytes()).isEqualTo(modified.length);
+        assertThat(prepared.getMissingChunks()).isNotEmpty();
+        assertThat(quota(user).getReservedBytes()).isEqualTo(prepared.getMissingBytes());
+
+        AtomicLong wireBytes = new AtomicLong();
+        Flux
+                .fromIterable(prepared.getMissingChunks())
+                .concatMap(hash -> deltaSyncService.uploadChunk(user.getId(),
+                                                                file.getId(),
+                                                                hash,
+                                                                toFlux(chunks.get(hash), 8192).doOnNext(buffer -> wireBytes.addAndGet(buffer.readableByteCount()))))
+                .blockLast(TIMEOUT);
+        assertThat(wireBytes.get()).isEqualTo(prepared.getMissingBytes()).isLessThan(modified.length / 10);
+
+        long start = System.nanoTime();
+        FileMetadataDTO committed = deltaSyncService.commit(user.getId(), file.getId(), manifest).block(TIMEOUT);
+        Duration commitTime = Duration.ofNanos(System.nanoTime() - start);
+        assertThat(commitTime).isLessThan(COMMIT_LIMIT);
+        assertThat(committed).isNotNull();
+        assertThat(committed.getFileSize()).isEqualTo(modified.length);
+        assertThat(read(user, file.getId())).isEqualTo(modified);
+
+        StorageQuotaDTO quota = quota(user);
+        assertThat(quota.getReservedBytes()).isZero();
+        assertThat(quota.getUsedBytes()).isEqualTo(usedBefore + modified.length - original.length);
+    }
+
+    @Test
+    void uploadRequiresPreparedSession() {
+        User user = createUser(RoleEnum.USER);
+        FileMetadataDTO file = upload(user, randomContent(2, 512 * 1024));
+        byte[] chunk = randomContent(3, 1024);
+
+        StepVerifier
+                .create(deltaSyncService.uploadChunk(user.getId(), file.getId(), sha256(chunk), toFlux(chunk, 1024)))
+                .expectErrorSatisfies(e -> assertErrorCode(e, FileException.ErrorCode.DELTA_SESSION_NOT_FOUND))
+                .verify(TIMEOUT);
+        StepVerifier
+                .create(deltaSyncService.commit(user.getId(), file.getId(), manifest(chunk)))
+                .expectErrorSatisfies(e -> assertErrorCode(e, FileException.ErrorCode.DELTA_SESSION_NOT_FOUND))
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    void uploadAcceptsOnlyDeclaredChunksOfDeclaredSize() {
+        User user = createUser(RoleEnum.USER);
+        FileMetadataDTO file = upload(user, randomContent(4, 512 * 1024));
+        byte[] modified = randomContent(5, 20 * 1024);
+        DeltaPrepareResultDTO prepared = deltaSyncService.prepare(user.getId(), file.getId(), manifest(modified)).block(TIMEOUT);
+        assertThat(prepared).isNotNull();
+        String hash = prepared.getMissingChunks().getFirst();
+
+        byte[] undeclared = randomContent(6, 1024);
+        StepVerifier
+                .create(deltaSyncService.uploadChunk(user.getId(), file.getId(), sha256(undeclared), toFlux(undeclared, 1024)))
+                .expectErrorSatisfies(e -> assertErrorCode(e, FileException.ErrorCode.CHUNK_INVALID))
+                .verify(TIMEOUT);
+
+        byte[] oversized = Arrays.copyOf(modified, modified.length + 1);
+        StepVerifier
+                .create(deltaSyncService.uploadChunk(user.getId(), file.getId(), hash, toFlux(oversized, 4096)))
+                .expectErrorSatisfies(e -> assertErrorCode(e, FileException.ErrorCode.CHUNK_INVALID))
+                .verify(TIMEOUT);
+
+        StepVerifier.create(deltaSyncService.uploadChunk(user.getId(), file.getId(), hash, toFlux(modified, 4096))).verifyComplete();
+        StepVerifier.create(deltaSyncService.commit(user.getId(), file.getId(), manifest(modified))).expectNextCount(1).verifyComplete();
+        assertThat(read(user, file.getId())).isEqualTo(modified);
+    }
+
+    @Test
+    void chunksOwnedByOtherUsersAreNotRevealedOrReusable() {
+        User owner = createUser(RoleEnum.USER);
+        User other = createUser(RoleEnum.USER);
+        byte[] secret = randomContent(7, 2 * 1024 * 1024);
+        upload(owner, secret);
+        FileMetadataDTO otherFile = upload(other, randomContent(8, 512 * 1024));
+
+        DeltaSyncDTO manifest = manifest(secret);
+        DeltaPrepareResultDTO prepared = deltaSyncService.prepare(other.getId(), otherFile.getId(), manifest).block(TIMEOUT);
+        assertThat(prepared).isNotNull();
+        assertThat(prepared.getMissingBytes()).isEqualTo(prepared.getTotalBytes());
+        assertThat(prepared.getMissingChunks()).hasSize(prepared.getTotalChunks());
+
+        StepVerifier
+                .create(deltaSyncService.commit(other.getId(), otherFile.getId(), manifest))
+                .expectErrorSatisfies(e -> assertErrorCode(e, FileException.ErrorCode.CHUNKS_MISSING))
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    void prepareFailsWhenMissingChunksExceedQuota() {
+        User user = createUser(RoleEnum.USER);
+        UserStorage storage = new UserStorage();
+        storage.setUserId(user.getId());
+        storage.setQuotaBytes(600L * 1024);
+        storage.setUsedBytes(0L);
+        storage.setUpdateTime(LocalDateTime.now());
+        userStorageRepository.save(storage).block(TIMEOUT);
+        FileMetadataDTO file = upload(user, randomContent(9, 512 * 1024));
+        byte[] modified = randomContent(10, 200 * 1024);
+
+        StepVerifier
+                .create(deltaSyncService.prepare(user.getId(), file.getId(), manifest(modified)))
+                .expectErrorSatisfies(e -> assertErrorCode(e, FileException.ErrorCode.QUOTA_EXCEEDED))
+                .verify(TIMEOUT);
+        assertThat(quota(user).getReservedBytes()).isZero();
+    }
+
+    private FileMetadataDTO upload(User user, byte[] content) {
+        return fileService.upload(user.getId(), "delta-" + System.nanoTime() + ".bin", "/", "application/octet-stream", toFlux(content, 64 * 1024), -1).block(TIMEOUT);
+    }
+
+    private byte[] read(User user, Long fileId) {
+        return toBytes(fileService
+                               .getUserFile(user.getId(), fileId)
+                               .flatMap(userFile -> fileService.getServerFile(userFile.getServerFileId()))
+                               .flatMapMany(serverFile -> fileService.readContent(serverFile, 0, serverFile.getFileSize())));
+    }
+
+    private StorageQuotaDTO quota(User user) {
+        return quotaManager.getQuota(user.getId()).block(TIMEOUT);
+    }
+
+    private Map<String, byte[]> chunk(byte[] content) {
+        Map<String, byte[]> chunks = new LinkedHashMap<>();
+        int offset = 0;
+        for (int length : chunkStoreService.getChunker().chunkLengths(content)) {
+            byte[] chunk = Arrays.copyOfRange(content, offset, offset + length);
+            chunks.put(sha256(chunk), chunk);
+            offset += length;
+        }
+        return chunks;
+    }
+
+    private DeltaSyncDTO manifest(byte[] content) {
+        List<DeltaChunkDTO> chunks = new ArrayList<>();
+        int offset = 0;
+        for (int length : chunkStoreService.getChunker().chunkLengths(content)) {
+            DeltaChunkDTO chunk = new DeltaChunkDTO();
+            chunk.setHash(sha256(Arrays.copyOfRange(content, offset, offset + length)));
+            chunk.setSize(length);
+            chunks.add(chunk);
+            offset += length;
+        }
+        DeltaSyncDTO deltaSyncDTO = new DeltaSyncDTO();
+        deltaSyncDTO.setChunks(chunks);
+        return deltaSyncDTO;
+    }
+
+    private static void assertErrorCode(Throwable e, FileException.ErrorCode errorCode) {
+        assertThat(e).isInstanceOf(FileException.class);
+        assertThat(((FileException) e).getErrorCode()).isEqualTo(errorCode);
+    }
+
+    private static byte[] randomContent(long seed, int size) {
+        byte[] content = new byte[size];
+        new Random(seed).nextBytes(content);
+        return content;
+    }
+
+    private static byte[] insert(byte[] content, int offset, byte[] inserted) {
+        byte[] result = new byte[content.length + inserted.length];
+        System.arraycopy(content, 0, result, 0, offset);
+        System.arraycopy(inserted, 0, result, offset, inserted.length);
+        System.arraycopy(content, offset, result, offset + inserted.length, content.length - offset);
+        return result;
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
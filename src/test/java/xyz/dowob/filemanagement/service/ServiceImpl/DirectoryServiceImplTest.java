@@ -0,0 +1,118 @@
+package xyz.dowob.filemanagement.service.ServiceImpl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import xyz.dowob.filemanagement.customenum.RoleEnum;
+import xyz.dowob.filemanagement.dto.file.DirectoryInfoDTO;
+import xyz.dowob.filemanagement.entity.Directory;
+import xyz.dowob.filemanagement.entity.User;
+import xyz.dowob.filemanagement.exception.FileException;
+import xyz.dowob.filemanagement.repostiory.DirectoryRepository;
+import xyz.dowob.filemanagement.repostiory.UserRepository;
+import xyz.dowob.filemanagement.service.ServiceInterFace.DirectoryService;
+import xyz.dowob.filemanagement.support.IntegrationTestSupport;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 目錄服務的整合測試
+ * 確認移動目錄會等待同一用戶進行中的移動提交後才檢查，反向的移動不會組成循環，以及目錄樹已經損壞時向上查詢會以錯誤結束而不是無限進行
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName DirectoryServiceImplTest
+ * @description
+ * @create 2026-10-19 10:40
+ * @Version 1.0
+ **/
+class DirectoryServiceImplTest extends IntegrationTestSupport {
+    @Autowired
+    private DirectoryService directoryService;
+
+    @Autowired
+    private DirectoryRepository directoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @Test
+    void moveWaitsForConcurrentMoveAndRejectsCycle() {
+        User user = createUser(RoleEnum.USER);
+        Long first = directoryService.create(user.getId(), Directory.ROOT_ID, "first").block(TIMEOUT).getId();
+        Long second = directoryService.create(user.getId(), Directory.ROOT_ID, "second").block(TIMEOUT).getId();
+        Sinks.Empty<Void> moved = Sinks.empty();
+
+        Mono<Boolean> holdLockWhileMoving = userRepository
+                .lockById(user.getId())
+                .then(directoryRepository.findById(first))
+                .flatMap(directory -> {
+                    directory.setParentId(second);
+                    return directoryRepository.save(directory);
+                })
+                .doOnNext(directory -> moved.tryEmitEmpty())
+                .then(Mono.delay(Duration.ofMillis(300)))
+                .thenReturn(true);
+        Mono<Boolean> concurrentMove = transactionalOperator.transactional(holdLockWhileMoving);
+        Mono<Boolean> oppositeMove = moved
+                .asMono()
+                .then(Mono.defer(() -> directoryService.move(user.getId(), second, first)))
+                .thenReturn(true)
+                .onErrorResume(FileException.class, e -> {
+                    assertThat(e.getErrorCode()).isEqualTo(FileException.ErrorCode.DIRECTORY_MOVE_INVALID);
+                    return Mono.just(false);
+                });
+
+        List<Boolean> results = Flux
+                .merge(concurrentMove.subscribeOn(Schedulers.boundedElastic()), oppositeMove.subscribeOn(Schedulers.boundedElastic()))
+                .collectList()
+                .block(TIMEOUT);
+
+        assertThat(results).containsExactlyInAnyOrder(true, false);
+        assertAcyclic(user, first);
+        assertAcyclic(user, second);
+    }
+
+    @Test
+    void corruptedTreeFailsInsteadOfLooping() {
+        User user = createUser(RoleEnum.USER);
+        DirectoryInfoDTO first = directoryService.create(user.getId(), Directory.ROOT_ID, "loop-a").block(TIMEOUT);
+        DirectoryInfoDTO second = directoryService.create(user.getId(), first.getId(), "loop-b").block(TIMEOUT);
+        Directory corrupted = directoryRepository.findById(first.getId()).block(TIMEOUT);
+        corrupted.setParentId(second.getId());
+        directoryRepository.save(corrupted).block(TIMEOUT);
+
+        StepVerifier
+                .create(directoryService.getPath(user.getId(), second.getId()))
+                .expectErrorSatisfies(e -> {
+                    assertThat(e).isInstanceOf(FileException.class);
+                    assertThat(((FileException) e).getErrorCode()).isEqualTo(FileException.ErrorCode.DIRECTORY_TREE_INVALID);
+                })
+                .verify(TIMEOUT);
+    }
+
+    /**
+     * 由目錄沿父目錄向上走到根目錄，途中不會回到走過的目錄
+     */
+    private void assertAcyclic(User user, Long directoryId) {
+        Set<Long> visited = new HashSet<>();
+        Long current = directoryId;
+        while (current != Directory.ROOT_ID) {
+            assertThat(visited.add(current)).as("目錄 %s 的祖先出現循環", directoryId).isTrue();
+            current = directoryRepository.findByIdAndUserId(current, user.getId()).block(TIMEOUT).getParentId();
+        }
+    }
+}
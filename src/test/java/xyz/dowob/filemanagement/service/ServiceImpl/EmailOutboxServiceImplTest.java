@@ -0,0 +1,235 @@
+package xyz.dowob.filemanagement.service.ServiceImpl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import xyz.dowob.filemanagement.component.provider.providerImplement.EmailProviderImpl;
+import xyz.dowob.filemanagement.component.provider.providerInterface.EmailProvider;
+import xyz.dowob.filemanagement.customenum.EmailStatusEnum;
+import xyz.dowob.filemanagement.entity.EmailOutbox;
+import xyz.dowob.filemanagement.repostiory.EmailOutboxRepository;
+import xyz.dowob.filemanagement.support.IntegrationTestSupport;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 郵件發件匣的整合測試
+ * 郵件經由應用的 JavaMailSender 發送到同一個 JVM 中的 SMTP 測試伺服器 {@link xyz.dowob.filemanagement.support.FakeSmtpServer}，
+ * 確認取出郵件的租約只讓一個發送程序發送、租約到期的發送程序不會覆蓋重新取出後的結果、已發送的郵件不保留內容、
+ * 批次發送中個別失敗的郵件對應回正確的記錄，以及失敗後的退避與放棄重試
+ * 測試自行建立發送程序並直接呼叫 dispatch，應用本身的發送程序在測試配置中不會定時執行
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName EmailOutboxServiceImplTest
+ * @description
+ * @create 2026-10-19 09:40
+ * @Version 1.0
+ **/
+class EmailOutboxServiceImplTest extends IntegrationTestSupport {
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private EmailProvider emailProvider;
+
+    @Test
+    void eachEmailIsSentByOnlyOneDispatcher() {
+        List<EmailOutbox> emails = IntStream.range(0, 30).mapToObj(i -> enqueue(recipient("once-" + i))).toList();
+        List<EmailOutboxServiceImpl> dispatchers = IntStream.range(0, 3).mapToObj(i -> dispatcher(5, 8, 30, 3600)).toList();
+
+        Flux
+                .fromIterable(dispatchers)
+                .flatMap(dispatcher -> dispatcher.dispatch().repeat(9).subscribeOn(Schedulers.parallel()))
+                .blockLast(TIMEOUT);
+
+        for (EmailOutbox email : emails) {
+            assertThat(SMTP_SERVER.getMessagesTo(email.getRecipient())).hasSize(1);
+            EmailOutbox stored = reload(email);
+            assertThat(stored.getStatus()).isEqualTo(EmailStatusEnum.SENT);
+            assertThat(stored.getAttempts()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void claimedEmailIsSentAgainOnlyAfterLeaseExpires() {
+        EmailOutbox email = enqueue(recipient("lease"));
+        EmailOutboxServiceImpl dispatcher = dispatcher(50, 8, 30, 3600);
+
+        assertThat(emailOutboxRepository.claim(email.getId(), 0, LocalDateTime.now().plusMinutes(5)).block(TIMEOUT)).isEqualTo(1);
+        assertThat(emailOutboxRepository.claim(email.getId(), 0, LocalDateTime.now().plusMinutes(5)).block(TIMEOUT)).isZero();
+        dispatcher.dispatch().block(TIMEOUT);
+        assertThat(SMTP_SERVER.getMessagesTo(email.getRecipient())).isEmpty();
+        assertThat(reload(email).getStatus()).isEqualTo(EmailStatusEnum.SENDING);
+
+        makeDue(email);
+        dispatcher.dispatch().block(TIMEOUT);
+        assertThat(SMTP_SERVER.getMessagesTo(email.getRecipient())).hasSize(1);
+        EmailOutbox stored = reload(email);
+        assertThat(stored.getStatus()).isEqualTo(EmailStatusEnum.SENT);
+        assertThat(stored.getAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    void expiredLeaseCannotOverwriteResult() {
+        EmailOutbox email = enqueue(recipient("stale"));
+        EmailOutboxServiceImpl dispatcher = dispatcher(50, 8, 30, 3600);
+        // 第一個節點取出後停頓到租約到期，郵件由另一個節點重新取出並發送成功
+        assertThat(emailOutboxRepository.claim(email.getId(), 0, LocalDateTime.now().minusSeconds(1)).block(TIMEOUT)).isEqualTo(1);
+        dispatcher.dispatch().block(TIMEOUT);
+        EmailOutbox sent = reload(email);
+        assertThat(sent.getStatus()).isEqualTo(EmailStatusEnum.SENT);
+        assertThat(sent.getAttempts()).isEqualTo(2);
+        assertThat(sent.getContent()).isEmpty();
+
+        // 第一個節點恢復後回報的結果不會覆蓋
+        LocalDateTime now = LocalDateTime.now();
+        assertThat(emailOutboxRepository.markFailedAttempt(email.getId(), 1, EmailStatusEnum.PENDING.name(), now, "timeout").block(TIMEOUT)).isZero();
+        assertThat(emailOutboxRepository.markSent(email.getId(), 1, now).block(TIMEOUT)).isZero();
+        EmailOutbox stored = reload(email);
+        assertThat(stored.getStatus()).isEqualTo(EmailStatusEnum.SENT);
+        assertThat(stored.getSentTime()).isEqualTo(sent.getSentTime());
+        assertThat(stored.getLastError()).isNull();
+    }
+
+    @Test
+    void sendEmailsReportsOnlyRejectedMessages() {
+        EmailOutbox accepted = enqueue(recipient("accepted"));
+        EmailOutbox rejected = enqueue(recipient("rejected"));
+        EmailOutbox alsoAccepted = enqueue(recipient("also-accepted"));
+        SMTP_SERVER.reject(rejected.getRecipient());
+
+        Map<Long, String> failures = emailProvider.sendEmails(List.of(accepted, rejected, alsoAccepted)).block(TIMEOUT);
+
+        assertThat(failures).containsOnlyKeys(rejected.getId());
+        assertThat(SMTP_SERVER.getMessagesTo(accepted.getRecipient())).hasSize(1);
+        assertThat(SMTP_SERVER.getMessagesTo(alsoAccepted.getRecipient())).hasSize(1);
+        assertThat(SMTP_SERVER.getMessagesTo(rejected.getRecipient())).isEmpty();
+        emailOutboxRepository.deleteAll(List.of(accepted, rejected, alsoAccepted)).block(TIMEOUT);
+    }
+
+    @Test
+    void sendEmailsReportsEveryMessageWhenConnectionFails() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        JavaMailSenderImpl unreachable = new JavaMailSenderImpl();
+        unreachable.setHost("localhost");
+        unreachable.setPort(closedPort);
+        EmailProviderImpl provider = new EmailProviderImpl(unreachable, 1);
+        ReflectionTestUtils.setField(provider, "serverSenderEmail", "test@localhost");
+        EmailOutbox first = enqueue(recipient("unreachable-1"));
+        EmailOutbox second = enqueue(recipient("unreachable-2"));
+        try {
+            Map<Long, String> failures = provider.sendEmails(List.of(first, second)).block(TIMEOUT);
+            assertThat(failures).containsOnlyKeys(first.getId(), second.getId());
+        } finally {
+            provider.shutdown();
+            emailOutboxRepository.deleteAll(List.of(first, second)).block(TIMEOUT);
+        }
+    }
+
+    @Test
+    void partialFailureOnlyRetriesRejectedEmail() {
+        EmailOutbox accepted = enqueue(recipient("partial-accepted"));
+        EmailOutbox rejected = enqueue(recipient("partial-rejected"));
+        SMTP_SERVER.reject(rejected.getRecipient());
+        EmailOutboxServiceImpl dispatcher = dispatcher(50, 8, 60, 3600);
+
+        LocalDateTime before = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        dispatcher.dispatch().block(TIMEOUT);
+        LocalDateTime after = LocalDateTime.now();
+
+        assertThat(reload(accepted).getStatus()).isEqualTo(EmailStatusEnum.SENT);
+        EmailOutbox retried = reload(rejected);
+        assertThat(retried.getStatus()).isEqualTo(EmailStatusEnum.PENDING);
+        assertThat(retried.getAttempts()).isEqualTo(1);
+        assertThat(retried.getLastError()).isNotBlank();
+        assertBackoff(retried, before, after, Duration.ofSeconds(60));
+        emailOutboxRepository.delete(retried).block(TIMEOUT);
+    }
+
+    @Test
+    void backoffDoublesUntilMaxAttemptsThenFails() {
+        EmailOutbox email = enqueue(recipient("backoff"));
+        SMTP_SERVER.reject(email.getRecipient());
+        EmailOutboxServiceImpl dispatcher = dispatcher(50, 3, 10, 15);
+
+        LocalDateTime before = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        dispatcher.dispatch().block(TIMEOUT);
+        assertBackoff(reload(email), before, LocalDateTime.now(), Duration.ofSeconds(10));
+
+        makeDue(email);
+        before = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        dispatcher.dispatch().block(TIMEOUT);
+        EmailOutbox second = reload(email);
+        assertThat(second.getAttempts()).isEqualTo(2);
+        assertBackoff(second, before, LocalDateTime.now(), Duration.ofSeconds(15));
+
+        makeDue(email);
+        dispatcher.dispatch().block(TIMEOUT);
+        EmailOutbox failed = reload(email);
+        assertThat(failed.getStatus()).isEqualTo(EmailStatusEnum.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(3);
+
+        makeDue(email);
+        dispatcher.dispatch().block(TIMEOUT);
+        assertThat(reload(email).getAttempts()).isEqualTo(3);
+    }
+
+    /**
+     * 建立不定時執行的發送程序
+     */
+    private EmailOutboxServiceImpl dispatcher(int batchSize, int maxAttempts, long retryBaseSeconds, long retryMaxSeconds) {
+        return new EmailOutboxServiceImpl(emailOutboxRepository, emailProvider, batchSize, 3600000, 300, maxAttempts, retryBaseSeconds, retryMaxSeconds, 7);
+    }
+
+    /**
+     * 直接寫入發件匣，不喚醒應用本身的發送程序
+     */
+    private EmailOutbox enqueue(String recipient) {
+        LocalDateTime now = LocalDateTime.now();
+        EmailOutbox email = new EmailOutbox();
+        email.setRecipient(recipient);
+        email.setSubject("outbox test");
+        email.setContent("outbox test to " + recipient);
+        email.setStatus(EmailStatusEnum.PENDING);
+        email.setAttempts(0);
+        email.setNextAttemptTime(now);
+        email.setCreateTime(now);
+        return emailOutboxRepository.save(email).block(TIMEOUT);
+    }
+
+    private EmailOutbox reload(EmailOutbox email) {
+        return emailOutboxRepository.findById(email.getId()).block(TIMEOUT);
+    }
+
+    /**
+     * 將下次發送時間移到現在之前，模擬等待時間或租約已經過去
+     */
+    private void makeDue(EmailOutbox email) {
+        EmailOutbox stored = reload(email);
+        stored.setNextAttemptTime(LocalDateTime.now().minusSeconds(1));
+        emailOutboxRepository.save(stored).block(TIMEOUT);
+    }
+
+    private static void assertBackoff(EmailOutbox email, LocalDateTime before, LocalDateTime after, Duration delay) {
+        assertThat(email.getNextAttemptTime()).isAfterOrEqualTo(before.plus(delay)).isBeforeOrEqualTo(after.plus(delay.multipliedBy(6).dividedBy(5)));
+    }
+
+    private static String recipient(String name) {
+        return name + "-" + System.nanoTime() + "@outbox.test";
+    }
+}
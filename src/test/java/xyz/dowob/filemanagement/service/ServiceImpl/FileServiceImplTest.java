@@ -0,0 +1,197 @@
+package xyz.dowob.filemanagement.service.ServiceImpl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import reactor.test.StepVerifier;
+import xyz.dowob.filemanagement.customenum.FileEnum;
+import xyz.dowob.filemanagement.customenum.FileSortEnum;
+import xyz.dowob.filemanagement.customenum.RoleEnum;
+import xyz.dowob.filemanagement.dto.file.DirectoryInfoDTO;
+import xyz.dowob.filemanagement.dto.file.FileMetadataDTO;
+import xyz.dowob.filemanagement.dto.file.FilePageDTO;
+import xyz.dowob.filemanagement.entity.Directory;
+import xyz.dowob.filemanagement.entity.ServerFileMetadata;
+import xyz.dowob.filemanagement.entity.User;
+import xyz.dowob.filemanagement.entity.UserFileMetadata;
+import xyz.dowob.filemanagement.exception.FileException;
+import xyz.dowob.filemanagement.repostiory.ServerFileMetadataRepository;
+import xyz.dowob.filemanagement.repostiory.UserFileMetadataRepository;
+import xyz.dowob.filemanagement.service.ServiceInterFace.DirectoryService;
+import xyz.dowob.filemanagement.service.ServiceInterFace.FileService;
+import xyz.dowob.filemanagement.support.IntegrationTestSupport;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 文件服務列出目錄的整合測試
+ * 以大量同名、同大小的文件逐頁列出，確認鍵值分頁在排序欄位同值時以ID接續，跨頁不會遺漏或重複，以及不合法的游標返回 LIST_CURSOR_INVALID
+ * 另外確認伺服器文件的釋放與去重同時發生時，用戶文件不會指向已刪除的伺服器文件
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName FileServiceImplTest
+ * @description
+ * @create 2026-10-19 11:20
+ * @Version 1.0
+ **/
+class FileServiceImplTest extends IntegrationTestSupport {
+    /**
+     * 目錄中的文件數量，不是頁大小的倍數，最後一頁不滿
+     */
+    private static final int FILE_COUNT = 23;
+
+    /**
+     * 每頁筆數
+     */
+    private static final int PAGE_SIZE = 4;
+
+    @Autowired
+    private FileService fileService;
+
+    @Autowired
+    private DirectoryService directoryService;
+
+    @Autowired
+    private UserFileMetadataRepository userFileMetadataRepository;
+
+    @Autowired
+    private ServerFileMetadataRepository serverFileMetadataRepository;
+
+    @Test
+    void keysetPagesNeitherSkipNorRepeatTies() {
+        User user = createUser(RoleEnum.USER);
+        DirectoryInfoDTO directory = directoryService.create(user.getId(), Directory.ROOT_ID, "ties").block(TIMEOUT);
+        Long serverFileId = seedServerFile(user);
+        List<UserFileMetadata> rows = new ArrayList<>();
+        for (int i = 0; i < FILE_COUNT; i++) {
+            rows.add(userFile(user, serverFileId, directory.getId(), "name-" + i % 3, 1000L * (i % 4)));
+        }
+        List<UserFileMetadata> saved = userFileMetadataRepository.saveAll(rows).collectList().block(TIMEOUT);
+
+        for (FileSortEnum sort : List.of(FileSortEnum.NAME, FileSortEnum.SIZE)) {
+            for (boolean descending : List.of(false, true)) {
+                Comparator<UserFileMetadata> order = (sort == FileSortEnum.NAME ? Comparator.comparing(UserFileMetadata::getFilename) : Comparator
+                        .comparing(UserFileMetadata::getFileSize)).thenComparing(UserFileMetadata::getId);
+                List<Long> expected = saved.stream().sorted(descending ? order.reversed() : order).map(UserFileMetadata::getId).toList();
+
+                List<Long> listed = new ArrayList<>();
+                int pages = 0;
+                String cursor = null;
+                do {
+                    FilePageDTO page = fileService.listFiles(user.getId(), directory, sort, descending, cursor, PAGE_SIZE).block(TIMEOUT);
+                    assertThat(page.getFiles()).hasSizeLessThanOrEqualTo(PAGE_SIZE);
+                    page.getFiles().stream().map(FileMetadataDTO::getId).forEach(listed::add);
+                    cursor = page.getNextCursor();
+                    pages++;
+                } while (cursor != null);
+
+                assertThat(listed).as("%s %s", sort, descending ? "DESC" : "ASC").containsExactlyElementsOf(expected);
+                assertThat(pages).isEqualTo((FILE_COUNT + PAGE_SIZE - 1) / PAGE_SIZE);
+            }
+        }
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        User user = createUser(RoleEnum.USER);
+        DirectoryInfoDTO directory = directoryService.getDirectory(user.getId(), Directory.ROOT_ID).block(TIMEOUT);
+        List<String> cursors = List.of("not a cursor!",
+                                       encode("NAME\nASC\n5"),
+                                       encode("COLOR\nASC\n5\nred"),
+                                       encode("NAME\nUP\n5\nname"),
+                                       encode("NAME\nASC\nfive\nname"),
+                                       encode("SIZE\nDESC\n5\nlarge"),
+                                       encode("UPLOAD_TIME\nDESC\n5\nyesterday"),
+                                       encode("TYPE\nASC\n5\nSPREADSHEET"));
+
+        for (String cursor : cursors) {
+            StepVerifier
+                    .create(fileService.listFiles(user.getId(), directory, FileSortEnum.NAME, false, cursor, PAGE_SIZE))
+                    .expectErrorSatisfies(e -> {
+                        assertThat(e).as(cursor).isInstanceOf(FileException.class);
+                        assertThat(((FileException) e).getErrorCode()).isEqualTo(FileException.ErrorCode.LIST_CURSOR_INVALID);
+                    })
+                    .verify(TIMEOUT);
+        }
+    }
+
+    @Test
+    void releasedDuplicateIsNotLinked() {
+        User owner = createUser(RoleEnum.USER);
+        User other = createUser(RoleEnum.USER);
+        FileMetadataDTO uploaded = fileService
+                .upload(owner.getId(), "shared.bin", "/", "application/octet-stream", toFlux(randomContent(), 1024), -1)
+                .block(TIMEOUT);
+        UserFileMetadata ownerFile = userFileMetadataRepository.findById(uploaded.getId()).block(TIMEOUT);
+        // 去重查到伺服器文件之後、建立用戶文件之前，唯一的擁有者刪除了文件
+        ServerFileMetadata duplicate = serverFileMetadataRepository.findById(ownerFile.getServerFileId()).block(TIMEOUT);
+        fileService.delete(ownerFile).block(TIMEOUT);
+
+        StepVerifier.create(fileService.linkDuplicate(other.getId(), "copy.bin", "/", duplicate)).verifyComplete();
+        StepVerifier
+                .create(fileService.linkUserFile(other.getId(), "copy.bin", "/", duplicate))
+                .expectErrorSatisfies(e -> assertThat(((FileException) e).getErrorCode()).isEqualTo(FileException.ErrorCode.SERVER_FILE_RELEASED))
+                .verify(TIMEOUT);
+        assertThat(userFileMetadataRepository.findAllByServerFileIdIn(List.of(duplicate.getId())).collectList().block(TIMEOUT)).isEmpty();
+    }
+
+    @Test
+    void releaseKeepsServerFileLinkedInTheMeantime() {
+        User owner = createUser(RoleEnum.USER);
+        User other = createUser(RoleEnum.USER);
+        byte[] content = randomContent();
+        FileMetadataDTO uploaded = fileService
+                .upload(owner.getId(), "shared.bin", "/", "application/octet-stream", toFlux(content, 1024), -1)
+                .block(TIMEOUT);
+        UserFileMetadata ownerFile = userFileMetadataRepository.findById(uploaded.getId()).block(TIMEOUT);
+        ServerFileMetadata serverFile = serverFileMetadataRepository.findById(ownerFile.getServerFileId()).block(TIMEOUT);
+        // 擁有者的用戶文件已刪除、尚未釋放伺服器文件時，另一個用戶以去重指向同一個伺服器文件
+        userFileMetadataRepository.delete(ownerFile).block(TIMEOUT);
+        fileService.linkUserFile(other.getId(), "copy.bin", "/", serverFile).block(TIMEOUT);
+
+        fileService.releaseServerFileIfUnreferenced(serverFile.getId()).block(TIMEOUT);
+
+        assertThat(serverFileMetadataRepository.existsById(serverFile.getId()).block(TIMEOUT)).isTrue();
+        assertThat(toBytes(fileService.readContent(serverFile, 0, content.length))).isEqualTo(content);
+    }
+
+    /**
+     * 上傳一個文件取得伺服器文件，列出時沒有伺服器文件的用戶文件會被略過，測試的用戶文件都指向它
+     */
+    private Long seedServerFile(User user) {
+        FileMetadataDTO seed = fileService
+                .upload(user.getId(), "seed.bin", "/", "application/octet-stream", toFlux(new byte[]{1, 2, 3}, 3), -1)
+                .block(TIMEOUT);
+        return userFileMetadataRepository.findById(seed.getId()).block(TIMEOUT).getServerFileId();
+    }
+
+    private static UserFileMetadata userFile(User user, Long serverFileId, Long directoryId, String filename, long fileSize) {
+        UserFileMetadata userFile = new UserFileMetadata();
+        userFile.setUserId(user.getId());
+        userFile.setServerFileId(serverFileId);
+        userFile.setDirectoryId(directoryId);
+        userFile.setFilename(filename);
+        userFile.setFileSize(fileSize);
+        userFile.setFileType(FileEnum.OTHER);
+        userFile.setUploadTime(LocalDateTime.now());
+        return userFile;
+    }
+
+    private static byte[] randomContent() {
+        byte[] content = new byte[4096];
+        ThreadLocalRandom.current().nextBytes(content);
+        return content;
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,181 @@
+package xyz.dowob.filemanagement.service.ServiceImpl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import xyz.dowob.filemanagement.component.factory.StorageStrategyFactory;
+import xyz.dowob.filemanagement.component.manager.QuotaManager;
+import xyz.dowob.filemanagement.customenum.RoleEnum;
+import xyz.dowob.filemanagement.customenum.UploadStatusEnum;
+import xyz.dowob.filemanagement.dto.file.FileMetadataDTO;
+import xyz.dowob.filemanagement.dto.file.UploadSessionDTO;
+import xyz.dowob.filemanagement.dto.file.UploadSessionStatusDTO;
+import xyz.dowob.filemanagement.entity.UploadSession;
+import xyz.dowob.filemanagement.entity.User;
+import xyz.dowob.filemanagement.exception.FileException;
+import xyz.dowob.filemanagement.exception.ValidationException;
+import xyz.dowob.filemanagement.repostiory.ServerFileMetadataRepository;
+import xyz.dowob.filemanagement.repostiory.UploadPartRepository;
+import xyz.dowob.filemanagement.repostiory.UploadSessionRepository;
+import xyz.dowob.filemanagement.service.ServiceInterFace.UploadSessionService;
+import xyz.dowob.filemanagement.support.IntegrationTestSupport;
+import xyz.dowob.filemanagement.utils.StreamingDigest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 分段上傳會話的整合測試
+ * 確認不合法的目標路徑在建立會話時就被拒絕，合併時建立用戶文件失敗不會留下沒有擁有者的伺服器文件，會話結束後預留的空間都會釋放，
+ * 以及合併開始後重傳的分段不會替換或刪除合併已經讀取的分段內容
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName UploadSessionServiceImplTest
+ * @description
+ * @create 2026-10-19 14:10
+ * @Version 1.0
+ **/
+class UploadSessionServiceImplTest extends IntegrationTestSupport {
+    /**
+     * 測試文件的大小，小於最小分段大小，整個文件只有一個分段
+     */
+    private static final int FILE_SIZE = 4096;
+
+    @Autowired
+    private UploadSessionService uploadSessionService;
+
+    @Autowired
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Autowired
+    private ServerFileMetadataRepository serverFileMetadataRepository;
+
+    @Autowired
+    private UploadPartRepository uploadPartRepository;
+
+    @Autowired
+    private StorageStrategyFactory storageStrategyFactory;
+
+    @Autowired
+    private QuotaManager quotaManager;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @Test
+    void invalidPathIsRejectedWhenSessionIsCreated() {
+        User user = createUser(RoleEnum.USER);
+
+        StepVerifier
+                .create(uploadSessionService.createSession(user.getId(), sessionDTO("docs/../secret")))
+                .expectError(ValidationException.class)
+                .verify(TIMEOUT);
+
+        assertThat(reservedBytes(user)).isZero();
+    }
+
+    @Test
+    void commitReleasesReservation() {
+        User user = createUser(RoleEnum.USER);
+        byte[] content = randomContent();
+        UploadSessionStatusDTO session = uploadSessionService.createSession(user.getId(), sessionDTO("docs")).block(TIMEOUT);
+        assertThat(reservedBytes(user)).isEqualTo(FILE_SIZE);
+
+        uploadSessionService.uploadPart(user.getId(), session.getSessionId(), 1, toFlux(content, 1024)).block(TIMEOUT);
+        FileMetadataDTO file = uploadSessionService.commitSession(user.getId(), session.getSessionId()).block(TIMEOUT);
+
+        assertThat(file.getFileSize()).isEqualTo(FILE_SIZE);
+        assertThat(uploadSessionRepository.findById(session.getSessionId()).block(TIMEOUT).getStatus()).isEqualTo(UploadStatusEnum.COMMITTED);
+        assertThat(reservedBytes(user)).isZero();
+    }
+
+    @Test
+    void failedLinkDoesNotLeaveOrphanServerFile() {
+        User user = createUser(RoleEnum.USER);
+        byte[] content = randomContent();
+        UploadSessionStatusDTO session = uploadSessionService.createSession(user.getId(), sessionDTO("docs")).block(TIMEOUT);
+        uploadSessionService.uploadPart(user.getId(), session.getSessionId(), 1, toFlux(content, 1024)).block(TIMEOUT);
+        // 模擬建立會話後才失效的路徑，讓合併在建立用戶文件時失敗
+        UploadSession saved = uploadSessionRepository.findById(session.getSessionId()).block(TIMEOUT);
+        saved.setFilePath("docs/..");
+        uploadSessionRepository.save(saved).block(TIMEOUT);
+
+        StepVerifier
+                .create(uploadSessionService.commitSession(user.getId(), session.getSessionId()))
+                .expectError(ValidationException.class)
+                .verify(TIMEOUT);
+
+        StreamingDigest digest = new StreamingDigest();
+        toFlux(content, FILE_SIZE).doOnNext(digest::update).blockLast(TIMEOUT);
+        assertThat(serverFileMetadataRepository.findFirstBySha256AndMd5AndFileSize(digest.sha256Hex(), digest.md5Hex(), (long) FILE_SIZE).block(TIMEOUT))
+                .isNull();
+        assertThat(uploadSessionRepository.findById(session.getSessionId()).block(TIMEOUT).getStatus()).isEqualTo(UploadStatusEnum.UPLOADING);
+        assertThat(reservedBytes(user)).isEqualTo(FILE_SIZE);
+
+        uploadSessionService.abortSession(user.getId(), session.getSessionId()).block(TIMEOUT);
+        assertThat(reservedBytes(user)).isZero();
+    }
+
+    @Test
+    void retriedPartWaitsForCommitAndKeepsCommittedContent() {
+        User user = createUser(RoleEnum.USER);
+        byte[] content = randomContent();
+        UploadSessionStatusDTO session = uploadSessionService.createSession(user.getId(), sessionDTO("docs")).block(TIMEOUT);
+        uploadSessionService.uploadPart(user.getId(), session.getSessionId(), 1, toFlux(content, 1024)).block(TIMEOUT);
+        String storageKey = uploadPartRepository.findBySessionIdAndPartNumber(session.getSessionId(), 1).block(TIMEOUT).getStorageKey();
+        Sinks.Empty<Void> committing = Sinks.empty();
+
+        // 合併已經將會話改為 COMMITTING、交易尚未提交時，客戶端重傳同一個分段
+        Mono<Boolean> commitStarted = transactionalOperator.transactional(uploadSessionRepository
+                                                                                  .compareAndSetStatus(session.getSessionId(),
+                                                                                                       UploadStatusEnum.UPLOADING.name(),
+                                                                                                       UploadStatusEnum.COMMITTING.name())
+                                                                                  .doOnNext(updated -> committing.tryEmitEmpty())
+                                                                                  .then(Mono.delay(Duration.ofMillis(300)))
+                                                                                  .thenReturn(true));
+        Mono<Boolean> retriedPart = committing
+                .asMono()
+                .then(Mono.defer(() -> uploadSessionService.uploadPart(user.getId(), session.getSessionId(), 1, toFlux(randomContent(), 1024))))
+                .thenReturn(true)
+                .onErrorResume(FileException.class, e -> {
+                    assertThat(e.getErrorCode()).isEqualTo(FileException.ErrorCode.UPLOAD_SESSION_STATE_INVALID);
+                    return Mono.just(false);
+                });
+
+        List<Boolean> results = Flux
+                .merge(commitStarted.subscribeOn(Schedulers.boundedElastic()), retriedPart.subscribeOn(Schedulers.boundedElastic()))
+                .collectList()
+                .block(TIMEOUT);
+
+        assertThat(results).containsExactlyInAnyOrder(true, false);
+        assertThat(uploadPartRepository.findBySessionIdAndPartNumber(session.getSessionId(), 1).block(TIMEOUT).getStorageKey()).isEqualTo(storageKey);
+        assertThat(toBytes(storageStrategyFactory.getStorageProvider(storageKey).read(storageKey))).isEqualTo(content);
+    }
+
+    private static UploadSessionDTO sessionDTO(String path) {
+        UploadSessionDTO uploadSessionDTO = new UploadSessionDTO();
+        uploadSessionDTO.setFilename("report.bin");
+        uploadSessionDTO.setPath(path);
+        uploadSessionDTO.setFileSize((long) FILE_SIZE);
+        return uploadSessionDTO;
+    }
+
+    private long reservedBytes(User user) {
+        return quotaManager.getQuota(user.getId()).block(TIMEOUT).getReservedBytes();
+    }
+
+    private static byte[] randomContent() {
+        byte[] content = new byte[FILE_SIZE];
+        ThreadLocalRandom.current().nextBytes(content);
+        return content;
+    }
+}
@@ -0,0 +1,186 @@
+package xyz.dowob.filemanagement.support;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 測試用的 SMTP 伺服器
+ * 在同一個 JVM 中以背景線程接受連線，實作 JavaMail 發送郵件需要的最少指令，記錄收到的每封郵件
+ * 收件人在拒收名單中時以 550 回應 RCPT TO，JavaMail 會把該郵件視為發送失敗，同一個連線中的其他郵件不受影響
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName FakeSmtpServer
+ * @description
+ * @create 2026-10-19 09:30
+ * @Version 1.0
+ **/
+public final class FakeSmtpServer implements AutoCloseable {
+    /**
+     * 監聽的連線
+     */
+    private final ServerSocket serverSocket;
+
+    /**
+     * 收到的郵件
+     */
+    private final List<Message> messages = new CopyOnWriteArrayList<>();
+
+    /**
+     * 拒收的收件人(小寫)
+     */
+    private final Set<String> rejectedRecipients = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 在隨機的連接埠啟動伺服器
+     */
+    public FakeSmtpServer() {
+        try {
+            this.serverSocket = new ServerSocket(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Thread acceptor = new Thread(this::acceptLoop, "fake-smtp");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * 監聽的連接埠
+     *
+     * @return 連接埠
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * 收到的郵件
+     *
+     * @return 郵件
+     */
+    public List<Message> getMessages() {
+        return List.copyOf(messages);
+    }
+
+    /**
+     * 寄給指定收件人的郵件
+     *
+     * @param recipient 收件人
+     *
+     * @return 郵件
+     */
+    public List<Message> getMessagesTo(String recipient) {
+        return messages.stream().filter(message -> message.recipients().contains(recipient.toLowerCase(Locale.ROOT))).toList();
+    }
+
+    /**
+     * 拒收寄給指定收件人的郵件
+     *
+     * @param recipient 收件人
+     */
+    public void reject(String recipient) {
+        rejectedRecipients.add(recipient.toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                Thread handler = new Thread(() -> handle(socket), "fake-smtp-session");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             OutputStream writer = socket.getOutputStream()) {
+            reply(writer, "220 fake-smtp ESMTP");
+            List<String> recipients = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase(Locale.ROOT) : line.toUpperCase(Locale.ROOT);
+                switch (command) {
+                    case "EHLO" -> reply(writer, "250-fake-smtp\r\n250 8BITMIME");
+                    case "HELO", "NOOP" -> reply(writer, "250 OK");
+                    case "MAIL", "RSET" -> {
+                        recipients.clear();
+                        reply(writer, "250 OK");
+                    }
+                    case "RCPT" -> {
+                        String recipient = address(line);
+                        if (rejectedRecipients.contains(recipient)) {
+                            reply(writer, "550 5.1.1 mailbox unavailable: " + recipient);
+                        } else {
+                            recipients.add(recipient);
+                            reply(writer, "250 OK");
+                        }
+                    }
+                    case "DATA" -> {
+                        if (recipients.isEmpty()) {
+                            reply(writer, "503 5.5.1 no valid recipients");
+                            continue;
+                        }
+                        reply(writer, "354 end data with <CR><LF>.<CR><LF>");
+                        StringBuilder data = new StringBuilder();
+                        while ((line = reader.readLine()) != null && !line.equals(".")) {
+                            data.append(line.startsWith("..") ? line.substring(1) : line).append('\n');
+                        }
+                        messages.add(new Message(List.copyOf(recipients), data.toString()));
+                        recipients.clear();
+                        reply(writer, "250 OK queued");
+                    }
+                    case "QUIT" -> {
+                        reply(writer, "221 bye");
+                        return;
+                    }
+                    default -> reply(writer, "502 5.5.2 command not implemented");
+                }
+            }
+        } catch (IOException ignored) {
+            // 客戶端中斷連線
+        }
+    }
+
+    private static String address(String line) {
+        int start = line.indexOf('<');
+        int end = line.indexOf('>', start + 1);
+        String address = start >= 0 && end > start ? line.substring(start + 1, end) : line.substring(line.indexOf(':') + 1);
+        return address.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void reply(OutputStream writer, String response) throws IOException {
+        writer.write((response + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        writer.flush();
+    }
+
+    /**
+     * 收到的郵件
+     *
+     * @param recipients 收件人(小寫)
+     * @param data       郵件標頭與內容
+     */
+    public record Message(List<String> recipients, String data) {}
+}
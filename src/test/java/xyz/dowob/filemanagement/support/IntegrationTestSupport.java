@@ -0,0 +1,132 @@
+package xyz.dowob.filemanagement.support;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import reactor.core.publisher.Flux;
+import xyz.dowob.filemanagement.customenum.RoleEnum;
+import xyz.dowob.filemanagement.entity.User;
+import xyz.dowob.filemanagement.repostiory.UserRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 整合測試的基底類別
+ * 所有整合測試共用同一個應用上下文，以 H2(MySQL 模式)與暫存目錄的本機儲存啟動完整的應用，配置見 application-test.properties
+ * 上下文與數據庫在測試類別之間共用，測試資料以 {@link #createUser(RoleEnum)} 建立的新用戶隔離，不依賴數據庫的初始狀態
+ *
+ * @author yuan
+ * @program FileManagement
+ * @ClassName IntegrationTestSupport
+ * @description
+ * @create 2026-10-19 09:00
+ * @Version 1.0
+ **/
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public abstract class IntegrationTestSupport {
+    /**
+     * 等待單一操作完成的時間上限
+     */
+    protected static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * 本機儲存與打包卷的暫存目錄，同一個 JVM 中只建立一次
+     */
+    private static final Path DATA_DIR = createDataDir();
+
+    /**
+     * 應用發送郵件使用的 SMTP 測試伺服器，同一個 JVM 中只啟動一次
+     */
+    protected static final FakeSmtpServer SMTP_SERVER = new FakeSmtpServer();
+
+    /**
+     * 產生不重複用戶名稱的序號
+     */
+    private static final AtomicLong USER_SEQUENCE = new AtomicLong();
+
+    /**
+     * 用戶數據庫操作對象
+     */
+    @Autowired
+    protected UserRepository userRepository;
+
+    /**
+     * 指定本機儲存的目錄與 SMTP 測試伺服器的連接埠
+     *
+     * @param registry 動態配置
+     */
+    @DynamicPropertySource
+    static void testProperties(DynamicPropertyRegistry registry) {
+        registry.add("file.storage.local.path", () -> DATA_DIR.resolve("storage").toString());
+        registry.add("file.storage.pack.path", () -> DATA_DIR.resolve("volumes").toString());
+        registry.add("spring.mail.port", SMTP_SERVER::getPort);
+    }
+
+    /**
+     * 建立新的用戶
+     *
+     * @param role 角色
+     *
+     * @return 已保存的用戶
+     */
+    protected User createUser(RoleEnum role) {
+        String name = "test-" + System.nanoTime() + "-" + USER_SEQUENCE.incrementAndGet();
+        User user = new User();
+        user.setUsername(name);
+        user.setPassword("{noop}password");
+        user.setEmail(name + "@localhost");
+        user.setRole(role);
+        return userRepository.save(user).block(TIMEOUT);
+    }
+
+    /**
+     * 將字節陣列切成固定大小的資料流，模擬網路傳入的請求內容
+     *
+     * @param content   內容
+     * @param frameSize 每個 DataBuffer 的大小
+     *
+     * @return 資料流
+     */
+    protected static Flux<DataBuffer> toFlux(byte[] content, int frameSize) {
+        return Flux.range(0, (content.length + frameSize - 1) / frameSize).map(i -> {
+            int offset = i * frameSize;
+            return DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(content, offset, Math.min(frameSize, content.length - offset)).slice());
+        });
+    }
+
+    /**
+     * 將資料流讀成字節陣列
+     *
+     * @param content 資料流
+     *
+     * @return 內容
+     */
+    protected static byte[] toBytes(Flux<DataBuffer> content) {
+        return DataBufferUtils.join(content).map(dataBuffer -> {
+            byte[] bytes = new byte[dataBuffer.readableByteCount()];
+            dataBuffer.read(bytes);
+            DataBufferUtils.release(dataBuffer);
+            return bytes;
+        }).defaultIfEmpty(new byte[0]).block(TIMEOUT);
+    }
+
+    private static Path createDataDir() {
+        try {
+            return Files.createTempDirectory("file-management-test");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}